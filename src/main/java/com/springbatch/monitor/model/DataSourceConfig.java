@@ -13,6 +13,8 @@ public class DataSourceConfig {
     private DatabaseType databaseType;
     private boolean active;
     private String description;
+    private boolean readOnly;
+    private boolean summaryTableEnabled;
 
     public DataSourceConfig() {
     }
@@ -104,6 +106,28 @@ public class DataSourceConfig {
         this.description = description;
     }
 
+    /**
+     * 只读数据源（如离线快照），连接池以只读方式打开
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * 是否在该数据库中维护按天汇总表，统计和趋势视图改为读取汇总表
+     */
+    public boolean isSummaryTableEnabled() {
+        return summaryTableEnabled;
+    }
+
+    public void setSummaryTableEnabled(boolean summaryTableEnabled) {
+        this.summaryTableEnabled = summaryTableEnabled;
+    }
+
     @Override
     public String toString() {
         return name + " (" + databaseType + ")";
@@ -0,0 +1,213 @@
+package com.springbatch.monitor.models;
+
+/**
+ * 块大小建议模型 - 按步骤名称汇总的提交、回滚与耗时指标及诊断结论
+ */
+public class ChunkAdvice {
+    private String stepName;
+    private long executionCount;
+    private long readCount;
+    private long writeCount;
+    private long commitCount;
+    private long rollbackCount;
+    private double totalDurationMillis;
+    // 按 耗时 ≈ 提交次数 × 单次提交开销 + 记录数 × 单条处理耗时 拟合；无法拟合时为 NaN
+    private double commitOverheadMillis = Double.NaN;
+    private double itemMillis = Double.NaN;
+    private Diagnosis diagnosis = Diagnosis.OK;
+    private long suggestedChunkSize;
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public void setStepName(String stepName) {
+        this.stepName = stepName;
+    }
+
+    public long getExecutionCount() {
+        return executionCount;
+    }
+
+    public void setExecutionCount(long executionCount) {
+        this.executionCount = executionCount;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public void setReadCount(long readCount) {
+        this.readCount = readCount;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public void setWriteCount(long writeCount) {
+        this.writeCount = writeCount;
+    }
+
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    public void setCommitCount(long commitCount) {
+        this.commitCount = commitCount;
+    }
+
+    public long getRollbackCount() {
+        return rollbackCount;
+    }
+
+    public void setRollbackCount(long rollbackCount) {
+        this.rollbackCount = rollbackCount;
+    }
+
+    public double getTotalDurationMillis() {
+        return totalDurationMillis;
+    }
+
+    public void setTotalDurationMillis(double totalDurationMillis) {
+        this.totalDurationMillis = totalDurationMillis;
+    }
+
+    public double getCommitOverheadMillis() {
+        return commitOverheadMillis;
+    }
+
+    public void setCommitOverheadMillis(double commitOverheadMillis) {
+        this.commitOverheadMillis = commitOverheadMillis;
+    }
+
+    public double getItemMillis() {
+        return itemMillis;
+    }
+
+    public void setItemMillis(double itemMillis) {
+        this.itemMillis = itemMillis;
+    }
+
+    public boolean isCostModelFitted() {
+        return !Double.isNaN(commitOverheadMillis) && !Double.isNaN(itemMillis);
+    }
+
+    public Diagnosis getDiagnosis() {
+        return diagnosis;
+    }
+
+    public void setDiagnosis(Diagnosis diagnosis) {
+        this.diagnosis = diagnosis;
+    }
+
+    /**
+     * 建议的 commit-interval，0 表示无建议
+     */
+    public long getSuggestedChunkSize() {
+        return suggestedChunkSize;
+    }
+
+    public void setSuggestedChunkSize(long suggestedChunkSize) {
+        this.suggestedChunkSize = suggestedChunkSize;
+    }
+
+    /**
+     * 平均块大小（每次提交读取的记录数）
+     */
+    public double getAverageChunkSize() {
+        return commitCount > 0 ? (double) readCount / commitCount : 0;
+    }
+
+    /**
+     * 平均每次提交的间隔耗时
+     */
+    public double getMillisPerCommit() {
+        return commitCount > 0 ? totalDurationMillis / commitCount : 0;
+    }
+
+    /**
+     * 单条记录耗时：优先使用拟合值，否则按总耗时平摊（包含提交开销，偏大）
+     */
+    public double getEffectiveItemMillis() {
+        if (isCostModelFitted()) {
+            return itemMillis;
+        }
+        return readCount > 0 ? totalDurationMillis / readCount : 0;
+    }
+
+    /**
+     * 提交开销在总耗时中的占比，未能拟合时为 NaN
+     */
+    public double getCommitOverheadShare() {
+        if (!isCostModelFitted() || totalDurationMillis <= 0) {
+            return Double.NaN;
+        }
+        return Math.min(1, commitOverheadMillis * commitCount / totalDurationMillis);
+    }
+
+    public double getRollbackRate() {
+        long total = commitCount + rollbackCount;
+        return total > 0 ? (double) rollbackCount / total : 0;
+    }
+
+    /**
+     * 因回滚重复处理所耗费的时间：每次回滚重做一整个块
+     */
+    public double getRollbackWasteMillis() {
+        return Math.min(totalDurationMillis, rollbackCount * getAverageChunkSize() * getEffectiveItemMillis());
+    }
+
+    public double getRollbackWasteShare() {
+        return totalDurationMillis > 0 ? getRollbackWasteMillis() / totalDurationMillis : 0;
+    }
+
+    /**
+     * 回滚放大系数：实际耗时 / 无回滚时的耗时
+     */
+    public double getRollbackAmplification() {
+        double useful = totalDurationMillis - getRollbackWasteMillis();
+        return useful > 0 ? totalDurationMillis / useful : 1;
+    }
+
+    /**
+     * 每条成功写入记录的实际耗时（含回滚放大）
+     */
+    public double getMillisPerWrittenItem() {
+        return writeCount > 0 ? totalDurationMillis / writeCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkAdvice{" +
+                "stepName='" + stepName + '\'' +
+                ", averageChunkSize=" + getAverageChunkSize() +
+                ", diagnosis=" + diagnosis +
+                ", suggestedChunkSize=" + suggestedChunkSize +
+                '}';
+    }
+
+    /**
+     * 诊断结论
+     */
+    public enum Diagnosis {
+        TINY_CHUNKS("块过小，提交开销占主导"),
+        LARGE_CHUNKS_WITH_ROLLBACKS("块过大且频繁回滚"),
+        OK("正常");
+
+        private final String displayName;
+
+        Diagnosis(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+}
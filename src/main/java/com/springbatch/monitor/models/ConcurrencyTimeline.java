@@ -0,0 +1,140 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.IntervalIndex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 并发时间线模型 - 按固定宽度时间桶汇总的并发执行数，以及峰值时段和区间索引
+ */
+public class ConcurrencyTimeline {
+    private final long startTime;
+    private final long bucketMillis;
+    private final int[] maxConcurrency;
+    private final double[] averageConcurrency;
+    private final int peakConcurrency;
+    private final List<PeakWindow> peakWindows;
+    private final long intervalCount;
+    // 内存不足时释放，之后的查询回查数据库
+    private volatile IntervalIndex index;
+    private final List<String> names;
+    private final long indexedUntil;
+
+    public ConcurrencyTimeline(long startTime, long bucketMillis, int[] maxConcurrency, double[] averageConcurrency,
+                               int peakConcurrency, List<PeakWindow> peakWindows, long intervalCount,
+                               IntervalIndex index, List<String> names, long indexedUntil) {
+        this.startTime = startTime;
+        this.bucketMillis = bucketMillis;
+        this.maxConcurrency = maxConcurrency;
+        this.averageConcurrency = averageConcurrency;
+        this.peakConcurrency = peakConcurrency;
+        this.peakWindows = Collections.unmodifiableList(peakWindows);
+        this.intervalCount = intervalCount;
+        this.index = index;
+        this.names = Collections.unmodifiableList(names);
+        this.indexedUntil = indexedUntil;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getBucketCount() {
+        return maxConcurrency.length;
+    }
+
+    public long getBucketStart(int bucket) {
+        return startTime + bucket * bucketMillis;
+    }
+
+    /**
+     * 时间桶内任一时刻的最大并发数
+     */
+    public int[] getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 时间桶内按时长加权的平均并发数
+     */
+    public double[] getAverageConcurrency() {
+        return averageConcurrency;
+    }
+
+    public int getPeakConcurrency() {
+        return peakConcurrency;
+    }
+
+    public List<PeakWindow> getPeakWindows() {
+        return peakWindows;
+    }
+
+    public long getIntervalCount() {
+        return intervalCount;
+    }
+
+    /**
+     * @return 索引已释放时为null
+     */
+    public IntervalIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * 释放区间索引，图表数据保留，此后所有时刻的查询都回查数据库
+     */
+    public void releaseIndex() {
+        index = null;
+    }
+
+    /**
+     * 估算占用的堆内存字节数，主要是区间索引
+     */
+    public long estimateBytes() {
+        IntervalIndex current = index;
+        long bytes = 256 + maxConcurrency.length * (4L + 8) + names.size() * 64L;
+        return current != null ? bytes + current.estimateBytes() : bytes;
+    }
+
+    public String getName(int nameCode) {
+        return names.get(nameCode);
+    }
+
+    /**
+     * 区间索引覆盖的最晚时刻：不晚于此时刻的查询可直接使用索引，
+     * 之后的时刻因超出内存上限未建索引，需要回查数据库
+     */
+    public long getIndexedUntil() {
+        return indexedUntil;
+    }
+
+    public boolean isIndexed(long time) {
+        return index != null && time <= indexedUntil;
+    }
+
+    /**
+     * 达到峰值并发的时段 [start, end)
+     */
+    public static class PeakWindow {
+        private final long start;
+        private final long end;
+
+        public PeakWindow(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.springbatch.monitor.models;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 作业按天汇总 - 连续若干天内每个作业每天的执行数、失败数、总耗时和读写量
+ *
+ * 执行按作业执行的开始时间归入某天；数值以 [指标][作业][天] 的基本类型数组保存。
+ * 总耗时只包含已结束的执行，求平均耗时应除以 {@link Metric#FINISHED}。
+ */
+public class DailySummary {
+
+    /**
+     * 汇总指标
+     */
+    public enum Metric {
+        EXECUTIONS("执行次数"),
+        FAILURES("失败次数"),
+        DURATION("总耗时"),
+        READ_COUNT("读取数"),
+        WRITE_COUNT("写入数"),
+        FINISHED("已结束次数");
+
+        private final String displayName;
+
+        Metric(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private final LocalDate firstDay;
+    private final int dayCount;
+    private final List<String> jobNames;
+    private final double[][][] values;
+
+    /**
+     * @param values [指标][作业][天]，作业顺序与 jobNames 一致
+     */
+    public DailySummary(LocalDate firstDay, int dayCount, List<String> jobNames, double[][][] values) {
+        this.firstDay = firstDay;
+        this.dayCount = dayCount;
+        this.jobNames = Collections.unmodifiableList(jobNames);
+        this.values = values;
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public LocalDate getDay(int day) {
+        return firstDay.plusDays(day);
+    }
+
+    public List<String> getJobNames() {
+        return jobNames;
+    }
+
+    public double getValue(Metric metric, int job, int day) {
+        return values[metric.ordinal()][job][day];
+    }
+
+    /**
+     * 某个作业某项指标的逐日序列（直接返回内部数组，调用方不应修改）
+     */
+    public double[] getSeries(Metric metric, int job) {
+        return values[metric.ordinal()][job];
+    }
+
+    /**
+     * 所有作业、所有天中某项指标的最大值
+     */
+    public double getMax(Metric metric) {
+        double max = 0;
+        for (double[] series : values[metric.ordinal()]) {
+            for (double value : series) {
+                max = Math.max(max, value);
+            }
+        }
+        return max;
+    }
+}
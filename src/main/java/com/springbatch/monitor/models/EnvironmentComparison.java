@@ -0,0 +1,75 @@
+package com.springbatch.monitor.models;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 环境对比模型 - 多个数据源中同名作业/步骤的性能摘要，按名称对齐
+ */
+public class EnvironmentComparison {
+    private final List<String> dataSourceNames;
+    private final List<Row> rows;
+    private final Map<String, String> errors;
+
+    public EnvironmentComparison(List<String> dataSourceNames, List<Row> rows, Map<String, String> errors) {
+        this.dataSourceNames = Collections.unmodifiableList(dataSourceNames);
+        this.rows = Collections.unmodifiableList(rows);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * 参与对比的数据源名称，顺序与 {@link Row#getSummary(int)} 的下标一致
+     */
+    public List<String> getDataSourceNames() {
+        return dataSourceNames;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * 查询失败的数据源名称及错误信息
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * 一个作业或步骤在各数据源中的摘要
+     */
+    public static class Row {
+        private final String jobName;
+        private final String stepName;
+        private final PerformanceSummary[] summaries;
+
+        public Row(String jobName, String stepName, int dataSourceCount) {
+            this.jobName = jobName;
+            this.stepName = stepName;
+            this.summaries = new PerformanceSummary[dataSourceCount];
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        /**
+         * 作业级的行为null
+         */
+        public String getStepName() {
+            return stepName;
+        }
+
+        /**
+         * 指定数据源中的摘要，该数据源没有此作业/步骤时为null
+         */
+        public PerformanceSummary getSummary(int dataSourceIndex) {
+            return summaries[dataSourceIndex];
+        }
+
+        public void setSummary(int dataSourceIndex, PerformanceSummary summary) {
+            summaries[dataSourceIndex] = summary;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.StringDictionary;
+import com.springbatch.monitor.utils.TextArena;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * 执行记录的列式容器 - 作业执行和步骤执行共有的列
+ *
+ * 主键和时间保存为基本类型数组（时间为毫秒，空值为 {@link #NO_TIME}），名称、状态和退出码保存为字典编码，
+ * 退出消息保存在堆外文本区中。表格和分析直接按行号读取各列，只在需要完整记录时才创建行对象。
+ */
+public abstract class ExecutionColumns {
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    // 字典预置的批处理状态，编码固定，渲染和统计时直接按整数比较
+    public static final int STATUS_COMPLETED = 0;
+    public static final int STATUS_FAILED = 1;
+    public static final int STATUS_STARTED = 2;
+    public static final int STATUS_STARTING = 3;
+    public static final int STATUS_STOPPING = 4;
+    public static final int STATUS_STOPPED = 5;
+    public static final int STATUS_ABANDONED = 6;
+    public static final int STATUS_UNKNOWN = 7;
+    private static final String[] STATUSES = {
+            "COMPLETED", "FAILED", "STARTED", "STARTING", "STOPPING", "STOPPED", "ABANDONED", "UNKNOWN"
+    };
+
+    protected final StringDictionary dictionary;
+    protected final TextArena textArena;
+    protected int size;
+    private long[] ids;
+    private long[] startTimes;
+    private long[] endTimes;
+    private int[] nameCodes;
+    private int[] statusCodes;
+    private int[] exitCodeCodes;
+    private long[] exitMessageHandles;
+
+    protected ExecutionColumns(StringDictionary dictionary, TextArena textArena, int initialCapacity) {
+        this.dictionary = dictionary;
+        this.textArena = textArena;
+        int capacity = Math.max(16, initialCapacity);
+        ids = new long[capacity];
+        startTimes = new long[capacity];
+        endTimes = new long[capacity];
+        nameCodes = new int[capacity];
+        statusCodes = new int[capacity];
+        exitCodeCodes = new int[capacity];
+        exitMessageHandles = new long[capacity];
+    }
+
+    /**
+     * 创建预置了批处理状态编码的字典
+     */
+    public static StringDictionary newDictionary() {
+        return new StringDictionary(STATUSES);
+    }
+
+    /**
+     * 追加共有列，返回新行的行号；子类随后写入自己的列
+     */
+    protected int addCommon(long id, String name, Timestamp startTime, Timestamp endTime, String status,
+                            String exitCode, String exitMessage) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        ids[row] = id;
+        startTimes[row] = startTime != null ? startTime.getTime() : NO_TIME;
+        endTimes[row] = endTime != null ? endTime.getTime() : NO_TIME;
+        nameCodes[row] = dictionary.encode(name);
+        statusCodes[row] = dictionary.encode(status);
+        exitCodeCodes[row] = dictionary.encode(exitCode);
+        exitMessageHandles[row] = textArena.append(exitMessage);
+        return row;
+    }
+
+    /**
+     * 扩容到 capacity，子类需同时扩容自己的列
+     */
+    protected void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        exitCodeCodes = Arrays.copyOf(exitCodeCodes, capacity);
+        exitMessageHandles = Arrays.copyOf(exitMessageHandles, capacity);
+    }
+
+    /**
+     * 按新顺序重排各列，order[i] 为新第 i 行原来的行号
+     */
+    protected void permute(int[] order) {
+        ids = permute(ids, order);
+        startTimes = permute(startTimes, order);
+        endTimes = permute(endTimes, order);
+        nameCodes = permute(nameCodes, order);
+        statusCodes = permute(statusCodes, order);
+        exitCodeCodes = permute(exitCodeCodes, order);
+        exitMessageHandles = permute(exitMessageHandles, order);
+    }
+
+    /**
+     * 按开始时间降序排列，没有开始时间的记录排在最后
+     */
+    public void sortByStartTimeDescending() {
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> Long.compare(startTimes[b], startTimes[a]));
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = boxed[i];
+        }
+        permute(order);
+    }
+
+    /**
+     * 只保留前 limit 行
+     */
+    public void truncate(int limit) {
+        size = Math.min(size, Math.max(0, limit));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public StringDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public long getId(int row) {
+        return ids[row];
+    }
+
+    public long getStartTime(int row) {
+        return startTimes[row];
+    }
+
+    public long getEndTime(int row) {
+        return endTimes[row];
+    }
+
+    public int getNameCode(int row) {
+        return nameCodes[row];
+    }
+
+    public String getName(int row) {
+        return dictionary.decode(nameCodes[row]);
+    }
+
+    public int getStatusCode(int row) {
+        return statusCodes[row];
+    }
+
+    public String getStatus(int row) {
+        return dictionary.decode(statusCodes[row]);
+    }
+
+    public String getExitCode(int row) {
+        return dictionary.decode(exitCodeCodes[row]);
+    }
+
+    /**
+     * 退出消息，每次调用都从文本区解码
+     */
+    public String getExitMessage(int row) {
+        return textArena.get(exitMessageHandles[row]);
+    }
+
+    /**
+     * 耗时（毫秒），未开始或未结束时为 -1
+     */
+    public long getDurationMillis(int row) {
+        if (startTimes[row] == NO_TIME || endTimes[row] == NO_TIME) {
+            return -1;
+        }
+        return endTimes[row] - startTimes[row];
+    }
+
+    /**
+     * 估算占用的堆内字节数（按数组容量计，不含堆外文本区）
+     */
+    public long estimateBytes() {
+        return 64 + ids.length * 44L;
+    }
+
+    protected int capacity() {
+        return ids.length;
+    }
+
+    protected long getExitMessageHandle(int row) {
+        return exitMessageHandles[row];
+    }
+
+    protected static Timestamp toTimestamp(long millis) {
+        return millis != NO_TIME ? new Timestamp(millis) : null;
+    }
+
+    protected static long[] permute(long[] column, int[] order) {
+        long[] result = new long[column.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+
+    protected static int[] permute(int[] column, int[] order) {
+        int[] result = new int[column.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+package com.springbatch.monitor.models;
+
+import java.util.*;
+
+/**
+ * 执行对比矩阵 - 行为按步骤名称对齐的步骤（首行为作业整体），列为作业执行
+ *
+ * 所有指标在构建时一次算好存入数组，切换基准时只需按下标读取基准列计算差值。
+ */
+public class ExecutionComparison {
+
+    /**
+     * 对比指标
+     */
+    public enum Metric {
+        DURATION("耗时", true),
+        READ_COUNT("读取数", false),
+        WRITE_COUNT("写入数", false),
+        THROUGHPUT("吞吐量", false);
+
+        private final String displayName;
+        private final boolean higherIsWorse;
+
+        Metric(String displayName, boolean higherIsWorse) {
+            this.displayName = displayName;
+            this.higherIsWorse = higherIsWorse;
+        }
+
+        /**
+         * 数值越大越差（如耗时）
+         */
+        public boolean isHigherWorse() {
+            return higherIsWorse;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    public static final String JOB_ROW_NAME = "(作业整体)";
+
+    private final List<JobExecution> executions;
+    private final List<String> rowNames;
+    // [指标][行][列]，缺失为 NaN
+    private final double[][][] values;
+    // [行][列]，同名步骤多次执行时取最后一次的状态
+    private final String[][] statuses;
+
+    /**
+     * @param steps 各作业执行的步骤，需带有 jobExecutionId，按步骤执行ID升序
+     */
+    public ExecutionComparison(List<JobExecution> executions, List<StepExecution> steps) {
+        this.executions = Collections.unmodifiableList(new ArrayList<>(executions));
+
+        Map<Long, Integer> columnsById = new HashMap<>();
+        for (int column = 0; column < executions.size(); column++) {
+            columnsById.put(executions.get(column).getId(), column);
+        }
+
+        // 行顺序：按各执行中步骤首次出现的先后
+        Map<String, Integer> rowsByName = new LinkedHashMap<>();
+        rowsByName.put(JOB_ROW_NAME, 0);
+        List<StepExecution> ordered = new ArrayList<>(steps);
+        ordered.sort(Comparator.comparing((StepExecution step) -> columnsById.getOrDefault(step.getJobExecutionId(), -1))
+                .thenComparing(StepExecution::getId));
+        for (StepExecution step : ordered) {
+            rowsByName.putIfAbsent(step.getStepName(), rowsByName.size());
+        }
+        this.rowNames = Collections.unmodifiableList(new ArrayList<>(rowsByName.keySet()));
+
+        int rows = rowNames.size();
+        int columns = executions.size();
+        Metric[] metrics = Metric.values();
+        values = new double[metrics.length][rows][columns];
+        statuses = new String[rows][columns];
+        for (double[][] metric : values) {
+            for (double[] row : metric) {
+                Arrays.fill(row, Double.NaN);
+            }
+        }
+
+        for (StepExecution step : steps) {
+            Integer column = columnsById.get(step.getJobExecutionId());
+            if (column == null) {
+                continue;
+            }
+            int row = rowsByName.get(step.getStepName());
+            // 同一执行中重复出现的步骤名称（如循环流程）累加
+            add(Metric.DURATION, row, column, durationMillis(step.getStartTime(), step.getEndTime()));
+            add(Metric.READ_COUNT, row, column, step.getReadCount());
+            add(Metric.WRITE_COUNT, row, column, step.getWriteCount());
+            add(Metric.READ_COUNT, 0, column, step.getReadCount());
+            add(Metric.WRITE_COUNT, 0, column, step.getWriteCount());
+            statuses[row][column] = step.getStatus();
+        }
+        for (int column = 0; column < columns; column++) {
+            JobExecution execution = executions.get(column);
+            values[Metric.DURATION.ordinal()][0][column] =
+                    durationMillis(execution.getStartTime(), execution.getEndTime());
+            statuses[0][column] = execution.getStatus();
+        }
+
+        double[][] durations = values[Metric.DURATION.ordinal()];
+        double[][] writes = values[Metric.WRITE_COUNT.ordinal()];
+        double[][] throughput = values[Metric.THROUGHPUT.ordinal()];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double seconds = durations[row][column] / 1000.0;
+                throughput[row][column] = seconds > 0 ? writes[row][column] / seconds : Double.NaN;
+            }
+        }
+    }
+
+    private void add(Metric metric, int row, int column, double value) {
+        double[] cells = values[metric.ordinal()][row];
+        if (Double.isNaN(value)) {
+            return;
+        }
+        cells[column] = Double.isNaN(cells[column]) ? value : cells[column] + value;
+    }
+
+    private static double durationMillis(java.sql.Timestamp start, java.sql.Timestamp end) {
+        return start != null && end != null ? end.getTime() - start.getTime() : Double.NaN;
+    }
+
+    public List<JobExecution> getExecutions() {
+        return executions;
+    }
+
+    /**
+     * 行名称，第 0 行为作业整体
+     */
+    public List<String> getRowNames() {
+        return rowNames;
+    }
+
+    /**
+     * 指标值，缺失（该执行没有此步骤或尚未结束）时为 NaN
+     */
+    public double getValue(Metric metric, int row, int column) {
+        return values[metric.ordinal()][row][column];
+    }
+
+    public String getStatus(int row, int column) {
+        return statuses[row][column];
+    }
+
+    /**
+     * 相对基准列的变化比例，(值 - 基准) / 基准；无法比较时为 NaN
+     */
+    public double getRelativeDelta(Metric metric, int row, int column, int baselineColumn) {
+        double[] cells = values[metric.ordinal()][row];
+        double baseline = cells[baselineColumn];
+        if (Double.isNaN(baseline) || Double.isNaN(cells[column]) || baseline == 0) {
+            return Double.NaN;
+        }
+        return (cells[column] - baseline) / baseline;
+    }
+}
@@ -0,0 +1,39 @@
+package com.springbatch.monitor.models;
+
+import java.sql.Timestamp;
+
+/**
+ * 执行区间模型 - 作业或步骤执行的运行时间段
+ */
+public class ExecutionInterval {
+    private final Long executionId;
+    private final String name;
+    private final Timestamp startTime;
+    private final Timestamp endTime;
+
+    public ExecutionInterval(Long executionId, String name, Timestamp startTime, Timestamp endTime) {
+        this.executionId = executionId;
+        this.name = name;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public Long getExecutionId() {
+        return executionId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Timestamp getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * 结束时间，仍在运行时为null
+     */
+    public Timestamp getEndTime() {
+        return endTime;
+    }
+}
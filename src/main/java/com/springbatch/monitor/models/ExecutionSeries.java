@@ -0,0 +1,105 @@
+package com.springbatch.monitor.models;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 作业执行序列 - 按开始时间排列的每次执行的耗时和吞吐量
+ *
+ * 一年内每分钟运行一次的作业约有 50 万个点，序列只用基本类型数组保存，不为每个点创建对象。
+ */
+public class ExecutionSeries {
+    private long[] startTimes = new long[1024];
+    private double[] durations = new double[1024];
+    private double[] throughputs = new double[1024];
+    private int size;
+
+    /**
+     * 追加一次执行，开始时间需不早于上一次
+     *
+     * @param throughput 每秒写入数，无法计算时为 NaN
+     */
+    public void add(long startTime, double durationMillis, double throughput) {
+        if (size == startTimes.length) {
+            startTimes = Arrays.copyOf(startTimes, size * 2);
+            durations = Arrays.copyOf(durations, size * 2);
+            throughputs = Arrays.copyOf(throughputs, size * 2);
+        }
+        startTimes[size] = startTime;
+        durations[size] = durationMillis;
+        throughputs[size] = throughput;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 开始时间数组（长度可能大于 size，调用方不应修改）
+     */
+    public long[] getStartTimes() {
+        return startTimes;
+    }
+
+    /**
+     * 耗时数组（毫秒，长度可能大于 size，调用方不应修改）
+     */
+    public double[] getDurations() {
+        return durations;
+    }
+
+    /**
+     * 吞吐量数组（每秒写入数，长度可能大于 size，调用方不应修改）
+     */
+    public double[] getThroughputs() {
+        return throughputs;
+    }
+
+    /**
+     * 第一个开始时间不早于 time 的下标，全部早于 time 时返回 size
+     */
+    public int indexAt(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 估算占用的字节数（按数组容量计）
+     */
+    public long estimateBytes() {
+        return 64 + startTimes.length * 24L;
+    }
+
+    /**
+     * 写出有效部分，用于内存不足时换出到本地文件
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(startTimes[i]);
+            out.writeDouble(durations[i]);
+            out.writeDouble(throughputs[i]);
+        }
+    }
+
+    public static ExecutionSeries read(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        ExecutionSeries series = new ExecutionSeries();
+        for (int i = 0; i < count; i++) {
+            series.add(in.readLong(), in.readDouble(), in.readDouble());
+        }
+        return series;
+    }
+}
@@ -0,0 +1,189 @@
+package com.springbatch.monitor.models;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 失败聚类模型 - 具有相同或相近规范化堆栈签名的一组失败
+ */
+public class FailureCluster {
+    private static final int MAX_SAMPLE_EXECUTIONS = 20;
+
+    private final int clusterId;
+    private final long signature;
+    private final long simHash;
+    private final String exceptionType;
+    private final String rootCauseType;
+    private final String normalizedHead;
+    private final List<String> topFrames;
+    private final String sampleMessage;
+    private final Map<String, Integer> failuresByJobName = new LinkedHashMap<>();
+    private final Set<String> stepNames = new HashSet<>();
+    private final Set<Long> jobExecutionIds = new HashSet<>();
+    private final long[] recentExecutionIds = new long[MAX_SAMPLE_EXECUTIONS];
+    private long[] failureTimes = new long[8];
+    private int count;
+    private int jobFailureCount;
+    private int stepFailureCount;
+    private long firstSeen = Long.MAX_VALUE;
+    private long lastSeen = Long.MIN_VALUE;
+
+    public FailureCluster(int clusterId, long signature, long simHash, String exceptionType, String rootCauseType,
+                          String normalizedHead, List<String> topFrames, String sampleMessage) {
+        this.clusterId = clusterId;
+        this.signature = signature;
+        this.simHash = simHash;
+        this.exceptionType = exceptionType;
+        this.rootCauseType = rootCauseType;
+        this.normalizedHead = normalizedHead;
+        this.topFrames = Collections.unmodifiableList(topFrames);
+        this.sampleMessage = sampleMessage;
+    }
+
+    /**
+     * 计入一次失败
+     *
+     * @param stepName 步骤失败时为步骤名称，作业失败时为null
+     */
+    public synchronized void addFailure(String jobName, String stepName, long jobExecutionId,
+                                        long executionId, Timestamp failedAt) {
+        long time = failedAt != null ? failedAt.getTime() : System.currentTimeMillis();
+        if (count == failureTimes.length) {
+            failureTimes = Arrays.copyOf(failureTimes, count * 2);
+        }
+        recentExecutionIds[count % MAX_SAMPLE_EXECUTIONS] = executionId;
+        failureTimes[count++] = time;
+        firstSeen = Math.min(firstSeen, time);
+        lastSeen = Math.max(lastSeen, time);
+        failuresByJobName.merge(jobName != null ? jobName : "", 1, Integer::sum);
+        jobExecutionIds.add(jobExecutionId);
+        if (stepName != null) {
+            stepNames.add(stepName);
+            stepFailureCount++;
+        } else {
+            jobFailureCount++;
+        }
+    }
+
+    public int getClusterId() {
+        return clusterId;
+    }
+
+    public long getSignature() {
+        return signature;
+    }
+
+    public long getSimHash() {
+        return simHash;
+    }
+
+    public String getExceptionType() {
+        return exceptionType;
+    }
+
+    public String getRootCauseType() {
+        return rootCauseType;
+    }
+
+    public String getNormalizedHead() {
+        return normalizedHead;
+    }
+
+    public List<String> getTopFrames() {
+        return topFrames;
+    }
+
+    /**
+     * 聚类中第一条失败的原始消息
+     */
+    public String getSampleMessage() {
+        return sampleMessage;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized int getJobFailureCount() {
+        return jobFailureCount;
+    }
+
+    public synchronized int getStepFailureCount() {
+        return stepFailureCount;
+    }
+
+    /**
+     * 受影响的作业执行数（同一次作业执行的作业失败和步骤失败只计一次）
+     */
+    public synchronized int getAffectedExecutionCount() {
+        return jobExecutionIds.size();
+    }
+
+    /**
+     * 指定时刻之后的失败次数
+     */
+    public synchronized int getCountSince(long time) {
+        int result = 0;
+        for (int i = 0; i < count; i++) {
+            if (failureTimes[i] >= time) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    public synchronized Timestamp getFirstSeen() {
+        return count > 0 ? new Timestamp(firstSeen) : null;
+    }
+
+    public synchronized Timestamp getLastSeen() {
+        return count > 0 ? new Timestamp(lastSeen) : null;
+    }
+
+    /**
+     * 受影响的作业名称及失败次数，按次数降序
+     */
+    public synchronized Map<String, Integer> getFailuresByJobName() {
+        return failuresByJobName.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public synchronized Set<String> getStepNames() {
+        return new HashSet<>(stepNames);
+    }
+
+    /**
+     * 估算占用的堆内存字节数：失败时间数组和作业执行ID集合随失败次数增长，HashSet 每个装箱 Long 约 48 字节
+     */
+    public synchronized long estimateBytes() {
+        long bytes = 1024 + failureTimes.length * 8L + jobExecutionIds.size() * 48L
+                + (failuresByJobName.size() + stepNames.size()) * 96L;
+        if (sampleMessage != null) {
+            bytes += sampleMessage.length() * 2L;
+        }
+        for (String frame : topFrames) {
+            bytes += 48 + frame.length() * 2L;
+        }
+        return bytes;
+    }
+
+    /**
+     * 最近若干次失败的执行ID（作业失败为作业执行ID，步骤失败为步骤执行ID）
+     */
+    public synchronized long[] getRecentExecutionIds() {
+        int size = Math.min(count, MAX_SAMPLE_EXECUTIONS);
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = recentExecutionIds[(count - 1 - i) % MAX_SAMPLE_EXECUTIONS];
+        }
+        return result;
+    }
+}
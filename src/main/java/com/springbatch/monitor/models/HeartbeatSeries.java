@@ -0,0 +1,102 @@
+package com.springbatch.monitor.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 步骤心跳序列 - 步骤运行期间采样到的 LAST_UPDATED 和 COMMIT_COUNT
+ *
+ * Spring Batch 每次提交块都会更新 LAST_UPDATED，相邻两次心跳的间隔就是提交间隔；
+ * 只有 LAST_UPDATED 或提交数变化时才追加，序列以基本类型数组保存。
+ */
+public class HeartbeatSeries {
+    private final long stepExecutionId;
+    private long[] sampledAt = new long[16];
+    private long[] lastUpdated = new long[16];
+    private int[] commitCounts = new int[16];
+    private int size;
+
+    public HeartbeatSeries(long stepExecutionId) {
+        this.stepExecutionId = stepExecutionId;
+    }
+
+    /**
+     * 追加一次采样，心跳没有变化时忽略
+     *
+     * @return 是否追加
+     */
+    public synchronized boolean record(long sampleTime, long lastUpdatedTime, int commitCount) {
+        if (size > 0 && lastUpdated[size - 1] == lastUpdatedTime && commitCounts[size - 1] == commitCount) {
+            return false;
+        }
+        if (size > 0 && lastUpdatedTime < lastUpdated[size - 1]) {
+            return false;
+        }
+        if (size == sampledAt.length) {
+            sampledAt = Arrays.copyOf(sampledAt, size * 2);
+            lastUpdated = Arrays.copyOf(lastUpdated, size * 2);
+            commitCounts = Arrays.copyOf(commitCounts, size * 2);
+        }
+        sampledAt[size] = sampleTime;
+        lastUpdated[size] = lastUpdatedTime;
+        commitCounts[size] = commitCount;
+        size++;
+        return true;
+    }
+
+    public long getStepExecutionId() {
+        return stepExecutionId;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getSampledAt(int index) {
+        return sampledAt[index];
+    }
+
+    public synchronized long getLastUpdated(int index) {
+        return lastUpdated[index];
+    }
+
+    public synchronized int getCommitCount(int index) {
+        return commitCounts[index];
+    }
+
+    /**
+     * 每次提交的平均间隔（毫秒）的中位数；两次心跳之间有多次提交时按提交数平均
+     */
+    public synchronized double getMedianCommitInterval() {
+        double[] intervals = new double[Math.max(0, size - 1)];
+        int count = 0;
+        for (int i = 1; i < size; i++) {
+            int commits = commitCounts[i] - commitCounts[i - 1];
+            if (commits > 0) {
+                intervals[count++] = (double) (lastUpdated[i] - lastUpdated[i - 1]) / commits;
+            }
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(intervals, 0, count);
+        return intervals[count / 2];
+    }
+
+    /**
+     * 相邻心跳间隔超过阈值的停顿，每项为 {开始, 结束, 期间提交数}
+     */
+    public synchronized List<long[]> getStalls(long thresholdMillis) {
+        List<long[]> stalls = new ArrayList<>();
+        for (int i = 1; i < size; i++) {
+            int commits = commitCounts[i] - commitCounts[i - 1];
+            long gap = lastUpdated[i] - lastUpdated[i - 1];
+            // 多次提交时只能确定平均间隔，按平均间隔判断
+            if (gap / Math.max(1, commits) > thresholdMillis) {
+                stalls.add(new long[]{lastUpdated[i - 1], lastUpdated[i], commits});
+            }
+        }
+        return stalls;
+    }
+}
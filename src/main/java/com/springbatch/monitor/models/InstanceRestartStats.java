@@ -0,0 +1,135 @@
+package com.springbatch.monitor.models;
+
+import java.sql.Timestamp;
+
+/**
+ * 作业实例重启统计模型 - 一个 JOB_INSTANCE 的所有执行尝试汇总
+ */
+public class InstanceRestartStats {
+    private Long jobInstanceId;
+    private String jobName;
+    private int attempts;
+    private int failedAttempts;
+    private boolean completed;
+    private double totalMillis;
+    private double failedMillis;
+    private long failedReadCount;
+    private long failedWriteCount;
+    private Timestamp firstStartTime;
+    private Timestamp completedTime;
+
+    public Long getJobInstanceId() {
+        return jobInstanceId;
+    }
+
+    public void setJobInstanceId(Long jobInstanceId) {
+        this.jobInstanceId = jobInstanceId;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public void setFailedAttempts(int failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * 所有尝试的运行时长之和
+     */
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(double totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * 失败尝试的运行时长之和
+     */
+    public double getFailedMillis() {
+        return failedMillis;
+    }
+
+    public void setFailedMillis(double failedMillis) {
+        this.failedMillis = failedMillis;
+    }
+
+    public long getFailedReadCount() {
+        return failedReadCount;
+    }
+
+    public void setFailedReadCount(long failedReadCount) {
+        this.failedReadCount = failedReadCount;
+    }
+
+    public long getFailedWriteCount() {
+        return failedWriteCount;
+    }
+
+    public void setFailedWriteCount(long failedWriteCount) {
+        this.failedWriteCount = failedWriteCount;
+    }
+
+    public Timestamp getFirstStartTime() {
+        return firstStartTime;
+    }
+
+    public void setFirstStartTime(Timestamp firstStartTime) {
+        this.firstStartTime = firstStartTime;
+    }
+
+    public Timestamp getCompletedTime() {
+        return completedTime;
+    }
+
+    public void setCompletedTime(Timestamp completedTime) {
+        this.completedTime = completedTime;
+    }
+
+    /**
+     * 从首次尝试开始到最终成功结束的时长，尚未成功时为null
+     */
+    public Long getTimeToSuccessMillis() {
+        if (!completed || firstStartTime == null || completedTime == null) {
+            return null;
+        }
+        return Math.max(0, completedTime.getTime() - firstStartTime.getTime());
+    }
+
+    @Override
+    public String toString() {
+        return "InstanceRestartStats{" +
+                "jobInstanceId=" + jobInstanceId +
+                ", jobName='" + jobName + '\'' +
+                ", attempts=" + attempts +
+                ", failedAttempts=" + failedAttempts +
+                ", completed=" + completed +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.springbatch.monitor.models;
 
+import com.springbatch.monitor.utils.TextArena;
+
 import java.sql.Timestamp;
 
 /**
@@ -9,11 +11,15 @@ public class JobExecution {
     private Long id;
     private Long jobInstanceId;
     private String jobName;
+    private Timestamp createTime;
     private Timestamp startTime;
     private Timestamp endTime;
     private String status;
     private String exitCode;
     private String exitMessage;
+    // 批量查询时退出消息保存在结果集共享的堆外文本区中，只保留句柄
+    private TextArena textArena;
+    private long exitMessageHandle = TextArena.NULL_HANDLE;
 
     public JobExecution() {
     }
@@ -55,6 +61,14 @@ public class JobExecution {
         this.jobName = jobName;
     }
 
+    public Timestamp getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Timestamp createTime) {
+        this.createTime = createTime;
+    }
+
     public Timestamp getStartTime() {
         return startTime;
     }
@@ -87,12 +101,35 @@ public class JobExecution {
         this.exitCode = exitCode;
     }
 
+    /**
+     * 退出消息，保存在文本区中时每次调用都会重新解码
+     */
     public String getExitMessage() {
-        return exitMessage;
+        return textArena != null ? textArena.get(exitMessageHandle) : exitMessage;
     }
 
     public void setExitMessage(String exitMessage) {
         this.exitMessage = exitMessage;
+        this.textArena = null;
+        this.exitMessageHandle = TextArena.NULL_HANDLE;
+    }
+
+    /**
+     * 把退出消息写入文本区，记录只保留句柄
+     */
+    public void setExitMessage(TextArena textArena, String exitMessage) {
+        this.exitMessage = null;
+        this.textArena = textArena;
+        this.exitMessageHandle = textArena.append(exitMessage);
+    }
+
+    /**
+     * 引用文本区中已有的退出消息，供列式容器创建行对象
+     */
+    void attachExitMessage(TextArena textArena, long exitMessageHandle) {
+        this.exitMessage = null;
+        this.textArena = textArena;
+        this.exitMessageHandle = exitMessageHandle;
     }
 
     // 兼容性方法
@@ -100,6 +137,16 @@ public class JobExecution {
         return id;
     }
 
+    /**
+     * 排队等待时长：从创建（提交给 JobLauncher）到开始执行的毫秒数，未开始时为null
+     */
+    public Long getQueueWaitMillis() {
+        if (createTime == null || startTime == null) {
+            return null;
+        }
+        return Math.max(0, startTime.getTime() - createTime.getTime());
+    }
+
     public String getFormattedDuration() {
         if (startTime == null) {
             return "";
@@ -128,11 +175,12 @@ public class JobExecution {
                 "id=" + id +
                 ", jobInstanceId=" + jobInstanceId +
                 ", jobName='" + jobName + '\'' +
+                ", createTime=" + createTime +
                 ", startTime=" + startTime +
                 ", endTime=" + endTime +
                 ", status='" + status + '\'' +
                 ", exitCode='" + exitCode + '\'' +
-                ", exitMessage='" + exitMessage + '\'' +
+                ", exitMessage='" + getExitMessage() + '\'' +
                 '}';
     }
 }
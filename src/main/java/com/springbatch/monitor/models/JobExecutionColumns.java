@@ -0,0 +1,77 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.StringDictionary;
+import com.springbatch.monitor.utils.TextArena;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * 作业执行列表的列式表示，名称列为作业名称
+ */
+public class JobExecutionColumns extends ExecutionColumns {
+    private long[] jobInstanceIds;
+
+    public JobExecutionColumns(StringDictionary dictionary, TextArena textArena) {
+        this(dictionary, textArena, 128);
+    }
+
+    public JobExecutionColumns(StringDictionary dictionary, TextArena textArena, int initialCapacity) {
+        super(dictionary, textArena, initialCapacity);
+        jobInstanceIds = new long[capacity()];
+    }
+
+    /**
+     * 空列表
+     */
+    public static JobExecutionColumns empty() {
+        return new JobExecutionColumns(newDictionary(), new TextArena(), 0);
+    }
+
+    public void add(long id, long jobInstanceId, String jobName, Timestamp startTime, Timestamp endTime,
+                    String status, String exitCode, String exitMessage) {
+        int row = addCommon(id, jobName, startTime, endTime, status, exitCode, exitMessage);
+        jobInstanceIds[row] = jobInstanceId;
+    }
+
+    public long getJobInstanceId(int row) {
+        return jobInstanceIds[row];
+    }
+
+    public String getJobName(int row) {
+        return getName(row);
+    }
+
+    /**
+     * 按需创建行对象，退出消息仍引用同一个文本区
+     */
+    public JobExecution getRow(int row) {
+        JobExecution execution = new JobExecution();
+        execution.setId(getId(row));
+        execution.setJobInstanceId(jobInstanceIds[row]);
+        execution.setJobName(getJobName(row));
+        execution.setStartTime(toTimestamp(getStartTime(row)));
+        execution.setEndTime(toTimestamp(getEndTime(row)));
+        execution.setStatus(getStatus(row));
+        execution.setExitCode(getExitCode(row));
+        execution.attachExitMessage(textArena, getExitMessageHandle(row));
+        return execution;
+    }
+
+    @Override
+    public long estimateBytes() {
+        return super.estimateBytes() + jobInstanceIds.length * 8L;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        super.grow(capacity);
+        jobInstanceIds = Arrays.copyOf(jobInstanceIds, capacity);
+    }
+
+    @Override
+    protected void permute(int[] order) {
+        super.permute(order);
+        jobInstanceIds = permute(jobInstanceIds, order);
+    }
+}
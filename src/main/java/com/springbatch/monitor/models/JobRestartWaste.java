@@ -0,0 +1,111 @@
+package com.springbatch.monitor.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 作业重启浪费模型 - 按作业名称汇总失败尝试所消耗的时间和处理量
+ */
+public class JobRestartWaste {
+    private final String jobName;
+    private final List<InstanceRestartStats> instances = new ArrayList<>();
+    private int totalAttempts;
+    private int failedAttempts;
+    private int completedInstances;
+    private int maxAttempts;
+    private double totalMillis;
+    private double failedMillis;
+    private long failedReadCount;
+    private long failedWriteCount;
+    private double timeToSuccessSum;
+    private int restartedSuccesses;
+
+    public JobRestartWaste(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public void addInstance(InstanceRestartStats instance) {
+        instances.add(instance);
+        totalAttempts += instance.getAttempts();
+        failedAttempts += instance.getFailedAttempts();
+        maxAttempts = Math.max(maxAttempts, instance.getAttempts());
+        totalMillis += instance.getTotalMillis();
+        failedMillis += instance.getFailedMillis();
+        failedReadCount += instance.getFailedReadCount();
+        failedWriteCount += instance.getFailedWriteCount();
+        if (instance.isCompleted()) {
+            completedInstances++;
+            Long timeToSuccess = instance.getTimeToSuccessMillis();
+            if (timeToSuccess != null && instance.getFailedAttempts() > 0) {
+                timeToSuccessSum += timeToSuccess;
+                restartedSuccesses++;
+            }
+        }
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    /**
+     * 存在失败尝试的实例，按失败耗时降序
+     */
+    public List<InstanceRestartStats> getInstances() {
+        return Collections.unmodifiableList(instances);
+    }
+
+    public int getInstanceCount() {
+        return instances.size();
+    }
+
+    public int getTotalAttempts() {
+        return totalAttempts;
+    }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public int getCompletedInstances() {
+        return completedInstances;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getFailedMillis() {
+        return failedMillis;
+    }
+
+    /**
+     * 失败尝试耗时占这些实例总耗时的比例
+     */
+    public double getWasteShare() {
+        return totalMillis > 0 ? failedMillis / totalMillis : 0;
+    }
+
+    public long getFailedReadCount() {
+        return failedReadCount;
+    }
+
+    public long getFailedWriteCount() {
+        return failedWriteCount;
+    }
+
+    public double getAverageAttempts() {
+        return instances.isEmpty() ? 0 : (double) totalAttempts / instances.size();
+    }
+
+    /**
+     * 经过重启最终成功的实例，从首次开始到成功的平均时长
+     */
+    public double getAverageTimeToSuccessMillis() {
+        return restartedSuccesses > 0 ? timeToSuccessSum / restartedSuccesses : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.DurationHistogram;
+
+import java.sql.Timestamp;
+
+/**
+ * 时长分布模型 - 某一分组（作业名称或时间段）的时长直方图及分位数
+ */
+public class LatencyDistribution {
+    private final String label;
+    private final Timestamp period;
+    private final DurationHistogram histogram;
+
+    public LatencyDistribution(String label, Timestamp period, DurationHistogram histogram) {
+        this.label = label;
+        this.period = period;
+        this.histogram = histogram;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 按时间分组时为时间段起点，否则为null
+     */
+    public Timestamp getPeriod() {
+        return period;
+    }
+
+    public DurationHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    public double getMean() {
+        return histogram.getMean();
+    }
+
+    public double getP50() {
+        return histogram.percentile(0.5);
+    }
+
+    public double getP90() {
+        return histogram.percentile(0.9);
+    }
+
+    public double getP99() {
+        return histogram.percentile(0.99);
+    }
+
+    public double getMax() {
+        return histogram.getMax();
+    }
+}
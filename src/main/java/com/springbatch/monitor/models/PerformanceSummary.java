@@ -0,0 +1,88 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.DurationHistogram;
+
+/**
+ * 性能摘要模型 - 某个数据源中一个作业或步骤在时间窗口内的耗时分布、吞吐量和失败率
+ */
+public class PerformanceSummary {
+    private final String jobName;
+    private final String stepName;
+    private final DurationHistogram histogram = new DurationHistogram();
+    private long finishedCount;
+    private long failedCount;
+    private long itemCount;
+
+    public PerformanceSummary(String jobName, String stepName) {
+        this.jobName = jobName;
+        this.stepName = stepName;
+    }
+
+    /**
+     * 计入执行次数和处理量
+     *
+     * @param itemCount 成功执行的写入条数
+     */
+    public void addCounts(long finishedCount, long failedCount, long itemCount) {
+        this.finishedCount += finishedCount;
+        this.failedCount += failedCount;
+        this.itemCount += itemCount;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    /**
+     * 作业级摘要为null
+     */
+    public String getStepName() {
+        return stepName;
+    }
+
+    /**
+     * 成功执行的耗时分布
+     */
+    public DurationHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getFinishedCount() {
+        return finishedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public double getP50() {
+        return histogram.percentile(0.5);
+    }
+
+    public double getP90() {
+        return histogram.percentile(0.9);
+    }
+
+    public double getP99() {
+        return histogram.percentile(0.99);
+    }
+
+    /**
+     * 成功执行的吞吐量（条/秒），没有成功执行时为 NaN
+     */
+    public double getThroughput() {
+        double seconds = histogram.getMean() * histogram.getCount() / 1000.0;
+        return seconds > 0 ? itemCount / seconds : Double.NaN;
+    }
+
+    /**
+     * 失败率（0~1），没有已结束的执行时为 NaN
+     */
+    public double getFailureRate() {
+        return finishedCount > 0 ? (double) failedCount / finishedCount : Double.NaN;
+    }
+}
@@ -0,0 +1,71 @@
+package com.springbatch.monitor.models;
+
+/**
+ * 历史清理报告 - 各元数据表删除（或预计删除）的行数，表按外键安全的删除顺序排列
+ */
+public class PurgeReport {
+    public static final String[] TABLES = {
+            "BATCH_STEP_EXECUTION_CONTEXT",
+            "BATCH_STEP_EXECUTION",
+            "BATCH_JOB_EXECUTION_CONTEXT",
+            "BATCH_JOB_EXECUTION_PARAMS",
+            "BATCH_JOB_EXECUTION",
+            "BATCH_JOB_INSTANCE"
+    };
+    private static final int JOB_EXECUTION_TABLE = 4;
+
+    private final long[] rows = new long[TABLES.length];
+    private final boolean dryRun;
+    private long batches;
+    private long pausedMillis;
+
+    public PurgeReport(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public long getRows(int table) {
+        return rows[table];
+    }
+
+    public void addRows(int table, long count) {
+        rows[table] += count;
+    }
+
+    public long getTotalRows() {
+        long total = 0;
+        for (long count : rows) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 删除的作业执行数
+     */
+    public long getExecutions() {
+        return rows[JOB_EXECUTION_TABLE];
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public void addBatch() {
+        batches++;
+    }
+
+    /**
+     * 因有作业正在运行而暂停的总时长（毫秒），不含限速等待
+     */
+    public long getPausedMillis() {
+        return pausedMillis;
+    }
+
+    public void addPausedMillis(long millis) {
+        pausedMillis += millis;
+    }
+}
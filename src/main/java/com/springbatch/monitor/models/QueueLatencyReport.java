@@ -0,0 +1,57 @@
+package com.springbatch.monitor.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 启动排队延迟报告 - CREATE_TIME 到 START_TIME 的等待时长分布
+ */
+public class QueueLatencyReport {
+    private final LatencyDistribution overall;
+    private final List<LatencyDistribution> byJobName;
+    private final List<LatencyDistribution> byHour;
+    private final List<JobExecution> worstExecutions;
+    private final long waitingCount;
+
+    public QueueLatencyReport(LatencyDistribution overall, List<LatencyDistribution> byJobName,
+                              List<LatencyDistribution> byHour, List<JobExecution> worstExecutions,
+                              long waitingCount) {
+        this.overall = overall;
+        this.byJobName = Collections.unmodifiableList(byJobName);
+        this.byHour = Collections.unmodifiableList(byHour);
+        this.worstExecutions = Collections.unmodifiableList(worstExecutions);
+        this.waitingCount = waitingCount;
+    }
+
+    public LatencyDistribution getOverall() {
+        return overall;
+    }
+
+    /**
+     * 按作业名称的分布，按 P90 降序
+     */
+    public List<LatencyDistribution> getByJobName() {
+        return byJobName;
+    }
+
+    /**
+     * 按创建时间整点的分布，按时间升序
+     */
+    public List<LatencyDistribution> getByHour() {
+        return byHour;
+    }
+
+    /**
+     * 等待最久的执行，按等待时长降序
+     */
+    public List<JobExecution> getWorstExecutions() {
+        return worstExecutions;
+    }
+
+    /**
+     * 当前已创建但尚未开始的执行数
+     */
+    public long getWaitingCount() {
+        return waitingCount;
+    }
+}
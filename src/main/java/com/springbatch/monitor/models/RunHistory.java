@@ -0,0 +1,72 @@
+package com.springbatch.monitor.models;
+
+import java.util.Arrays;
+
+/**
+ * 作业运行历史 - 某个作业名称最近若干次执行的耗时和状态，按执行ID升序
+ */
+public class RunHistory {
+    public static final byte STATUS_COMPLETED = 0;
+    public static final byte STATUS_FAILED = 1;
+    public static final byte STATUS_OTHER = 2;
+
+    private final long[] executionIds;
+    private final double[] durations;
+    private final byte[] statuses;
+    private final boolean complete;
+
+    /**
+     * @param durations 毫秒，未结束的执行为 NaN
+     * @param complete 是否已包含该作业到最后一个执行ID为止的全部执行
+     */
+    public RunHistory(long[] executionIds, double[] durations, byte[] statuses, boolean complete) {
+        this.executionIds = executionIds;
+        this.durations = durations;
+        this.statuses = statuses;
+        this.complete = complete;
+    }
+
+    public static byte statusCode(String status) {
+        if ("COMPLETED".equals(status)) {
+            return STATUS_COMPLETED;
+        }
+        return "FAILED".equals(status) ? STATUS_FAILED : STATUS_OTHER;
+    }
+
+    public int size() {
+        return executionIds.length;
+    }
+
+    public long getExecutionId(int index) {
+        return executionIds[index];
+    }
+
+    public double getDuration(int index) {
+        return durations[index];
+    }
+
+    public byte getStatus(int index) {
+        return statuses[index];
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * 执行在历史中的下标，不在其中时返回负数
+     */
+    public int indexOf(long executionId) {
+        return Arrays.binarySearch(executionIds, executionId);
+    }
+
+    /**
+     * 历史是否包含到 maxId 为止的执行，且 minId 之前至少还有 runs - 1 次执行（或已是全部历史）
+     */
+    public boolean covers(long minId, long maxId, int runs) {
+        if (executionIds.length == 0 || maxId > executionIds[executionIds.length - 1]) {
+            return false;
+        }
+        return complete || indexOf(minId) >= runs - 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.springbatch.monitor.models;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 统计快照模型 - 某一时刻的聚合统计结果（不可变）
+ */
+public class StatisticsSnapshot {
+    private final Map<String, Long> jobStatusCounts;
+    private final Map<String, Long> stepStatusCounts;
+    private final Map<String, Long> jobExecutionCountsByName;
+    private final long jobInstanceCount;
+    private final int jobNameCount;
+    private final long readCount;
+    private final long writeCount;
+    private final long skipCount;
+    private final long foldedRows;
+    private final boolean fullRebuild;
+    private final long computedAt;
+
+    public StatisticsSnapshot(Map<String, Long> jobStatusCounts, Map<String, Long> stepStatusCounts,
+                              Map<String, Long> jobExecutionCountsByName, long jobInstanceCount,
+                              int jobNameCount, long readCount, long writeCount, long skipCount,
+                              long foldedRows, boolean fullRebuild) {
+        this.jobStatusCounts = Collections.unmodifiableMap(new TreeMap<>(jobStatusCounts));
+        this.stepStatusCounts = Collections.unmodifiableMap(new TreeMap<>(stepStatusCounts));
+        this.jobExecutionCountsByName = Collections.unmodifiableMap(new TreeMap<>(jobExecutionCountsByName));
+        this.jobInstanceCount = jobInstanceCount;
+        this.jobNameCount = jobNameCount;
+        this.readCount = readCount;
+        this.writeCount = writeCount;
+        this.skipCount = skipCount;
+        this.foldedRows = foldedRows;
+        this.fullRebuild = fullRebuild;
+        this.computedAt = System.currentTimeMillis();
+    }
+
+    public Map<String, Long> getJobStatusCounts() {
+        return jobStatusCounts;
+    }
+
+    public Map<String, Long> getStepStatusCounts() {
+        return stepStatusCounts;
+    }
+
+    public Map<String, Long> getJobExecutionCountsByName() {
+        return jobExecutionCountsByName;
+    }
+
+    public long getJobInstanceCount() {
+        return jobInstanceCount;
+    }
+
+    public int getJobNameCount() {
+        return jobNameCount;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public long getSkipCount() {
+        return skipCount;
+    }
+
+    /**
+     * 本次刷新合并的行数（全量重建时为扫描的汇总行数）
+     */
+    public long getFoldedRows() {
+        return foldedRows;
+    }
+
+    public boolean isFullRebuild() {
+        return fullRebuild;
+    }
+
+    public long getComputedAt() {
+        return computedAt;
+    }
+
+    public long getTotalJobExecutions() {
+        return sum(jobStatusCounts);
+    }
+
+    public long getTotalStepExecutions() {
+        return sum(stepStatusCounts);
+    }
+
+    public long getJobCount(String status) {
+        return jobStatusCounts.getOrDefault(status, 0L);
+    }
+
+    public long getStepCount(String status) {
+        return stepStatusCounts.getOrDefault(status, 0L);
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        long total = 0;
+        for (Long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+}
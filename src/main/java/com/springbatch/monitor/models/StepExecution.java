@@ -1,5 +1,7 @@
 package com.springbatch.monitor.models;
 
+import com.springbatch.monitor.utils.TextArena;
+
 import java.sql.Timestamp;
 
 /**
@@ -7,12 +9,16 @@ import java.sql.Timestamp;
  */
 public class StepExecution {
     private Long id;
+    private Long jobExecutionId;
     private String stepName;
     private Timestamp startTime;
     private Timestamp endTime;
     private String status;
     private String exitCode;
     private String exitMessage;
+    // 批量查询时退出消息保存在结果集共享的堆外文本区中，只保留句柄
+    private TextArena textArena;
+    private long exitMessageHandle = TextArena.NULL_HANDLE;
     private int readCount;
     private int writeCount;
     private int commitCount;
@@ -55,6 +61,17 @@ public class StepExecution {
         this.id = id;
     }
 
+    /**
+     * 所属作业执行ID，仅部分查询会填充
+     */
+    public Long getJobExecutionId() {
+        return jobExecutionId;
+    }
+
+    public void setJobExecutionId(Long jobExecutionId) {
+        this.jobExecutionId = jobExecutionId;
+    }
+
     public String getStepName() {
         return stepName;
     }
@@ -95,12 +112,35 @@ public class StepExecution {
         this.exitCode = exitCode;
     }
 
+    /**
+     * 退出消息，保存在文本区中时每次调用都会重新解码
+     */
     public String getExitMessage() {
-        return exitMessage;
+        return textArena != null ? textArena.get(exitMessageHandle) : exitMessage;
     }
 
     public void setExitMessage(String exitMessage) {
         this.exitMessage = exitMessage;
+        this.textArena = null;
+        this.exitMessageHandle = TextArena.NULL_HANDLE;
+    }
+
+    /**
+     * 把退出消息写入文本区，记录只保留句柄
+     */
+    public void setExitMessage(TextArena textArena, String exitMessage) {
+        this.exitMessage = null;
+        this.textArena = textArena;
+        this.exitMessageHandle = textArena.append(exitMessage);
+    }
+
+    /**
+     * 引用文本区中已有的退出消息，供列式容器创建行对象
+     */
+    void attachExitMessage(TextArena textArena, long exitMessageHandle) {
+        this.exitMessage = null;
+        this.textArena = textArena;
+        this.exitMessageHandle = exitMessageHandle;
     }
 
     public int getReadCount() {
@@ -171,12 +211,13 @@ public class StepExecution {
     public String toString() {
         return "StepExecution{" +
                 "id=" + id +
+                ", jobExecutionId=" + jobExecutionId +
                 ", stepName='" + stepName + '\'' +
                 ", startTime=" + startTime +
                 ", endTime=" + endTime +
                 ", status='" + status + '\'' +
                 ", exitCode='" + exitCode + '\'' +
-                ", exitMessage='" + exitMessage + '\'' +
+                ", exitMessage='" + getExitMessage() + '\'' +
                 ", readCount=" + readCount +
                 ", writeCount=" + writeCount +
                 ", commitCount=" + commitCount +
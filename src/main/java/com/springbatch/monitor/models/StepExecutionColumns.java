@@ -0,0 +1,114 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.StringDictionary;
+import com.springbatch.monitor.utils.TextArena;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * 步骤执行列表的列式表示，名称列为步骤名称；各项计数按行连续存放在一个 int 数组中
+ */
+public class StepExecutionColumns extends ExecutionColumns {
+    public static final int READ = 0;
+    public static final int WRITE = 1;
+    public static final int COMMIT = 2;
+    public static final int ROLLBACK = 3;
+    public static final int READ_SKIP = 4;
+    public static final int PROCESS_SKIP = 5;
+    public static final int WRITE_SKIP = 6;
+    public static final int FILTER = 7;
+    private static final int COUNTS = 8;
+
+    private long[] jobExecutionIds;
+    private int[] counts;
+
+    public StepExecutionColumns(StringDictionary dictionary, TextArena textArena) {
+        this(dictionary, textArena, 128);
+    }
+
+    public StepExecutionColumns(StringDictionary dictionary, TextArena textArena, int initialCapacity) {
+        super(dictionary, textArena, initialCapacity);
+        jobExecutionIds = new long[capacity()];
+        counts = new int[capacity() * COUNTS];
+    }
+
+    /**
+     * 空列表
+     */
+    public static StepExecutionColumns empty() {
+        return new StepExecutionColumns(newDictionary(), new TextArena(), 0);
+    }
+
+    /**
+     * 追加一行，计数按 READ 到 FILTER 的顺序传入
+     */
+    public void add(long id, long jobExecutionId, String stepName, Timestamp startTime, Timestamp endTime,
+                    String status, String exitCode, String exitMessage, int... stepCounts) {
+        int row = addCommon(id, stepName, startTime, endTime, status, exitCode, exitMessage);
+        jobExecutionIds[row] = jobExecutionId;
+        System.arraycopy(stepCounts, 0, counts, row * COUNTS, Math.min(COUNTS, stepCounts.length));
+    }
+
+    public long getJobExecutionId(int row) {
+        return jobExecutionIds[row];
+    }
+
+    public String getStepName(int row) {
+        return getName(row);
+    }
+
+    /**
+     * 计数列，count 为 READ 到 FILTER 之一
+     */
+    public int getCount(int row, int count) {
+        return counts[row * COUNTS + count];
+    }
+
+    /**
+     * 按需创建行对象，退出消息仍引用同一个文本区
+     */
+    public StepExecution getRow(int row) {
+        StepExecution execution = new StepExecution();
+        execution.setId(getId(row));
+        execution.setJobExecutionId(jobExecutionIds[row]);
+        execution.setStepName(getStepName(row));
+        execution.setStartTime(toTimestamp(getStartTime(row)));
+        execution.setEndTime(toTimestamp(getEndTime(row)));
+        execution.setStatus(getStatus(row));
+        execution.setExitCode(getExitCode(row));
+        execution.attachExitMessage(textArena, getExitMessageHandle(row));
+        execution.setReadCount(getCount(row, READ));
+        execution.setWriteCount(getCount(row, WRITE));
+        execution.setCommitCount(getCount(row, COMMIT));
+        execution.setRollbackCount(getCount(row, ROLLBACK));
+        execution.setReadSkipCount(getCount(row, READ_SKIP));
+        execution.setProcessSkipCount(getCount(row, PROCESS_SKIP));
+        execution.setWriteSkipCount(getCount(row, WRITE_SKIP));
+        execution.setFilterCount(getCount(row, FILTER));
+        return execution;
+    }
+
+    @Override
+    public long estimateBytes() {
+        return super.estimateBytes() + jobExecutionIds.length * 8L + counts.length * 4L;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        super.grow(capacity);
+        jobExecutionIds = Arrays.copyOf(jobExecutionIds, capacity);
+        counts = Arrays.copyOf(counts, capacity * COUNTS);
+    }
+
+    @Override
+    protected void permute(int[] order) {
+        super.permute(order);
+        jobExecutionIds = permute(jobExecutionIds, order);
+        int[] permuted = new int[counts.length];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(counts, order[i] * COUNTS, permuted, i * COUNTS, COUNTS);
+        }
+        counts = permuted;
+    }
+}
@@ -0,0 +1,146 @@
+package com.springbatch.monitor.models;
+
+/**
+ * 步骤回滚/跳过热点模型 - 按步骤名称聚合的一段时间窗口内的统计
+ */
+public class StepHotspot {
+    private String stepName;
+    private long executionCount;
+    private long readCount;
+    private long writeCount;
+    private long commitCount;
+    private long rollbackCount;
+    private long skipCount;
+    // 窗口前半段与后半段的回滚/跳过率，用于判断趋势
+    private double earlierRollbackRate;
+    private double recentRollbackRate;
+    private double earlierSkipRate;
+    private double recentSkipRate;
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public void setStepName(String stepName) {
+        this.stepName = stepName;
+    }
+
+    public long getExecutionCount() {
+        return executionCount;
+    }
+
+    public void setExecutionCount(long executionCount) {
+        this.executionCount = executionCount;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public void setReadCount(long readCount) {
+        this.readCount = readCount;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public void setWriteCount(long writeCount) {
+        this.writeCount = writeCount;
+    }
+
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    public void setCommitCount(long commitCount) {
+        this.commitCount = commitCount;
+    }
+
+    public long getRollbackCount() {
+        return rollbackCount;
+    }
+
+    public void setRollbackCount(long rollbackCount) {
+        this.rollbackCount = rollbackCount;
+    }
+
+    public long getSkipCount() {
+        return skipCount;
+    }
+
+    public void setSkipCount(long skipCount) {
+        this.skipCount = skipCount;
+    }
+
+    public double getEarlierRollbackRate() {
+        return earlierRollbackRate;
+    }
+
+    public void setEarlierRollbackRate(double earlierRollbackRate) {
+        this.earlierRollbackRate = earlierRollbackRate;
+    }
+
+    public double getRecentRollbackRate() {
+        return recentRollbackRate;
+    }
+
+    public void setRecentRollbackRate(double recentRollbackRate) {
+        this.recentRollbackRate = recentRollbackRate;
+    }
+
+    public double getEarlierSkipRate() {
+        return earlierSkipRate;
+    }
+
+    public void setEarlierSkipRate(double earlierSkipRate) {
+        this.earlierSkipRate = earlierSkipRate;
+    }
+
+    public double getRecentSkipRate() {
+        return recentSkipRate;
+    }
+
+    public void setRecentSkipRate(double recentSkipRate) {
+        this.recentSkipRate = recentSkipRate;
+    }
+
+    /**
+     * 回滚率：回滚事务数占全部块事务（提交+回滚）的比例
+     */
+    public double getRollbackRate() {
+        long transactions = commitCount + rollbackCount;
+        return transactions > 0 ? (double) rollbackCount / transactions : 0;
+    }
+
+    /**
+     * 跳过率：跳过记录数占读取记录数的比例
+     */
+    public double getSkipRate() {
+        return readCount > 0 ? (double) skipCount / readCount : 0;
+    }
+
+    /**
+     * 平均每次提交处理的记录数（即实际块大小）
+     */
+    public double getAverageItemsPerCommit() {
+        return commitCount > 0 ? (double) readCount / commitCount : 0;
+    }
+
+    /**
+     * 估算因回滚而被重复处理的记录数：每次回滚都会重读整个块
+     */
+    public long getEstimatedReprocessedItems() {
+        return Math.round(rollbackCount * getAverageItemsPerCommit());
+    }
+
+    @Override
+    public String toString() {
+        return "StepHotspot{" +
+                "stepName='" + stepName + '\'' +
+                ", executionCount=" + executionCount +
+                ", rollbackCount=" + rollbackCount +
+                ", skipCount=" + skipCount +
+                '}';
+    }
+}
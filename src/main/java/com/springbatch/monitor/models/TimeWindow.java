@@ -0,0 +1,201 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * 分析时间窗口模型 - 以 [from, to) 半开区间表示，from 为空表示不限制起点
+ */
+public class TimeWindow {
+    private final Timestamp from;
+    private final Timestamp to;
+    private final String label;
+    private final String cacheKey;
+    private final boolean sliding;
+
+    public TimeWindow(Timestamp from, Timestamp to, String label) {
+        this(from, to, label, "range:" + (from != null ? from.getTime() : "") + "-" + to.getTime(), false);
+    }
+
+    private TimeWindow(Timestamp from, Timestamp to, String label, String cacheKey, boolean sliding) {
+        this.from = from;
+        this.to = to;
+        this.label = label;
+        this.cacheKey = cacheKey;
+        this.sliding = sliding;
+    }
+
+    /**
+     * 按预设窗口以当前时间为终点解析出具体时间范围
+     */
+    public static TimeWindow of(Preset preset) {
+        long now = System.currentTimeMillis();
+        Timestamp to = new Timestamp(now);
+        if (preset.getMillis() <= 0) {
+            return new TimeWindow(null, to, preset.getDisplayName(), preset.name(), true);
+        }
+        return new TimeWindow(new Timestamp(now - preset.getMillis()), to, preset.getDisplayName(), preset.name(), true);
+    }
+
+    /**
+     * 解析自定义时间范围，格式同作业列表的时间过滤（见 DateTimeUtils）
+     *
+     * 结束时间按"包含该秒"处理：仅日期时包含当天全天，
+     * 转换为半开区间后终点为下一秒。
+     *
+     * @return 解析失败返回null
+     */
+    public static TimeWindow parse(String fromText, String toText) {
+        Timestamp from = DateTimeUtils.parseStartDateTime(fromText);
+        Timestamp to;
+        if (toText == null || toText.trim().isEmpty()) {
+            to = new Timestamp(System.currentTimeMillis());
+        } else {
+            Timestamp end = DateTimeUtils.parseEndDateTime(toText);
+            if (end == null) {
+                return null;
+            }
+            to = new Timestamp(end.getTime() + 1000);
+        }
+        if (fromText != null && !fromText.trim().isEmpty() && from == null) {
+            return null;
+        }
+        if (from != null && !from.before(to)) {
+            return null;
+        }
+        String label = (from != null ? fromText.trim() : "") + " ~ "
+                + (toText != null && !toText.trim().isEmpty() ? toText.trim() : "现在");
+        if (toText == null || toText.trim().isEmpty()) {
+            // 终点为"现在"的窗口随时间滑动，缓存键不包含终点
+            return new TimeWindow(from, to, label, "range:" + (from != null ? from.getTime() : "") + "-now", true);
+        }
+        return new TimeWindow(from, to, label);
+    }
+
+    public Timestamp getFrom() {
+        return from;
+    }
+
+    public Timestamp getTo() {
+        return to;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean isUnbounded() {
+        return from == null;
+    }
+
+    /**
+     * 缓存键：预设窗口使用预设名称（随时间滑动），自定义窗口使用具体范围
+     */
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    /**
+     * 终点为当前时间、随时间滑动的窗口
+     */
+    public boolean isSliding() {
+        return sliding;
+    }
+
+    public long getLengthMillis() {
+        return from != null ? to.getTime() - from.getTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 列的范围条件（以空格结尾），直接作用于列以便使用索引；参数由 {@link #bind} 按相同顺序绑定
+     */
+    public String predicate(String column) {
+        return from == null
+                ? column + " < ? "
+                : column + " >= ? AND " + column + " < ? ";
+    }
+
+    /**
+     * 从 startIndex 起绑定一组 {@link #predicate} 的参数
+     *
+     * @return 下一个参数位置
+     */
+    public int bind(PreparedStatement stmt, int startIndex) throws SQLException {
+        int index = startIndex;
+        if (from != null) {
+            stmt.setTimestamp(index++, from);
+        }
+        stmt.setTimestamp(index++, to);
+        return index;
+    }
+
+    /**
+     * 只裁剪起点的 WHERE 子句（以空格结尾），不限起点时为空串；参数由 {@link #bindStart} 绑定
+     */
+    public String startClause(String column) {
+        return from == null ? "" : "WHERE " + column + " >= ? ";
+    }
+
+    /**
+     * 从 startIndex 起绑定 {@link #startClause} 的参数，不限起点时不绑定
+     *
+     * @return 下一个参数位置
+     */
+    public int bindStart(PreparedStatement stmt, int startIndex) throws SQLException {
+        if (from == null) {
+            return startIndex;
+        }
+        stmt.setTimestamp(startIndex, from);
+        return startIndex + 1;
+    }
+
+    /**
+     * 窗口中点，用于前后两半的趋势对比；不限起点时取最近7天作为"近期"
+     */
+    public Timestamp getMidpoint() {
+        if (from == null) {
+            return new Timestamp(to.getTime() - Preset.LAST_7_DAYS.getMillis());
+        }
+        return new Timestamp(from.getTime() + (to.getTime() - from.getTime()) / 2);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    /**
+     * 预设时间窗口
+     */
+    public enum Preset {
+        LAST_HOUR("近1小时", 3600L * 1000),
+        LAST_24_HOURS("近24小时", 24L * 3600 * 1000),
+        LAST_7_DAYS("近7天", 7L * 24 * 3600 * 1000),
+        LAST_30_DAYS("近30天", 30L * 24 * 3600 * 1000),
+        ALL("全部", 0);
+
+        private final String displayName;
+        private final long millis;
+
+        Preset(String displayName, long millis) {
+            this.displayName = displayName;
+            this.millis = millis;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+}
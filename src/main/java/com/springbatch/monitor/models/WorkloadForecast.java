@@ -0,0 +1,57 @@
+package com.springbatch.monitor.models;
+
+import com.springbatch.monitor.utils.TrendModel;
+
+import java.time.LocalDate;
+
+/**
+ * 作业负载预测 - 单次执行耗时和每日写入量的趋势，以及耗时预计超过批处理窗口上限的日期
+ */
+public class WorkloadForecast {
+    private final String jobName;
+    private final TrendModel durationTrend;
+    private final TrendModel writeTrend;
+    private final double recentAverageMillis;
+    private final LocalDate crossingDay;
+
+    public WorkloadForecast(String jobName, TrendModel durationTrend, TrendModel writeTrend,
+                            double recentAverageMillis, LocalDate crossingDay) {
+        this.jobName = jobName;
+        this.durationTrend = durationTrend;
+        this.writeTrend = writeTrend;
+        this.recentAverageMillis = recentAverageMillis;
+        this.crossingDay = crossingDay;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    /**
+     * 单次执行平均耗时（毫秒）的逐日趋势
+     */
+    public TrendModel getDurationTrend() {
+        return durationTrend;
+    }
+
+    /**
+     * 每日写入量的趋势，没有写入记录时为null
+     */
+    public TrendModel getWriteTrend() {
+        return writeTrend;
+    }
+
+    /**
+     * 最近 7 个有执行的天的单次平均耗时
+     */
+    public double getRecentAverageMillis() {
+        return recentAverageMillis;
+    }
+
+    /**
+     * 预计耗时超过上限的日期，预测期内不会超过时为null
+     */
+    public LocalDate getCrossingDay() {
+        return crossingDay;
+    }
+}
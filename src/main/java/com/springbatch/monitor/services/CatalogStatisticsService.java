@@ -0,0 +1,140 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.model.DataSourceConfig;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 目录统计服务 - 从数据库的系统目录读取表行数估算值，避免对大表执行 COUNT(*) 全表扫描
+ */
+public class CatalogStatisticsService {
+    private static final CatalogStatisticsService INSTANCE = new CatalogStatisticsService();
+
+    public static final List<String> BATCH_TABLES = Collections.unmodifiableList(Arrays.asList(
+            "BATCH_JOB_INSTANCE",
+            "BATCH_JOB_EXECUTION",
+            "BATCH_JOB_EXECUTION_PARAMS",
+            "BATCH_JOB_EXECUTION_CONTEXT",
+            "BATCH_STEP_EXECUTION",
+            "BATCH_STEP_EXECUTION_CONTEXT"
+    ));
+
+    private CatalogStatisticsService() {
+    }
+
+    public static CatalogStatisticsService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 数据库是否提供可用的目录行数估算
+     */
+    public boolean supportsEstimates(DataSourceConfig.DatabaseType databaseType) {
+        return getEstimateSql(databaseType) != null;
+    }
+
+    /**
+     * 读取各个 Spring Batch 表的行数估算值
+     *
+     * 不支持目录统计的数据库（H2、SQLite 等本地库）返回精确计数；
+     * 尚未收集统计信息的表不出现在结果中。
+     *
+     * @return 表名 -> 行数，保持 BATCH_TABLES 的顺序
+     */
+    public Map<String, Long> estimateRowCounts(String dataSourceId) throws SQLException {
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        DataSourceConfig config = DatabaseService.getInstance().getDataSourceConfig(dataSourceId);
+        if (dataSource == null || config == null) {
+            return rowCounts;
+        }
+
+        String sql = getEstimateSql(config.getDatabaseType());
+        try (Connection conn = dataSource.getConnection()) {
+            for (String table : BATCH_TABLES) {
+                Long rows = sql != null
+                        ? queryEstimate(conn, sql, tableNameParameter(config.getDatabaseType(), table))
+                        : queryExactCount(conn, table);
+                if (rows != null) {
+                    rowCounts.put(table, rows);
+                }
+            }
+        }
+        return rowCounts;
+    }
+
+    /**
+     * 精确统计单表行数
+     */
+    public long countRows(String dataSourceId, String table) throws SQLException {
+        if (!BATCH_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unsupported table: " + table);
+        }
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            Long rows = queryExactCount(conn, table);
+            return rows != null ? rows : 0;
+        }
+    }
+
+    private String getEstimateSql(DataSourceConfig.DatabaseType databaseType) {
+        if (databaseType == null) {
+            return null;
+        }
+        switch (databaseType) {
+            case POSTGRESQL:
+                // reltuples 为 -1 表示从未 ANALYZE
+                return "SELECT CASE WHEN c.reltuples < 0 THEN NULL ELSE CAST(c.reltuples AS BIGINT) END " +
+                       "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                       "WHERE c.relname = ? AND n.nspname = ANY (current_schemas(false))";
+            case ORACLE:
+                return "SELECT NUM_ROWS FROM ALL_TABLES " +
+                       "WHERE TABLE_NAME = ? AND OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')";
+            case MYSQL:
+                return "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                       "WHERE TABLE_SCHEMA = DATABASE() AND UPPER(TABLE_NAME) = ?";
+            case SQL_SERVER:
+                return "SELECT SUM(p.rows) FROM sys.partitions p " +
+                       "WHERE p.object_id = OBJECT_ID(?) AND p.index_id IN (0, 1)";
+            default:
+                return null;
+        }
+    }
+
+    private String tableNameParameter(DataSourceConfig.DatabaseType databaseType, String table) {
+        // PostgreSQL 未加引号的标识符以小写存储
+        return databaseType == DataSourceConfig.DatabaseType.POSTGRESQL ? table.toLowerCase() : table;
+    }
+
+    private Long queryEstimate(Connection conn, String sql, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    long rows = rs.getLong(1);
+                    return rs.wasNull() ? null : rows;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Long queryExactCount(Connection conn, String table) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            // 表不存在（如未使用上下文表）时忽略
+            return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.ChunkAdvice;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 块大小建议服务 - 根据提交次数、回滚次数和耗时推导每个步骤的块大小是否合适
+ *
+ * 把每次步骤执行的耗时近似为 提交次数 × a + 读取记录数 × b，
+ * 最小二乘拟合所需的平方和、交叉积在数据库端按步骤名称汇总，只传输汇总行。
+ * 得到单次提交开销 a 和单条处理耗时 b 后，结合每条记录的回滚概率 q，
+ * 单条平均成本 a/n + b·n·q/2 在 n = √(2a / (b·q)) 处最小。
+ */
+public class ChunkAdvisorService {
+    private static final ChunkAdvisorService INSTANCE = new ChunkAdvisorService();
+
+    // 提交开销超过此占比视为块过小
+    private static final double TINY_OVERHEAD_SHARE = 0.3;
+    // 无法拟合成本模型时的块过小判断
+    private static final double TINY_CHUNK_SIZE = 10;
+    private static final double TINY_MILLIS_PER_COMMIT = 200;
+    // 块过大且频繁回滚的判断
+    private static final double LARGE_CHUNK_SIZE = 500;
+    private static final double LARGE_ROLLBACK_RATE = 0.05;
+    private static final double LARGE_WASTE_SHARE = 0.1;
+    // 无回滚时建议把提交开销控制在总耗时的 5% 以内
+    private static final double TARGET_OVERHEAD_SHARE = 0.05;
+    private static final int MIN_EXECUTIONS_FOR_FIT = 3;
+    private static final long MAX_SUGGESTED_CHUNK_SIZE = 10000;
+
+    private ChunkAdvisorService() {
+    }
+
+    public static ChunkAdvisorService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 分析时间窗口内已结束的块处理步骤，问题步骤排在前面，其次按总耗时降序
+     */
+    public List<ChunkAdvice> getChunkAdvice(String dataSourceId, TimeWindow window) throws SQLException {
+        List<ChunkAdvice> adviceList = new ArrayList<>();
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            return adviceList;
+        }
+
+        String duration = SqlDialect.forDataSource(dataSourceId).durationMillis("START_TIME", "END_TIME");
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("SELECT STEP_NAME, COUNT(*) AS EXEC_COUNT, SUM(R) AS READS, SUM(W) AS WRITES, ")
+                  .append("SUM(C) AS COMMITS, SUM(RB) AS ROLLBACKS, SUM(D) AS DURATION, ")
+                  .append("SUM(C * C) AS CC, SUM(C * R) AS CR, SUM(R * R) AS RR, ")
+                  .append("SUM(C * D) AS CD, SUM(R * D) AS RD ")
+                  .append("FROM (SELECT STEP_NAME, 1.0 * COMMIT_COUNT AS C, 1.0 * READ_COUNT AS R, ")
+                  .append("WRITE_COUNT AS W, ROLLBACK_COUNT AS RB, ").append(duration).append(" AS D ")
+                  .append("FROM BATCH_STEP_EXECUTION ")
+                  .append("WHERE END_TIME IS NOT NULL AND COMMIT_COUNT > 0 AND READ_COUNT > 0 ")
+                  .append("AND START_TIME < ? ");
+
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(window.getTo());
+        if (!window.isUnbounded()) {
+            sqlBuilder.append("AND START_TIME >= ? ");
+            parameters.add(window.getFrom());
+        }
+        sqlBuilder.append(") t GROUP BY STEP_NAME");
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ChunkAdvice advice = new ChunkAdvice();
+                    advice.setStepName(rs.getString("STEP_NAME"));
+                    advice.setExecutionCount(rs.getLong("EXEC_COUNT"));
+                    advice.setReadCount(rs.getLong("READS"));
+                    advice.setWriteCount(rs.getLong("WRITES"));
+                    advice.setCommitCount(rs.getLong("COMMITS"));
+                    advice.setRollbackCount(rs.getLong("ROLLBACKS"));
+                    advice.setTotalDurationMillis(Math.max(0, rs.getDouble("DURATION")));
+
+                    if (advice.getExecutionCount() >= MIN_EXECUTIONS_FOR_FIT) {
+                        fitCostModel(advice, rs.getDouble("CC"), rs.getDouble("CR"), rs.getDouble("RR"),
+                                rs.getDouble("CD"), rs.getDouble("RD"));
+                    }
+                    diagnose(advice);
+                    adviceList.add(advice);
+                }
+            }
+        }
+
+        adviceList.sort(Comparator.comparing(ChunkAdvice::getDiagnosis)
+                .thenComparing(Comparator.comparingDouble(ChunkAdvice::getTotalDurationMillis).reversed()));
+        return adviceList;
+    }
+
+    /**
+     * 解二元最小二乘的正规方程；块大小固定时提交次数与记录数近似共线，此时放弃拟合
+     */
+    private void fitCostModel(ChunkAdvice advice, double cc, double cr, double rr, double cd, double rd) {
+        double determinant = cc * rr - cr * cr;
+        if (determinant <= 1e-6 * cc * rr) {
+            return;
+        }
+        double commitOverhead = (cd * rr - rd * cr) / determinant;
+        double itemMillis = (rd * cc - cd * cr) / determinant;
+        if (commitOverhead < 0 || itemMillis <= 0) {
+            return;
+        }
+        advice.setCommitOverheadMillis(commitOverhead);
+        advice.setItemMillis(itemMillis);
+    }
+
+    private void diagnose(ChunkAdvice advice) {
+        double chunkSize = advice.getAverageChunkSize();
+        boolean tiny = advice.isCostModelFitted()
+                ? advice.getCommitOverheadShare() >= TINY_OVERHEAD_SHARE
+                : chunkSize < TINY_CHUNK_SIZE && advice.getMillisPerCommit() < TINY_MILLIS_PER_COMMIT;
+        boolean largeWithRollbacks = chunkSize >= LARGE_CHUNK_SIZE
+                && (advice.getRollbackRate() >= LARGE_ROLLBACK_RATE
+                    || advice.getRollbackWasteShare() >= LARGE_WASTE_SHARE);
+
+        if (largeWithRollbacks) {
+            advice.setDiagnosis(ChunkAdvice.Diagnosis.LARGE_CHUNKS_WITH_ROLLBACKS);
+        } else if (tiny) {
+            advice.setDiagnosis(ChunkAdvice.Diagnosis.TINY_CHUNKS);
+        }
+        advice.setSuggestedChunkSize(suggestChunkSize(advice));
+    }
+
+    private long suggestChunkSize(ChunkAdvice advice) {
+        double chunkSize = advice.getAverageChunkSize();
+        double optimal;
+        if (advice.isCostModelFitted() && advice.getCommitOverheadMillis() > 0) {
+            double a = advice.getCommitOverheadMillis();
+            double b = advice.getItemMillis();
+            double itemRollbackProbability = advice.getReadCount() > 0
+                    ? (double) advice.getRollbackCount() / advice.getReadCount() : 0;
+            optimal = itemRollbackProbability > 0
+                    ? Math.sqrt(2 * a / (b * itemRollbackProbability))
+                    : a * (1 - TARGET_OVERHEAD_SHARE) / (b * TARGET_OVERHEAD_SHARE);
+        } else if (advice.getDiagnosis() == ChunkAdvice.Diagnosis.TINY_CHUNKS) {
+            optimal = chunkSize * 10;
+        } else if (advice.getDiagnosis() == ChunkAdvice.Diagnosis.LARGE_CHUNKS_WITH_ROLLBACKS) {
+            optimal = chunkSize / 4;
+        } else {
+            return 0;
+        }
+        return roundToNiceValue(Math.max(1, Math.min(MAX_SUGGESTED_CHUNK_SIZE, optimal)));
+    }
+
+    /**
+     * 取最接近的 1/2/5 × 10^n
+     */
+    private static long roundToNiceValue(double value) {
+        double magnitude = Math.pow(10, Math.floor(Math.log10(value)));
+        long best = (long) magnitude;
+        for (double step : new double[]{1, 2, 5, 10}) {
+            long candidate = Math.round(step * magnitude);
+            if (Math.abs(candidate - value) < Math.abs(best - value)) {
+                best = candidate;
+            }
+        }
+        return Math.max(1, best);
+    }
+}
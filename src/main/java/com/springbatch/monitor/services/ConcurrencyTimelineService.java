@@ -0,0 +1,379 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.ConcurrencyTimeline;
+import com.springbatch.monitor.models.ExecutionInterval;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.utils.IntervalIndex;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 并发时间线服务 - 扫描线算法统计每一时刻运行中的作业/步骤执行数
+ *
+ * 执行区间按 START_TIME 排序后流式读取一次：遇到开始时间时先弹出最小堆中
+ * 已结束的区间，再将当前区间的结束时间入堆。内存中只保留同时运行的结束时间、
+ * 固定数量的时间桶，以及有上限的区间索引，与区间总数无关。
+ */
+public class ConcurrencyTimelineService {
+    private static final ConcurrencyTimelineService INSTANCE = new ConcurrencyTimelineService();
+
+    private static final int MAX_BUCKETS = 2000;
+    private static final long MIN_BUCKET_MILLIS = 1000L;
+    private static final int MAX_PEAK_WINDOWS = 20;
+    // 区间索引上限，约 44MB；超过后的区间只参与并发统计，查询时回查数据库。
+    // 索引由面板登记到 MemoryGovernor，内存不足时释放
+    private static final int MAX_INDEXED_INTERVALS = 1_000_000;
+    // 没有 END_TIME 的执行在索引中的结束时间，查询时显示为运行中
+    private static final long OPEN_END = Long.MAX_VALUE;
+
+    private ConcurrencyTimelineService() {
+    }
+
+    public static ConcurrencyTimelineService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 统计时间窗口内的并发执行数
+     */
+    public ConcurrencyTimeline buildTimeline(String dataSourceId, Subject subject, TimeWindow window)
+            throws SQLException {
+        DatabaseService databaseService = DatabaseService.getInstance();
+        DataSource dataSource = databaseService.getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            long to = window.getTo().getTime();
+            long from;
+            if (window.isUnbounded()) {
+                Timestamp earliest = queryEarliestStart(conn, subject);
+                from = earliest != null ? Math.min(earliest.getTime(), to - MIN_BUCKET_MILLIS) : to - MIN_BUCKET_MILLIS;
+            } else {
+                from = window.getFrom().getTime();
+            }
+
+            String sql = subject.selectSql() +
+                         " WHERE " + subject.startColumn() + " < ?" +
+                         (window.isUnbounded() ? "" :
+                                 " AND (" + subject.endColumn() + " IS NULL OR " + subject.endColumn() + " >= ?)") +
+                         " ORDER BY " + subject.startColumn();
+            Sweep sweep = new Sweep(from, to);
+            try (PreparedStatement stmt = databaseService.prepareStreamingStatement(conn, dataSourceId, sql)) {
+                stmt.setTimestamp(1, window.getTo());
+                if (!window.isUnbounded()) {
+                    stmt.setTimestamp(2, window.getFrom());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Timestamp start = rs.getTimestamp(2);
+                        if (start == null) {
+                            continue;
+                        }
+                        Timestamp end = rs.getTimestamp(3);
+                        sweep.accept(rs.getLong(1), rs.getString(4), start.getTime(),
+                                end != null ? end.getTime() : OPEN_END);
+                    }
+                }
+            }
+            return sweep.finish();
+        }
+    }
+
+    /**
+     * 查询某一时刻运行中的执行，索引覆盖该时刻时直接使用内存索引
+     */
+    public List<ExecutionInterval> getRunningAt(String dataSourceId, Subject subject, ConcurrencyTimeline timeline,
+                                                long time, int limit) throws SQLException {
+        // 索引可能随时被内存管理释放，只读取一次
+        IntervalIndex index = timeline.getIndex();
+        if (index != null && time <= timeline.getIndexedUntil()) {
+            List<ExecutionInterval> intervals = new ArrayList<>();
+            for (int position : index.findRunningAt(time, limit)) {
+                long end = index.getEnd(position);
+                intervals.add(new ExecutionInterval(index.getId(position),
+                        timeline.getName(index.getNameCode(position)),
+                        new Timestamp(index.getStart(position)),
+                        end != OPEN_END ? new Timestamp(end) : null));
+            }
+            return intervals;
+        }
+        return queryRunningAt(dataSourceId, subject, time, limit);
+    }
+
+    private List<ExecutionInterval> queryRunningAt(String dataSourceId, Subject subject, long time, int limit)
+            throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        String sql = subject.selectSql() +
+                     " WHERE " + subject.startColumn() + " <= ?" +
+                     " AND (" + subject.endColumn() + " IS NULL OR " + subject.endColumn() + " > ?)" +
+                     " ORDER BY " + subject.startColumn();
+        List<ExecutionInterval> intervals = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Timestamp instant = new Timestamp(time);
+            stmt.setTimestamp(1, instant);
+            stmt.setTimestamp(2, instant);
+            stmt.setMaxRows(limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    intervals.add(new ExecutionInterval(rs.getLong(1), rs.getString(4),
+                            rs.getTimestamp(2), rs.getTimestamp(3)));
+                }
+            }
+        }
+        return intervals;
+    }
+
+    private Timestamp queryEarliestStart(Connection conn, Subject subject) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT MIN(START_TIME) FROM " + subject.table());
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getTimestamp(1) : null;
+        }
+    }
+
+    /**
+     * 统计对象
+     */
+    public enum Subject {
+        JOB("作业执行"),
+        STEP("步骤执行");
+
+        private final String displayName;
+
+        Subject(String displayName) {
+            this.displayName = displayName;
+        }
+
+        String table() {
+            return this == JOB ? "BATCH_JOB_EXECUTION" : "BATCH_STEP_EXECUTION";
+        }
+
+        String startColumn() {
+            return this == JOB ? "je.START_TIME" : "START_TIME";
+        }
+
+        String endColumn() {
+            return this == JOB ? "je.END_TIME" : "END_TIME";
+        }
+
+        /**
+         * 查询列依次为：执行ID、开始时间、结束时间、名称
+         */
+        String selectSql() {
+            if (this == JOB) {
+                return "SELECT je.JOB_EXECUTION_ID, je.START_TIME, je.END_TIME, ji.JOB_NAME " +
+                       "FROM BATCH_JOB_EXECUTION je " +
+                       "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID";
+            }
+            return "SELECT STEP_EXECUTION_ID, START_TIME, END_TIME, STEP_NAME FROM BATCH_STEP_EXECUTION";
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 扫描线状态：按开始时间顺序接收区间，把并发数的变化累加到时间桶
+     */
+    private static class Sweep {
+        private final long from;
+        private final long to;
+        private final long bucketMillis;
+        private final int[] maxConcurrency;
+        private final double[] area;
+        private final LongMinHeap runningEnds = new LongMinHeap();
+        private final IntervalIndex index = new IntervalIndex();
+        private final Map<String, Integer> nameCodes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<ConcurrencyTimeline.PeakWindow> peakWindows = new ArrayList<>();
+        private long indexedUntil = Long.MAX_VALUE;
+        private long intervalCount;
+        private long cursor;
+        private int level;
+        private int peak;
+        private long peakStart;
+
+        Sweep(long from, long to) {
+            this.from = from;
+            this.to = to;
+            long span = Math.max(1, to - from);
+            this.bucketMillis = Math.max(MIN_BUCKET_MILLIS, (span + MAX_BUCKETS - 1) / MAX_BUCKETS);
+            int buckets = (int) Math.max(1, (span + bucketMillis - 1) / bucketMillis);
+            this.maxConcurrency = new int[buckets];
+            this.area = new double[buckets];
+            this.cursor = from;
+        }
+
+        /**
+         * @param end 没有 END_TIME 时为 {@link #OPEN_END}，统计时截至窗口结束，不会延伸到之后的时间
+         */
+        void accept(long id, String name, long start, long end) {
+            if (end < start) {
+                end = start;
+            }
+            intervalCount++;
+            if (index.size() < MAX_INDEXED_INTERVALS) {
+                index.add(start, end, id, nameCodes.computeIfAbsent(name != null ? name : "", key -> {
+                    names.add(key);
+                    return names.size() - 1;
+                }));
+            } else if (indexedUntil == Long.MAX_VALUE) {
+                // 此后开始的区间未建索引，早于该时刻的查询仍然完整
+                indexedUntil = start - 1;
+            }
+
+            while (!runningEnds.isEmpty() && runningEnds.peek() <= start) {
+                decrement(runningEnds.poll());
+            }
+            increment(start);
+            runningEnds.add(end == OPEN_END ? Math.max(start, to) : end);
+        }
+
+        ConcurrencyTimeline finish() {
+            while (!runningEnds.isEmpty()) {
+                decrement(runningEnds.poll());
+            }
+            index.build();
+
+            double[] average = new double[area.length];
+            for (int bucket = 0; bucket < area.length; bucket++) {
+                long bucketStart = from + bucket * bucketMillis;
+                long bucketLength = Math.min(bucketMillis, to - bucketStart);
+                average[bucket] = bucketLength > 0 ? area[bucket] / bucketLength : 0;
+            }
+            return new ConcurrencyTimeline(from, bucketMillis, maxConcurrency, average, peak,
+                    peakWindows, intervalCount, index, names, indexedUntil);
+        }
+
+        private void increment(long time) {
+            long clipped = advanceTo(time);
+            level++;
+            if (clipped < to) {
+                int bucket = bucketOf(clipped);
+                maxConcurrency[bucket] = Math.max(maxConcurrency[bucket], level);
+                if (level > peak) {
+                    peak = level;
+                    peakWindows.clear();
+                    peakStart = clipped;
+                } else if (level == peak) {
+                    peakStart = clipped;
+                }
+            }
+        }
+
+        private void decrement(long time) {
+            long clipped = advanceTo(time);
+            if (level == peak && peak > 0 && clipped > from) {
+                addPeakWindow(peakStart, clipped);
+            }
+            level--;
+        }
+
+        private void addPeakWindow(long start, long end) {
+            if (!peakWindows.isEmpty()) {
+                ConcurrencyTimeline.PeakWindow last = peakWindows.get(peakWindows.size() - 1);
+                if (last.getEnd() >= start) {
+                    peakWindows.set(peakWindows.size() - 1, new ConcurrencyTimeline.PeakWindow(last.getStart(), end));
+                    return;
+                }
+            }
+            if (peakWindows.size() < MAX_PEAK_WINDOWS) {
+                peakWindows.add(new ConcurrencyTimeline.PeakWindow(start, end));
+            }
+        }
+
+        /**
+         * 将当前并发数累加到 [cursor, time) 覆盖的时间桶，返回截取到窗口内的时间
+         */
+        private long advanceTo(long time) {
+            long clipped = Math.max(from, Math.min(time, to));
+            if (clipped <= cursor) {
+                return clipped;
+            }
+            if (level > 0) {
+                int first = bucketOf(cursor);
+                int last = bucketOf(clipped - 1);
+                for (int bucket = first; bucket <= last; bucket++) {
+                    long bucketStart = from + bucket * bucketMillis;
+                    long overlap = Math.min(clipped, bucketStart + bucketMillis) - Math.max(cursor, bucketStart);
+                    area[bucket] += (double) level * overlap;
+                    maxConcurrency[bucket] = Math.max(maxConcurrency[bucket], level);
+                }
+            }
+            cursor = clipped;
+            return clipped;
+        }
+
+        private int bucketOf(long time) {
+            return (int) Math.min(maxConcurrency.length - 1, Math.max(0, (time - from) / bucketMillis));
+        }
+    }
+
+    /**
+     * 基本类型 long 最小堆，保存运行中区间的结束时间
+     */
+    private static class LongMinHeap {
+        private long[] heap = new long[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void add(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int child = size++;
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[child] = heap[parent];
+                child = parent;
+            }
+            heap[child] = value;
+        }
+
+        long poll() {
+            long result = heap[0];
+            long last = heap[--size];
+            int parent = 0;
+            while (true) {
+                int child = parent * 2 + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) {
+                    break;
+                }
+                heap[parent] = heap[child];
+                parent = child;
+            }
+            heap[parent] = last;
+            return result;
+        }
+    }
+}
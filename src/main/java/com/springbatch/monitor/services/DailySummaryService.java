@@ -0,0 +1,209 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.DailySummary;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按天汇总服务 - 在数据库端按 (作业名称, 开始日期) 分组聚合，只查询请求范围内尚未缓存的天
+ *
+ * 已关闭的天（早于最近两天，且查询时其中的执行都已结束）不会再变化，汇总结果缓存在内存中，
+ * 向前翻看历史月份时只需查询新出现的天；最近两天和仍有执行未结束的天每次都重新查询。
+ * 数据源启用了汇总表时改为先增量刷新汇总表再从中读取。
+ */
+public class DailySummaryService {
+    private static final DailySummaryService INSTANCE = new DailySummaryService();
+
+    // 前一天开始的执行可能跨天仍在运行，只缓存更早的天
+    private static final int OPEN_DAYS = 2;
+    private static final int METRICS = DailySummary.Metric.values().length;
+    private static final String MEMORY_OWNER = "按天汇总";
+
+    private final Map<String, DayCache> caches = new ConcurrentHashMap<>();
+
+    private DailySummaryService() {
+    }
+
+    public static DailySummaryService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取从 firstDay 开始连续 dayCount 天的汇总，作业按名称排序
+     */
+    public DailySummary getSummary(String dataSourceId, LocalDate firstDay, int dayCount) throws SQLException {
+        DayCache cache = caches.computeIfAbsent(dataSourceId, id -> new DayCache());
+        long first = firstDay.toEpochDay();
+        long end = first + dayCount;
+        synchronized (cache) {
+            // 缺失的天通常是连续的一段（翻页或最近几天），合并为一次范围查询
+            long queryFrom = Long.MAX_VALUE;
+            long queryTo = Long.MIN_VALUE;
+            for (long day = first; day < end; day++) {
+                if (!cache.closedDays.contains(day)) {
+                    queryFrom = Math.min(queryFrom, day);
+                    queryTo = day + 1;
+                }
+            }
+            if (queryFrom < queryTo) {
+                query(dataSourceId, cache, queryFrom, queryTo);
+                MemoryGovernor.getInstance().track(MEMORY_OWNER, dataSourceId, cache, cache.estimateBytes(),
+                        (key, value) -> caches.remove(key, value));
+            } else {
+                MemoryGovernor.getInstance().touch(MEMORY_OWNER, dataSourceId);
+            }
+
+            TreeSet<String> jobNames = new TreeSet<>();
+            for (long day = first; day < end; day++) {
+                jobNames.addAll(cache.days.getOrDefault(day, Collections.emptyMap()).keySet());
+            }
+            List<String> jobs = new ArrayList<>(jobNames);
+            double[][][] values = new double[METRICS][jobs.size()][dayCount];
+            for (int job = 0; job < jobs.size(); job++) {
+                for (int day = 0; day < dayCount; day++) {
+                    double[] cell = cache.days.getOrDefault(first + day, Collections.emptyMap()).get(jobs.get(job));
+                    if (cell != null) {
+                        for (int metric = 0; metric < METRICS; metric++) {
+                            values[metric][job][day] = cell[metric];
+                        }
+                    }
+                }
+            }
+            return new DailySummary(firstDay, dayCount, jobs, values);
+        }
+    }
+
+    /**
+     * 丢弃数据源的缓存，下次全部重新查询
+     */
+    public void invalidate(String dataSourceId) {
+        caches.remove(dataSourceId);
+        MemoryGovernor.getInstance().untrack(MEMORY_OWNER, dataSourceId);
+    }
+
+    private void query(String dataSourceId, DayCache cache, long fromDay, long toDay) throws SQLException {
+        SummaryTableService summaryTable = SummaryTableService.getInstance();
+        if (summaryTable.isEnabled(dataSourceId)) {
+            summaryTable.refreshIfStale(dataSourceId);
+            cacheDays(cache, summaryTable.readDays(dataSourceId, fromDay, toDay), fromDay, toDay);
+            return;
+        }
+
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        SqlDialect dialect = SqlDialect.forDataSource(dataSourceId);
+        String day = dialect.truncateToDay("je.START_TIME");
+
+        String jobSql = "SELECT JOB_NAME, D, COUNT(*) AS CNT, " +
+                        "SUM(CASE WHEN STATUS = 'FAILED' THEN 1 ELSE 0 END) AS FAILED, SUM(DUR) AS TOTAL, " +
+                        "COUNT(DUR) AS FINISHED " +
+                        "FROM (SELECT ji.JOB_NAME AS JOB_NAME, " + day + " AS D, je.STATUS AS STATUS, " +
+                        dialect.durationMillis("je.START_TIME", "je.END_TIME") + " AS DUR " +
+                        "FROM BATCH_JOB_EXECUTION je " +
+                        "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                        "WHERE je.START_TIME >= ? AND je.START_TIME < ?) t " +
+                        "GROUP BY JOB_NAME, D";
+        // 步骤的读写量归入所属作业执行开始的那天
+        String stepSql = "SELECT JOB_NAME, D, SUM(READ_COUNT) AS READS, SUM(WRITE_COUNT) AS WRITES " +
+                         "FROM (SELECT ji.JOB_NAME AS JOB_NAME, " + day + " AS D, " +
+                         "se.READ_COUNT AS READ_COUNT, se.WRITE_COUNT AS WRITE_COUNT " +
+                         "FROM BATCH_STEP_EXECUTION se " +
+                         "JOIN BATCH_JOB_EXECUTION je ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                         "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                         "WHERE je.START_TIME >= ? AND je.START_TIME < ?) t " +
+                         "GROUP BY JOB_NAME, D";
+
+        Map<Long, Map<String, double[]>> days = new HashMap<>();
+        for (long d = fromDay; d < toDay; d++) {
+            days.put(d, new HashMap<>());
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(jobSql)) {
+                bind(stmt, fromDay, toDay);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        double[] cell = cellOf(days, rs);
+                        if (cell != null) {
+                            cell[DailySummary.Metric.EXECUTIONS.ordinal()] += rs.getLong("CNT");
+                            cell[DailySummary.Metric.FAILURES.ordinal()] += rs.getLong("FAILED");
+                            cell[DailySummary.Metric.DURATION.ordinal()] += rs.getDouble("TOTAL");
+                            cell[DailySummary.Metric.FINISHED.ordinal()] += rs.getLong("FINISHED");
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(stepSql)) {
+                bind(stmt, fromDay, toDay);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        double[] cell = cellOf(days, rs);
+                        if (cell != null) {
+                            cell[DailySummary.Metric.READ_COUNT.ordinal()] += rs.getLong("READS");
+                            cell[DailySummary.Metric.WRITE_COUNT.ordinal()] += rs.getLong("WRITES");
+                        }
+                    }
+                }
+            }
+        }
+
+        cacheDays(cache, days, fromDay, toDay);
+    }
+
+    /**
+     * 写入缓存；只有足够早且其中没有未结束执行的天标记为已关闭
+     */
+    private static void cacheDays(DayCache cache, Map<Long, Map<String, double[]>> days, long fromDay, long toDay) {
+        long closedBefore = LocalDate.now().toEpochDay() - OPEN_DAYS + 1;
+        cache.days.putAll(days);
+        for (long d = fromDay; d < Math.min(toDay, closedBefore); d++) {
+            if (allFinished(days.getOrDefault(d, Collections.emptyMap()))) {
+                cache.closedDays.add(d);
+            }
+        }
+    }
+
+    private static boolean allFinished(Map<String, double[]> jobs) {
+        for (double[] cell : jobs.values()) {
+            if (cell[DailySummary.Metric.FINISHED.ordinal()] < cell[DailySummary.Metric.EXECUTIONS.ordinal()]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] cellOf(Map<Long, Map<String, double[]>> days, ResultSet rs) throws SQLException {
+        Timestamp day = SqlDialect.readTimestamp(rs, "D");
+        Map<String, double[]> jobs = day != null ? days.get(day.toLocalDateTime().toLocalDate().toEpochDay()) : null;
+        return jobs != null ? jobs.computeIfAbsent(rs.getString("JOB_NAME"), name -> new double[METRICS]) : null;
+    }
+
+    private static void bind(PreparedStatement stmt, long fromDay, long toDay) throws SQLException {
+        stmt.setTimestamp(1, Timestamp.valueOf(LocalDate.ofEpochDay(fromDay).atStartOfDay()));
+        stmt.setTimestamp(2, Timestamp.valueOf(LocalDate.ofEpochDay(toDay).atStartOfDay()));
+    }
+
+    /**
+     * 单个数据源的逐日缓存：天（epoch day）→ 作业名称 → 各指标值
+     */
+    private static class DayCache {
+        final Map<Long, Map<String, double[]>> days = new HashMap<>();
+        final Set<Long> closedDays = new HashSet<>();
+
+        /**
+         * 估算占用：每个 (天, 作业) 单元一个指标数组和哈希表条目
+         */
+        long estimateBytes() {
+            long bytes = 64 + closedDays.size() * 48L;
+            for (Map<String, double[]> jobs : days.values()) {
+                bytes += 64 + jobs.size() * (64L + METRICS * 8L);
+            }
+            return bytes;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.springbatch.monitor.services;
 
 import com.springbatch.monitor.model.DataSourceConfig;
-import com.springbatch.monitor.models.JobExecution;
+import com.springbatch.monitor.models.ExecutionColumns;
+import com.springbatch.monitor.models.JobExecutionColumns;
 import com.springbatch.monitor.models.StepExecution;
+import com.springbatch.monitor.models.StepExecutionColumns;
 import com.springbatch.monitor.utils.DateTimeUtils;
+import com.springbatch.monitor.utils.SqlUtils;
+import com.springbatch.monitor.utils.StringDictionary;
+import com.springbatch.monitor.utils.TextArena;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -18,7 +23,13 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DatabaseService {
     private static final DatabaseService INSTANCE = new DatabaseService();
+    private static final int SEARCH_LIMIT = 500;
+    private static final int ID_BATCH_SIZE = 500;
+    // 字典编码数超过上限时换用新字典，防止异常数据（如每次不同的退出码）让字典无限增长
+    private static final int DICTIONARY_LIMIT = 65536;
     private final Map<String, DataSource> dataSources = new ConcurrentHashMap<>();
+    private final Map<String, DataSourceConfig> dataSourceConfigs = new ConcurrentHashMap<>();
+    private final Map<String, StringDictionary> dictionaries = new ConcurrentHashMap<>();
 
     private DatabaseService() {
     }
@@ -42,18 +53,77 @@ public class DatabaseService {
             hikariConfig.setConnectionTimeout(30000);
             hikariConfig.setIdleTimeout(600000);
             hikariConfig.setMaxLifetime(1800000);
+            hikariConfig.setReadOnly(config.isReadOnly());
 
             HikariDataSource dataSource = new HikariDataSource(hikariConfig);
             dataSources.put(config.getId(), dataSource);
+            dataSourceConfigs.put(config.getId(), config);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create data source: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 确保数据源已注册，已存在时复用现有连接池
+     */
+    public synchronized void ensureDataSource(DataSourceConfig config) {
+        if (!dataSources.containsKey(config.getId())) {
+            addDataSource(config);
+        }
+    }
+
+    /**
+     * 获取已注册的数据源
+     */
+    public DataSource getDataSource(String dataSourceId) {
+        return dataSources.get(dataSourceId);
+    }
+
+    /**
+     * 获取数据源的字符串字典，作业名称、步骤名称、状态和退出码在各次查询间共用同一套编码和实例
+     */
+    public StringDictionary getDictionary(String dataSourceId) {
+        StringDictionary dictionary = dictionaries.computeIfAbsent(dataSourceId,
+                id -> ExecutionColumns.newDictionary());
+        if (dictionary.size() > DICTIONARY_LIMIT) {
+            // 已加载的结果仍持有旧字典，不受影响
+            StringDictionary fresh = ExecutionColumns.newDictionary();
+            return dictionaries.replace(dataSourceId, dictionary, fresh) ? fresh : getDictionary(dataSourceId);
+        }
+        return dictionary;
+    }
+
+    /**
+     * 获取已注册数据源的配置
+     */
+    public DataSourceConfig getDataSourceConfig(String dataSourceId) {
+        return dataSourceConfigs.get(dataSourceId);
+    }
+
+    /**
+     * 创建流式读取的查询语句，结果集逐批从数据库拉取而不是一次性载入内存
+     *
+     * MySQL 驱动只有在 fetchSize 为 Integer.MIN_VALUE 时逐行流式返回；
+     * PostgreSQL 驱动只有在关闭自动提交时才使用游标分批读取（连接归还连接池时会重置）。
+     */
+    public PreparedStatement prepareStreamingStatement(Connection conn, String dataSourceId, String sql)
+            throws SQLException {
+        DataSourceConfig config = dataSourceConfigs.get(dataSourceId);
+        DataSourceConfig.DatabaseType databaseType = config != null ? config.getDatabaseType() : null;
+        if (databaseType == DataSourceConfig.DatabaseType.POSTGRESQL) {
+            conn.setAutoCommit(false);
+        }
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(databaseType == DataSourceConfig.DatabaseType.MYSQL ? Integer.MIN_VALUE : 1000);
+        return stmt;
+    }
+
     /**
      * 移除数据源
      */
     public void removeDataSource(String dataSourceId) {
+        dataSourceConfigs.remove(dataSourceId);
+        dictionaries.remove(dataSourceId);
         DataSource dataSource = dataSources.remove(dataSourceId);
         if (dataSource instanceof HikariDataSource) {
             ((HikariDataSource) dataSource).close();
@@ -105,8 +175,8 @@ public class DatabaseService {
     /**
      * 获取作业执行列表
      */
-    public List<JobExecution> getJobExecutions(String dataSourceId) {
-        List<JobExecution> executions = new ArrayList<>();
+    public JobExecutionColumns getJobExecutions(String dataSourceId) {
+        JobExecutionColumns executions = new JobExecutionColumns(getDictionary(dataSourceId), new TextArena());
         DataSource dataSource = dataSources.get(dataSourceId);
         if (dataSource == null) {
             return executions;
@@ -119,22 +189,8 @@ public class DatabaseService {
                      "ORDER BY je.START_TIME DESC " +
                      "LIMIT 100";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                JobExecution execution = new JobExecution();
-                execution.setId(rs.getLong("JOB_EXECUTION_ID"));
-                execution.setJobInstanceId(rs.getLong("JOB_INSTANCE_ID"));
-                execution.setJobName(rs.getString("JOB_NAME"));
-                execution.setStartTime(rs.getTimestamp("START_TIME"));
-                execution.setEndTime(rs.getTimestamp("END_TIME"));
-                execution.setStatus(rs.getString("STATUS"));
-                execution.setExitCode(rs.getString("EXIT_CODE"));
-                execution.setExitMessage(rs.getString("EXIT_MESSAGE"));
-                executions.add(execution);
-            }
+        try (Connection conn = dataSource.getConnection()) {
+            readJobExecutions(conn, sql, Collections.emptyList(), null, executions);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -145,9 +201,9 @@ public class DatabaseService {
     /**
      * 搜索作业执行列表
      */
-    public List<JobExecution> searchJobExecutions(String dataSourceId, String jobName, String status,
-                                                  String startDate, String endDate, String keyword) {
-        List<JobExecution> executions = new ArrayList<>();
+    public JobExecutionColumns searchJobExecutions(String dataSourceId, String jobName, String status,
+                                                   String startDate, String endDate, String keyword) {
+        JobExecutionColumns executions = new JobExecutionColumns(getDictionary(dataSourceId), new TextArena());
         DataSource dataSource = dataSources.get(dataSourceId);
         if (dataSource == null) {
             return executions;
@@ -161,21 +217,108 @@ public class DatabaseService {
                   .append("WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
+        sqlBuilder.append(jobSearchFilter(jobName, status, startDate, endDate, parameters));
+
+        long[] candidateIds = null;
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            candidateIds = searchExitMessageIndex(dataSourceId, ExitMessageIndex.Kind.JOB, keyword);
+            if (candidateIds == null) {
+                sqlBuilder.append(jobKeywordFilter(keyword, parameters));
+            }
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            if (candidateIds == null) {
+                sqlBuilder.append("ORDER BY je.START_TIME DESC LIMIT 500");
+                readJobExecutions(conn, sqlBuilder.toString(), parameters, null, executions);
+            } else {
+                // 按主键分批取回索引命中的执行，从最新的开始，取满为止
+                for (int start = 0; start < candidateIds.length && executions.size() < SEARCH_LIMIT;
+                     start += ID_BATCH_SIZE) {
+                    int end = Math.min(start + ID_BATCH_SIZE, candidateIds.length);
+                    String sql = sqlBuilder + "AND je.JOB_EXECUTION_ID IN " + SqlUtils.placeholders(end - start);
+                    List<Object> batchParameters = new ArrayList<>(parameters);
+                    for (int i = start; i < end; i++) {
+                        batchParameters.add(candidateIds[i]);
+                    }
+                    readJobExecutions(conn, sql, batchParameters, keyword, executions);
+                }
+                executions.sortByStartTimeDescending();
+                executions.truncate(SEARCH_LIMIT);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return executions;
+    }
 
+    /**
+     * 作业执行搜索条件（表别名 je / ji），参数追加到 parameters
+     */
+    static String jobSearchFilter(String jobName, String status, String startDate, String endDate,
+                                  List<Object> parameters) {
+        StringBuilder filter = new StringBuilder();
         if (jobName != null && !jobName.trim().isEmpty()) {
-            sqlBuilder.append("AND ji.JOB_NAME LIKE ? ");
+            filter.append("AND ji.JOB_NAME LIKE ? ");
             parameters.add("%" + jobName.trim() + "%");
         }
+        appendCommonFilter(filter, "je", status, startDate, endDate, parameters);
+        return filter.toString();
+    }
+
+    /**
+     * 关键字的模糊匹配条件，本地索引不可用或需要完整结果时使用
+     */
+    static String jobKeywordFilter(String keyword, List<Object> parameters) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return "";
+        }
+        String keywordPattern = "%" + keyword.trim() + "%";
+        parameters.add(keywordPattern);
+        parameters.add(keywordPattern);
+        return "AND (ji.JOB_NAME LIKE ? OR je.EXIT_MESSAGE LIKE ?) ";
+    }
+
+    /**
+     * 步骤执行搜索条件（表别名 se），参数追加到 parameters
+     */
+    static String stepSearchFilter(String stepName, String status, String startDate, String endDate,
+                                   Long jobExecutionId, List<Object> parameters) {
+        StringBuilder filter = new StringBuilder();
+        if (stepName != null && !stepName.trim().isEmpty()) {
+            filter.append("AND se.STEP_NAME LIKE ? ");
+            parameters.add("%" + stepName.trim() + "%");
+        }
+        appendCommonFilter(filter, "se", status, startDate, endDate, parameters);
+        if (jobExecutionId != null) {
+            filter.append("AND se.JOB_EXECUTION_ID = ? ");
+            parameters.add(jobExecutionId);
+        }
+        return filter.toString();
+    }
 
+    static String stepKeywordFilter(String keyword, List<Object> parameters) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return "";
+        }
+        String keywordPattern = "%" + keyword.trim() + "%";
+        parameters.add(keywordPattern);
+        parameters.add(keywordPattern);
+        return "AND (se.EXIT_CODE LIKE ? OR se.EXIT_MESSAGE LIKE ?) ";
+    }
+
+    private static void appendCommonFilter(StringBuilder filter, String alias, String status, String startDate,
+                                           String endDate, List<Object> parameters) {
         if (status != null && !status.trim().isEmpty()) {
-            sqlBuilder.append("AND je.STATUS = ? ");
+            filter.append("AND ").append(alias).append(".STATUS = ? ");
             parameters.add(status.trim());
         }
 
         if (startDate != null && !startDate.trim().isEmpty()) {
             java.sql.Timestamp startTimestamp = DateTimeUtils.parseStartDateTime(startDate.trim());
             if (startTimestamp != null) {
-                sqlBuilder.append("AND je.START_TIME >= ? ");
+                filter.append("AND ").append(alias).append(".START_TIME >= ? ");
                 parameters.add(startTimestamp);
             }
         }
@@ -183,46 +326,48 @@ public class DatabaseService {
         if (endDate != null && !endDate.trim().isEmpty()) {
             java.sql.Timestamp endTimestamp = DateTimeUtils.parseEndDateTime(endDate.trim());
             if (endTimestamp != null) {
-                sqlBuilder.append("AND je.END_TIME <= ? ");
+                filter.append("AND ").append(alias).append(".END_TIME <= ? ");
                 parameters.add(endTimestamp);
             }
         }
+    }
 
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            sqlBuilder.append("AND (ji.JOB_NAME LIKE ? OR je.EXIT_MESSAGE LIKE ?) ");
-            String keywordPattern = "%" + keyword.trim() + "%";
-            parameters.add(keywordPattern);
-            parameters.add(keywordPattern);
-        }
-
-        sqlBuilder.append("ORDER BY je.START_TIME DESC LIMIT 500");
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
-
+    /**
+     * 读取作业执行记录；keyword 不为空时只保留确实命中关键字的记录
+     */
+    private void readJobExecutions(Connection conn, String sql, List<Object> parameters, String keyword,
+                                   JobExecutionColumns executions) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
             }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    JobExecution execution = new JobExecution();
-                    execution.setId(rs.getLong("JOB_EXECUTION_ID"));
-                    execution.setJobInstanceId(rs.getLong("JOB_INSTANCE_ID"));
-                    execution.setJobName(rs.getString("JOB_NAME"));
-                    execution.setStartTime(rs.getTimestamp("START_TIME"));
-                    execution.setEndTime(rs.getTimestamp("END_TIME"));
-                    execution.setStatus(rs.getString("STATUS"));
-                    execution.setExitCode(rs.getString("EXIT_CODE"));
-                    execution.setExitMessage(rs.getString("EXIT_MESSAGE"));
-                    executions.add(execution);
+                    String jobName = rs.getString("JOB_NAME");
+                    String exitCode = rs.getString("EXIT_CODE");
+                    String exitMessage = rs.getString("EXIT_MESSAGE");
+                    // 先用读出的字符串校验关键字，只有保留的记录才写入列
+                    if (keyword == null || ExitMessageIndex.matches(keyword, jobName, exitCode, exitMessage)) {
+                        executions.add(rs.getLong("JOB_EXECUTION_ID"), rs.getLong("JOB_INSTANCE_ID"), jobName,
+                                rs.getTimestamp("START_TIME"), rs.getTimestamp("END_TIME"), rs.getString("STATUS"),
+                                exitCode, exitMessage);
+                    }
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
+    }
 
-        return executions;
+    /**
+     * 用本地退出消息索引解析关键字，索引不可用时返回null由调用方回退到模糊查询
+     */
+    private long[] searchExitMessageIndex(String dataSourceId, ExitMessageIndex.Kind kind, String keyword) {
+        try {
+            return ExitMessageIndex.getInstance().search(dataSourceId, kind, keyword);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
     }
 
     /**
@@ -247,25 +392,11 @@ public class DatabaseService {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, jobExecutionId);
+            TextArena textArena = new TextArena();
+            StringDictionary dictionary = getDictionary(dataSourceId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    StepExecution execution = new StepExecution();
-                    execution.setId(rs.getLong("STEP_EXECUTION_ID"));
-                    execution.setStepName(rs.getString("STEP_NAME"));
-                    execution.setStartTime(rs.getTimestamp("START_TIME"));
-                    execution.setEndTime(rs.getTimestamp("END_TIME"));
-                    execution.setStatus(rs.getString("STATUS"));
-                    execution.setExitCode(rs.getString("EXIT_CODE"));
-                    execution.setExitMessage(rs.getString("EXIT_MESSAGE"));
-                    execution.setReadCount(rs.getInt("READ_COUNT"));
-                    execution.setWriteCount(rs.getInt("WRITE_COUNT"));
-                    execution.setCommitCount(rs.getInt("COMMIT_COUNT"));
-                    execution.setRollbackCount(rs.getInt("ROLLBACK_COUNT"));
-                    execution.setReadSkipCount(rs.getInt("READ_SKIP_COUNT"));
-                    execution.setProcessSkipCount(rs.getInt("PROCESS_SKIP_COUNT"));
-                    execution.setWriteSkipCount(rs.getInt("WRITE_SKIP_COUNT"));
-                    execution.setFilterCount(rs.getInt("FILTER_COUNT"));
-                    executions.add(execution);
+                    executions.add(mapStepExecution(rs, dictionary, textArena));
                 }
             }
         } catch (SQLException e) {
@@ -276,12 +407,79 @@ public class DatabaseService {
     }
 
     /**
-     * 搜索步骤执行列表
+     * 一次查询获取多个作业执行的全部步骤执行，按作业执行ID和步骤执行ID排序
      */
-    public List<StepExecution> searchStepExecutions(String dataSourceId, String stepName, String status,
-                                                    String startDate, String endDate, Long jobExecutionId) {
+    public List<StepExecution> getStepExecutions(String dataSourceId, List<Long> jobExecutionIds) {
         List<StepExecution> executions = new ArrayList<>();
         DataSource dataSource = dataSources.get(dataSourceId);
+        if (dataSource == null || jobExecutionIds.isEmpty()) {
+            return executions;
+        }
+
+        StringDictionary dictionary = getDictionary(dataSourceId);
+        TextArena textArena = new TextArena();
+        try (Connection conn = dataSource.getConnection()) {
+            for (int start = 0; start < jobExecutionIds.size(); start += ID_BATCH_SIZE) {
+                List<Long> batch = jobExecutionIds.subList(start, Math.min(start + ID_BATCH_SIZE, jobExecutionIds.size()));
+                String sql = "SELECT se.STEP_EXECUTION_ID, se.STEP_NAME, se.START_TIME, se.END_TIME, se.STATUS, " +
+                             "se.EXIT_CODE, se.EXIT_MESSAGE, se.READ_COUNT, se.WRITE_COUNT, se.COMMIT_COUNT, " +
+                             "se.ROLLBACK_COUNT, se.READ_SKIP_COUNT, se.PROCESS_SKIP_COUNT, se.WRITE_SKIP_COUNT, " +
+                             "se.FILTER_COUNT, se.JOB_EXECUTION_ID " +
+                             "FROM BATCH_STEP_EXECUTION se " +
+                             "WHERE se.JOB_EXECUTION_ID IN " + SqlUtils.placeholders(batch.size()) +
+                             "ORDER BY se.JOB_EXECUTION_ID, se.STEP_EXECUTION_ID";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setLong(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            StepExecution execution = mapStepExecution(rs, dictionary, textArena);
+                            execution.setJobExecutionId(rs.getLong("JOB_EXECUTION_ID"));
+                            executions.add(execution);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return executions;
+    }
+
+    /**
+     * 映射步骤执行的公共列，名称、状态和退出码经数据源字典共享实例
+     */
+    private static StepExecution mapStepExecution(ResultSet rs, StringDictionary dictionary, TextArena textArena)
+            throws SQLException {
+        StepExecution execution = new StepExecution();
+        execution.setId(rs.getLong("STEP_EXECUTION_ID"));
+        execution.setStepName(dictionary.intern(rs.getString("STEP_NAME")));
+        execution.setStartTime(rs.getTimestamp("START_TIME"));
+        execution.setEndTime(rs.getTimestamp("END_TIME"));
+        execution.setStatus(dictionary.intern(rs.getString("STATUS")));
+        execution.setExitCode(dictionary.intern(rs.getString("EXIT_CODE")));
+        execution.setExitMessage(textArena, rs.getString("EXIT_MESSAGE"));
+        execution.setReadCount(rs.getInt("READ_COUNT"));
+        execution.setWriteCount(rs.getInt("WRITE_COUNT"));
+        execution.setCommitCount(rs.getInt("COMMIT_COUNT"));
+        execution.setRollbackCount(rs.getInt("ROLLBACK_COUNT"));
+        execution.setReadSkipCount(rs.getInt("READ_SKIP_COUNT"));
+        execution.setProcessSkipCount(rs.getInt("PROCESS_SKIP_COUNT"));
+        execution.setWriteSkipCount(rs.getInt("WRITE_SKIP_COUNT"));
+        execution.setFilterCount(rs.getInt("FILTER_COUNT"));
+        return execution;
+    }
+
+    /**
+     * 搜索步骤执行列表
+     */
+    public StepExecutionColumns searchStepExecutions(String dataSourceId, String stepName, String status,
+                                                    String startDate, String endDate, Long jobExecutionId,
+                                                    String keyword) {
+        StepExecutionColumns executions = new StepExecutionColumns(getDictionary(dataSourceId), new TextArena());
+        DataSource dataSource = dataSources.get(dataSourceId);
         if (dataSource == null) {
             return executions;
         }
@@ -295,73 +493,67 @@ public class DatabaseService {
                   .append("WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
+        sqlBuilder.append(stepSearchFilter(stepName, status, startDate, endDate, jobExecutionId, parameters));
 
-        if (stepName != null && !stepName.trim().isEmpty()) {
-            sqlBuilder.append("AND se.STEP_NAME LIKE ? ");
-            parameters.add("%" + stepName.trim() + "%");
-        }
-
-        if (status != null && !status.trim().isEmpty()) {
-            sqlBuilder.append("AND se.STATUS = ? ");
-            parameters.add(status.trim());
-        }
-
-        if (startDate != null && !startDate.trim().isEmpty()) {
-            java.sql.Timestamp startTimestamp = DateTimeUtils.parseStartDateTime(startDate.trim());
-            if (startTimestamp != null) {
-                sqlBuilder.append("AND se.START_TIME >= ? ");
-                parameters.add(startTimestamp);
+        long[] candidateIds = null;
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            candidateIds = searchExitMessageIndex(dataSourceId, ExitMessageIndex.Kind.STEP, keyword);
+            if (candidateIds == null) {
+                sqlBuilder.append(stepKeywordFilter(keyword, parameters));
             }
         }
 
-        if (endDate != null && !endDate.trim().isEmpty()) {
-            java.sql.Timestamp endTimestamp = DateTimeUtils.parseEndDateTime(endDate.trim());
-            if (endTimestamp != null) {
-                sqlBuilder.append("AND se.END_TIME <= ? ");
-                parameters.add(endTimestamp);
+        try (Connection conn = dataSource.getConnection()) {
+            if (candidateIds == null) {
+                sqlBuilder.append("ORDER BY se.START_TIME DESC LIMIT 500");
+                readStepExecutions(conn, sqlBuilder.toString(), parameters, null, executions);
+            } else {
+                for (int start = 0; start < candidateIds.length && executions.size() < SEARCH_LIMIT;
+                     start += ID_BATCH_SIZE) {
+                    int end = Math.min(start + ID_BATCH_SIZE, candidateIds.length);
+                    String sql = sqlBuilder + "AND se.STEP_EXECUTION_ID IN " + SqlUtils.placeholders(end - start);
+                    List<Object> batchParameters = new ArrayList<>(parameters);
+                    for (int i = start; i < end; i++) {
+                        batchParameters.add(candidateIds[i]);
+                    }
+                    readStepExecutions(conn, sql, batchParameters, keyword, executions);
+                }
+                executions.sortByStartTimeDescending();
+                executions.truncate(SEARCH_LIMIT);
             }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
 
-        if (jobExecutionId != null) {
-            sqlBuilder.append("AND se.JOB_EXECUTION_ID = ? ");
-            parameters.add(jobExecutionId);
-        }
-
-        sqlBuilder.append("ORDER BY se.START_TIME DESC LIMIT 500");
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
+        return executions;
+    }
 
+    /**
+     * 读取步骤执行记录；keyword 不为空时只保留确实命中关键字的记录
+     */
+    private void readStepExecutions(Connection conn, String sql, List<Object> parameters, String keyword,
+                                    StepExecutionColumns executions) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
             }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    StepExecution execution = new StepExecution();
-                    execution.setId(rs.getLong("STEP_EXECUTION_ID"));
-                    execution.setStepName(rs.getString("STEP_NAME"));
-                    execution.setStartTime(rs.getTimestamp("START_TIME"));
-                    execution.setEndTime(rs.getTimestamp("END_TIME"));
-                    execution.setStatus(rs.getString("STATUS"));
-                    execution.setExitCode(rs.getString("EXIT_CODE"));
-                    execution.setExitMessage(rs.getString("EXIT_MESSAGE"));
-                    execution.setReadCount(rs.getInt("READ_COUNT"));
-                    execution.setWriteCount(rs.getInt("WRITE_COUNT"));
-                    execution.setCommitCount(rs.getInt("COMMIT_COUNT"));
-                    execution.setRollbackCount(rs.getInt("ROLLBACK_COUNT"));
-                    execution.setReadSkipCount(rs.getInt("READ_SKIP_COUNT"));
-                    execution.setProcessSkipCount(rs.getInt("PROCESS_SKIP_COUNT"));
-                    execution.setWriteSkipCount(rs.getInt("WRITE_SKIP_COUNT"));
-                    execution.setFilterCount(rs.getInt("FILTER_COUNT"));
-                    executions.add(execution);
+                    String exitCode = rs.getString("EXIT_CODE");
+                    String exitMessage = rs.getString("EXIT_MESSAGE");
+                    if (keyword == null || ExitMessageIndex.matches(keyword, exitCode, exitMessage)) {
+                        executions.add(rs.getLong("STEP_EXECUTION_ID"), rs.getLong("JOB_EXECUTION_ID"),
+                                rs.getString("STEP_NAME"), rs.getTimestamp("START_TIME"), rs.getTimestamp("END_TIME"),
+                                rs.getString("STATUS"), exitCode, exitMessage,
+                                rs.getInt("READ_COUNT"), rs.getInt("WRITE_COUNT"), rs.getInt("COMMIT_COUNT"),
+                                rs.getInt("ROLLBACK_COUNT"), rs.getInt("READ_SKIP_COUNT"),
+                                rs.getInt("PROCESS_SKIP_COUNT"), rs.getInt("WRITE_SKIP_COUNT"),
+                                rs.getInt("FILTER_COUNT"));
+                    }
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
-
-        return executions;
     }
 
     /**
@@ -429,5 +621,7 @@ public class DatabaseService {
             }
         }
         dataSources.clear();
+        dataSourceConfigs.clear();
+        dictionaries.clear();
     }
 }
@@ -0,0 +1,179 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.EnvironmentComparison;
+import com.springbatch.monitor.models.PerformanceSummary;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.utils.DurationHistogram;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 环境对比服务 - 对多个数据源并行执行相同的聚合查询，再按作业/步骤名称在本地对齐
+ *
+ * 每个数据源只返回按名称分组的直方图行和计数行，分位数在本地由直方图插值；
+ * 单个数据源查询失败不影响其他数据源的结果。
+ */
+public class EnvironmentComparisonService {
+    private static final EnvironmentComparisonService INSTANCE = new EnvironmentComparisonService();
+
+    private static final int MAX_PARALLELISM = 4;
+    private static final String KEY_SEPARATOR = "\u0000";
+
+    private EnvironmentComparisonService() {
+    }
+
+    public static EnvironmentComparisonService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 并行汇总各数据源在窗口内的作业和步骤性能，按作业名称、步骤名称排序，作业级的行在其步骤之前
+     */
+    public EnvironmentComparison compare(List<DataSourceConfig> configs, TimeWindow window)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_PARALLELISM, configs.size())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "spring-batch-monitor-compare");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        List<Future<Map<String, PerformanceSummary>>> futures = new ArrayList<>();
+        try {
+            for (DataSourceConfig config : configs) {
+                futures.add(executor.submit(() -> {
+                    DatabaseService.getInstance().ensureDataSource(config);
+                    return summarize(config.getId(), window);
+                }));
+            }
+
+            List<String> names = new ArrayList<>();
+            Map<String, String> errors = new LinkedHashMap<>();
+            Map<String, EnvironmentComparison.Row> rows = new TreeMap<>();
+            for (int i = 0; i < configs.size(); i++) {
+                names.add(configs.get(i).getName());
+                Map<String, PerformanceSummary> summaries;
+                try {
+                    summaries = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    errors.put(configs.get(i).getName(), cause.getMessage());
+                    continue;
+                }
+                for (Map.Entry<String, PerformanceSummary> entry : summaries.entrySet()) {
+                    PerformanceSummary summary = entry.getValue();
+                    rows.computeIfAbsent(entry.getKey(), key -> new EnvironmentComparison.Row(
+                            summary.getJobName(), summary.getStepName(), configs.size()))
+                        .setSummary(i, summary);
+                }
+            }
+            return new EnvironmentComparison(names, new ArrayList<>(rows.values()), errors);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 汇总单个数据源，键为 作业名称 + 分隔符 + 步骤名称（作业级为空串），TreeMap 中作业级的键排在其步骤之前
+     */
+    private Map<String, PerformanceSummary> summarize(String dataSourceId, TimeWindow window) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        SqlDialect dialect = SqlDialect.forDataSource(dataSourceId);
+        String jobDuration = dialect.durationMillis("je.START_TIME", "je.END_TIME");
+        String stepDuration = dialect.durationMillis("se.START_TIME", "se.END_TIME");
+
+        String jobDurations = "SELECT ji.JOB_NAME AS JOB_NAME, '' AS STEP_NAME, " + jobDuration + " AS D " +
+                              "FROM BATCH_JOB_EXECUTION je " +
+                              "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                              "WHERE je.STATUS = 'COMPLETED' AND je.END_TIME IS NOT NULL AND " +
+                              window.predicate("je.START_TIME");
+        String stepDurations = "SELECT ji.JOB_NAME AS JOB_NAME, se.STEP_NAME AS STEP_NAME, " + stepDuration + " AS D " +
+                               "FROM BATCH_STEP_EXECUTION se " +
+                               "JOIN BATCH_JOB_EXECUTION je ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                               "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                               "WHERE se.STATUS = 'COMPLETED' AND se.END_TIME IS NOT NULL AND " +
+                               window.predicate("se.START_TIME");
+
+        // 作业的处理量取成功执行下各步骤写入数之和；步骤总在作业开始之后开始，派生表只按窗口起点裁剪，
+        // 不裁剪终点：窗口内开始的作业，其步骤可能在终点之后才开始
+        String jobCounts = "SELECT ji.JOB_NAME AS JOB_NAME, '' AS STEP_NAME, COUNT(*) AS FINISHED, " +
+                           "SUM(CASE WHEN je.STATUS = 'FAILED' THEN 1 ELSE 0 END) AS FAILED, " +
+                           "SUM(CASE WHEN je.STATUS = 'COMPLETED' THEN COALESCE(s.WRITES, 0) ELSE 0 END) AS ITEMS " +
+                           "FROM BATCH_JOB_EXECUTION je " +
+                           "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                           "LEFT JOIN (SELECT JOB_EXECUTION_ID, SUM(WRITE_COUNT) AS WRITES " +
+                           "FROM BATCH_STEP_EXECUTION " + window.startClause("START_TIME") +
+                           "GROUP BY JOB_EXECUTION_ID) s ON s.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                           "WHERE je.END_TIME IS NOT NULL AND " + window.predicate("je.START_TIME") +
+                           "GROUP BY ji.JOB_NAME";
+        String stepCounts = "SELECT ji.JOB_NAME AS JOB_NAME, se.STEP_NAME AS STEP_NAME, COUNT(*) AS FINISHED, " +
+                            "SUM(CASE WHEN se.STATUS = 'FAILED' THEN 1 ELSE 0 END) AS FAILED, " +
+                            "SUM(CASE WHEN se.STATUS = 'COMPLETED' THEN se.WRITE_COUNT ELSE 0 END) AS ITEMS " +
+                            "FROM BATCH_STEP_EXECUTION se " +
+                            "JOIN BATCH_JOB_EXECUTION je ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                            "WHERE se.END_TIME IS NOT NULL AND " + window.predicate("se.START_TIME") +
+                            "GROUP BY ji.JOB_NAME, se.STEP_NAME";
+
+        Map<String, PerformanceSummary> summaries = new HashMap<>();
+        try (Connection conn = dataSource.getConnection()) {
+            readHistograms(conn, histogramSql(jobDurations), window, summaries);
+            readHistograms(conn, histogramSql(stepDurations), window, summaries);
+            readCounts(conn, jobCounts, window, true, summaries);
+            readCounts(conn, stepCounts, window, false, summaries);
+        }
+        return summaries;
+    }
+
+    private static String histogramSql(String durations) {
+        return "SELECT JOB_NAME, STEP_NAME, B, COUNT(*) AS CNT, SUM(D) AS TOTAL, MAX(D) AS MAXD " +
+               "FROM (SELECT JOB_NAME, STEP_NAME, D, " + DurationHistogram.bucketExpression("D") + " AS B " +
+               "FROM (" + durations + ") t1) t2 " +
+               "GROUP BY JOB_NAME, STEP_NAME, B";
+    }
+
+    private static void readHistograms(Connection conn, String sql, TimeWindow window,
+                                       Map<String, PerformanceSummary> summaries) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            window.bind(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaryOf(summaries, rs).getHistogram()
+                            .add(rs.getInt("B"), rs.getLong("CNT"), rs.getDouble("TOTAL"), rs.getDouble("MAXD"));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param stepsClipped SQL 中是否先出现按窗口起点裁剪的步骤派生表（见 {@link TimeWindow#startClause}）
+     */
+    private static void readCounts(Connection conn, String sql, TimeWindow window, boolean stepsClipped,
+                                   Map<String, PerformanceSummary> summaries) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            window.bind(stmt, stepsClipped ? window.bindStart(stmt, 1) : 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaryOf(summaries, rs).addCounts(rs.getLong("FINISHED"), rs.getLong("FAILED"),
+                            rs.getLong("ITEMS"));
+                }
+            }
+        }
+    }
+
+    private static PerformanceSummary summaryOf(Map<String, PerformanceSummary> summaries, ResultSet rs)
+            throws SQLException {
+        String jobName = rs.getString("JOB_NAME");
+        String stepName = rs.getString("STEP_NAME");
+        // Oracle 把空串当作 NULL，作业级的行统一用 null 表示
+        String normalizedStep = stepName == null || stepName.isEmpty() ? null : stepName;
+        return summaries.computeIfAbsent(jobName + KEY_SEPARATOR + (normalizedStep != null ? normalizedStep : ""),
+                key -> new PerformanceSummary(jobName, normalizedStep));
+    }
+}
@@ -0,0 +1,88 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.ExecutionSeries;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 执行趋势服务 - 流式读取某个作业在时间窗口内每次执行的耗时和吞吐量
+ *
+ * 结果直接写入基本类型数组，降采样在绘图时按可见范围进行。
+ */
+public class ExecutionTrendService {
+    private static final ExecutionTrendService INSTANCE = new ExecutionTrendService();
+
+    private ExecutionTrendService() {
+    }
+
+    public static ExecutionTrendService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取所有作业名称
+     */
+    public List<String> getJobNames(String dataSourceId) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        List<String> jobNames = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT DISTINCT JOB_NAME FROM BATCH_JOB_INSTANCE ORDER BY JOB_NAME");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                jobNames.add(rs.getString("JOB_NAME"));
+            }
+        }
+        return jobNames;
+    }
+
+    /**
+     * 获取作业在窗口内已结束执行的序列，按开始时间排序
+     */
+    public ExecutionSeries getSeries(String dataSourceId, String jobName, TimeWindow window) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        // 写入数按步骤汇总；步骤总在作业开始之后开始，派生表只按窗口起点裁剪（其步骤可能在窗口终点之后才开始）
+        String sql = "SELECT je.START_TIME, je.END_TIME, s.WRITES " +
+                     "FROM BATCH_JOB_EXECUTION je " +
+                     "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                     "LEFT JOIN (SELECT JOB_EXECUTION_ID, SUM(WRITE_COUNT) AS WRITES " +
+                     "FROM BATCH_STEP_EXECUTION " + window.startClause("START_TIME") +
+                     "GROUP BY JOB_EXECUTION_ID) s ON s.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                     "WHERE ji.JOB_NAME = ? AND je.END_TIME IS NOT NULL AND " +
+                     window.predicate("je.START_TIME") +
+                     "ORDER BY je.START_TIME";
+
+        ExecutionSeries series = new ExecutionSeries();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = DatabaseService.getInstance()
+                     .prepareStreamingStatement(conn, dataSourceId, sql)) {
+            int index = window.bindStart(stmt, 1);
+            stmt.setString(index++, jobName);
+            window.bind(stmt, index);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp start = rs.getTimestamp("START_TIME");
+                    Timestamp end = rs.getTimestamp("END_TIME");
+                    if (start == null || end == null) {
+                        continue;
+                    }
+                    double duration = end.getTime() - start.getTime();
+                    double throughput = duration > 0 ? rs.getLong("WRITES") / (duration / 1000) : Double.NaN;
+                    series.add(start.getTime(), duration, throughput);
+                }
+            }
+        }
+        return series;
+    }
+}
@@ -0,0 +1,669 @@
+package com.springbatch.monitor.services;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 退出消息全文索引 - 在本地为作业/步骤执行的 EXIT_CODE、EXIT_MESSAGE 建立倒排索引
+ *
+ * 索引按数据源保存在 IDE 系统目录下，用主键水位线增量同步：只读取水位线之后的新记录，
+ * 尚未结束的执行记下主键，结束后再回查建索引。关键字按词前缀匹配，
+ * 查询在本地解析出候选执行ID（未结束的执行总是作为候选），再由调用方按主键取回记录并用 {@link #matches} 校验。
+ * 首次建立索引需要扫描整张表，在后台线程进行，建好之前以及有词项不是任何索引词的前缀时，
+ * 查询返回null，由调用方回退到数据库模糊查询（子串匹配）。
+ */
+public class ExitMessageIndex {
+    private static final ExitMessageIndex INSTANCE = new ExitMessageIndex();
+
+    private static final int FILE_MAGIC = 0x53424d49;
+    private static final int FILE_VERSION = 1;
+    private static final String INDEX_FILE = "exit-message.idx";
+    private static final long ID_OVERLAP = 200;
+    private static final int IN_BATCH_SIZE = 500;
+    private static final int MAX_TOKEN_LENGTH = 48;
+    private static final String MEMORY_OWNER = "退出消息索引";
+
+    private static final String JOB_SQL =
+            "SELECT je.JOB_EXECUTION_ID AS ID, je.END_TIME, ji.JOB_NAME AS NAME, je.EXIT_CODE, je.EXIT_MESSAGE " +
+            "FROM BATCH_JOB_EXECUTION je " +
+            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID ";
+    private static final String STEP_SQL =
+            "SELECT se.STEP_EXECUTION_ID AS ID, se.END_TIME, NULL AS NAME, se.EXIT_CODE, se.EXIT_MESSAGE " +
+            "FROM BATCH_STEP_EXECUTION se ";
+
+    /**
+     * 索引的执行类型
+     */
+    public enum Kind {
+        JOB(JOB_SQL, "je.JOB_EXECUTION_ID", "SELECT MAX(JOB_EXECUTION_ID) FROM BATCH_JOB_EXECUTION"),
+        STEP(STEP_SQL, "se.STEP_EXECUTION_ID", "SELECT MAX(STEP_EXECUTION_ID) FROM BATCH_STEP_EXECUTION");
+
+        private final String baseSql;
+        private final String idColumn;
+        private final String maxIdSql;
+
+        Kind(String baseSql, String idColumn, String maxIdSql) {
+            this.baseSql = baseSql;
+            this.idColumn = idColumn;
+            this.maxIdSql = maxIdSql;
+        }
+    }
+
+    private final Map<String, DataSourceIndex> indexesByDataSource = new ConcurrentHashMap<>();
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "spring-batch-monitor-exit-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExitMessageIndex() {
+    }
+
+    public static ExitMessageIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 同步索引后查找包含全部关键字词项的执行ID，加上尚未建索引的未结束执行，按ID降序（近似按时间从新到旧）
+     *
+     * @return 关键字中没有可索引的词项、索引尚在后台建立或有词项不是任何索引词的前缀时返回null，
+     *         调用方应回退到数据库模糊查询
+     */
+    public long[] search(String dataSourceId, Kind kind, String keyword) throws SQLException, IOException {
+        List<String> terms = queryTerms(keyword);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        DataSourceIndex index = indexesByDataSource.computeIfAbsent(dataSourceId, DataSourceIndex::new);
+        if (!index.ready) {
+            buildInBackground(dataSourceId, index);
+            return null;
+        }
+        synchronized (index) {
+            try (Connection conn = dataSource.getConnection()) {
+                index.sync(conn, dataSourceId, kind);
+            }
+            index.save();
+            MemoryGovernor.getInstance().track(MEMORY_OWNER, dataSourceId, index, index.estimateBytes(),
+                    this::spill);
+            KindIndex kindIndex = index.kinds.get(kind);
+            // 不是任何索引词前缀的词项可能只出现在词中间（如 SQLException 中的 exception），按子串查找
+            if (!kindIndex.terms.coversAll(terms)) {
+                return null;
+            }
+            return kindIndex.candidates(terms);
+        }
+    }
+
+    /**
+     * 在后台加载本地索引文件并扫描两种执行的新记录，完成后索引才用于查询
+     */
+    private void buildInBackground(String dataSourceId, DataSourceIndex index) {
+        if (!index.building.compareAndSet(false, true)) {
+            return;
+        }
+        buildExecutor.execute(() -> {
+            try {
+                DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+                if (dataSource == null) {
+                    return;
+                }
+                synchronized (index) {
+                    index.load();
+                    try (Connection conn = dataSource.getConnection()) {
+                        for (Kind kind : Kind.values()) {
+                            index.sync(conn, dataSourceId, kind);
+                        }
+                    }
+                    // 建立期间被删除的索引不再写回
+                    if (indexesByDataSource.get(dataSourceId) != index) {
+                        return;
+                    }
+                    index.save();
+                    index.ready = true;
+                }
+                MemoryGovernor.getInstance().track(MEMORY_OWNER, dataSourceId, index, index.estimateBytes(),
+                        this::spill);
+            } catch (SQLException | IOException e) {
+                // 下次查询时重新尝试
+                e.printStackTrace();
+            } finally {
+                index.building.set(false);
+            }
+        });
+    }
+
+    /**
+     * 内存不足时把索引写回本地文件后移出内存，下次查询时重新加载
+     */
+    private void spill(String dataSourceId, Object value) {
+        DataSourceIndex index = (DataSourceIndex) value;
+        synchronized (index) {
+            try {
+                index.save();
+            } catch (IOException e) {
+                // 写不出去的增量下次同步时从数据库重新扫描
+                e.printStackTrace();
+            }
+            indexesByDataSource.remove(dataSourceId, index);
+        }
+    }
+
+    /**
+     * 删除数据源的本地索引
+     */
+    public void invalidate(String dataSourceId) {
+        DataSourceIndex index = indexesByDataSource.remove(dataSourceId);
+        MemoryGovernor.getInstance().untrack(MEMORY_OWNER, dataSourceId);
+        Path file = index != null ? index.file : indexFile(dataSourceId);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 校验取回的记录确实命中关键字：每个查询词项都是记录中某个词的前缀，或整个关键字是文本的子串
+     */
+    public static boolean matches(String keyword, String... texts) {
+        String lowerKeyword = keyword.trim().toLowerCase(Locale.ROOT);
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                if (text.toLowerCase(Locale.ROOT).contains(lowerKeyword)) {
+                    return true;
+                }
+                tokens.addAll(tokenize(text));
+            }
+        }
+        for (String term : queryTerms(keyword)) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 查询词项：按非字母数字字符切分后的整词
+     */
+    static List<String> queryTerms(String keyword) {
+        List<String> terms = new ArrayList<>();
+        if (keyword == null) {
+            return terms;
+        }
+        for (String word : splitWords(keyword)) {
+            String term = word.toLowerCase(Locale.ROOT);
+            if (term.length() > MAX_TOKEN_LENGTH) {
+                term = term.substring(0, MAX_TOKEN_LENGTH);
+            }
+            if (!terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 索引词项：整词以及驼峰拆分后的各个后缀组合，如 DuplicateKeyException 还会产生 keyexception 和 exception
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String word : splitWords(text)) {
+            List<Integer> boundaries = new ArrayList<>();
+            for (int i = 1; i < word.length(); i++) {
+                char previous = word.charAt(i - 1);
+                char current = word.charAt(i);
+                if ((Character.isLowerCase(previous) && Character.isUpperCase(current))
+                        || (Character.isLetter(previous) && Character.isDigit(current))
+                        || (Character.isDigit(previous) && Character.isLetter(current))) {
+                    boundaries.add(i);
+                }
+            }
+            addToken(tokens, word);
+            for (int boundary : boundaries) {
+                addToken(tokens, word.substring(boundary));
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(Set<String> tokens, String token) {
+        String lower = token.toLowerCase(Locale.ROOT);
+        tokens.add(lower.length() > MAX_TOKEN_LENGTH ? lower.substring(0, MAX_TOKEN_LENGTH) : lower);
+    }
+
+    private static List<String> splitWords(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static Path indexFile(String dataSourceId) {
+        return LocalStorage.directory(dataSourceId).resolve(INDEX_FILE);
+    }
+
+    /**
+     * 单个数据源的索引，作业执行和步骤执行各一份
+     */
+    private static class DataSourceIndex {
+        final Path file;
+        final Map<Kind, KindIndex> kinds = new EnumMap<>(Kind.class);
+        final AtomicBoolean building = new AtomicBoolean();
+        // 后台建立完成后为true，之后查询只做增量同步
+        volatile boolean ready;
+        boolean loaded;
+        boolean dirty;
+
+        DataSourceIndex(String dataSourceId) {
+            this.file = indexFile(dataSourceId);
+            for (Kind kind : Kind.values()) {
+                kinds.put(kind, new KindIndex());
+            }
+        }
+
+        /**
+         * 估算占用：每个词项的字符串、树节点和倒排数组，以及未结束的执行ID
+         */
+        long estimateBytes() {
+            long bytes = 256;
+            for (KindIndex index : kinds.values()) {
+                bytes += index.openIds.size() * 48L;
+                for (Map.Entry<String, Postings> entry : index.terms.postingsByTerm.entrySet()) {
+                    bytes += 112 + entry.getKey().length() * 2L + entry.getValue().ids.length * 8L;
+                }
+            }
+            return bytes;
+        }
+
+        void load() {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                    return;
+                }
+                for (Kind kind : Kind.values()) {
+                    kinds.get(kind).read(in);
+                }
+            } catch (IOException e) {
+                // 索引文件损坏时丢弃，下次同步重建
+                for (Kind kind : Kind.values()) {
+                    kinds.put(kind, new KindIndex());
+                }
+            }
+        }
+
+        void save() throws IOException {
+            if (!dirty) {
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(INDEX_FILE + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                for (Kind kind : Kind.values()) {
+                    kinds.get(kind).write(out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        }
+
+        /**
+         * @return 索引是否有变化
+         */
+        boolean sync(Connection conn, String dataSourceId, Kind kind) throws SQLException {
+            KindIndex index = kinds.get(kind);
+            if (index.recheckOpen(conn, kind) | index.scan(conn, dataSourceId, kind)) {
+                dirty = true;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 一种执行类型的索引：水位线、未结束的执行和词项倒排表
+     */
+    private static class KindIndex {
+        final IdWatermark watermark = new IdWatermark(ID_OVERLAP);
+        final Set<Long> openIds = new HashSet<>();
+        final TermIndex terms = new TermIndex();
+
+        /**
+         * 命中全部词项的执行ID并上未结束的执行ID，按ID降序；未结束的执行由调用方取回后校验
+         */
+        long[] candidates(List<String> queryTerms) {
+            long[] indexed = terms.find(queryTerms);
+            if (openIds.isEmpty()) {
+                return indexed;
+            }
+            long[] merged = Arrays.copyOf(indexed, indexed.length + openIds.size());
+            int size = indexed.length;
+            for (long id : openIds) {
+                merged[size++] = id;
+            }
+            Arrays.sort(merged);
+            long[] descending = new long[merged.length];
+            for (int i = 0; i < merged.length; i++) {
+                descending[i] = merged[merged.length - 1 - i];
+            }
+            return descending;
+        }
+
+        /**
+         * 回查上次未结束的执行
+         */
+        boolean recheckOpen(Connection conn, Kind kind) throws SQLException {
+            if (openIds.isEmpty()) {
+                return false;
+            }
+            int openBefore = openIds.size();
+            List<Long> ids = new ArrayList<>(openIds);
+            for (int start = 0; start < ids.size(); start += IN_BATCH_SIZE) {
+                List<Long> batch = ids.subList(start, Math.min(start + IN_BATCH_SIZE, ids.size()));
+                StringBuilder sql = new StringBuilder(kind.baseSql).append("WHERE ").append(kind.idColumn).append(" IN (");
+                for (int i = 0; i < batch.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(")");
+                Set<Long> found = new HashSet<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setLong(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            found.add(rs.getLong("ID"));
+                            accept(rs);
+                        }
+                    }
+                }
+                // 已被删除的执行不再回查
+                for (Long id : batch) {
+                    if (!found.contains(id)) {
+                        openIds.remove(id);
+                    }
+                }
+            }
+            return openIds.size() != openBefore;
+        }
+
+        /**
+         * 扫描水位线之后的新记录；先取当前最大主键，扫描完成后水位线推进到该主键
+         */
+        boolean scan(Connection conn, String dataSourceId, Kind kind) throws SQLException {
+            long maxId;
+            try (PreparedStatement stmt = conn.prepareStatement(kind.maxIdSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                maxId = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (maxId <= watermark.getMaxId()) {
+                return false;
+            }
+
+            String sql = kind.baseSql + "WHERE " + kind.idColumn + " > ? AND " + kind.idColumn + " <= ?";
+            try (PreparedStatement stmt = DatabaseService.getInstance()
+                    .prepareStreamingStatement(conn, dataSourceId, sql)) {
+                stmt.setLong(1, watermark.scanFrom());
+                stmt.setLong(2, maxId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (watermark.accept(rs.getLong("ID"))) {
+                            accept(rs);
+                        }
+                    }
+                }
+            }
+            watermark.advanceTo(maxId);
+            watermark.prune();
+            return true;
+        }
+
+        private void accept(ResultSet rs) throws SQLException {
+            long id = rs.getLong("ID");
+            // 执行结束前退出消息还会变化，结束后再建索引
+            if (rs.getObject("END_TIME") == null) {
+                openIds.add(id);
+                return;
+            }
+            openIds.remove(id);
+            Set<String> tokens = new HashSet<>();
+            for (String column : new String[]{"NAME", "EXIT_CODE", "EXIT_MESSAGE"}) {
+                String text = rs.getString(column);
+                if (text != null) {
+                    tokens.addAll(tokenize(text));
+                }
+            }
+            for (String token : tokens) {
+                terms.add(token, id);
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(watermark.getMaxId());
+            out.writeInt(openIds.size());
+            for (long id : openIds) {
+                out.writeLong(id);
+            }
+            terms.write(out);
+        }
+
+        void read(DataInputStream in) throws IOException {
+            // 回看区间内的已处理主键不落盘，重新扫描时重复的主键由倒排表去重
+            watermark.reset(in.readLong());
+            int openCount = in.readInt();
+            for (int i = 0; i < openCount; i++) {
+                openIds.add(in.readLong());
+            }
+            terms.read(in);
+        }
+    }
+
+    /**
+     * 词项倒排表，词典有序以支持前缀查找
+     */
+    private static class TermIndex {
+        final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+
+        void add(String term, long id) {
+            postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(id);
+        }
+
+        /**
+         * 每个查询词项是否都是某个索引词的前缀
+         */
+        boolean coversAll(List<String> queryTerms) {
+            for (String term : queryTerms) {
+                String next = postingsByTerm.ceilingKey(term);
+                if (next == null || !next.startsWith(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 每个词项取所有前缀匹配词的并集，词项之间取交集
+         */
+        long[] find(List<String> queryTerms) {
+            long[] result = null;
+            for (String term : queryTerms) {
+                long[] union = new long[0];
+                int size = 0;
+                for (Postings postings : postingsByTerm.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                    long[] ids = postings.sortedIds();
+                    if (size + postings.size > union.length) {
+                        union = Arrays.copyOf(union, Math.max(union.length * 2, size + postings.size));
+                    }
+                    System.arraycopy(ids, 0, union, size, postings.size);
+                    size += postings.size;
+                }
+                long[] termIds = distinctSorted(union, size);
+                result = result == null ? termIds : intersect(result, termIds);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            long[] descending = new long[result.length];
+            for (int i = 0; i < result.length; i++) {
+                descending[i] = result[result.length - 1 - i];
+            }
+            return descending;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(postingsByTerm.size());
+            for (Map.Entry<String, Postings> entry : postingsByTerm.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            int termCount = in.readInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                Postings postings = new Postings();
+                postings.read(in);
+                postingsByTerm.put(term, postings);
+            }
+        }
+
+        private static long[] distinctSorted(long[] ids, int size) {
+            Arrays.sort(ids, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, distinct);
+        }
+
+        private static long[] intersect(long[] first, long[] second) {
+            long[] result = new long[Math.min(first.length, second.length)];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < first.length && j < second.length) {
+                if (first[i] < second[j]) {
+                    i++;
+                } else if (first[i] > second[j]) {
+                    j++;
+                } else {
+                    result[size++] = first[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+
+    /**
+     * 单个词项的执行ID列表，写入时追加，查询时按需排序去重
+     */
+    static class Postings {
+        long[] ids = new long[4];
+        int size;
+        boolean sorted = true;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size > 0 && ids[size - 1] > id) {
+                sorted = false;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] sortedIds() {
+            if (!sorted) {
+                long[] distinct = TermIndex.distinctSorted(ids, size);
+                ids = distinct.length > 0 ? distinct : new long[4];
+                size = distinct.length;
+                sorted = true;
+            }
+            return ids;
+        }
+
+        /**
+         * 主键升序写入差值的变长编码
+         */
+        void write(DataOutputStream out) throws IOException {
+            sortedIds();
+            out.writeInt(size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                long delta = ids[i] - previous;
+                while ((delta & ~0x7FL) != 0) {
+                    out.writeByte((int) ((delta & 0x7F) | 0x80));
+                    delta >>>= 7;
+                }
+                out.writeByte((int) delta);
+                previous = ids[i];
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            size = in.readInt();
+            ids = new long[Math.max(size, 4)];
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                long delta = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = in.readUnsignedByte();
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                previous += delta;
+                ids[i] = previous;
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.FailureCluster;
+import com.springbatch.monitor.utils.FailureSignature;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 失败聚类服务 - 按规范化堆栈签名对作业/步骤失败分组，随新失败的出现增量更新
+ *
+ * 每个数据源维护作业执行和步骤执行两条主键水位线，刷新时只读取水位线之后
+ * 状态为 FAILED 或仍在运行的记录；运行中的记录按主键回查，失败后再计入聚类。
+ * 精确签名相同的失败直接归入同一类；否则用 SimHash 的 4 个 16 位分段建立索引，
+ * 海明距离不超过 3 的两个值至少有一个分段完全相同，只需比较同分段的候选。
+ */
+public class FailureClusterService {
+    private static final FailureClusterService INSTANCE = new FailureClusterService();
+
+    private static final long ID_OVERLAP = 200;
+    private static final int IN_BATCH_SIZE = 500;
+    private static final int MAX_HAMMING_DISTANCE = 3;
+    private static final int MAX_SAMPLE_LENGTH = 4000;
+    // 聚类数上限，超出后新签名归入溢出类，避免异常消息失控时占满内存
+    private static final int MAX_CLUSTERS = 5000;
+    private static final String MEMORY_OWNER = "失败聚类";
+
+    private static final String OPEN_OR_FAILED = "('FAILED', 'STARTING', 'STARTED', 'STOPPING')";
+    private static final String JOB_FAILURE_SQL =
+            "SELECT je.JOB_EXECUTION_ID AS ID, je.JOB_EXECUTION_ID AS JOB_EXECUTION_ID, je.STATUS, " +
+            "ji.JOB_NAME, NULL AS STEP_NAME, COALESCE(je.END_TIME, je.START_TIME) AS FAILED_AT, je.EXIT_MESSAGE " +
+            "FROM BATCH_JOB_EXECUTION je " +
+            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID ";
+    private static final String STEP_FAILURE_SQL =
+            "SELECT se.STEP_EXECUTION_ID AS ID, se.JOB_EXECUTION_ID AS JOB_EXECUTION_ID, se.STATUS, " +
+            "ji.JOB_NAME, se.STEP_NAME, COALESCE(se.END_TIME, se.START_TIME) AS FAILED_AT, se.EXIT_MESSAGE " +
+            "FROM BATCH_STEP_EXECUTION se " +
+            "JOIN BATCH_JOB_EXECUTION je ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID ";
+
+    private final Map<String, ClusterIndex> indexesByDataSource = new ConcurrentHashMap<>();
+
+    private FailureClusterService() {
+    }
+
+    public static FailureClusterService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 合并新增失败并返回数据源的全部聚类，按失败次数降序
+     */
+    public List<FailureCluster> refresh(String dataSourceId) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        ClusterIndex index = indexesByDataSource.computeIfAbsent(dataSourceId, id -> new ClusterIndex());
+        synchronized (index) {
+            try (Connection conn = dataSource.getConnection()) {
+                index.refreshOpen(conn, index.openJobs, JOB_FAILURE_SQL, "je.JOB_EXECUTION_ID", false);
+                index.refreshOpen(conn, index.openSteps, STEP_FAILURE_SQL, "se.STEP_EXECUTION_ID", true);
+                index.scan(conn, JOB_FAILURE_SQL, "je.JOB_EXECUTION_ID", "je.STATUS",
+                        "SELECT MAX(JOB_EXECUTION_ID) FROM BATCH_JOB_EXECUTION", index.jobWatermark,
+                        index.openJobs, false);
+                index.scan(conn, STEP_FAILURE_SQL, "se.STEP_EXECUTION_ID", "se.STATUS",
+                        "SELECT MAX(STEP_EXECUTION_ID) FROM BATCH_STEP_EXECUTION", index.stepWatermark,
+                        index.openSteps, true);
+            }
+            MemoryGovernor.getInstance().track(MEMORY_OWNER, dataSourceId, index, index.estimateBytes(),
+                    (key, value) -> indexesByDataSource.remove(key, value));
+            List<FailureCluster> clusters = new ArrayList<>(index.clusters);
+            clusters.sort(Comparator.comparingInt(FailureCluster::getCount).reversed());
+            return clusters;
+        }
+    }
+
+    /**
+     * 丢弃数据源的聚类，下次刷新时从头构建
+     */
+    public void invalidate(String dataSourceId) {
+        indexesByDataSource.remove(dataSourceId);
+        MemoryGovernor.getInstance().untrack(MEMORY_OWNER, dataSourceId);
+    }
+
+    private static String inClause(int size) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.append(")").toString();
+    }
+
+    /**
+     * 单个数据源的聚类状态
+     */
+    private static class ClusterIndex {
+        final IdWatermark jobWatermark = new IdWatermark(ID_OVERLAP);
+        final IdWatermark stepWatermark = new IdWatermark(ID_OVERLAP);
+        final Set<Long> openJobs = new HashSet<>();
+        final Set<Long> openSteps = new HashSet<>();
+        final List<FailureCluster> clusters = new ArrayList<>();
+        final Map<Long, FailureCluster> clustersBySignature = new HashMap<>();
+        // SimHash 分段索引：键为 分段序号 << 16 | 分段值
+        final Map<Integer, List<FailureCluster>> clustersByBand = new HashMap<>();
+        FailureCluster overflowCluster;
+
+        /**
+         * 估算占用：每个聚类的样例消息、栈帧和最近执行，以及未结束的执行ID
+         */
+        long estimateBytes() {
+            long bytes = 512 + (openJobs.size() + openSteps.size()) * 48L;
+            for (FailureCluster cluster : clusters) {
+                bytes += cluster.estimateBytes();
+            }
+            return bytes;
+        }
+
+        /**
+         * 扫描水位线之后的失败和运行中记录；先取当前最大主键，扫描完成后水位线推进到该主键
+         */
+        void scan(Connection conn, String baseSql, String idColumn, String statusColumn, String maxIdSql,
+                  IdWatermark watermark, Set<Long> open, boolean step) throws SQLException {
+            long maxId;
+            try (PreparedStatement stmt = conn.prepareStatement(maxIdSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                maxId = rs.next() ? rs.getLong(1) : 0;
+            }
+
+            String sql = baseSql + "WHERE " + idColumn + " > ? AND " + idColumn + " <= ? " +
+                         "AND " + statusColumn + " IN " + OPEN_OR_FAILED + " ORDER BY " + idColumn;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, watermark.scanFrom());
+                stmt.setLong(2, maxId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong("ID");
+                        if (watermark.accept(id)) {
+                            accept(rs, open, step);
+                        }
+                    }
+                }
+            }
+            watermark.advanceTo(maxId);
+            watermark.prune();
+        }
+
+        /**
+         * 回查上次仍在运行的记录
+         */
+        void refreshOpen(Connection conn, Set<Long> open, String baseSql, String idColumn, boolean step)
+                throws SQLException {
+            List<Long> ids = new ArrayList<>(open);
+            open.clear();
+            for (int start = 0; start < ids.size(); start += IN_BATCH_SIZE) {
+                List<Long> batch = ids.subList(start, Math.min(start + IN_BATCH_SIZE, ids.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        baseSql + "WHERE " + idColumn + " IN " + inClause(batch.size()))) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setLong(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            accept(rs, open, step);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void accept(ResultSet rs, Set<Long> open, boolean step) throws SQLException {
+            long id = rs.getLong("ID");
+            String status = rs.getString("STATUS");
+            if (!"FAILED".equals(status)) {
+                if (status != null && !"COMPLETED".equals(status)) {
+                    open.add(id);
+                }
+                return;
+            }
+            String message = rs.getString("EXIT_MESSAGE");
+            if (message == null || message.trim().isEmpty()) {
+                return;
+            }
+            FailureCluster cluster = assign(message);
+            cluster.addFailure(rs.getString("JOB_NAME"), step ? rs.getString("STEP_NAME") : null,
+                    rs.getLong("JOB_EXECUTION_ID"), id, rs.getTimestamp("FAILED_AT"));
+        }
+
+        private FailureCluster assign(String message) {
+            FailureSignature signature = FailureSignature.of(message);
+            FailureCluster cluster = clustersBySignature.get(signature.getSignature());
+            if (cluster != null) {
+                return cluster;
+            }
+
+            cluster = findSimilar(signature.getSimHash());
+            if (cluster == null) {
+                if (clusters.size() >= MAX_CLUSTERS) {
+                    return getOverflowCluster();
+                }
+                cluster = new FailureCluster(clusters.size() + 1, signature.getSignature(), signature.getSimHash(),
+                        signature.getExceptionType(), signature.getRootCauseType(), signature.getNormalizedHead(),
+                        signature.getTopFrames(),
+                        message.length() > MAX_SAMPLE_LENGTH ? message.substring(0, MAX_SAMPLE_LENGTH) : message);
+                clusters.add(cluster);
+                for (int band = 0; band < 4; band++) {
+                    clustersByBand.computeIfAbsent(bandKey(signature.getSimHash(), band), key -> new ArrayList<>())
+                            .add(cluster);
+                }
+            }
+            // 近似命中的签名也登记下来，之后相同签名直接命中
+            clustersBySignature.put(signature.getSignature(), cluster);
+            return cluster;
+        }
+
+        private FailureCluster findSimilar(long simHash) {
+            FailureCluster best = null;
+            int bestDistance = MAX_HAMMING_DISTANCE + 1;
+            for (int band = 0; band < 4; band++) {
+                List<FailureCluster> candidates = clustersByBand.get(bandKey(simHash, band));
+                if (candidates == null) {
+                    continue;
+                }
+                for (FailureCluster candidate : candidates) {
+                    int distance = FailureSignature.hammingDistance(simHash, candidate.getSimHash());
+                    if (distance < bestDistance) {
+                        best = candidate;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private FailureCluster getOverflowCluster() {
+            if (overflowCluster == null) {
+                overflowCluster = new FailureCluster(0, 0, 0, "其他", null, "聚类数超过上限后的其他失败",
+                        Collections.emptyList(), "");
+                clusters.add(overflowCluster);
+            }
+            return overflowCluster;
+        }
+
+        private static int bandKey(long simHash, int band) {
+            return band << 16 | (int) ((simHash >>> (band * 16)) & 0xFFFF);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.HeartbeatSeries;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.file.*;
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 步骤心跳服务 - 轮询运行中步骤的 LAST_UPDATED 和 COMMIT_COUNT，记录为心跳序列
+ *
+ * 每个步骤的序列以追加方式写入 IDE 系统目录下的文件（每条 20 字节），
+ * 步骤结束后仍可查看；超过保留期限的文件在首次访问数据源时清理。
+ */
+public class HeartbeatService {
+    private static final HeartbeatService INSTANCE = new HeartbeatService();
+
+    private static final int RECORD_BYTES = 20;
+    private static final int MAX_CACHED_SERIES = 200;
+    private static final long RETENTION_MILLIS = 30L * 24 * 3600 * 1000;
+    private static final String MEMORY_OWNER = "心跳序列";
+
+    private static final String SAMPLE_SQL =
+            "SELECT se.STEP_EXECUTION_ID, se.END_TIME, se.LAST_UPDATED, se.COMMIT_COUNT, je.END_TIME AS JOB_END_TIME " +
+            "FROM BATCH_JOB_EXECUTION je " +
+            "LEFT JOIN BATCH_STEP_EXECUTION se ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+            "WHERE je.JOB_EXECUTION_ID = ?";
+
+    // 最近访问的序列，按访问顺序淘汰
+    private final Map<String, HeartbeatSeries> cache = new LinkedHashMap<String, HeartbeatSeries>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HeartbeatSeries> eldest) {
+            if (size() <= MAX_CACHED_SERIES) {
+                return false;
+            }
+            MemoryGovernor.getInstance().untrack(MEMORY_OWNER, eldest.getKey());
+            return true;
+        }
+    };
+    private final Set<String> prunedDataSources = ConcurrentHashMap.newKeySet();
+
+    private HeartbeatService() {
+    }
+
+    public static HeartbeatService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 对作业执行的步骤采样一次，记录运行中（以及刚结束）步骤的心跳
+     *
+     * @return 作业或其中的步骤是否仍在运行
+     */
+    public boolean sample(String dataSourceId, long jobExecutionId) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        long now = System.currentTimeMillis();
+        boolean running = false;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SAMPLE_SQL)) {
+            stmt.setLong(1, jobExecutionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getObject("JOB_END_TIME") == null) {
+                        running = true;
+                    }
+                    long stepExecutionId = rs.getLong("STEP_EXECUTION_ID");
+                    if (rs.wasNull()) {
+                        continue;
+                    }
+                    boolean stepRunning = rs.getObject("END_TIME") == null;
+                    running |= stepRunning;
+                    Timestamp lastUpdated = SqlDialect.readTimestamp(rs, "LAST_UPDATED");
+                    // 已结束的步骤只在有采样记录时补上最后一次心跳
+                    if (lastUpdated != null && (stepRunning || hasSeries(dataSourceId, stepExecutionId))) {
+                        record(dataSourceId, stepExecutionId, now, lastUpdated.getTime(), rs.getInt("COMMIT_COUNT"));
+                    }
+                }
+            }
+        }
+        return running;
+    }
+
+    /**
+     * 获取步骤的心跳序列，没有采样记录时为null
+     */
+    public HeartbeatSeries getSeries(String dataSourceId, long stepExecutionId) {
+        String key = dataSourceId + ":" + stepExecutionId;
+        synchronized (cache) {
+            HeartbeatSeries series = cache.get(key);
+            if (series == null) {
+                series = load(dataSourceId, stepExecutionId);
+                if (series != null) {
+                    cache.put(key, series);
+                    track(key, series);
+                }
+            } else {
+                MemoryGovernor.getInstance().touch(MEMORY_OWNER, key);
+            }
+            return series;
+        }
+    }
+
+    private boolean hasSeries(String dataSourceId, long stepExecutionId) {
+        synchronized (cache) {
+            return cache.containsKey(dataSourceId + ":" + stepExecutionId)
+                    || Files.isRegularFile(seriesFile(dataSourceId, stepExecutionId));
+        }
+    }
+
+    private void record(String dataSourceId, long stepExecutionId, long sampleTime, long lastUpdated,
+                        int commitCount) {
+        HeartbeatSeries series;
+        synchronized (cache) {
+            series = getSeries(dataSourceId, stepExecutionId);
+            if (series == null) {
+                series = new HeartbeatSeries(stepExecutionId);
+                cache.put(dataSourceId + ":" + stepExecutionId, series);
+            }
+        }
+        if (series.record(sampleTime, lastUpdated, commitCount)) {
+            append(dataSourceId, stepExecutionId, sampleTime, lastUpdated, commitCount);
+            track(dataSourceId + ":" + stepExecutionId, series);
+        }
+    }
+
+    /**
+     * 登记序列占用；采样已逐条写入本地文件，淘汰时直接丢弃，下次查看时重新读取
+     */
+    private void track(String key, HeartbeatSeries series) {
+        MemoryGovernor.getInstance().track(MEMORY_OWNER, key, series, 64 + series.size() * (long) RECORD_BYTES,
+                (evictedKey, value) -> {
+                    synchronized (cache) {
+                        cache.remove(evictedKey, value);
+                    }
+                });
+    }
+
+    private void append(String dataSourceId, long stepExecutionId, long sampleTime, long lastUpdated,
+                        int commitCount) {
+        Path file = seriesFile(dataSourceId, stepExecutionId);
+        try {
+            Files.createDirectories(file.getParent());
+            pruneExpired(dataSourceId, file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), RECORD_BYTES))) {
+                out.writeLong(sampleTime);
+                out.writeLong(lastUpdated);
+                out.writeInt(commitCount);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private HeartbeatSeries load(String dataSourceId, long stepExecutionId) {
+        Path file = seriesFile(dataSourceId, stepExecutionId);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        HeartbeatSeries series = new HeartbeatSeries(stepExecutionId);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            // 写入中断留下的不完整记录直接忽略
+            long records = Files.size(file) / RECORD_BYTES;
+            for (long i = 0; i < records; i++) {
+                series.record(in.readLong(), in.readLong(), in.readInt());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return series;
+    }
+
+    private void pruneExpired(String dataSourceId, Path directory) {
+        if (!prunedDataSources.add(dataSourceId)) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - RETENTION_MILLIS;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.hb")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < expireBefore) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Path seriesFile(String dataSourceId, long stepExecutionId) {
+        return LocalStorage.directory(dataSourceId).resolve("heartbeats").resolve(stepExecutionId + ".hb");
+    }
+}
@@ -0,0 +1,109 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.StepHotspot;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 回滚/跳过热点分析服务 - 在数据库端按步骤名称聚合，只传输汇总行
+ */
+public class HotspotAnalysisService {
+    private static final HotspotAnalysisService INSTANCE = new HotspotAnalysisService();
+
+
+    private HotspotAnalysisService() {
+    }
+
+    public static HotspotAnalysisService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取时间窗口内存在回滚或跳过的步骤，按回滚率、跳过率降序排列
+     */
+    public List<StepHotspot> getStepHotspots(String dataSourceId, TimeWindow window) throws SQLException {
+        List<StepHotspot> hotspots = new ArrayList<>();
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            return hotspots;
+        }
+
+        // 以窗口中点划分前后两段，同一次扫描内完成趋势对比
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("SELECT STEP_NAME, COUNT(*) AS EXEC_COUNT, ")
+                  .append("SUM(READ_COUNT) AS READS, SUM(WRITE_COUNT) AS WRITES, ")
+                  .append("SUM(COMMIT_COUNT) AS COMMITS, SUM(ROLLBACK_COUNT) AS ROLLBACKS, ")
+                  .append("SUM(").append(SqlDialect.skipCount("")).append(") AS SKIPS, ")
+                  .append("SUM(CASE WHEN START_TIME < ? THEN READ_COUNT ELSE 0 END) AS EARLY_READS, ")
+                  .append("SUM(CASE WHEN START_TIME < ? THEN COMMIT_COUNT ELSE 0 END) AS EARLY_COMMITS, ")
+                  .append("SUM(CASE WHEN START_TIME < ? THEN ROLLBACK_COUNT ELSE 0 END) AS EARLY_ROLLBACKS, ")
+                  .append("SUM(CASE WHEN START_TIME < ? THEN ").append(SqlDialect.skipCount(""))
+                  .append(" ELSE 0 END) AS EARLY_SKIPS ")
+                  .append("FROM BATCH_STEP_EXECUTION ")
+                  .append("WHERE START_TIME < ? ");
+
+        List<Object> parameters = new ArrayList<>();
+        Timestamp midpoint = window.getMidpoint();
+        for (int i = 0; i < 4; i++) {
+            parameters.add(midpoint);
+        }
+        parameters.add(window.getTo());
+
+        if (!window.isUnbounded()) {
+            sqlBuilder.append("AND START_TIME >= ? ");
+            parameters.add(window.getFrom());
+        }
+
+        sqlBuilder.append("GROUP BY STEP_NAME ")
+                  .append("HAVING SUM(ROLLBACK_COUNT) > 0 OR SUM(").append(SqlDialect.skipCount("")).append(") > 0");
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    StepHotspot hotspot = new StepHotspot();
+                    hotspot.setStepName(rs.getString("STEP_NAME"));
+                    hotspot.setExecutionCount(rs.getLong("EXEC_COUNT"));
+                    hotspot.setReadCount(rs.getLong("READS"));
+                    hotspot.setWriteCount(rs.getLong("WRITES"));
+                    hotspot.setCommitCount(rs.getLong("COMMITS"));
+                    hotspot.setRollbackCount(rs.getLong("ROLLBACKS"));
+                    hotspot.setSkipCount(rs.getLong("SKIPS"));
+
+                    long earlyReads = rs.getLong("EARLY_READS");
+                    long earlyCommits = rs.getLong("EARLY_COMMITS");
+                    long earlyRollbacks = rs.getLong("EARLY_ROLLBACKS");
+                    long earlySkips = rs.getLong("EARLY_SKIPS");
+                    hotspot.setEarlierRollbackRate(ratio(earlyRollbacks, earlyCommits + earlyRollbacks));
+                    hotspot.setEarlierSkipRate(ratio(earlySkips, earlyReads));
+
+                    long recentCommits = hotspot.getCommitCount() - earlyCommits;
+                    long recentRollbacks = hotspot.getRollbackCount() - earlyRollbacks;
+                    hotspot.setRecentRollbackRate(ratio(recentRollbacks, recentCommits + recentRollbacks));
+                    hotspot.setRecentSkipRate(ratio(hotspot.getSkipCount() - earlySkips,
+                            hotspot.getReadCount() - earlyReads));
+                    hotspots.add(hotspot);
+                }
+            }
+        }
+
+        hotspots.sort(Comparator.comparingDouble(StepHotspot::getRollbackRate)
+                .thenComparingDouble(StepHotspot::getSkipRate)
+                .reversed());
+        return hotspots;
+    }
+
+    private static double ratio(long numerator, long denominator) {
+        return denominator > 0 ? (double) numerator / denominator : 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.springbatch.monitor.services;
+
+import java.util.TreeSet;
+
+/**
+ * 主键水位线 - 记录已处理的最大主键，以及水位线之前一段回看区间内已处理的主键
+ *
+ * 序列分配的主键可能乱序提交，增量扫描时从 maxId - overlap 开始，
+ * 回看区间内已处理过的主键通过 recentIds 去重。
+ */
+class IdWatermark {
+    private final long overlap;
+    private final TreeSet<Long> recentIds = new TreeSet<>();
+    private long maxId;
+
+    IdWatermark(long overlap) {
+        this.overlap = overlap;
+    }
+
+    long getMaxId() {
+        return maxId;
+    }
+
+    long scanFrom() {
+        return Math.max(0, maxId - overlap);
+    }
+
+    /**
+     * 记录主键，已处理过时返回 false
+     */
+    boolean accept(long id) {
+        if (id <= scanFrom() || !recentIds.add(id)) {
+            return false;
+        }
+        maxId = Math.max(maxId, id);
+        return true;
+    }
+
+    /**
+     * 登记回看区间内已处理的主键，不移动水位线
+     */
+    void addRecent(long id) {
+        recentIds.add(id);
+    }
+
+    /**
+     * 扫描已完整覆盖到 id 时推进水位线
+     */
+    void advanceTo(long id) {
+        maxId = Math.max(maxId, id);
+    }
+
+    void prune() {
+        recentIds.headSet(scanFrom(), true).clear();
+    }
+
+    void reset(long maxId) {
+        this.maxId = maxId;
+        recentIds.clear();
+    }
+}
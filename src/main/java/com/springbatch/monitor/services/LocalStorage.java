@@ -0,0 +1,23 @@
+package com.springbatch.monitor.services;
+
+import com.intellij.openapi.application.PathManager;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 本地存储位置 - 插件在 IDE 系统目录下按数据源保存的索引和采样数据
+ */
+final class LocalStorage {
+
+    private LocalStorage() {
+    }
+
+    /**
+     * 数据源的本地存储目录，数据源ID中的特殊字符替换为下划线
+     */
+    static Path directory(String dataSourceId) {
+        return Paths.get(PathManager.getSystemPath(), "spring-batch-monitor",
+                dataSourceId.replaceAll("[^A-Za-z0-9._-]", "_"));
+    }
+}
@@ -0,0 +1,253 @@
+package com.springbatch.monitor.services;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.util.LowMemoryWatcher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内存管理服务 - 统一登记插件持有的结果列表、缓存和图表序列的估算大小，按字节预算淘汰最久未使用的数据
+ *
+ * 各缓存在写入或命中时登记/触碰条目，超出预算或收到 IDE 的低内存通知时，
+ * 由后台线程按最久未使用的顺序回调条目的淘汰器，淘汰器自行决定直接丢弃还是先写入本地文件。
+ * 淘汰回调不在任何缓存锁内执行，避免缓存之间互相等待。
+ */
+public class MemoryGovernor {
+    private static final MemoryGovernor INSTANCE = new MemoryGovernor();
+
+    private static final String BUDGET_KEY = "springbatch.monitor.memoryBudgetMb";
+    public static final int DEFAULT_BUDGET_MB = 64;
+    public static final int MIN_BUDGET_MB = 8;
+    public static final int MAX_BUDGET_MB = 2048;
+    // 收到低内存通知后保留的预算比例
+    private static final int LOW_MEMORY_DIVISOR = 4;
+
+    /**
+     * 条目淘汰器，在后台线程调用；value 为登记时的对象，缓存中已换成其他对象时应忽略
+     */
+    public interface Evictor {
+        void evict(String key, Object value);
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Long> bytesByOwner = new TreeMap<>();
+    private final ExecutorService trimExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "spring-batch-monitor-memory");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 低内存通知按弱引用保存监听器，需要持有返回值
+    private final LowMemoryWatcher lowMemoryWatcher;
+    private final AtomicInteger lowMemoryEvents = new AtomicInteger();
+    private long usedBytes;
+    private long evictedBytes;
+    private long budgetBytes;
+    private boolean trimPending;
+
+    private MemoryGovernor() {
+        budgetBytes = megabytes(readBudgetMegabytes());
+        lowMemoryWatcher = LowMemoryWatcher.register(this::onLowMemory);
+    }
+
+    public static MemoryGovernor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 登记或更新条目的估算大小并标记为最近使用；evictor 为null的条目只计入用量，不会被淘汰
+     */
+    public void track(String owner, String key, Object value, long bytes, Evictor evictor) {
+        synchronized (this) {
+            Entry previous = entries.put(entryKey(owner, key), new Entry(owner, key, value, bytes, evictor));
+            if (previous != null) {
+                addUsage(previous.owner, -previous.bytes);
+            }
+            addUsage(owner, bytes);
+        }
+        scheduleTrim(false);
+    }
+
+    /**
+     * 标记条目为最近使用
+     */
+    public synchronized void touch(String owner, String key) {
+        entries.get(entryKey(owner, key));
+    }
+
+    /**
+     * 取消登记条目，缓存自行删除数据时调用
+     */
+    public synchronized void untrack(String owner, String key) {
+        Entry removed = entries.remove(entryKey(owner, key));
+        if (removed != null) {
+            addUsage(owner, -removed.bytes);
+        }
+    }
+
+    /**
+     * 取消登记某个所有者下键以 keyPrefix 开头的全部条目
+     */
+    public synchronized void untrackAll(String owner, String keyPrefix) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.owner.equals(owner) && entry.key.startsWith(keyPrefix)) {
+                iterator.remove();
+                addUsage(owner, -entry.bytes);
+            }
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * 累计淘汰的字节数
+     */
+    public synchronized long getEvictedBytes() {
+        return evictedBytes;
+    }
+
+    public int getLowMemoryEvents() {
+        return lowMemoryEvents.get();
+    }
+
+    /**
+     * 各所有者的估算用量，按名称排序
+     */
+    public synchronized Map<String, Long> getUsageByOwner() {
+        return new LinkedHashMap<>(bytesByOwner);
+    }
+
+    public int getBudgetMegabytes() {
+        return (int) (getBudgetBytes() >> 20);
+    }
+
+    /**
+     * 修改并保存内存预算，超出时立即开始淘汰
+     */
+    public void setBudgetMegabytes(int megabytes) {
+        int clamped = Math.max(MIN_BUDGET_MB, Math.min(MAX_BUDGET_MB, megabytes));
+        PropertiesComponent.getInstance().setValue(BUDGET_KEY, clamped, DEFAULT_BUDGET_MB);
+        synchronized (this) {
+            budgetBytes = megabytes(clamped);
+        }
+        scheduleTrim(false);
+    }
+
+    /**
+     * 淘汰全部可淘汰的条目
+     */
+    public void releaseAll() {
+        trimExecutor.execute(() -> trim(0));
+    }
+
+    /**
+     * 在插件的本地目录下创建临时换出文件，IDE 退出时删除
+     */
+    public static Path createSpillFile(String prefix) throws IOException {
+        Path directory = Paths.get(PathManager.getSystemPath(), "spring-batch-monitor", "spill");
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, prefix, ".bin");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private void onLowMemory() {
+        lowMemoryEvents.incrementAndGet();
+        scheduleTrim(true);
+    }
+
+    private void scheduleTrim(boolean lowMemory) {
+        synchronized (this) {
+            if (!lowMemory && (usedBytes <= budgetBytes || trimPending)) {
+                return;
+            }
+            trimPending = true;
+        }
+        trimExecutor.execute(() -> trim(lowMemory ? getBudgetBytes() / LOW_MEMORY_DIVISOR : getBudgetBytes()));
+    }
+
+    /**
+     * 按最久未使用的顺序淘汰，直到用量不超过 targetBytes
+     */
+    private void trim(long targetBytes) {
+        List<Entry> victims = new ArrayList<>();
+        synchronized (this) {
+            trimPending = false;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (usedBytes > targetBytes && iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.evictor == null) {
+                    continue;
+                }
+                iterator.remove();
+                addUsage(entry.owner, -entry.bytes);
+                evictedBytes += entry.bytes;
+                victims.add(entry);
+            }
+        }
+        for (Entry victim : victims) {
+            try {
+                victim.evictor.evict(victim.key, victim.value);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void addUsage(String owner, long delta) {
+        usedBytes += delta;
+        long ownerBytes = bytesByOwner.getOrDefault(owner, 0L) + delta;
+        if (ownerBytes <= 0) {
+            bytesByOwner.remove(owner);
+        } else {
+            bytesByOwner.put(owner, ownerBytes);
+        }
+    }
+
+    private static int readBudgetMegabytes() {
+        int megabytes = PropertiesComponent.getInstance().getInt(BUDGET_KEY, DEFAULT_BUDGET_MB);
+        return Math.max(MIN_BUDGET_MB, Math.min(MAX_BUDGET_MB, megabytes));
+    }
+
+    private static long megabytes(int megabytes) {
+        return (long) megabytes << 20;
+    }
+
+    private static String entryKey(String owner, String key) {
+        return owner + "\u0000" + key;
+    }
+
+    /**
+     * 登记的条目
+     */
+    private static class Entry {
+        final String owner;
+        final String key;
+        final Object value;
+        final long bytes;
+        final Evictor evictor;
+
+        Entry(String owner, String key, Object value, long bytes, Evictor evictor) {
+            this.owner = owner;
+            this.key = key;
+            this.value = value;
+            this.bytes = bytes;
+            this.evictor = evictor;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.springbatch.monitor.services;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.PurgeReport;
+import com.springbatch.monitor.utils.JsonUtils;
+import com.springbatch.monitor.utils.SqlUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 历史清理服务 - 删除截止时间之前的作业执行及其全部元数据
+ *
+ * 每批取若干个作业执行，在一个事务内按外键安全的顺序删除（步骤上下文 → 步骤 → 作业上下文 → 参数 → 作业执行
+ * → 不再有执行的作业实例）后提交；批次之间按每秒行数限速，有作业处于运行状态时暂停。
+ * 未结束（STARTING/STARTED/STOPPING）的执行永远不会被删除。可选把整批数据追加到本地 gzip 压缩的
+ * JSON Lines 归档文件：先在事务内读出整批数据，删除成功后再写入归档并刷新，最后提交，
+ * 删除失败回滚的批次不会写入归档，重试时也就不会重复归档。线程被中断时视为取消。
+ */
+public class PurgeService {
+    private static final PurgeService INSTANCE = new PurgeService();
+
+    private static final String CANDIDATE_PREDICATE =
+            "START_TIME < ? AND STATUS NOT IN ('STARTING', 'STARTED', 'STOPPING')";
+    private static final String RUNNING_SQL =
+            "SELECT COUNT(*) FROM BATCH_JOB_EXECUTION WHERE STATUS IN ('STARTING', 'STARTED')";
+    private static final long RUNNING_CHECK_INTERVAL_MILLIS = 5_000;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private PurgeService() {
+    }
+
+    public static PurgeService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 预估清理：统计各表将被删除的行数，不做任何修改
+     */
+    public PurgeReport estimate(String dataSourceId, Timestamp cutoff) throws SQLException {
+        DataSource dataSource = requireDataSource(dataSourceId);
+        String candidates = "(SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION WHERE " + CANDIDATE_PREDICATE + ")";
+        String[] predicates = {
+                "STEP_EXECUTION_ID IN (SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION " +
+                "WHERE JOB_EXECUTION_ID IN " + candidates + ")",
+                "JOB_EXECUTION_ID IN " + candidates,
+                "JOB_EXECUTION_ID IN " + candidates,
+                "JOB_EXECUTION_ID IN " + candidates,
+                CANDIDATE_PREDICATE,
+                "JOB_INSTANCE_ID IN (SELECT JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION WHERE " + CANDIDATE_PREDICATE + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION x " +
+                "WHERE x.JOB_INSTANCE_ID = BATCH_JOB_INSTANCE.JOB_INSTANCE_ID " +
+                "AND x.JOB_EXECUTION_ID NOT IN " + candidates + ")"
+        };
+
+        PurgeReport report = new PurgeReport(true);
+        try (Connection conn = dataSource.getConnection()) {
+            for (int table = 0; table < PurgeReport.TABLES.length; table++) {
+                String sql = "SELECT COUNT(*) FROM " + PurgeReport.TABLES[table] + " WHERE " + predicates[table];
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int parameters = (int) sql.chars().filter(c -> c == '?').count();
+                    for (int i = 1; i <= parameters; i++) {
+                        stmt.setTimestamp(i, cutoff);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            report.addRows(table, rs.getLong(1));
+                        }
+                    }
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 执行清理
+     *
+     * @param batchSize 每批（每个事务）删除的作业执行数
+     * @param maxRowsPerSecond 所有表合计的删除速率上限，0 表示不限速
+     * @param pauseWhileRunning 有作业正在运行时暂停，避免与 Spring Batch 自身的元数据写入争用锁
+     * @param archive 归档文件（.jsonl.gz），为 null 时不归档；已存在时追加
+     */
+    public PurgeReport purge(String dataSourceId, Timestamp cutoff, int batchSize, int maxRowsPerSecond,
+                             boolean pauseWhileRunning, Path archive, ProgressIndicator indicator)
+            throws SQLException, IOException {
+        DataSource dataSource = requireDataSource(dataSourceId);
+        long expected = estimate(dataSourceId, cutoff).getExecutions();
+
+        PurgeReport report = new PurgeReport(false);
+        long started = System.currentTimeMillis();
+        Writer archiveWriter = archive == null ? null : new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(archive, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND), 64 * 1024, true), StandardCharsets.UTF_8));
+        try (Connection conn = dataSource.getConnection()) {
+            SqlDialect dialect = SqlDialect.forDataSource(dataSourceId);
+            conn.setAutoCommit(false);
+            try {
+                long lastId = -1;
+                while (true) {
+                    indicator.checkCanceled();
+                    if (pauseWhileRunning) {
+                        waitForIdle(conn, report, indicator);
+                    }
+
+                    List<Long> executionIds = new ArrayList<>();
+                    Set<Long> instanceIds = new LinkedHashSet<>();
+                    String select = "SELECT JOB_EXECUTION_ID, JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION " +
+                                    "WHERE " + CANDIDATE_PREDICATE + " AND JOB_EXECUTION_ID > ? " +
+                                    "ORDER BY JOB_EXECUTION_ID" + dialect.limit(batchSize);
+                    try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                        stmt.setTimestamp(1, cutoff);
+                        stmt.setLong(2, lastId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                executionIds.add(rs.getLong(1));
+                                instanceIds.add(rs.getLong(2));
+                            }
+                        }
+                    }
+                    if (executionIds.isEmpty()) {
+                        break;
+                    }
+                    lastId = executionIds.get(executionIds.size() - 1);
+
+                    List<Long> orphanInstanceIds = orphanInstances(conn, new ArrayList<>(instanceIds), executionIds);
+                    String archived = archiveWriter != null ? archiveBatch(conn, executionIds, orphanInstanceIds)
+                                                            : null;
+                    deleteBatch(conn, executionIds, orphanInstanceIds, report);
+                    if (archived != null) {
+                        archiveWriter.write(archived);
+                        archiveWriter.flush();
+                    }
+                    conn.commit();
+                    report.addBatch();
+
+                    indicator.setFraction(expected > 0 ? Math.min(1, (double) report.getExecutions() / expected) : 1);
+                    indicator.setText(String.format("已清理 %,d / %,d 个作业执行（共 %,d 行）",
+                            report.getExecutions(), expected, report.getTotalRows()));
+                    throttle(started, maxRowsPerSecond, report, indicator);
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            if (archiveWriter != null) {
+                archiveWriter.close();
+            }
+            DailySummaryService.getInstance().invalidate(dataSourceId);
+            RunHistoryService.getInstance().invalidate(dataSourceId);
+        }
+        return report;
+    }
+
+    private static DataSource requireDataSource(String dataSourceId) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        DataSourceConfig config = DatabaseService.getInstance().getDataSourceConfig(dataSourceId);
+        if (config != null && config.isReadOnly()) {
+            throw new SQLException("只读数据源不能清理: " + config.getName());
+        }
+        return dataSource;
+    }
+
+    /**
+     * 本批删除后不再有任何执行的作业实例
+     */
+    private static List<Long> orphanInstances(Connection conn, List<Long> instanceIds, List<Long> executionIds)
+            throws SQLException {
+        String sql = "SELECT JOB_INSTANCE_ID FROM BATCH_JOB_INSTANCE WHERE JOB_INSTANCE_ID IN " +
+                     SqlUtils.placeholders(instanceIds.size()) +
+                     "AND NOT EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION x " +
+                     "WHERE x.JOB_INSTANCE_ID = BATCH_JOB_INSTANCE.JOB_INSTANCE_ID " +
+                     "AND x.JOB_EXECUTION_ID NOT IN " + SqlUtils.placeholders(executionIds.size()) + ")";
+        List<Long> orphans = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindIds(stmt, 1, instanceIds);
+            bindIds(stmt, index, executionIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orphans.add(rs.getLong(1));
+                }
+            }
+        }
+        return orphans;
+    }
+
+    /**
+     * 各表在本批中的删除条件，顺序与 {@link PurgeReport#TABLES} 一致
+     */
+    private static String batchPredicate(int table, int executionCount, int instanceCount) {
+        switch (table) {
+            case 0:
+                return "STEP_EXECUTION_ID IN (SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION " +
+                       "WHERE JOB_EXECUTION_ID IN " + SqlUtils.placeholders(executionCount) + ")";
+            case 5:
+                return "JOB_INSTANCE_ID IN " + SqlUtils.placeholders(instanceCount);
+            default:
+                return "JOB_EXECUTION_ID IN " + SqlUtils.placeholders(executionCount);
+        }
+    }
+
+    private static void deleteBatch(Connection conn, List<Long> executionIds, List<Long> instanceIds,
+                                    PurgeReport report) throws SQLException {
+        for (int table = 0; table < PurgeReport.TABLES.length; table++) {
+            List<Long> ids = table == 5 ? instanceIds : executionIds;
+            if (ids.isEmpty()) {
+                continue;
+            }
+            String sql = "DELETE FROM " + PurgeReport.TABLES[table] + " WHERE "
+                         + batchPredicate(table, executionIds.size(), instanceIds.size());
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindIds(stmt, 1, ids);
+                report.addRows(table, stmt.executeUpdate());
+            }
+        }
+    }
+
+    /**
+     * 按父表在前的顺序读出本批数据的归档行，每行带上表名；由调用方在删除成功后、提交前写入归档
+     */
+    private static String archiveBatch(Connection conn, List<Long> executionIds, List<Long> instanceIds)
+            throws SQLException, IOException {
+        StringWriter out = new StringWriter();
+        for (int table = PurgeReport.TABLES.length - 1; table >= 0; table--) {
+            List<Long> ids = table == 5 ? instanceIds : executionIds;
+            if (ids.isEmpty()) {
+                continue;
+            }
+            String sql = "SELECT * FROM " + PurgeReport.TABLES[table] + " WHERE "
+                         + batchPredicate(table, executionIds.size(), instanceIds.size());
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindIds(stmt, 1, ids);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columns = metaData.getColumnCount();
+                    while (rs.next()) {
+                        out.write("{\"table\":\"");
+                        out.write(PurgeReport.TABLES[table]);
+                        out.write('"');
+                        for (int column = 1; column <= columns; column++) {
+                            out.write(",\"");
+                            out.write(metaData.getColumnLabel(column).toUpperCase());
+                            out.write("\":");
+                            int type = metaData.getColumnType(column);
+                            String value;
+                            if (type == Types.TIMESTAMP || type == Types.DATE) {
+                                Timestamp timestamp = rs.getTimestamp(column);
+                                value = timestamp != null ? TIMESTAMP_FORMAT.format(timestamp.toLocalDateTime()) : null;
+                            } else {
+                                value = rs.getString(column);
+                            }
+                            if (value == null) {
+                                out.write("null");
+                            } else if (SqlUtils.isNumeric(type)) {
+                                out.write(value);
+                            } else {
+                                JsonUtils.writeString(out, value);
+                            }
+                        }
+                        out.write("}\n");
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * 有作业处于运行状态时每隔几秒重新检查，直到全部结束
+     */
+    private static void waitForIdle(Connection conn, PurgeReport report, ProgressIndicator indicator)
+            throws SQLException {
+        while (true) {
+            long running;
+            try (PreparedStatement stmt = conn.prepareStatement(RUNNING_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                running = rs.next() ? rs.getLong(1) : 0;
+            }
+            // 结束只读事务，避免暂停期间持有快照或锁
+            conn.commit();
+            if (running == 0) {
+                indicator.setText2("");
+                return;
+            }
+            indicator.setText2(String.format("%d 个作业正在运行，暂停清理...", running));
+            sleep(RUNNING_CHECK_INTERVAL_MILLIS, indicator);
+            report.addPausedMillis(RUNNING_CHECK_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * 已删除的行数超过速率上限允许的数量时，休眠到平均速率回到上限以内
+     */
+    private static void throttle(long started, int maxRowsPerSecond, PurgeReport report, ProgressIndicator indicator) {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long due = started + report.getPausedMillis() + report.getTotalRows() * 1000 / maxRowsPerSecond;
+        long wait = due - System.currentTimeMillis();
+        if (wait > 0) {
+            sleep(wait, indicator);
+        }
+    }
+
+    private static void sleep(long millis, ProgressIndicator indicator) {
+        long until = System.currentTimeMillis() + millis;
+        try {
+            for (long left = millis; left > 0; left = until - System.currentTimeMillis()) {
+                indicator.checkCanceled();
+                Thread.sleep(Math.min(left, 200));
+            }
+        } catch (InterruptedException e) {
+            // 中断按取消处理，由调用方回滚当前批次，否则暂停等待会不断重试
+            Thread.currentThread().interrupt();
+            throw new ProcessCanceledException(e);
+        }
+    }
+
+    private static int bindIds(PreparedStatement stmt, int index, List<Long> ids) throws SQLException {
+        for (Long id : ids) {
+            stmt.setLong(index++, id);
+        }
+        return index;
+    }
+}
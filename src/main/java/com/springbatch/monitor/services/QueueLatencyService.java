@@ -0,0 +1,150 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.JobExecution;
+import com.springbatch.monitor.models.LatencyDistribution;
+import com.springbatch.monitor.models.QueueLatencyReport;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.utils.DurationHistogram;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 启动排队延迟分析服务 - 统计作业执行从创建到开始之间的等待时长
+ *
+ * CREATE_TIME 到 START_TIME 的间隔是执行在 JobLauncher / TaskExecutor 中排队的时间，
+ * 异步启动线程池饱和时会先在这里体现。分布按作业名称和创建时间整点在数据库端分桶计数，
+ * 每组只返回直方图行，分位数在本地插值。
+ */
+public class QueueLatencyService {
+    private static final QueueLatencyService INSTANCE = new QueueLatencyService();
+
+    private static final int WORST_EXECUTION_LIMIT = 50;
+
+    private QueueLatencyService() {
+    }
+
+    public static QueueLatencyService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 分析创建时间落在窗口内、且已经开始的作业执行的排队延迟
+     */
+    public QueueLatencyReport getQueueLatency(String dataSourceId, TimeWindow window) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        SqlDialect dialect = SqlDialect.forDataSource(dataSourceId);
+        String wait = dialect.durationMillis("je.CREATE_TIME", "je.START_TIME");
+
+        String waits = "SELECT ji.JOB_NAME AS JOB_NAME, " +
+                       dialect.truncateToHour("je.CREATE_TIME") + " AS HOUR_START, " +
+                       wait + " AS D " +
+                       "FROM BATCH_JOB_EXECUTION je " +
+                       "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                       "WHERE je.START_TIME IS NOT NULL AND " + window.predicate("je.CREATE_TIME");
+
+        try (Connection conn = dataSource.getConnection()) {
+            Map<String, DurationHistogram> byJobName = new LinkedHashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(histogramSql(waits, "JOB_NAME"))) {
+                window.bind(stmt, 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        byJobName.computeIfAbsent(rs.getString("JOB_NAME"), key -> new DurationHistogram())
+                                .add(rs.getInt("B"), rs.getLong("CNT"), rs.getDouble("TOTAL"), rs.getDouble("MAXD"));
+                    }
+                }
+            }
+
+            Map<Timestamp, DurationHistogram> byHour = new TreeMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(histogramSql(waits, "HOUR_START"))) {
+                window.bind(stmt, 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Timestamp hour = SqlDialect.readTimestamp(rs, "HOUR_START");
+                        if (hour != null) {
+                            byHour.computeIfAbsent(hour, key -> new DurationHistogram())
+                                    .add(rs.getInt("B"), rs.getLong("CNT"), rs.getDouble("TOTAL"),
+                                            rs.getDouble("MAXD"));
+                        }
+                    }
+                }
+            }
+
+            DurationHistogram overall = new DurationHistogram();
+            List<LatencyDistribution> jobDistributions = new ArrayList<>();
+            for (Map.Entry<String, DurationHistogram> entry : byJobName.entrySet()) {
+                overall.merge(entry.getValue());
+                jobDistributions.add(new LatencyDistribution(entry.getKey(), null, entry.getValue()));
+            }
+            jobDistributions.sort(Comparator.comparingDouble(LatencyDistribution::getP90).reversed());
+
+            List<LatencyDistribution> hourDistributions = new ArrayList<>();
+            for (Map.Entry<Timestamp, DurationHistogram> entry : byHour.entrySet()) {
+                hourDistributions.add(new LatencyDistribution(
+                        entry.getKey().toLocalDateTime().toString(), entry.getKey(), entry.getValue()));
+            }
+
+            return new QueueLatencyReport(new LatencyDistribution("全部", null, overall), jobDistributions,
+                    hourDistributions, queryWorstExecutions(conn, dialect, wait, window),
+                    queryWaitingCount(conn, window));
+        }
+    }
+
+    private static String histogramSql(String waits, String groupColumn) {
+        return "SELECT " + groupColumn + ", B, COUNT(*) AS CNT, SUM(D) AS TOTAL, MAX(D) AS MAXD " +
+               "FROM (SELECT " + groupColumn + ", D, " + DurationHistogram.bucketExpression("D") + " AS B " +
+               "FROM (" + waits + ") t1) t2 " +
+               "GROUP BY " + groupColumn + ", B";
+    }
+
+    private List<JobExecution> queryWorstExecutions(Connection conn, SqlDialect dialect, String wait,
+                                                    TimeWindow window) throws SQLException {
+        String sql = "SELECT je.JOB_EXECUTION_ID, je.JOB_INSTANCE_ID, ji.JOB_NAME, je.CREATE_TIME, " +
+                     "je.START_TIME, je.END_TIME, je.STATUS, je.EXIT_CODE " +
+                     "FROM BATCH_JOB_EXECUTION je " +
+                     "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                     "WHERE je.START_TIME IS NOT NULL AND " + window.predicate("je.CREATE_TIME") +
+                     "ORDER BY " + wait + " DESC" + dialect.limit(WORST_EXECUTION_LIMIT);
+
+        List<JobExecution> executions = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            window.bind(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    JobExecution execution = new JobExecution();
+                    execution.setId(rs.getLong("JOB_EXECUTION_ID"));
+                    execution.setJobInstanceId(rs.getLong("JOB_INSTANCE_ID"));
+                    execution.setJobName(rs.getString("JOB_NAME"));
+                    execution.setCreateTime(rs.getTimestamp("CREATE_TIME"));
+                    execution.setStartTime(rs.getTimestamp("START_TIME"));
+                    execution.setEndTime(rs.getTimestamp("END_TIME"));
+                    execution.setStatus(rs.getString("STATUS"));
+                    execution.setExitCode(rs.getString("EXIT_CODE"));
+                    executions.add(execution);
+                }
+            }
+        }
+        return executions;
+    }
+
+    private long queryWaitingCount(Connection conn, TimeWindow window) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM BATCH_JOB_EXECUTION je " +
+                     "WHERE je.START_TIME IS NULL AND je.STATUS = 'STARTING' AND " +
+                     window.predicate("je.CREATE_TIME");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            window.bind(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
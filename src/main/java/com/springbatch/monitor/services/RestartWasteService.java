@@ -0,0 +1,115 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.InstanceRestartStats;
+import com.springbatch.monitor.models.JobRestartWaste;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 重启浪费分析服务 - 以作业实例为单位汇总失败尝试消耗的时间和处理量
+ *
+ * 一次分组查询完成：步骤的读写量先在派生表中按执行汇总，再与作业执行关联后按实例分组，
+ * 只返回存在失败尝试的实例；按作业名称的排名在本地完成。
+ * 窗口按执行的 START_TIME 过滤，跨越窗口起点的实例只统计窗口内的尝试。
+ */
+public class RestartWasteService {
+    private static final RestartWasteService INSTANCE = new RestartWasteService();
+
+    private static final String FAILED_CONDITION = "je.END_TIME IS NOT NULL AND je.STATUS <> 'COMPLETED'";
+
+    private RestartWasteService() {
+    }
+
+    public static RestartWasteService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 按失败尝试耗时降序排列的作业重启浪费
+     */
+    public List<JobRestartWaste> getRestartWaste(String dataSourceId, TimeWindow window) throws SQLException {
+        List<JobRestartWaste> result = new ArrayList<>();
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            return result;
+        }
+
+        String duration = "COALESCE(" + SqlDialect.forDataSource(dataSourceId)
+                .durationMillis("je.START_TIME", "je.END_TIME") + ", 0)";
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("SELECT je.JOB_INSTANCE_ID, ji.JOB_NAME, COUNT(*) AS ATTEMPTS, ")
+                  .append("SUM(CASE WHEN ").append(FAILED_CONDITION).append(" THEN 1 ELSE 0 END) AS FAILED_ATTEMPTS, ")
+                  .append("SUM(CASE WHEN je.STATUS = 'COMPLETED' THEN 1 ELSE 0 END) AS COMPLETIONS, ")
+                  .append("SUM(").append(duration).append(") AS TOTAL_MILLIS, ")
+                  .append("SUM(CASE WHEN ").append(FAILED_CONDITION).append(" THEN ").append(duration)
+                  .append(" ELSE 0 END) AS FAILED_MILLIS, ")
+                  .append("SUM(CASE WHEN ").append(FAILED_CONDITION)
+                  .append(" THEN COALESCE(s.READS, 0) ELSE 0 END) AS FAILED_READS, ")
+                  .append("SUM(CASE WHEN ").append(FAILED_CONDITION)
+                  .append(" THEN COALESCE(s.WRITES, 0) ELSE 0 END) AS FAILED_WRITES, ")
+                  .append("MIN(je.START_TIME) AS FIRST_START, ")
+                  .append("MAX(CASE WHEN je.STATUS = 'COMPLETED' THEN je.END_TIME END) AS COMPLETED_TIME ")
+                  .append("FROM BATCH_JOB_EXECUTION je ")
+                  .append("JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID ")
+                  .append("LEFT JOIN (SELECT JOB_EXECUTION_ID, SUM(READ_COUNT) AS READS, SUM(WRITE_COUNT) AS WRITES ")
+                  .append("FROM BATCH_STEP_EXECUTION ");
+        if (!window.isUnbounded()) {
+            // 步骤总是在所属作业执行开始之后开始，用窗口起点裁剪派生表
+            sqlBuilder.append("WHERE START_TIME >= ? ");
+            parameters.add(window.getFrom());
+        }
+        sqlBuilder.append("GROUP BY JOB_EXECUTION_ID) s ON s.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID ")
+                  .append("WHERE je.START_TIME < ? ");
+        parameters.add(window.getTo());
+        if (!window.isUnbounded()) {
+            sqlBuilder.append("AND je.START_TIME >= ? ");
+            parameters.add(window.getFrom());
+        }
+        sqlBuilder.append("GROUP BY je.JOB_INSTANCE_ID, ji.JOB_NAME ")
+                  .append("HAVING SUM(CASE WHEN ").append(FAILED_CONDITION).append(" THEN 1 ELSE 0 END) > 0");
+
+        Map<String, List<InstanceRestartStats>> byJobName = new LinkedHashMap<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    InstanceRestartStats instance = new InstanceRestartStats();
+                    instance.setJobInstanceId(rs.getLong("JOB_INSTANCE_ID"));
+                    instance.setJobName(rs.getString("JOB_NAME"));
+                    instance.setAttempts(rs.getInt("ATTEMPTS"));
+                    instance.setFailedAttempts(rs.getInt("FAILED_ATTEMPTS"));
+                    instance.setCompleted(rs.getInt("COMPLETIONS") > 0);
+                    instance.setTotalMillis(Math.max(0, rs.getDouble("TOTAL_MILLIS")));
+                    instance.setFailedMillis(Math.max(0, rs.getDouble("FAILED_MILLIS")));
+                    instance.setFailedReadCount(rs.getLong("FAILED_READS"));
+                    instance.setFailedWriteCount(rs.getLong("FAILED_WRITES"));
+                    instance.setFirstStartTime(rs.getTimestamp("FIRST_START"));
+                    instance.setCompletedTime(rs.getTimestamp("COMPLETED_TIME"));
+                    byJobName.computeIfAbsent(instance.getJobName(), key -> new ArrayList<>()).add(instance);
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<InstanceRestartStats>> entry : byJobName.entrySet()) {
+            JobRestartWaste waste = new JobRestartWaste(entry.getKey());
+            entry.getValue().sort(Comparator.comparingDouble(InstanceRestartStats::getFailedMillis).reversed());
+            entry.getValue().forEach(waste::addInstance);
+            result.add(waste);
+        }
+        result.sort(Comparator.comparingDouble(JobRestartWaste::getFailedMillis).reversed());
+        return result;
+    }
+}
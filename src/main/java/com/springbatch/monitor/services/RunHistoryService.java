@@ -0,0 +1,169 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.JobExecutionColumns;
+import com.springbatch.monitor.models.RunHistory;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 运行历史服务 - 为列表中出现的作业名称加载最近若干次执行，供迷你趋势图使用
+ *
+ * 每次列表刷新最多一次 ROW_NUMBER() 窗口查询，只查询缓存不能覆盖的作业名称，
+ * 每个名称只取列表中该名称最大执行ID及之前的执行，较早的列表（按日期查询、翻页）也能得到对应的历史；
+ * 结果按作业名称缓存为基本类型数组。
+ */
+public class RunHistoryService {
+    private static final RunHistoryService INSTANCE = new RunHistoryService();
+
+    private static final int NAME_BATCH_SIZE = 200;
+    private static final String MEMORY_OWNER = "运行历史";
+
+    private final Map<String, RunHistory> cache = new ConcurrentHashMap<>();
+
+    private RunHistoryService() {
+    }
+
+    public static RunHistoryService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取列表中各作业名称的运行历史，保证每个执行之前（含自身）至多 runs 次执行都在历史中
+     *
+     * @return 作业名称 → 运行历史
+     */
+    public Map<String, RunHistory> getHistories(String dataSourceId, JobExecutionColumns executions, int runs)
+            throws SQLException {
+        // 每个作业名称在列表中的最小、最大执行ID和出现次数
+        Map<String, long[]> ranges = new HashMap<>();
+        for (int row = 0; row < executions.size(); row++) {
+            String jobName = executions.getJobName(row);
+            if (jobName == null) {
+                continue;
+            }
+            long id = executions.getId(row);
+            long[] range = ranges.computeIfAbsent(jobName, name -> new long[]{id, id, 0});
+            range[0] = Math.min(range[0], id);
+            range[1] = Math.max(range[1], id);
+            range[2]++;
+        }
+
+        Map<String, RunHistory> histories = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        int limit = runs;
+        for (Map.Entry<String, long[]> entry : ranges.entrySet()) {
+            long[] range = entry.getValue();
+            RunHistory history = cache.get(key(dataSourceId, entry.getKey()));
+            if (history != null && history.covers(range[0], range[1], runs)) {
+                MemoryGovernor.getInstance().touch(MEMORY_OWNER, key(dataSourceId, entry.getKey()));
+                histories.put(entry.getKey(), history);
+            } else {
+                missing.add(entry.getKey());
+                limit = (int) Math.max(limit, runs + range[2]);
+            }
+        }
+        if (missing.isEmpty()) {
+            return histories;
+        }
+
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            for (int start = 0; start < missing.size(); start += NAME_BATCH_SIZE) {
+                List<String> batch = missing.subList(start, Math.min(start + NAME_BATCH_SIZE, missing.size()));
+                Map<String, RunHistory> loaded = query(conn, batch, ranges, limit);
+                for (String jobName : batch) {
+                    RunHistory history = loaded.getOrDefault(jobName,
+                            new RunHistory(new long[0], new double[0], new byte[0], true));
+                    String key = key(dataSourceId, jobName);
+                    cache.put(key, history);
+                    // 每次执行：ID、耗时和状态各一个数组元素
+                    MemoryGovernor.getInstance().track(MEMORY_OWNER, key, history, 64 + history.size() * 17L,
+                            (evictedKey, value) -> cache.remove(evictedKey, value));
+                    histories.put(jobName, history);
+                }
+            }
+        }
+        return histories;
+    }
+
+    /**
+     * 丢弃数据源的缓存
+     */
+    public void invalidate(String dataSourceId) {
+        cache.keySet().removeIf(key -> key.startsWith(dataSourceId + "\u0000"));
+        MemoryGovernor.getInstance().untrackAll(MEMORY_OWNER, dataSourceId + "\u0000");
+    }
+
+    /**
+     * 查询各作业名称在 ranges 中最大执行ID及之前的至多 limit 次执行
+     */
+    private static Map<String, RunHistory> query(Connection conn, List<String> jobNames, Map<String, long[]> ranges,
+                                                 int limit) throws SQLException {
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < jobNames.size(); i++) {
+            names.append(i == 0 ? "" : " OR ").append("(ji.JOB_NAME = ? AND je.JOB_EXECUTION_ID <= ?)");
+        }
+        String sql = "SELECT JOB_NAME, JOB_EXECUTION_ID, START_TIME, END_TIME, STATUS " +
+                     "FROM (SELECT ji.JOB_NAME AS JOB_NAME, je.JOB_EXECUTION_ID AS JOB_EXECUTION_ID, " +
+                     "je.START_TIME AS START_TIME, je.END_TIME AS END_TIME, je.STATUS AS STATUS, " +
+                     "ROW_NUMBER() OVER (PARTITION BY ji.JOB_NAME ORDER BY je.JOB_EXECUTION_ID DESC) AS RN " +
+                     "FROM BATCH_JOB_EXECUTION je " +
+                     "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                     "WHERE " + names + ") t " +
+                     "WHERE RN <= ? " +
+                     "ORDER BY JOB_NAME, JOB_EXECUTION_ID";
+
+        Map<String, RunHistory> histories = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String jobName : jobNames) {
+                stmt.setString(index++, jobName);
+                stmt.setLong(index++, ranges.get(jobName)[1]);
+            }
+            stmt.setInt(index, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                String currentName = null;
+                long[] ids = new long[limit];
+                double[] durations = new double[limit];
+                byte[] statuses = new byte[limit];
+                int size = 0;
+                while (rs.next()) {
+                    String jobName = rs.getString("JOB_NAME");
+                    if (!jobName.equals(currentName)) {
+                        if (currentName != null) {
+                            histories.put(currentName, build(ids, durations, statuses, size, limit));
+                        }
+                        currentName = jobName;
+                        size = 0;
+                    }
+                    Timestamp startTime = rs.getTimestamp("START_TIME");
+                    Timestamp endTime = rs.getTimestamp("END_TIME");
+                    ids[size] = rs.getLong("JOB_EXECUTION_ID");
+                    durations[size] = startTime != null && endTime != null
+                            ? endTime.getTime() - startTime.getTime() : Double.NaN;
+                    statuses[size] = RunHistory.statusCode(rs.getString("STATUS"));
+                    size++;
+                }
+                if (currentName != null) {
+                    histories.put(currentName, build(ids, durations, statuses, size, limit));
+                }
+            }
+        }
+        return histories;
+    }
+
+    private static RunHistory build(long[] ids, double[] durations, byte[] statuses, int size, int limit) {
+        return new RunHistory(Arrays.copyOf(ids, size), Arrays.copyOf(durations, size),
+                Arrays.copyOf(statuses, size), size < limit);
+    }
+
+    private static String key(String dataSourceId, String jobName) {
+        return dataSourceId + "\u0000" + jobName;
+    }
+}
@@ -0,0 +1,347 @@
+package com.springbatch.monitor.services;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.springbatch.monitor.utils.JsonUtils;
+import com.springbatch.monitor.utils.SqlUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 搜索结果导出服务 - 把作业/步骤搜索条件命中的全部记录从 ResultSet 直接流式写入文件
+ *
+ * 不经过 500 行的列表上限，也不在内存中保留结果；命中行数较多时按 JOB_EXECUTION_ID
+ * 切分为若干区间，在连接池的多个连接上并行扫描，各区间先写入分片文件，最后按区间顺序拼接。
+ */
+public class SearchExportService {
+    private static final SearchExportService INSTANCE = new SearchExportService();
+
+    private static final int PARALLEL_THRESHOLD = 20_000;
+    // 连接池共 5 个连接，给界面上的其他查询留出余量
+    private static final int MAX_PARALLELISM = 3;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 1000;
+    // 取消或失败后等待其余区间线程退出的最长时间，超时仍未退出的分片文件在 IDE 退出时删除
+    private static final long WORKER_EXIT_TIMEOUT_SECONDS = 30;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        CSV("CSV", "csv"),
+        NDJSON("JSON Lines", "ndjson");
+
+        private final String displayName;
+        private final String extension;
+
+        Format(String displayName, String extension) {
+            this.displayName = displayName;
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private SearchExportService() {
+    }
+
+    public static SearchExportService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 导出作业执行搜索结果，条件与 {@link DatabaseService#searchJobExecutions} 相同
+     *
+     * @return 导出的行数
+     */
+    public long exportJobExecutions(String dataSourceId, String jobName, String status, String startDate,
+                                    String endDate, String keyword, Format format, Path target,
+                                    ProgressIndicator indicator) throws Exception {
+        List<Object> parameters = new ArrayList<>();
+        String filter = DatabaseService.jobSearchFilter(jobName, status, startDate, endDate, parameters)
+                + DatabaseService.jobKeywordFilter(keyword, parameters);
+        String from = "FROM BATCH_JOB_EXECUTION je " +
+                      "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                      "WHERE 1=1 " + filter;
+        String select = "SELECT je.JOB_EXECUTION_ID, je.JOB_INSTANCE_ID, ji.JOB_NAME, je.START_TIME, je.END_TIME, " +
+                        "je.STATUS, je.EXIT_CODE, je.EXIT_MESSAGE ";
+        return export(dataSourceId, select, from, parameters, "je.JOB_EXECUTION_ID",
+                "je.JOB_EXECUTION_ID", format, target, indicator);
+    }
+
+    /**
+     * 导出步骤执行搜索结果，条件与 {@link DatabaseService#searchStepExecutions} 相同
+     *
+     * @return 导出的行数
+     */
+    public long exportStepExecutions(String dataSourceId, String stepName, String status, String startDate,
+                                     String endDate, Long jobExecutionId, String keyword, Format format,
+                                     Path target, ProgressIndicator indicator) throws Exception {
+        List<Object> parameters = new ArrayList<>();
+        String filter = DatabaseService.stepSearchFilter(stepName, status, startDate, endDate, jobExecutionId,
+                parameters) + DatabaseService.stepKeywordFilter(keyword, parameters);
+        String from = "FROM BATCH_STEP_EXECUTION se WHERE 1=1 " + filter;
+        String select = "SELECT se.STEP_EXECUTION_ID, se.JOB_EXECUTION_ID, se.STEP_NAME, se.START_TIME, " +
+                        "se.END_TIME, se.STATUS, se.EXIT_CODE, se.EXIT_MESSAGE, se.READ_COUNT, se.WRITE_COUNT, " +
+                        "se.COMMIT_COUNT, se.ROLLBACK_COUNT, se.READ_SKIP_COUNT, se.PROCESS_SKIP_COUNT, " +
+                        "se.WRITE_SKIP_COUNT, se.FILTER_COUNT ";
+        return export(dataSourceId, select, from, parameters, "se.JOB_EXECUTION_ID",
+                "se.JOB_EXECUTION_ID, se.STEP_EXECUTION_ID", format, target, indicator);
+    }
+
+    private long export(String dataSourceId, String select, String from, List<Object> parameters,
+                        String rangeColumn, String orderBy, Format format, Path target,
+                        ProgressIndicator indicator) throws Exception {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        indicator.setIndeterminate(true);
+        indicator.setText("正在统计命中的记录...");
+        long minId;
+        long maxId;
+        long count;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT MIN(" + rangeColumn + "), MAX(" + rangeColumn + "), COUNT(*) " + from)) {
+            bind(stmt, parameters);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                minId = rs.getLong(1);
+                maxId = rs.getLong(2);
+                count = rs.getLong(3);
+            }
+        }
+
+        // 区间按 ID 等宽切分；执行ID由序列生成，大致均匀
+        int rangeCount = count < PARALLEL_THRESHOLD ? 1 : (int) Math.min(MAX_PARALLELISM, maxId - minId + 1);
+        long[] bounds = new long[rangeCount + 1];
+        for (int i = 0; i <= rangeCount; i++) {
+            bounds[i] = minId + (maxId - minId + 1) * i / rangeCount;
+        }
+
+        indicator.setIndeterminate(false);
+        indicator.setText(String.format("正在导出 %,d 条记录（%d 个并行区间）", count, rangeCount));
+        String sql = select + from + "AND " + rangeColumn + " >= ? AND " + rangeColumn + " < ? ORDER BY " + orderBy;
+        AtomicLong written = new AtomicLong();
+        List<Path> parts = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(rangeCount, runnable -> {
+            Thread thread = new Thread(runnable, "spring-batch-monitor-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < rangeCount; i++) {
+                Path part = Files.createTempFile(target.toAbsolutePath().getParent(),
+                        target.getFileName().toString(), ".part");
+                parts.add(part);
+                long low = bounds[i];
+                long high = bounds[i + 1];
+                futures.add(executor.submit(() -> {
+                    scanRange(dataSource, dataSourceId, sql, parameters, low, high, format, part,
+                            written, count, indicator);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw e;
+                }
+            }
+
+            indicator.setText("正在合并导出文件...");
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                if (format == Format.CSV) {
+                    Writer header = new BufferedWriter(Channels.newWriter(out, StandardCharsets.UTF_8));
+                    writeCsvHeader(header, select);
+                    header.flush();
+                }
+                for (Path part : parts) {
+                    try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = in.size();
+                        while (position < size) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Files.deleteIfExists(target);
+            throw e;
+        } finally {
+            // 其余区间线程可能仍在写分片，等它们退出后再删除
+            executor.shutdownNow();
+            boolean terminated = false;
+            try {
+                terminated = executor.awaitTermination(WORKER_EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (Path part : parts) {
+                if (terminated) {
+                    Files.deleteIfExists(part);
+                } else {
+                    part.toFile().deleteOnExit();
+                }
+            }
+        }
+        indicator.setFraction(1);
+        return written.get();
+    }
+
+    /**
+     * 流式扫描一个 ID 区间，逐行写入分片文件
+     */
+    private static void scanRange(DataSource dataSource, String dataSourceId, String sql, List<Object> parameters,
+                                  long low, long high, Format format, Path part, AtomicLong written, long total,
+                                  ProgressIndicator indicator) throws SQLException, IOException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = DatabaseService.getInstance().prepareStreamingStatement(conn, dataSourceId, sql);
+             FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            bind(stmt, parameters);
+            stmt.setLong(parameters.size() + 1, low);
+            stmt.setLong(parameters.size() + 2, high);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columns = metaData.getColumnCount();
+                String[] names = new String[columns];
+                boolean[] numeric = new boolean[columns];
+                boolean[] temporal = new boolean[columns];
+                for (int column = 1; column <= columns; column++) {
+                    names[column - 1] = metaData.getColumnLabel(column).toUpperCase();
+                    int type = metaData.getColumnType(column);
+                    numeric[column - 1] = SqlUtils.isNumeric(type);
+                    temporal[column - 1] = type == Types.TIMESTAMP || type == Types.DATE
+                            || type == Types.TIMESTAMP_WITH_TIMEZONE;
+                }
+
+                long rows = 0;
+                while (rs.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        String value;
+                        if (temporal[column - 1]) {
+                            Timestamp timestamp = rs.getTimestamp(column);
+                            value = timestamp != null ? TIMESTAMP_FORMAT.format(timestamp.toLocalDateTime()) : null;
+                        } else {
+                            value = rs.getString(column);
+                        }
+                        if (format == Format.CSV) {
+                            if (column > 1) {
+                                out.write(',');
+                            }
+                            writeCsvValue(out, value);
+                        } else {
+                            out.write(column == 1 ? "{\"" : ",\"");
+                            out.write(names[column - 1]);
+                            out.write("\":");
+                            if (value == null) {
+                                out.write("null");
+                            } else if (numeric[column - 1]) {
+                                out.write(value);
+                            } else {
+                                JsonUtils.writeString(out, value);
+                            }
+                        }
+                    }
+                    out.write(format == Format.CSV ? "\r\n" : "}\n");
+
+                    if (++rows % PROGRESS_INTERVAL == 0) {
+                        long done = written.addAndGet(PROGRESS_INTERVAL);
+                        indicator.setFraction(total > 0 ? Math.min(1, (double) done / total) : 0);
+                        indicator.setText2(String.format("已写入 %,d / %,d 行", done, total));
+                        indicator.checkCanceled();
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("导出已中止");
+                        }
+                    }
+                }
+                written.addAndGet(rows % PROGRESS_INTERVAL);
+            }
+        }
+    }
+
+    /**
+     * 表头取自 SELECT 列表（去掉表别名），分片中不含表头
+     */
+    private static void writeCsvHeader(Writer out, String select) throws IOException {
+        String[] columns = select.substring("SELECT ".length()).trim().split(",\\s*");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(columns[i].substring(columns[i].indexOf('.') + 1));
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * RFC 4180：包含逗号、引号或换行的值加引号，引号写两次；null 写为空
+     */
+    private static void writeCsvValue(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static void bind(PreparedStatement stmt, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            stmt.setObject(i + 1, parameters.get(i));
+        }
+    }
+}
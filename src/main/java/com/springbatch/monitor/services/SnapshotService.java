@@ -0,0 +1,231 @@
+package com.springbatch.monitor.services;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 离线快照服务 - 把时间窗口内的 BATCH_* 数据导出为压缩的 H2 数据库文件，并以只读数据源打开
+ *
+ * 导出时从源库 ResultSet 流式读取、分批写入，不在内存中保留结果；
+ * 打开快照时使用 H2 的 nioMapped 文件系统按页内存映射读取，所有面板照常通过 SQL 查询，
+ * 多 GB 的快照也不会整体加载到堆中。
+ */
+public class SnapshotService {
+    private static final SnapshotService INSTANCE = new SnapshotService();
+
+    public static final String FILE_SUFFIX = ".mv.db";
+    private static final int BATCH_SIZE = 1000;
+    private static final String JOB_EXECUTIONS_IN_WINDOW =
+            "SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION WHERE ";
+
+    private SnapshotService() {
+    }
+
+    public static SnapshotService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 导出快照
+     *
+     * @param target 快照文件（以 .mv.db 结尾），已存在时覆盖
+     * @param includeContexts 是否包含执行上下文（通常占快照的大部分体积）
+     * @return 导出的总行数
+     */
+    public long export(String dataSourceId, TimeWindow window, boolean includeContexts, Path target,
+                       ProgressIndicator indicator) throws Exception {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        Files.deleteIfExists(target);
+
+        String inWindow = window.predicate("START_TIME");
+        List<String[]> tables = new ArrayList<>();
+        tables.add(new String[]{"BATCH_JOB_INSTANCE", "JOB_INSTANCE_ID",
+                "JOB_INSTANCE_ID IN (SELECT JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION WHERE " + inWindow + ")"});
+        tables.add(new String[]{"BATCH_JOB_EXECUTION", "JOB_EXECUTION_ID", inWindow});
+        tables.add(new String[]{"BATCH_JOB_EXECUTION_PARAMS", null,
+                "JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS_IN_WINDOW + inWindow + ")"});
+        tables.add(new String[]{"BATCH_STEP_EXECUTION", "STEP_EXECUTION_ID",
+                "JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS_IN_WINDOW + inWindow + ")"});
+        if (includeContexts) {
+            tables.add(new String[]{"BATCH_JOB_EXECUTION_CONTEXT", "JOB_EXECUTION_ID",
+                    "JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS_IN_WINDOW + inWindow + ")"});
+            tables.add(new String[]{"BATCH_STEP_EXECUTION_CONTEXT", "STEP_EXECUTION_ID",
+                    "STEP_EXECUTION_ID IN (SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION " +
+                    "WHERE JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS_IN_WINDOW + inWindow + "))"});
+        }
+
+        long total = 0;
+        Class.forName(DataSourceConfig.DatabaseType.H2.getDriverClassName());
+        // COMPRESS=TRUE 对页做 LZF 压缩，作业名称、状态等重复值多的列压缩率很高
+        try (Connection source = dataSource.getConnection();
+             Connection snapshot = DriverManager.getConnection(
+                     "jdbc:h2:" + basePath(target) + ";COMPRESS=TRUE", "sa", "")) {
+            snapshot.setAutoCommit(false);
+            for (int i = 0; i < tables.size(); i++) {
+                String[] table = tables.get(i);
+                indicator.setText("正在导出 " + table[0] + " (" + (i + 1) + "/" + tables.size() + ")");
+                indicator.setFraction((double) i / tables.size());
+                total += copyTable(dataSourceId, source, snapshot, table[0], table[1], table[2], window, indicator);
+            }
+
+            indicator.setText("正在创建索引并压缩快照");
+            try (Statement stmt = snapshot.createStatement()) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS IDX_JE_INSTANCE ON BATCH_JOB_EXECUTION(JOB_INSTANCE_ID)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS IDX_JE_START ON BATCH_JOB_EXECUTION(START_TIME)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS IDX_SE_JOB ON BATCH_STEP_EXECUTION(JOB_EXECUTION_ID)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS IDX_SE_START ON BATCH_STEP_EXECUTION(START_TIME)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS IDX_JEP_JOB ON BATCH_JOB_EXECUTION_PARAMS(JOB_EXECUTION_ID)");
+                snapshot.commit();
+                stmt.execute("SHUTDOWN COMPACT");
+            }
+        } catch (Exception e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        indicator.setFraction(1);
+        return total;
+    }
+
+    /**
+     * 以只读数据源打开快照，返回可加入配置列表的数据源配置
+     */
+    public DataSourceConfig open(Path snapshotFile) {
+        String fileName = snapshotFile.getFileName().toString();
+        DataSourceConfig config = new DataSourceConfig(UUID.randomUUID().toString(),
+                "快照: " + fileName.substring(0, fileName.length() - FILE_SUFFIX.length()),
+                DataSourceConfig.DatabaseType.H2,
+                "jdbc:h2:nioMapped:" + basePath(snapshotFile) + ";ACCESS_MODE_DATA=r",
+                "sa", "");
+        config.setReadOnly(true);
+        config.setDescription("只读离线快照: " + snapshotFile);
+        return config;
+    }
+
+    /**
+     * H2 的 URL 中使用去掉 .mv.db 后缀的路径
+     */
+    private static String basePath(Path file) {
+        String path = file.toAbsolutePath().toString();
+        return path.endsWith(FILE_SUFFIX) ? path.substring(0, path.length() - FILE_SUFFIX.length()) : path;
+    }
+
+    /**
+     * 按源表的列元数据建表，再流式分批复制窗口内的行
+     *
+     * @param predicate 过滤条件，恰好包含一组 {@link TimeWindow#predicate} 的范围参数
+     */
+    private long copyTable(String dataSourceId, Connection source, Connection snapshot, String table,
+                           String primaryKey, String predicate, TimeWindow window, ProgressIndicator indicator)
+            throws SQLException {
+        String sql = "SELECT * FROM " + table + " WHERE " + predicate;
+        long rows = 0;
+        try (PreparedStatement select = DatabaseService.getInstance()
+                .prepareStreamingStatement(source, dataSourceId, sql)) {
+            window.bind(select, 1);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columns = metaData.getColumnCount();
+                StringBuilder create = new StringBuilder("CREATE TABLE ").append(table).append(" (");
+                StringBuilder insert = new StringBuilder("INSERT INTO ").append(table).append(" VALUES (");
+                for (int column = 1; column <= columns; column++) {
+                    create.append(column > 1 ? ", " : "").append(metaData.getColumnName(column).toUpperCase())
+                          .append(' ').append(snapshotType(metaData, column));
+                    insert.append(column > 1 ? ", ?" : "?");
+                }
+                if (primaryKey != null) {
+                    create.append(", PRIMARY KEY (").append(primaryKey).append(')');
+                }
+                try (Statement stmt = snapshot.createStatement()) {
+                    stmt.execute(create.append(')').toString());
+                }
+
+                try (PreparedStatement insertStmt = snapshot.prepareStatement(insert.append(')').toString())) {
+                    while (rs.next()) {
+                        for (int column = 1; column <= columns; column++) {
+                            insertStmt.setObject(column, readValue(rs, metaData, column));
+                        }
+                        insertStmt.addBatch();
+                        rows++;
+                        if (rows % BATCH_SIZE == 0) {
+                            insertStmt.executeBatch();
+                            snapshot.commit();
+                            indicator.setText2(String.format("%s: %,d 行", table, rows));
+                            indicator.checkCanceled();
+                        }
+                    }
+                    insertStmt.executeBatch();
+                    snapshot.commit();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 把源库的列类型映射为 H2 类型，各数据库的 NUMBER/DATETIME/CLOB 等统一为标准类型
+     */
+    private static String snapshotType(ResultSetMetaData metaData, int column) throws SQLException {
+        switch (metaData.getColumnType(column)) {
+            case Types.BIGINT:
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return "BIGINT";
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return metaData.getScale(column) == 0 ? "BIGINT" : "DOUBLE PRECISION";
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return "DOUBLE PRECISION";
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return "TIMESTAMP";
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+                return "CLOB";
+            case Types.BLOB:
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return "VARBINARY";
+            default:
+                return "VARCHAR";
+        }
+    }
+
+    private static Object readValue(ResultSet rs, ResultSetMetaData metaData, int column) throws SQLException {
+        switch (snapshotType(metaData, column)) {
+            case "BIGINT": {
+                long value = rs.getLong(column);
+                return rs.wasNull() ? null : value;
+            }
+            case "DOUBLE PRECISION": {
+                double value = rs.getDouble(column);
+                return rs.wasNull() ? null : value;
+            }
+            case "TIMESTAMP":
+                return rs.getTimestamp(column);
+            case "VARBINARY":
+                return rs.getBytes(column);
+            default:
+                return rs.getString(column);
+        }
+    }
+}
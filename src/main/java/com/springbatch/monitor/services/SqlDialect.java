@@ -0,0 +1,186 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.model.DataSourceConfig;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * SQL 方言 - 封装各数据库在日期运算等方面的语法差异，使聚合可以在数据库端完成
+ */
+public enum SqlDialect {
+    MYSQL,
+    POSTGRESQL,
+    SQL_SERVER,
+    ORACLE,
+    H2,
+    SQLITE;
+
+    /**
+     * 根据数据库类型获取方言，未知类型按 H2（接近标准 SQL）处理
+     */
+    public static SqlDialect of(DataSourceConfig.DatabaseType databaseType) {
+        if (databaseType == null) {
+            return H2;
+        }
+        switch (databaseType) {
+            case MYSQL: return MYSQL;
+            case POSTGRESQL: return POSTGRESQL;
+            case SQL_SERVER: return SQL_SERVER;
+            case ORACLE: return ORACLE;
+            case SQLITE: return SQLITE;
+            default: return H2;
+        }
+    }
+
+    /**
+     * 根据已注册数据源获取方言
+     */
+    public static SqlDialect forDataSource(String dataSourceId) {
+        DataSourceConfig config = DatabaseService.getInstance().getDataSourceConfig(dataSourceId);
+        return of(config != null ? config.getDatabaseType() : null);
+    }
+
+    /**
+     * 步骤执行的读、处理、写跳过数之和，空值按 0 计
+     *
+     * @param prefix 表别名前缀，如 "se."，不使用别名时传空串
+     */
+    public static String skipCount(String prefix) {
+        return "(COALESCE(" + prefix + "READ_SKIP_COUNT, 0) + COALESCE(" + prefix + "PROCESS_SKIP_COUNT, 0) + "
+                + "COALESCE(" + prefix + "WRITE_SKIP_COUNT, 0))";
+    }
+
+    /**
+     * 两个时间列之间的毫秒数表达式，任一列为空时结果为空
+     */
+    public String durationMillis(String startColumn, String endColumn) {
+        switch (this) {
+            case MYSQL:
+                return "(TIMESTAMPDIFF(MICROSECOND, " + startColumn + ", " + endColumn + ") / 1000)";
+            case POSTGRESQL:
+                return "(EXTRACT(EPOCH FROM (" + endColumn + " - " + startColumn + ")) * 1000)";
+            case SQL_SERVER:
+                // DATEDIFF(MILLISECOND) 超过约 24 天会溢出，用返回 bigint 的 DATEDIFF_BIG（SQL Server 2016+）
+                return "DATEDIFF_BIG(MILLISECOND, " + startColumn + ", " + endColumn + ")";
+            case ORACLE:
+                return oracleIntervalMillis(startColumn, endColumn);
+            case SQLITE:
+                return "((julianday(" + endColumn + ") - julianday(" + startColumn + ")) * 86400000.0)";
+            default:
+                return "DATEDIFF(MILLISECOND, " + startColumn + ", " + endColumn + ")";
+        }
+    }
+
+    /**
+     * Oracle：TIMESTAMP 相减得到 INTERVAL DAY TO SECOND，逐个字段换算以保留毫秒（转换为 DATE 相减会截断到秒）
+     */
+    private static String oracleIntervalMillis(String startColumn, String endColumn) {
+        String interval = "(CAST(" + endColumn + " AS TIMESTAMP) - CAST(" + startColumn + " AS TIMESTAMP))";
+        return "(EXTRACT(DAY FROM " + interval + ") * 86400000"
+                + " + EXTRACT(HOUR FROM " + interval + ") * 3600000"
+                + " + EXTRACT(MINUTE FROM " + interval + ") * 60000"
+                + " + EXTRACT(SECOND FROM " + interval + ") * 1000)";
+    }
+
+    /**
+     * 截断到整点的表达式，结果用 {@link #readTimestamp} 读取
+     */
+    public String truncateToHour(String column) {
+        switch (this) {
+            case MYSQL:
+                return "DATE_FORMAT(" + column + ", '%Y-%m-%d %H:00:00')";
+            case POSTGRESQL:
+                return "DATE_TRUNC('hour', " + column + ")";
+            case SQL_SERVER:
+                return "DATEADD(HOUR, DATEDIFF(HOUR, 0, " + column + "), 0)";
+            case ORACLE:
+                return "TRUNC(" + column + ", 'HH24')";
+            case SQLITE:
+                return "strftime('%Y-%m-%d %H:00:00', " + column + ")";
+            default:
+                return "DATE_TRUNC('HOUR', " + column + ")";
+        }
+    }
+
+    /**
+     * 截断到当天零点的表达式，结果用 {@link #readTimestamp} 读取
+     */
+    public String truncateToDay(String column) {
+        switch (this) {
+            case MYSQL:
+                return "DATE(" + column + ")";
+            case POSTGRESQL:
+                return "DATE_TRUNC('day', " + column + ")";
+            case SQL_SERVER:
+                return "DATEADD(DAY, DATEDIFF(DAY, 0, " + column + "), 0)";
+            case ORACLE:
+                return "TRUNC(" + column + ")";
+            case SQLITE:
+                return "date(" + column + ")";
+            default:
+                return "DATE_TRUNC('DAY', " + column + ")";
+        }
+    }
+
+    /**
+     * 限制返回行数的后缀，需跟在 ORDER BY 之后（Oracle 需 12c 及以上）
+     */
+    public String limit(int rows) {
+        switch (this) {
+            case SQL_SERVER:
+                return " OFFSET 0 ROWS FETCH NEXT " + rows + " ROWS ONLY";
+            case ORACLE:
+                return " FETCH FIRST " + rows + " ROWS ONLY";
+            default:
+                return " LIMIT " + rows;
+        }
+    }
+
+    /**
+     * 建表用的日期时间列类型（SQL Server 的 TIMESTAMP 是行版本号，MySQL 的 TIMESTAMP 受会话时区影响）
+     */
+    public String timestampType() {
+        switch (this) {
+            case MYSQL:
+                return "DATETIME";
+            case SQL_SERVER:
+                return "DATETIME2";
+            default:
+                return "TIMESTAMP";
+        }
+    }
+
+    /**
+     * 建表用的 64 位整数列类型
+     */
+    public String bigintType() {
+        return this == ORACLE ? "NUMBER(19)" : "BIGINT";
+    }
+
+    /**
+     * 读取日期运算结果：不同驱动可能返回 Timestamp、LocalDateTime 或字符串
+     */
+    public static Timestamp readTimestamp(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp) {
+            return (Timestamp) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value);
+        }
+        if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime());
+        }
+        String text = value.toString().trim().replace('T', ' ');
+        if (text.length() == 10) {
+            text = text + " 00:00:00";
+        }
+        return Timestamp.valueOf(text.length() > 19 ? text.substring(0, 19) : text);
+    }
+}
@@ -0,0 +1,436 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.StatisticsSnapshot;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量统计存储 - 按数据源维护聚合值，每次刷新只合并新增记录和仍在运行的记录
+ *
+ * 已结束的执行记录不会再变化，因此刷新时只需要：
+ * 1. 按主键范围扫描水位线之后新增的记录
+ * 2. 按主键回查上次仍处于运行状态的记录，修正其状态和计数的变化
+ * 已结束记录被人工修改（如标记为 ABANDONED）的情况很少见，由定期全量重建修正。
+ */
+public class StatisticsStore {
+    private static final StatisticsStore INSTANCE = new StatisticsStore();
+
+    private static final Set<String> OPEN_STATUSES = new HashSet<>(Arrays.asList("STARTING", "STARTED", "STOPPING"));
+    // 序列分配的主键可能乱序提交，每次回看水位线之前的一段主键以免漏掉晚提交的记录
+    private static final long ID_OVERLAP = 200;
+    private static final long FULL_REBUILD_INTERVAL_MS = 60 * 60 * 1000L;
+    private static final int IN_BATCH_SIZE = 500;
+    private static final String MEMORY_OWNER = "全量统计";
+
+    private static final String JOB_ROW_SQL =
+            "SELECT je.JOB_EXECUTION_ID, je.STATUS, ji.JOB_NAME " +
+            "FROM BATCH_JOB_EXECUTION je " +
+            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID ";
+    private static final String STEP_ROW_SQL =
+            "SELECT STEP_EXECUTION_ID, STATUS, READ_COUNT, WRITE_COUNT, " + SqlDialect.skipCount("") + " AS SKIPS " +
+            "FROM BATCH_STEP_EXECUTION ";
+
+    private final Map<String, Aggregates> aggregatesByDataSource = new ConcurrentHashMap<>();
+
+    private StatisticsStore() {
+    }
+
+    public static StatisticsStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 刷新并返回数据源的统计快照；首次调用或到达重建周期时全量重建
+     */
+    public StatisticsSnapshot refresh(String dataSourceId) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        Aggregates aggregates = aggregatesByDataSource.computeIfAbsent(dataSourceId, id -> new Aggregates());
+        synchronized (aggregates) {
+            try (Connection conn = dataSource.getConnection()) {
+                boolean rebuild = !aggregates.built
+                        || System.currentTimeMillis() - aggregates.builtAt > FULL_REBUILD_INTERVAL_MS;
+                long folded;
+                if (rebuild) {
+                    folded = aggregates.rebuild(conn);
+                } else {
+                    folded = aggregates.foldIncrement(conn);
+                }
+                StatisticsSnapshot snapshot = aggregates.toSnapshot(folded, rebuild);
+                MemoryGovernor.getInstance().track(MEMORY_OWNER, dataSourceId, aggregates, aggregates.estimateBytes(),
+                        (key, value) -> aggregatesByDataSource.remove(key, value));
+                return snapshot;
+            } catch (SQLException e) {
+                // 聚合可能只合并了一部分，下次刷新重新构建
+                aggregates.built = false;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 丢弃数据源的聚合值，下次刷新时全量重建
+     */
+    public void invalidate(String dataSourceId) {
+        aggregatesByDataSource.remove(dataSourceId);
+        MemoryGovernor.getInstance().untrack(MEMORY_OWNER, dataSourceId);
+    }
+
+    private static String normalizeStatus(String status) {
+        return status != null ? status : "UNKNOWN";
+    }
+
+    private static void addCount(Map<String, Long> counts, String key, long delta) {
+        Long updated = counts.merge(key, delta, Long::sum);
+        if (updated != null && updated == 0) {
+            counts.remove(key);
+        }
+    }
+
+    private static long queryMaxId(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static String inClause(int size) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.append(")").toString();
+    }
+
+    /**
+     * 扫描读出的一行作业执行：主键、规范化后的状态和作业名称
+     */
+    private static class JobRow {
+        final long id;
+        final String status;
+        final String jobName;
+
+        JobRow(ResultSet rs) throws SQLException {
+            this.id = rs.getLong("JOB_EXECUTION_ID");
+            this.status = normalizeStatus(rs.getString("STATUS"));
+            this.jobName = rs.getString("JOB_NAME");
+        }
+    }
+
+    private static class StepRow {
+        final long id;
+        final String status;
+        final long readCount;
+        final long writeCount;
+        final long skipCount;
+
+        StepRow(ResultSet rs) throws SQLException {
+            this.id = rs.getLong("STEP_EXECUTION_ID");
+            this.status = normalizeStatus(rs.getString("STATUS"));
+            this.readCount = rs.getLong("READ_COUNT");
+            this.writeCount = rs.getLong("WRITE_COUNT");
+            this.skipCount = rs.getLong("SKIPS");
+        }
+    }
+
+    /**
+     * 单个数据源的聚合状态
+     */
+    private static class Aggregates {
+        boolean built;
+        long builtAt;
+
+        final Map<String, Long> jobStatusCounts = new HashMap<>();
+        final Map<String, Long> stepStatusCounts = new HashMap<>();
+        final Map<String, Long> jobExecutionCountsByName = new HashMap<>();
+        final Map<String, Long> instanceCountsByName = new HashMap<>();
+        long instanceCount;
+        long readCount;
+        long writeCount;
+        long skipCount;
+
+        final IdWatermark jobWatermark = new IdWatermark(ID_OVERLAP);
+        final IdWatermark stepWatermark = new IdWatermark(ID_OVERLAP);
+        final IdWatermark instanceWatermark = new IdWatermark(ID_OVERLAP);
+        // 仍处于运行状态的记录及其已计入聚合的贡献
+        final Map<Long, JobRow> openJobs = new HashMap<>();
+        final Map<Long, StepRow> openSteps = new HashMap<>();
+
+        /**
+         * 估算占用：计数表条目、运行中的记录和三条水位线的回看主键
+         */
+        long estimateBytes() {
+            int counts = jobStatusCounts.size() + stepStatusCounts.size() + jobExecutionCountsByName.size()
+                    + instanceCountsByName.size();
+            return 512 + counts * 96L + (openJobs.size() + openSteps.size()) * 128L + 3 * ID_OVERLAP * 48;
+        }
+
+        long rebuild(Connection conn) throws SQLException {
+            clear();
+            long scanned = 0;
+
+            // 先确定水位线，聚合只统计水位线及之前的记录
+            long maxJobId = queryMaxId(conn, "SELECT MAX(JOB_EXECUTION_ID) FROM BATCH_JOB_EXECUTION");
+            long maxStepId = queryMaxId(conn, "SELECT MAX(STEP_EXECUTION_ID) FROM BATCH_STEP_EXECUTION");
+            long maxInstanceId = queryMaxId(conn, "SELECT MAX(JOB_INSTANCE_ID) FROM BATCH_JOB_INSTANCE");
+
+            String jobSql = "SELECT ji.JOB_NAME, je.STATUS, COUNT(*) AS CNT " +
+                            "FROM BATCH_JOB_EXECUTION je " +
+                            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                            "WHERE je.JOB_EXECUTION_ID <= ? " +
+                            "GROUP BY ji.JOB_NAME, je.STATUS";
+            try (PreparedStatement stmt = conn.prepareStatement(jobSql)) {
+                stmt.setLong(1, maxJobId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long count = rs.getLong("CNT");
+                        addCount(jobStatusCounts, normalizeStatus(rs.getString("STATUS")), count);
+                        addCount(jobExecutionCountsByName, rs.getString("JOB_NAME"), count);
+                        scanned++;
+                    }
+                }
+            }
+
+            String stepSql = "SELECT STATUS, COUNT(*) AS CNT, SUM(READ_COUNT) AS READS, " +
+                             "SUM(WRITE_COUNT) AS WRITES, SUM(" + SqlDialect.skipCount("") + ") AS SKIPS " +
+                             "FROM BATCH_STEP_EXECUTION " +
+                             "WHERE STEP_EXECUTION_ID <= ? " +
+                             "GROUP BY STATUS";
+            try (PreparedStatement stmt = conn.prepareStatement(stepSql)) {
+                stmt.setLong(1, maxStepId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        addCount(stepStatusCounts, normalizeStatus(rs.getString("STATUS")), rs.getLong("CNT"));
+                        readCount += rs.getLong("READS");
+                        writeCount += rs.getLong("WRITES");
+                        skipCount += rs.getLong("SKIPS");
+                        scanned++;
+                    }
+                }
+            }
+
+            String instanceSql = "SELECT JOB_NAME, COUNT(*) AS CNT FROM BATCH_JOB_INSTANCE " +
+                                 "WHERE JOB_INSTANCE_ID <= ? GROUP BY JOB_NAME";
+            try (PreparedStatement stmt = conn.prepareStatement(instanceSql)) {
+                stmt.setLong(1, maxInstanceId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long count = rs.getLong("CNT");
+                        addCount(instanceCountsByName, rs.getString("JOB_NAME"), count);
+                        instanceCount += count;
+                        scanned++;
+                    }
+                }
+            }
+
+            // 记录运行中的执行，后续刷新按主键回查
+            String openJobSql = JOB_ROW_SQL + "WHERE je.STATUS IN ('STARTING', 'STARTED', 'STOPPING') " +
+                                "AND je.JOB_EXECUTION_ID <= ?";
+            try (PreparedStatement stmt = conn.prepareStatement(openJobSql)) {
+                stmt.setLong(1, maxJobId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        JobRow row = new JobRow(rs);
+                        openJobs.put(row.id, row);
+                    }
+                }
+            }
+
+            String openStepSql = STEP_ROW_SQL + "WHERE STATUS IN ('STARTING', 'STARTED', 'STOPPING') " +
+                                 "AND STEP_EXECUTION_ID <= ?";
+            try (PreparedStatement stmt = conn.prepareStatement(openStepSql)) {
+                stmt.setLong(1, maxStepId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        StepRow row = new StepRow(rs);
+                        openSteps.put(row.id, row);
+                    }
+                }
+            }
+
+            jobWatermark.reset(maxJobId);
+            stepWatermark.reset(maxStepId);
+            instanceWatermark.reset(maxInstanceId);
+            loadRecentIds(conn, "SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION " +
+                                "WHERE JOB_EXECUTION_ID > ? AND JOB_EXECUTION_ID <= ?", jobWatermark);
+            loadRecentIds(conn, "SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION " +
+                                "WHERE STEP_EXECUTION_ID > ? AND STEP_EXECUTION_ID <= ?", stepWatermark);
+            loadRecentIds(conn, "SELECT JOB_INSTANCE_ID FROM BATCH_JOB_INSTANCE " +
+                                "WHERE JOB_INSTANCE_ID > ? AND JOB_INSTANCE_ID <= ?", instanceWatermark);
+
+            built = true;
+            builtAt = System.currentTimeMillis();
+            return scanned;
+        }
+
+        long foldIncrement(Connection conn) throws SQLException {
+            long folded = 0;
+            folded += refreshOpenJobs(conn);
+            folded += refreshOpenSteps(conn);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    JOB_ROW_SQL + "WHERE je.JOB_EXECUTION_ID > ? ORDER BY je.JOB_EXECUTION_ID")) {
+                stmt.setLong(1, jobWatermark.scanFrom());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        JobRow row = new JobRow(rs);
+                        if (jobWatermark.accept(row.id)) {
+                            applyJob(row, 1);
+                            addCount(jobExecutionCountsByName, row.jobName, 1);
+                            folded++;
+                        }
+                    }
+                }
+            }
+            jobWatermark.prune();
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    STEP_ROW_SQL + "WHERE STEP_EXECUTION_ID > ? ORDER BY STEP_EXECUTION_ID")) {
+                stmt.setLong(1, stepWatermark.scanFrom());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        StepRow row = new StepRow(rs);
+                        if (stepWatermark.accept(row.id)) {
+                            applyStep(row, 1);
+                            folded++;
+                        }
+                    }
+                }
+            }
+            stepWatermark.prune();
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT JOB_INSTANCE_ID, JOB_NAME FROM BATCH_JOB_INSTANCE WHERE JOB_INSTANCE_ID > ?")) {
+                stmt.setLong(1, instanceWatermark.scanFrom());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (instanceWatermark.accept(rs.getLong("JOB_INSTANCE_ID"))) {
+                            addCount(instanceCountsByName, rs.getString("JOB_NAME"), 1);
+                            instanceCount++;
+                            folded++;
+                        }
+                    }
+                }
+            }
+            instanceWatermark.prune();
+            return folded;
+        }
+
+        private long refreshOpenJobs(Connection conn) throws SQLException {
+            List<Long> ids = new ArrayList<>(openJobs.keySet());
+            for (int start = 0; start < ids.size(); start += IN_BATCH_SIZE) {
+                List<Long> batch = ids.subList(start, Math.min(start + IN_BATCH_SIZE, ids.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        JOB_ROW_SQL + "WHERE je.JOB_EXECUTION_ID IN " + inClause(batch.size()))) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setLong(i + 1, batch.get(i));
+                    }
+                    Set<Long> seen = new HashSet<>();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            JobRow row = new JobRow(rs);
+                            seen.add(row.id);
+                            applyJob(openJobs.remove(row.id), -1);
+                            applyJob(row, 1);
+                        }
+                    }
+                    // 回查不到的记录已被清理，撤销其贡献
+                    for (Long id : batch) {
+                        if (!seen.contains(id)) {
+                            JobRow removed = openJobs.remove(id);
+                            applyJob(removed, -1);
+                            addCount(jobExecutionCountsByName, removed.jobName, -1);
+                        }
+                    }
+                }
+            }
+            return ids.size();
+        }
+
+        private long refreshOpenSteps(Connection conn) throws SQLException {
+            List<Long> ids = new ArrayList<>(openSteps.keySet());
+            for (int start = 0; start < ids.size(); start += IN_BATCH_SIZE) {
+                List<Long> batch = ids.subList(start, Math.min(start + IN_BATCH_SIZE, ids.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        STEP_ROW_SQL + "WHERE STEP_EXECUTION_ID IN " + inClause(batch.size()))) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setLong(i + 1, batch.get(i));
+                    }
+                    Set<Long> seen = new HashSet<>();
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            StepRow row = new StepRow(rs);
+                            seen.add(row.id);
+                            applyStep(openSteps.remove(row.id), -1);
+                            applyStep(row, 1);
+                        }
+                    }
+                    for (Long id : batch) {
+                        if (!seen.contains(id)) {
+                            applyStep(openSteps.remove(id), -1);
+                        }
+                    }
+                }
+            }
+            return ids.size();
+        }
+
+        /**
+         * 计入或撤销一条作业执行记录的状态贡献，运行中的记录同时登记到回查集合
+         */
+        private void applyJob(JobRow row, int sign) {
+            addCount(jobStatusCounts, row.status, sign);
+            if (sign > 0 && OPEN_STATUSES.contains(row.status)) {
+                openJobs.put(row.id, row);
+            }
+        }
+
+        private void applyStep(StepRow row, int sign) {
+            addCount(stepStatusCounts, row.status, sign);
+            readCount += sign * row.readCount;
+            writeCount += sign * row.writeCount;
+            skipCount += sign * row.skipCount;
+            if (sign > 0 && OPEN_STATUSES.contains(row.status)) {
+                openSteps.put(row.id, row);
+            }
+        }
+
+        private void loadRecentIds(Connection conn, String sql, IdWatermark watermark) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, watermark.scanFrom());
+                stmt.setLong(2, watermark.getMaxId());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        watermark.addRecent(rs.getLong(1));
+                    }
+                }
+            }
+        }
+
+        private void clear() {
+            built = false;
+            jobStatusCounts.clear();
+            stepStatusCounts.clear();
+            jobExecutionCountsByName.clear();
+            instanceCountsByName.clear();
+            instanceCount = 0;
+            readCount = 0;
+            writeCount = 0;
+            skipCount = 0;
+            openJobs.clear();
+            openSteps.clear();
+        }
+
+        StatisticsSnapshot toSnapshot(long foldedRows, boolean fullRebuild) {
+            return new StatisticsSnapshot(jobStatusCounts, stepStatusCounts, jobExecutionCountsByName,
+                    instanceCount, instanceCountsByName.size(), readCount, writeCount, skipCount,
+                    foldedRows, fullRebuild);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.DailySummary;
+import com.springbatch.monitor.models.StatisticsSnapshot;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 汇总表服务 - 可选地在数据源所在数据库中维护 BATCH_MONITOR_DAILY_SUMMARY，
+ * 每行为 (日期, 作业名称, 步骤名称, 状态) 的执行数、耗时合计和读写跳过量合计
+ *
+ * 增量维护以作业执行ID为水位线（保存在 BATCH_MONITOR_SUMMARY_STATE 中）：每次刷新找出水位线之后的执行
+ * 涉及的天，按天从执行表重新聚合并整天替换（同一事务内先删除再批量插入，各数据库通用的 upsert），
+ * 然后把水位线推进到第一个仍在运行的执行之前。统计面板和按天汇总改为读取汇总表，
+ * 只需扫描几千行汇总数据；作业级的行步骤名称为 {@link #JOB_LEVEL}。
+ * 读取方通过 {@link #refreshIfStale} 按最小间隔刷新，统计面板的精确计数仍每次刷新。
+ */
+public class SummaryTableService {
+    private static final SummaryTableService INSTANCE = new SummaryTableService();
+
+    public static final String SUMMARY_TABLE = "BATCH_MONITOR_DAILY_SUMMARY";
+    public static final String STATE_TABLE = "BATCH_MONITOR_SUMMARY_STATE";
+    // Oracle 把空串当作 NULL，作业级的行使用占位步骤名称
+    public static final String JOB_LEVEL = "-";
+
+    private static final String WATERMARK_KEY = "JOB_EXECUTION_WATERMARK";
+    // 序列分配的主键可能乱序提交，水位线之前的这段执行所在的天也一并重算
+    private static final long ID_OVERLAP = 200;
+    private static final String OPEN_STATUSES = "('STARTING', 'STARTED', 'STOPPING')";
+    // 启动超过该天数仍未结束的执行视为已中断，不再阻止水位线推进
+    private static final int STALE_RUNNING_DAYS = 7;
+    // 每个事务最多重算的天数
+    private static final int MAX_DAYS_PER_TRANSACTION = 31;
+    private static final int INSERT_BATCH_SIZE = 500;
+    // 读取汇总表前的自动刷新间隔，间隔内的读取直接使用表中已有的数据
+    private static final long MIN_REFRESH_INTERVAL_MS = 60 * 1000L;
+    private static final int METRICS = DailySummary.Metric.values().length;
+
+    private final Map<String, Long> lastRefreshed = new ConcurrentHashMap<>();
+
+    private SummaryTableService() {
+    }
+
+    public static SummaryTableService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 数据源是否启用了汇总表（只读数据源不维护）
+     */
+    public boolean isEnabled(String dataSourceId) {
+        DataSourceConfig config = DataSourceConfigService.getInstance().getConfiguration(dataSourceId);
+        return config != null && config.isSummaryTableEnabled() && !config.isReadOnly();
+    }
+
+    /**
+     * 读取汇总表前调用：距上次刷新超过 {@link #MIN_REFRESH_INTERVAL_MS} 时才刷新
+     */
+    public void refreshIfStale(String dataSourceId) throws SQLException {
+        Long refreshedAt = lastRefreshed.get(dataSourceId);
+        if (refreshedAt == null || System.currentTimeMillis() - refreshedAt >= MIN_REFRESH_INTERVAL_MS) {
+            refresh(dataSourceId);
+        }
+    }
+
+    /**
+     * 把水位线之后的执行合并进汇总表，首次调用时建表并全量构建
+     *
+     * @return 本次重算的天数
+     */
+    public synchronized int refresh(String dataSourceId) throws SQLException {
+        long started = System.currentTimeMillis();
+        DataSource dataSource = requireDataSource(dataSourceId);
+        SqlDialect dialect = SqlDialect.forDataSource(dataSourceId);
+        try (Connection conn = dataSource.getConnection()) {
+            ensureTables(conn, dialect);
+            long watermark = readWatermark(conn);
+
+            // 新水位线：第一个仍在运行的执行之前，没有运行中的执行时为最大执行ID；
+            // 先于受影响的天查询，之后新提交的执行最多被多算进重算范围，不会被跳过
+            long nextWatermark = watermark;
+            String watermarkSql = "SELECT MAX(JOB_EXECUTION_ID) AS MAX_ID, " +
+                                  "MIN(CASE WHEN STATUS IN " + OPEN_STATUSES + " AND START_TIME >= ? " +
+                                  "THEN JOB_EXECUTION_ID END) AS OPEN_ID " +
+                                  "FROM BATCH_JOB_EXECUTION WHERE JOB_EXECUTION_ID > ?";
+            try (PreparedStatement stmt = conn.prepareStatement(watermarkSql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(LocalDate.now().minusDays(STALE_RUNNING_DAYS).atStartOfDay()));
+                stmt.setLong(2, watermark);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        long maxId = rs.getLong("MAX_ID");
+                        boolean hasMax = !rs.wasNull();
+                        long openId = rs.getLong("OPEN_ID");
+                        boolean hasOpen = !rs.wasNull();
+                        if (hasOpen) {
+                            nextWatermark = openId - 1;
+                        } else if (hasMax) {
+                            nextWatermark = maxId;
+                        }
+                    }
+                }
+            }
+
+            TreeSet<Long> dirtyDays = new TreeSet<>();
+            String daySql = "SELECT DISTINCT " + dialect.truncateToDay("START_TIME") + " AS D " +
+                            "FROM BATCH_JOB_EXECUTION WHERE JOB_EXECUTION_ID > ? AND START_TIME IS NOT NULL";
+            try (PreparedStatement stmt = conn.prepareStatement(daySql)) {
+                stmt.setLong(1, Math.max(0, watermark - ID_OVERLAP));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Timestamp day = SqlDialect.readTimestamp(rs, "D");
+                        if (day != null) {
+                            dirtyDays.add(day.toLocalDateTime().toLocalDate().toEpochDay());
+                        }
+                    }
+                }
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                // 连续的天合并为一次范围聚合
+                Long runStart = null;
+                long previous = Long.MIN_VALUE;
+                for (long day : dirtyDays) {
+                    if (runStart != null && (day != previous + 1 || day - runStart >= MAX_DAYS_PER_TRANSACTION)) {
+                        rebuildDays(conn, dialect, runStart, previous + 1);
+                        conn.commit();
+                        runStart = null;
+                    }
+                    if (runStart == null) {
+                        runStart = day;
+                    }
+                    previous = day;
+                }
+                if (runStart != null) {
+                    rebuildDays(conn, dialect, runStart, previous + 1);
+                }
+                writeWatermark(conn, watermark, nextWatermark);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            lastRefreshed.put(dataSourceId, started);
+            return dirtyDays.size();
+        }
+    }
+
+    /**
+     * 读取 [fromDay, toDay) 内各天各作业的指标，格式与 {@link DailySummaryService} 的缓存一致
+     *
+     * @return 天（epoch day）→ 作业名称 → 各指标值，范围内每天都有条目
+     */
+    public Map<Long, Map<String, double[]>> readDays(String dataSourceId, long fromDay, long toDay)
+            throws SQLException {
+        DataSource dataSource = requireDataSource(dataSourceId);
+        Map<Long, Map<String, double[]>> days = new HashMap<>();
+        for (long d = fromDay; d < toDay; d++) {
+            days.put(d, new HashMap<>());
+        }
+        // 汇总表不区分是否已结束，运行中状态的执行按未结束计
+        String sql = "SELECT SUMMARY_DAY, JOB_NAME, STEP_NAME, STATUS, EXECUTION_COUNT, DURATION_TOTAL, " +
+                     "READ_COUNT, WRITE_COUNT, CASE WHEN STATUS IN " + OPEN_STATUSES + " THEN 1 ELSE 0 END AS OPEN_ROW " +
+                     "FROM " + SUMMARY_TABLE + " " +
+                     "WHERE SUMMARY_DAY >= ? AND SUMMARY_DAY < ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDate.ofEpochDay(fromDay).atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDate.ofEpochDay(toDay).atStartOfDay()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp day = SqlDialect.readTimestamp(rs, "SUMMARY_DAY");
+                    Map<String, double[]> jobs = day != null
+                            ? days.get(day.toLocalDateTime().toLocalDate().toEpochDay()) : null;
+                    if (jobs == null) {
+                        continue;
+                    }
+                    double[] cell = jobs.computeIfAbsent(rs.getString("JOB_NAME"), name -> new double[METRICS]);
+                    if (JOB_LEVEL.equals(rs.getString("STEP_NAME"))) {
+                        long executions = rs.getLong("EXECUTION_COUNT");
+                        cell[DailySummary.Metric.EXECUTIONS.ordinal()] += executions;
+                        if ("FAILED".equals(rs.getString("STATUS"))) {
+                            cell[DailySummary.Metric.FAILURES.ordinal()] += executions;
+                        }
+                        cell[DailySummary.Metric.DURATION.ordinal()] += rs.getDouble("DURATION_TOTAL");
+                        if (rs.getInt("OPEN_ROW") == 0) {
+                            cell[DailySummary.Metric.FINISHED.ordinal()] += executions;
+                        }
+                    } else {
+                        cell[DailySummary.Metric.READ_COUNT.ordinal()] += rs.getLong("READ_COUNT");
+                        cell[DailySummary.Metric.WRITE_COUNT.ordinal()] += rs.getLong("WRITE_COUNT");
+                    }
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * 从汇总表计算时间窗口（null 表示全部历史）内的统计
+     *
+     * 整天的部分读汇总表；窗口首尾不足一天的部分直接查询执行表（范围小于一天，走 START_TIME 索引）。
+     * 作业实例数按天累加，跨天重启的实例会在每个运行过的日子各计一次。
+     */
+    public StatisticsSnapshot getStatistics(String dataSourceId, TimeWindow window) throws SQLException {
+        DataSource dataSource = requireDataSource(dataSourceId);
+        Totals totals = new Totals();
+
+        try (Connection conn = dataSource.getConnection()) {
+            Timestamp from = window == null || window.isUnbounded() ? null : window.getFrom();
+            Timestamp to = window == null ? null : window.getTo();
+            Timestamp firstFullDay = from == null ? null : ceilToDay(from);
+            Timestamp endFullDay = to == null ? null : floorToDay(to);
+            if (firstFullDay != null && endFullDay != null && !firstFullDay.before(endFullDay)) {
+                // 窗口不含完整的一天，全部查询执行表
+                addRaw(conn, from, to, totals);
+            } else {
+                StringBuilder sql = new StringBuilder("SELECT JOB_NAME, STEP_NAME, STATUS, ")
+                        .append("SUM(EXECUTION_COUNT) AS CNT, SUM(INSTANCE_COUNT) AS INSTANCES, ")
+                        .append("SUM(READ_COUNT) AS READS, SUM(WRITE_COUNT) AS WRITES, SUM(SKIP_COUNT) AS SKIPS ")
+                        .append("FROM ").append(SUMMARY_TABLE).append(" WHERE 1=1 ");
+                if (firstFullDay != null) {
+                    sql.append("AND SUMMARY_DAY >= ? ");
+                }
+                if (endFullDay != null) {
+                    sql.append("AND SUMMARY_DAY < ? ");
+                }
+                sql.append("GROUP BY JOB_NAME, STEP_NAME, STATUS");
+                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                    int index = 1;
+                    if (firstFullDay != null) {
+                        stmt.setTimestamp(index++, firstFullDay);
+                    }
+                    if (endFullDay != null) {
+                        stmt.setTimestamp(index, endFullDay);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            totals.add(rs.getString("JOB_NAME"), !JOB_LEVEL.equals(rs.getString("STEP_NAME")),
+                                    rs.getString("STATUS"), rs.getLong("CNT"), rs.getLong("INSTANCES"),
+                                    rs.getLong("READS"), rs.getLong("WRITES"), rs.getLong("SKIPS"));
+                        }
+                    }
+                }
+                if (from != null && from.before(firstFullDay)) {
+                    addRaw(conn, from, firstFullDay, totals);
+                }
+                if (endFullDay != null && endFullDay.before(to)) {
+                    addRaw(conn, endFullDay, to, totals);
+                }
+            }
+        }
+        return new StatisticsSnapshot(totals.jobStatusCounts, totals.stepStatusCounts, totals.jobCountsByName,
+                totals.instanceCount, totals.jobNames.size(), totals.readCount, totals.writeCount,
+                totals.skipCount, 0, false);
+    }
+
+    private static DataSource requireDataSource(String dataSourceId) throws SQLException {
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+        return dataSource;
+    }
+
+    private static void ensureTables(Connection conn, SqlDialect dialect) throws SQLException {
+        if (tableExists(conn, SUMMARY_TABLE) && tableExists(conn, STATE_TABLE)) {
+            return;
+        }
+        String bigint = dialect.bigintType();
+        try (Statement stmt = conn.createStatement()) {
+            if (!tableExists(conn, SUMMARY_TABLE)) {
+                stmt.execute("CREATE TABLE " + SUMMARY_TABLE + " (" +
+                        "SUMMARY_DAY " + dialect.timestampType() + " NOT NULL, " +
+                        "JOB_NAME VARCHAR(100) NOT NULL, " +
+                        "STEP_NAME VARCHAR(100) NOT NULL, " +
+                        "STATUS VARCHAR(10) NOT NULL, " +
+                        "EXECUTION_COUNT " + bigint + " NOT NULL, " +
+                        "INSTANCE_COUNT " + bigint + " NOT NULL, " +
+                        "DURATION_TOTAL " + bigint + " NOT NULL, " +
+                        "READ_COUNT " + bigint + " NOT NULL, " +
+                        "WRITE_COUNT " + bigint + " NOT NULL, " +
+                        "SKIP_COUNT " + bigint + " NOT NULL, " +
+                        "PRIMARY KEY (SUMMARY_DAY, JOB_NAME, STEP_NAME, STATUS))");
+            }
+            if (!tableExists(conn, STATE_TABLE)) {
+                stmt.execute("CREATE TABLE " + STATE_TABLE + " (" +
+                        "STATE_KEY VARCHAR(50) NOT NULL PRIMARY KEY, " +
+                        "STATE_VALUE " + bigint + " NOT NULL)");
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) {
+        // 只探测表是否存在，结果集随语句一起关闭
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT COUNT(*) FROM " + table + " WHERE 1=0");
+            return true;
+        } catch (SQLException e) {
+            // PostgreSQL 中失败的语句会中止当前事务，此处仍处于自动提交模式
+            return false;
+        }
+    }
+
+    private static long readWatermark(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT STATE_VALUE FROM " + STATE_TABLE + " WHERE STATE_KEY = ?")) {
+            stmt.setString(1, WATERMARK_KEY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static void writeWatermark(Connection conn, long previous, long watermark) throws SQLException {
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE " + STATE_TABLE + " SET STATE_VALUE = ? WHERE STATE_KEY = ?")) {
+            update.setLong(1, watermark);
+            update.setString(2, WATERMARK_KEY);
+            if (update.executeUpdate() > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO " + STATE_TABLE + " (STATE_KEY, STATE_VALUE) VALUES (?, ?)")) {
+            insert.setString(1, WATERMARK_KEY);
+            insert.setLong(2, Math.max(previous, watermark));
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * 从执行表重新聚合 [fromDay, toDay) 并整天替换汇总行；步骤归入所属作业执行开始的那天
+     */
+    private static void rebuildDays(Connection conn, SqlDialect dialect, long fromDay, long toDay)
+            throws SQLException {
+        Timestamp from = Timestamp.valueOf(LocalDate.ofEpochDay(fromDay).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(LocalDate.ofEpochDay(toDay).atStartOfDay());
+        String day = dialect.truncateToDay("je.START_TIME");
+
+        String jobSql = "SELECT D, JOB_NAME, STATUS, COUNT(*) AS CNT, COUNT(DISTINCT JOB_INSTANCE_ID) AS INSTANCES, " +
+                        "SUM(DUR) AS TOTAL " +
+                        "FROM (SELECT " + day + " AS D, ji.JOB_NAME AS JOB_NAME, je.STATUS AS STATUS, " +
+                        "je.JOB_INSTANCE_ID AS JOB_INSTANCE_ID, " +
+                        dialect.durationMillis("je.START_TIME", "je.END_TIME") + " AS DUR " +
+                        "FROM BATCH_JOB_EXECUTION je " +
+                        "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                        "WHERE je.START_TIME >= ? AND je.START_TIME < ?) t " +
+                        "GROUP BY D, JOB_NAME, STATUS";
+        String stepSql = "SELECT D, JOB_NAME, STEP_NAME, STATUS, COUNT(*) AS CNT, SUM(DUR) AS TOTAL, " +
+                         "SUM(READ_COUNT) AS READS, SUM(WRITE_COUNT) AS WRITES, SUM(SKIPS) AS SKIPS " +
+                         "FROM (SELECT " + day + " AS D, ji.JOB_NAME AS JOB_NAME, se.STEP_NAME AS STEP_NAME, " +
+                         "se.STATUS AS STATUS, " + dialect.durationMillis("se.START_TIME", "se.END_TIME") + " AS DUR, " +
+                         "se.READ_COUNT AS READ_COUNT, se.WRITE_COUNT AS WRITE_COUNT, " +
+                         SqlDialect.skipCount("se.") + " AS SKIPS " +
+                         "FROM BATCH_STEP_EXECUTION se " +
+                         "JOIN BATCH_JOB_EXECUTION je ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                         "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                         "WHERE je.START_TIME >= ? AND je.START_TIME < ?) t " +
+                         "GROUP BY D, JOB_NAME, STEP_NAME, STATUS";
+
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM " + SUMMARY_TABLE + " WHERE SUMMARY_DAY >= ? AND SUMMARY_DAY < ?")) {
+            delete.setTimestamp(1, from);
+            delete.setTimestamp(2, to);
+            delete.executeUpdate();
+        }
+
+        String insertSql = "INSERT INTO " + SUMMARY_TABLE + " (SUMMARY_DAY, JOB_NAME, STEP_NAME, STATUS, " +
+                           "EXECUTION_COUNT, INSTANCE_COUNT, DURATION_TOTAL, READ_COUNT, WRITE_COUNT, SKIP_COUNT) " +
+                           "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            int pending = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(jobSql)) {
+                stmt.setTimestamp(1, from);
+                stmt.setTimestamp(2, to);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        pending = addRow(insert, pending, rs, rs.getString("JOB_NAME"), JOB_LEVEL,
+                                rs.getLong("INSTANCES"), 0, 0, 0);
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(stepSql)) {
+                stmt.setTimestamp(1, from);
+                stmt.setTimestamp(2, to);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        pending = addRow(insert, pending, rs, rs.getString("JOB_NAME"), rs.getString("STEP_NAME"),
+                                0, rs.getLong("READS"), rs.getLong("WRITES"), rs.getLong("SKIPS"));
+                    }
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static int addRow(PreparedStatement insert, int pending, ResultSet rs, String jobName, String stepName,
+                              long instances, long reads, long writes, long skips) throws SQLException {
+        Timestamp day = SqlDialect.readTimestamp(rs, "D");
+        if (day == null || jobName == null || stepName == null) {
+            return pending;
+        }
+        String status = rs.getString("STATUS");
+        insert.setTimestamp(1, day);
+        insert.setString(2, jobName);
+        insert.setString(3, stepName);
+        insert.setString(4, status != null ? status : "UNKNOWN");
+        insert.setLong(5, rs.getLong("CNT"));
+        insert.setLong(6, instances);
+        insert.setLong(7, Math.round(rs.getDouble("TOTAL")));
+        insert.setLong(8, reads);
+        insert.setLong(9, writes);
+        insert.setLong(10, skips);
+        insert.addBatch();
+        if (++pending >= INSERT_BATCH_SIZE) {
+            insert.executeBatch();
+            return 0;
+        }
+        return pending;
+    }
+
+    /**
+     * 窗口首尾不足一天的部分直接从执行表统计，步骤同样按所属作业执行的开始时间归入
+     */
+    private static void addRaw(Connection conn, Timestamp from, Timestamp to, Totals totals) throws SQLException {
+        String range = (from != null ? "je.START_TIME >= ? AND " : "") + "je.START_TIME < ? ";
+        String jobSql = "SELECT ji.JOB_NAME AS JOB_NAME, je.STATUS AS STATUS, COUNT(*) AS CNT, " +
+                        "COUNT(DISTINCT je.JOB_INSTANCE_ID) AS INSTANCES " +
+                        "FROM BATCH_JOB_EXECUTION je " +
+                        "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                        "WHERE " + range +
+                        "GROUP BY ji.JOB_NAME, je.STATUS";
+        String stepSql = "SELECT se.STATUS AS STATUS, COUNT(*) AS CNT, SUM(se.READ_COUNT) AS READS, " +
+                         "SUM(se.WRITE_COUNT) AS WRITES, SUM(" + SqlDialect.skipCount("se.") + ") AS SKIPS " +
+                         "FROM BATCH_STEP_EXECUTION se " +
+                         "JOIN BATCH_JOB_EXECUTION je ON se.JOB_EXECUTION_ID = je.JOB_EXECUTION_ID " +
+                         "WHERE " + range +
+                         "GROUP BY se.STATUS";
+        try (PreparedStatement stmt = conn.prepareStatement(jobSql)) {
+            bindRange(stmt, from, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(rs.getString("JOB_NAME"), false, rs.getString("STATUS"), rs.getLong("CNT"),
+                            rs.getLong("INSTANCES"), 0, 0, 0);
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(stepSql)) {
+            bindRange(stmt, from, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(null, true, rs.getString("STATUS"), rs.getLong("CNT"), 0,
+                            rs.getLong("READS"), rs.getLong("WRITES"), rs.getLong("SKIPS"));
+                }
+            }
+        }
+    }
+
+    private static void bindRange(PreparedStatement stmt, Timestamp from, Timestamp to) throws SQLException {
+        int index = 1;
+        if (from != null) {
+            stmt.setTimestamp(index++, from);
+        }
+        stmt.setTimestamp(index, to);
+    }
+
+    private static Timestamp floorToDay(Timestamp time) {
+        return Timestamp.valueOf(time.toLocalDateTime().toLocalDate().atStartOfDay());
+    }
+
+    private static Timestamp ceilToDay(Timestamp time) {
+        Timestamp floor = floorToDay(time);
+        return floor.equals(time) ? floor
+                : Timestamp.valueOf(time.toLocalDateTime().toLocalDate().plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * 统计快照的累加器
+     */
+    private static class Totals {
+        final Map<String, Long> jobStatusCounts = new HashMap<>();
+        final Map<String, Long> stepStatusCounts = new HashMap<>();
+        final Map<String, Long> jobCountsByName = new HashMap<>();
+        final Set<String> jobNames = new HashSet<>();
+        long instanceCount;
+        long readCount;
+        long writeCount;
+        long skipCount;
+
+        void add(String jobName, boolean step, String status, long count, long instances,
+                 long reads, long writes, long skips) {
+            String key = status != null ? status : "UNKNOWN";
+            if (step) {
+                stepStatusCounts.merge(key, count, Long::sum);
+                readCount += reads;
+                writeCount += writes;
+                skipCount += skips;
+            } else {
+                jobStatusCounts.merge(key, count, Long::sum);
+                jobCountsByName.merge(jobName, count, Long::sum);
+                jobNames.add(jobName);
+                instanceCount += instances;
+            }
+        }
+    }
+}
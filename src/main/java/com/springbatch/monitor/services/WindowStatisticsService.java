@@ -0,0 +1,173 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.StatisticsSnapshot;
+import com.springbatch.monitor.models.TimeWindow;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 时间窗口统计服务 - 所有查询都带 START_TIME 范围条件，结果按窗口分别缓存
+ *
+ * 范围条件直接作用于列（START_TIME >= ? AND START_TIME < ?），
+ * 数据库可以使用 START_TIME 上的索引做范围扫描，"近1小时"不会随历史数据增长而变慢。
+ * 数据源启用了汇总表时，整天的部分改为读取汇总表。
+ */
+public class WindowStatisticsService {
+    private static final WindowStatisticsService INSTANCE = new WindowStatisticsService();
+
+    // 滑动窗口的缓存有效期约为窗口长度的 1/120，限定在 15 秒到 10 分钟之间
+    private static final long MIN_TTL_MS = 15 * 1000L;
+    private static final long MAX_TTL_MS = 10 * 60 * 1000L;
+    // 终点早于此时长的固定窗口视为已关闭，其中的执行不会再变化
+    private static final long CLOSED_WINDOW_AGE_MS = 24 * 3600 * 1000L;
+
+    private static final String MEMORY_OWNER = "窗口统计";
+
+    private final Map<String, CachedStatistics> cache = new ConcurrentHashMap<>();
+
+    private WindowStatisticsService() {
+    }
+
+    public static WindowStatisticsService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取时间窗口内的统计，缓存未过期时直接返回
+     *
+     * @param forceRefresh 忽略缓存重新查询
+     */
+    public StatisticsSnapshot getStatistics(String dataSourceId, TimeWindow window, boolean forceRefresh)
+            throws SQLException {
+        String key = dataSourceId + "|" + window.getCacheKey();
+        CachedStatistics cached = cache.get(key);
+        long now = System.currentTimeMillis();
+        if (!forceRefresh && cached != null && now < cached.expiresAt) {
+            MemoryGovernor.getInstance().touch(MEMORY_OWNER, key);
+            return cached.snapshot;
+        }
+
+        StatisticsSnapshot snapshot = queryStatistics(dataSourceId, window);
+        CachedStatistics entry = new CachedStatistics(snapshot, now + getTimeToLive(window, now));
+        cache.put(key, entry);
+        MemoryGovernor.getInstance().track(MEMORY_OWNER, key, entry, estimateBytes(snapshot),
+                (evictedKey, value) -> cache.remove(evictedKey, value));
+        return snapshot;
+    }
+
+    /**
+     * 清除数据源的全部窗口缓存
+     */
+    public void invalidate(String dataSourceId) {
+        cache.keySet().removeIf(key -> key.startsWith(dataSourceId + "|"));
+        MemoryGovernor.getInstance().untrackAll(MEMORY_OWNER, dataSourceId + "|");
+    }
+
+    /**
+     * 估算快照占用：每个计数一个哈希表条目
+     */
+    private static long estimateBytes(StatisticsSnapshot snapshot) {
+        int entries = snapshot.getJobStatusCounts().size() + snapshot.getStepStatusCounts().size()
+                + snapshot.getJobExecutionCountsByName().size();
+        return 256 + entries * 96L;
+    }
+
+    private long getTimeToLive(TimeWindow window, long now) {
+        if (!window.isSliding() && now - window.getTo().getTime() > CLOSED_WINDOW_AGE_MS) {
+            return Long.MAX_VALUE - now;
+        }
+        return Math.max(MIN_TTL_MS, Math.min(MAX_TTL_MS, window.getLengthMillis() / 120));
+    }
+
+    private StatisticsSnapshot queryStatistics(String dataSourceId, TimeWindow window) throws SQLException {
+        SummaryTableService summaryTable = SummaryTableService.getInstance();
+        if (summaryTable.isEnabled(dataSourceId)) {
+            summaryTable.refreshIfStale(dataSourceId);
+            return summaryTable.getStatistics(dataSourceId, window);
+        }
+
+        DataSource dataSource = DatabaseService.getInstance().getDataSource(dataSourceId);
+        if (dataSource == null) {
+            throw new SQLException("数据源未注册: " + dataSourceId);
+        }
+
+        Map<String, Long> jobStatusCounts = new HashMap<>();
+        Map<String, Long> stepStatusCounts = new HashMap<>();
+        Map<String, Long> jobCountsByName = new HashMap<>();
+        long instanceCount = 0;
+        int jobNameCount = 0;
+        long readCount = 0;
+        long writeCount = 0;
+        long skipCount = 0;
+
+        try (Connection conn = dataSource.getConnection()) {
+            String jobSql = "SELECT ji.JOB_NAME, je.STATUS, COUNT(*) AS CNT " +
+                            "FROM BATCH_JOB_EXECUTION je " +
+                            "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                            "WHERE " + window.predicate("je.START_TIME") +
+                            "GROUP BY ji.JOB_NAME, je.STATUS";
+            try (PreparedStatement stmt = conn.prepareStatement(jobSql)) {
+                window.bind(stmt, 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long count = rs.getLong("CNT");
+                        String status = rs.getString("STATUS");
+                        jobStatusCounts.merge(status != null ? status : "UNKNOWN", count, Long::sum);
+                        jobCountsByName.merge(rs.getString("JOB_NAME"), count, Long::sum);
+                    }
+                }
+            }
+
+            String stepSql = "SELECT STATUS, COUNT(*) AS CNT, SUM(READ_COUNT) AS READS, " +
+                             "SUM(WRITE_COUNT) AS WRITES, SUM(" + SqlDialect.skipCount("") + ") AS SKIPS " +
+                             "FROM BATCH_STEP_EXECUTION " +
+                             "WHERE " + window.predicate("START_TIME") +
+                             "GROUP BY STATUS";
+            try (PreparedStatement stmt = conn.prepareStatement(stepSql)) {
+                window.bind(stmt, 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String status = rs.getString("STATUS");
+                        stepStatusCounts.merge(status != null ? status : "UNKNOWN", rs.getLong("CNT"), Long::sum);
+                        readCount += rs.getLong("READS");
+                        writeCount += rs.getLong("WRITES");
+                        skipCount += rs.getLong("SKIPS");
+                    }
+                }
+            }
+
+            // 窗口内有执行记录的作业实例
+            String instanceSql = "SELECT ji.JOB_NAME, COUNT(DISTINCT je.JOB_INSTANCE_ID) AS CNT " +
+                                 "FROM BATCH_JOB_EXECUTION je " +
+                                 "JOIN BATCH_JOB_INSTANCE ji ON je.JOB_INSTANCE_ID = ji.JOB_INSTANCE_ID " +
+                                 "WHERE " + window.predicate("je.START_TIME") +
+                                 "GROUP BY ji.JOB_NAME";
+            try (PreparedStatement stmt = conn.prepareStatement(instanceSql)) {
+                window.bind(stmt, 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        instanceCount += rs.getLong("CNT");
+                        jobNameCount++;
+                    }
+                }
+            }
+        }
+
+        return new StatisticsSnapshot(jobStatusCounts, stepStatusCounts, jobCountsByName,
+                instanceCount, jobNameCount, readCount, writeCount, skipCount, 0, false);
+    }
+
+    private static class CachedStatistics {
+        final StatisticsSnapshot snapshot;
+        final long expiresAt;
+
+        CachedStatistics(StatisticsSnapshot snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.springbatch.monitor.services;
+
+import com.springbatch.monitor.models.DailySummary;
+import com.springbatch.monitor.models.WorkloadForecast;
+import com.springbatch.monitor.utils.TrendModel;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 负载预测服务 - 在按天汇总的序列上拟合趋势，预测各作业单次耗时何时超过批处理窗口上限
+ *
+ * 输入是 {@link DailySummaryService} 的逐日汇总（已关闭的天来自本地缓存），
+ * 每个作业只有几十到几百个点，拟合在本地即时完成。
+ */
+public class WorkloadForecastService {
+    private static final WorkloadForecastService INSTANCE = new WorkloadForecastService();
+
+    private static final int RECENT_DAYS = 7;
+
+    private WorkloadForecastService() {
+    }
+
+    public static WorkloadForecastService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 用截至昨天的 historyDays 天历史预测未来 horizonDays 天，
+     * 按预计超限日期排序，不会超限的作业排在最后
+     *
+     * @param limitMillis 批处理窗口上限（单次执行耗时）
+     */
+    public List<WorkloadForecast> forecast(String dataSourceId, int historyDays, long limitMillis, int horizonDays)
+            throws SQLException {
+        // 当天还没结束，不参与拟合
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(historyDays);
+        DailySummary summary = DailySummaryService.getInstance().getSummary(dataSourceId, firstDay, historyDays);
+
+        List<WorkloadForecast> forecasts = new ArrayList<>();
+        for (int job = 0; job < summary.getJobNames().size(); job++) {
+            double[] executions = summary.getSeries(DailySummary.Metric.EXECUTIONS, job);
+            double[] durations = summary.getSeries(DailySummary.Metric.DURATION, job);
+            double[] finished = summary.getSeries(DailySummary.Metric.FINISHED, job);
+            double[] writes = summary.getSeries(DailySummary.Metric.WRITE_COUNT, job);
+
+            // 没有执行的天视为缺失而不是 0，每周运行一次的作业也能拟合
+            double[] averageDurations = new double[historyDays];
+            double[] dailyWrites = new double[historyDays];
+            boolean hasWrites = false;
+            for (int day = 0; day < historyDays; day++) {
+                // 未结束的执行没有耗时，不计入平均
+                averageDurations[day] = finished[day] > 0 ? durations[day] / finished[day] : Double.NaN;
+                dailyWrites[day] = executions[day] > 0 ? writes[day] : Double.NaN;
+                hasWrites |= writes[day] > 0;
+            }
+
+            TrendModel durationTrend = TrendModel.fit(firstDay, averageDurations);
+            if (durationTrend == null) {
+                continue;
+            }
+            double recentAverage = recentAverage(averageDurations);
+            LocalDate crossingDay = recentAverage > limitMillis
+                    ? today : durationTrend.firstCrossing(today, horizonDays, limitMillis);
+            forecasts.add(new WorkloadForecast(summary.getJobNames().get(job), durationTrend,
+                    hasWrites ? TrendModel.fit(firstDay, dailyWrites) : null, recentAverage, crossingDay));
+        }
+
+        forecasts.sort(Comparator.comparing(WorkloadForecast::getCrossingDay,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return forecasts;
+    }
+
+    private static double recentAverage(double[] values) {
+        double sum = 0;
+        int count = 0;
+        for (int day = values.length - 1; day >= 0 && count < RECENT_DAYS; day--) {
+            if (!Double.isNaN(values[day])) {
+                sum += values[day];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : Double.NaN;
+    }
+}
@@ -4,7 +4,9 @@ import com.intellij.openapi.project.Project;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBTabbedPane;
+import com.springbatch.monitor.services.MemoryGovernor;
 import com.springbatch.monitor.ui.panels.WelcomePanel;
+import com.springbatch.monitor.ui.panels.AnalysisPanel;
 import com.springbatch.monitor.ui.panels.JobListPanel;
 import com.springbatch.monitor.ui.panels.JobDetailPanel;
 import com.springbatch.monitor.ui.panels.StepListPanel;
@@ -13,6 +15,9 @@ import com.springbatch.monitor.ui.panels.StatisticsPanel;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Map;
 
 /**
  * Spring Batch Monitor 主工具窗口
@@ -27,6 +32,10 @@ public class SpringBatchMonitorToolWindow {
     private JobDetailPanel jobDetailPanel;
     private StepListPanel stepListPanel;
     private JBLabel statusLabel;
+    private JBLabel memoryLabel;
+    private Timer memoryTimer;
+
+    private static final int MEMORY_REFRESH_MILLIS = 2000;
 
     public SpringBatchMonitorToolWindow(Project project) {
         this.project = project;
@@ -45,6 +54,7 @@ public class SpringBatchMonitorToolWindow {
         stepListPanel = new StepListPanel(this);
         jobDetailPanel = new JobDetailPanel(this);
         StatisticsPanel statisticsPanel = new StatisticsPanel();
+        AnalysisPanel analysisPanel = new AnalysisPanel();
         welcomePanel = new WelcomePanel(this);
 
         // Add tabs
@@ -53,6 +63,7 @@ public class SpringBatchMonitorToolWindow {
         tabbedPane.addTab("步骤列表", stepListPanel);
         tabbedPane.addTab("作业详情", jobDetailPanel);
         tabbedPane.addTab("统计分析", statisticsPanel);
+        tabbedPane.addTab("性能分析", analysisPanel);
         tabbedPane.addTab("关于", welcomePanel);
 
         contentPanel.add(tabbedPane, BorderLayout.CENTER);
@@ -60,7 +71,67 @@ public class SpringBatchMonitorToolWindow {
         // Status bar
         statusLabel = new JBLabel("Ready");
         statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-        contentPanel.add(statusLabel, BorderLayout.SOUTH);
+        memoryLabel = new JBLabel();
+        memoryLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        memoryLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        memoryLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showMemoryMenu(e);
+            }
+        });
+        JPanel statusPanel = new JBPanel<>(new BorderLayout());
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(memoryLabel, BorderLayout.EAST);
+        contentPanel.add(statusPanel, BorderLayout.SOUTH);
+
+        updateMemoryUsage();
+        memoryTimer = new Timer(MEMORY_REFRESH_MILLIS, e -> updateMemoryUsage());
+        memoryTimer.start();
+    }
+
+    /**
+     * 刷新状态栏的插件内存用量，提示中列出各缓存的占用
+     */
+    private void updateMemoryUsage() {
+        MemoryGovernor governor = MemoryGovernor.getInstance();
+        memoryLabel.setText(String.format("插件缓存: %.1f / %d MB", governor.getUsedBytes() / 1048576.0,
+                governor.getBudgetMegabytes()));
+
+        StringBuilder tooltip = new StringBuilder("<html>");
+        for (Map.Entry<String, Long> entry : governor.getUsageByOwner().entrySet()) {
+            tooltip.append(entry.getKey()).append(": ")
+                    .append(String.format("%.1f KB", entry.getValue() / 1024.0)).append("<br>");
+        }
+        tooltip.append(String.format("累计淘汰: %.1f MB，低内存通知: %d 次<br>点击释放缓存或调整预算</html>",
+                governor.getEvictedBytes() / 1048576.0, governor.getLowMemoryEvents()));
+        memoryLabel.setToolTipText(tooltip.toString());
+    }
+
+    private void showMemoryMenu(MouseEvent e) {
+        JPopupMenu menu = new JPopupMenu();
+        JMenuItem releaseItem = new JMenuItem("释放缓存");
+        releaseItem.addActionListener(event -> {
+            MemoryGovernor.getInstance().releaseAll();
+            updateStatus("已释放插件缓存");
+        });
+        menu.add(releaseItem);
+        JMenuItem budgetItem = new JMenuItem("设置内存预算...");
+        budgetItem.addActionListener(event -> editMemoryBudget());
+        menu.add(budgetItem);
+        menu.show(memoryLabel, e.getX(), e.getY());
+    }
+
+    private void editMemoryBudget() {
+        MemoryGovernor governor = MemoryGovernor.getInstance();
+        JSpinner spinner = new JSpinner(new SpinnerNumberModel(governor.getBudgetMegabytes(),
+                MemoryGovernor.MIN_BUDGET_MB, MemoryGovernor.MAX_BUDGET_MB, 8));
+        int result = JOptionPane.showConfirmDialog(contentPanel, spinner, "插件缓存预算 (MB)",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result == JOptionPane.OK_OPTION) {
+            governor.setBudgetMegabytes((Integer) spinner.getValue());
+            updateMemoryUsage();
+        }
     }
 
     public JComponent getContent() {
@@ -0,0 +1,153 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.DataSourceConfigService;
+import com.springbatch.monitor.services.DatabaseService;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * 分析面板基类 - 统一提供数据源、时间窗口选择和后台加载
+ *
+ * @param <R> 分析结果类型
+ */
+public abstract class AbstractAnalysisPanel<R> extends JBPanel<AbstractAnalysisPanel<R>>
+        implements DataSourceConfigService.DataSourceConfigListener {
+
+    protected final DataSourceConfigService configService;
+    protected final DatabaseService databaseService;
+    protected final JPanel toolbarPanel;
+    private final JComboBox<DataSourceConfig> dataSourceComboBox;
+    private final JComboBox<TimeWindow.Preset> windowComboBox;
+    private final JButton refreshButton;
+    private final JBLabel statusLabel;
+
+    protected AbstractAnalysisPanel(TimeWindow.Preset defaultWindow) {
+        super(new BorderLayout());
+        this.configService = DataSourceConfigService.getInstance();
+        this.databaseService = DatabaseService.getInstance();
+
+        // 注册数据源配置变更监听器
+        configService.addListener(this);
+
+        toolbarPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JBLabel("数据源:"));
+        dataSourceComboBox = new JComboBox<>();
+        toolbarPanel.add(dataSourceComboBox);
+
+        toolbarPanel.add(new JBLabel("时间窗口:"));
+        windowComboBox = new JComboBox<>(TimeWindow.Preset.values());
+        windowComboBox.setSelectedItem(defaultWindow);
+        toolbarPanel.add(windowComboBox);
+
+        refreshButton = new JButton("分析");
+        refreshButton.addActionListener(e -> refreshAnalysis());
+        toolbarPanel.add(refreshButton);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        JPanel bottomPanel = new JBPanel<>(new BorderLayout());
+        statusLabel = new JBLabel("请选择数据源后点击分析");
+        bottomPanel.add(statusLabel, BorderLayout.WEST);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        loadDataSources();
+    }
+
+    /**
+     * 设置面板主体内容，由子类在构造方法中调用
+     */
+    protected void setContent(JComponent content) {
+        add(content, BorderLayout.CENTER);
+    }
+
+    /**
+     * 在后台线程中执行分析
+     */
+    protected abstract R analyze(DataSourceConfig config, TimeWindow window) throws Exception;
+
+    /**
+     * 在 EDT 中展示分析结果，返回状态栏提示
+     */
+    protected abstract String render(R result);
+
+    protected DataSourceConfig getSelectedDataSource() {
+        return (DataSourceConfig) dataSourceComboBox.getSelectedItem();
+    }
+
+    protected TimeWindow getSelectedWindow() {
+        return TimeWindow.of((TimeWindow.Preset) windowComboBox.getSelectedItem());
+    }
+
+    protected void setStatus(String message) {
+        statusLabel.setText(message);
+    }
+
+    public void refreshAnalysis() {
+        DataSourceConfig selectedDataSource = getSelectedDataSource();
+        if (selectedDataSource == null) {
+            statusLabel.setText("请选择数据源");
+            return;
+        }
+
+        TimeWindow window = getSelectedWindow();
+        statusLabel.setText("正在分析...");
+        refreshButton.setEnabled(false);
+
+        SwingWorker<R, Void> worker = new SwingWorker<R, Void>() {
+            private Exception error;
+
+            @Override
+            protected R doInBackground() {
+                try {
+                    databaseService.ensureDataSource(selectedDataSource);
+                    return analyze(selectedDataSource, window);
+                } catch (Exception e) {
+                    error = e;
+                    return null;
+                }
+            }
+
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                if (error != null) {
+                    statusLabel.setText("分析失败: " + error.getMessage());
+                    return;
+                }
+                try {
+                    statusLabel.setText(render(get()));
+                } catch (Exception e) {
+                    statusLabel.setText("处理分析结果失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void loadDataSources() {
+        SwingUtilities.invokeLater(() -> {
+            DataSourceConfig selectedConfig = getSelectedDataSource();
+            dataSourceComboBox.removeAllItems();
+            List<DataSourceConfig> configs = configService.getActiveConfigurations();
+            for (DataSourceConfig config : configs) {
+                dataSourceComboBox.addItem(config);
+            }
+
+            // 尝试保持之前选中的数据源
+            if (selectedConfig != null && configs.contains(selectedConfig)) {
+                dataSourceComboBox.setSelectedItem(selectedConfig);
+            }
+        });
+    }
+
+    // 数据源配置监听器实现
+    @Override
+    public void onConfigChanged(List<DataSourceConfig> configurations) {
+        loadDataSources();
+    }
+}
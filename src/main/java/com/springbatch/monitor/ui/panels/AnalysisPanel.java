@@ -0,0 +1,26 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBTabbedPane;
+
+import java.awt.*;
+
+/**
+ * 性能分析面板 - 汇集基于执行元数据的各类分析视图
+ */
+public class AnalysisPanel extends JBPanel<AnalysisPanel> {
+
+    public AnalysisPanel() {
+        super(new BorderLayout());
+
+        JBTabbedPane tabbedPane = new JBTabbedPane();
+        tabbedPane.addTab("回滚/跳过热点", new StepHotspotPanel());
+        tabbedPane.addTab("并发时间线", new ConcurrencyTimelinePanel());
+        tabbedPane.addTab("块大小建议", new ChunkAdvisorPanel());
+        tabbedPane.addTab("启动排队延迟", new QueueLatencyPanel());
+        tabbedPane.addTab("重启浪费", new RestartWastePanel());
+        tabbedPane.addTab("失败聚类", new FailureClusterPanel());
+        tabbedPane.addTab("环境对比", new EnvironmentComparisonPanel());
+        add(tabbedPane, BorderLayout.CENTER);
+    }
+}
@@ -0,0 +1,151 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+import com.springbatch.monitor.models.DailySummary;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * 日历热力图 - 纵轴为作业，横轴为天，单元格颜色深浅表示所选指标的大小
+ */
+public class CalendarHeatmap extends JComponent {
+    private static final int CELL_SIZE = 14;
+    private static final int CELL_GAP = 2;
+    private static final int TOP_MARGIN = 34;
+    private static final int MAX_LABEL_WIDTH = 220;
+
+    private static final Color EMPTY_COLOR = new JBColor(new Color(235, 237, 240), new Color(60, 63, 65));
+    private static final Color LOW_COLOR = new JBColor(new Color(198, 219, 239), new Color(40, 70, 100));
+    private static final Color HIGH_COLOR = new JBColor(new Color(8, 69, 148), new Color(120, 180, 240));
+    private static final Color FAILURE_COLOR = new JBColor(new Color(203, 24, 29), new Color(240, 100, 100));
+    private static final Color WEEKEND_COLOR = new JBColor(new Color(160, 160, 160), new Color(120, 120, 120));
+
+    private DailySummary summary;
+    private DailySummary.Metric metric = DailySummary.Metric.EXECUTIONS;
+    private double maxValue;
+    private int labelWidth = 80;
+
+    public CalendarHeatmap() {
+        setToolTipText("");
+    }
+
+    public void setData(DailySummary summary, DailySummary.Metric metric) {
+        this.summary = summary;
+        this.metric = metric;
+        this.maxValue = summary != null ? summary.getMax(metric) : 0;
+        FontMetrics metrics = getFontMetrics(getFont() != null ? getFont() : UIManager.getFont("Label.font"));
+        labelWidth = 80;
+        if (summary != null) {
+            for (String jobName : summary.getJobNames()) {
+                labelWidth = Math.max(labelWidth, Math.min(MAX_LABEL_WIDTH, metrics.stringWidth(jobName) + 12));
+            }
+        }
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (summary == null) {
+            return new Dimension(600, 200);
+        }
+        return new Dimension(labelWidth + summary.getDayCount() * (CELL_SIZE + CELL_GAP) + 8,
+                TOP_MARGIN + summary.getJobNames().size() * (CELL_SIZE + CELL_GAP) + 8);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        if (summary == null) {
+            return null;
+        }
+        int day = (event.getX() - labelWidth) / (CELL_SIZE + CELL_GAP);
+        int job = (event.getY() - TOP_MARGIN) / (CELL_SIZE + CELL_GAP);
+        if (event.getX() < labelWidth || event.getY() < TOP_MARGIN
+                || day >= summary.getDayCount() || job >= summary.getJobNames().size()) {
+            return null;
+        }
+        return "<html>" + summary.getJobNames().get(job) + "<br>" + summary.getDay(day)
+                + "<br>执行次数: " + (long) summary.getValue(DailySummary.Metric.EXECUTIONS, job, day)
+                + "<br>失败次数: " + (long) summary.getValue(DailySummary.Metric.FAILURES, job, day)
+                + "<br>总耗时: " + DateTimeUtils.formatMillis(summary.getValue(DailySummary.Metric.DURATION, job, day))
+                + "</html>";
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            g.setColor(JBColor.background());
+            g.fillRect(0, 0, getWidth(), getHeight());
+            FontMetrics metrics = g.getFontMetrics();
+            if (summary == null || summary.getJobNames().isEmpty()) {
+                g.setColor(JBColor.foreground());
+                g.drawString("暂无数据", 8, TOP_MARGIN);
+                return;
+            }
+
+            // 表头：每月第一天标注月份，每周一标注日期
+            for (int day = 0; day < summary.getDayCount(); day++) {
+                LocalDate date = summary.getDay(day);
+                int x = labelWidth + day * (CELL_SIZE + CELL_GAP);
+                g.setColor(JBColor.foreground());
+                if (day == 0 || date.getDayOfMonth() == 1) {
+                    g.drawString(date.getYear() + "-" + String.format("%02d", date.getMonthValue()), x, 12);
+                }
+                if (date.getDayOfWeek() == DayOfWeek.MONDAY) {
+                    g.drawString(String.valueOf(date.getDayOfMonth()), x, TOP_MARGIN - 6);
+                }
+            }
+
+            for (int job = 0; job < summary.getJobNames().size(); job++) {
+                int y = TOP_MARGIN + job * (CELL_SIZE + CELL_GAP);
+                g.setColor(JBColor.foreground());
+                g.drawString(clip(summary.getJobNames().get(job), metrics, labelWidth - 8),
+                        0, y + CELL_SIZE - 3);
+                for (int day = 0; day < summary.getDayCount(); day++) {
+                    int x = labelWidth + day * (CELL_SIZE + CELL_GAP);
+                    g.setColor(colorOf(summary.getValue(metric, job, day)));
+                    g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+                    DayOfWeek dayOfWeek = summary.getDay(day).getDayOfWeek();
+                    if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+                        g.setColor(WEEKEND_COLOR);
+                        g.drawLine(x, y + CELL_SIZE, x + CELL_SIZE - 1, y + CELL_SIZE);
+                    }
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * 按平方根压缩数值范围，避免少数极大值让其余单元格都接近最浅色
+     */
+    private Color colorOf(double value) {
+        if (value <= 0 || maxValue <= 0) {
+            return EMPTY_COLOR;
+        }
+        double ratio = Math.sqrt(value / maxValue);
+        Color high = metric == DailySummary.Metric.FAILURES ? FAILURE_COLOR : HIGH_COLOR;
+        return new Color(
+                (int) (LOW_COLOR.getRed() + (high.getRed() - LOW_COLOR.getRed()) * ratio),
+                (int) (LOW_COLOR.getGreen() + (high.getGreen() - LOW_COLOR.getGreen()) * ratio),
+                (int) (LOW_COLOR.getBlue() + (high.getBlue() - LOW_COLOR.getBlue()) * ratio));
+    }
+
+    private static String clip(String text, FontMetrics metrics, int width) {
+        if (metrics.stringWidth(text) <= width) {
+            return text;
+        }
+        String clipped = text;
+        while (clipped.length() > 1 && metrics.stringWidth(clipped + "…") > width) {
+            clipped = clipped.substring(0, clipped.length() - 1);
+        }
+        return clipped + "…";
+    }
+}
@@ -0,0 +1,112 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBScrollPane;
+import com.springbatch.monitor.models.DailySummary;
+import com.springbatch.monitor.services.DailySummaryService;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+
+/**
+ * 日历热力图面板 - 按作业 × 天显示执行次数、失败次数或总耗时，可按月向前后翻看
+ */
+public class CalendarHeatmapPanel extends JBPanel<CalendarHeatmapPanel> {
+    private static final int VISIBLE_DAYS = 91;
+    private static final int PAGE_DAYS = 30;
+
+    private final DailySummaryService dailySummaryService = DailySummaryService.getInstance();
+    private final CalendarHeatmap heatmap = new CalendarHeatmap();
+    private final JComboBox<DailySummary.Metric> metricComboBox = new JComboBox<>(new DailySummary.Metric[]{
+            DailySummary.Metric.EXECUTIONS, DailySummary.Metric.FAILURES, DailySummary.Metric.DURATION});
+    private final JButton earlierButton = new JButton("◀ 更早");
+    private final JButton laterButton = new JButton("更晚 ▶");
+    private final JBLabel statusLabel = new JBLabel("请选择数据源");
+    private String dataSourceId;
+    private LocalDate lastDay = LocalDate.now();
+    private DailySummary summary;
+
+    public CalendarHeatmapPanel() {
+        super(new BorderLayout());
+
+        JPanel toolbarPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JBLabel("指标:"));
+        metricComboBox.addActionListener(e -> heatmap.setData(summary, getSelectedMetric()));
+        toolbarPanel.add(metricComboBox);
+
+        earlierButton.addActionListener(e -> {
+            lastDay = lastDay.minusDays(PAGE_DAYS);
+            reload();
+        });
+        toolbarPanel.add(earlierButton);
+        laterButton.addActionListener(e -> {
+            LocalDate today = LocalDate.now();
+            lastDay = lastDay.plusDays(PAGE_DAYS).isAfter(today) ? today : lastDay.plusDays(PAGE_DAYS);
+            reload();
+        });
+        toolbarPanel.add(laterButton);
+        JButton todayButton = new JButton("今天");
+        todayButton.addActionListener(e -> {
+            lastDay = LocalDate.now();
+            reload();
+        });
+        toolbarPanel.add(todayButton);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        add(new JBScrollPane(heatmap), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * 切换数据源并重新加载
+     */
+    public void setDataSource(String dataSourceId) {
+        this.dataSourceId = dataSourceId;
+        reload();
+    }
+
+    public void reload() {
+        if (dataSourceId == null) {
+            statusLabel.setText("请选择数据源");
+            return;
+        }
+        String requestedDataSource = dataSourceId;
+        LocalDate firstDay = lastDay.minusDays(VISIBLE_DAYS - 1);
+        statusLabel.setText("正在加载 " + firstDay + " ~ " + lastDay + " ...");
+        setNavigationEnabled(false);
+
+        SwingWorker<DailySummary, Void> worker = new SwingWorker<DailySummary, Void>() {
+            @Override
+            protected DailySummary doInBackground() throws Exception {
+                return dailySummaryService.getSummary(requestedDataSource, firstDay, VISIBLE_DAYS);
+            }
+
+            @Override
+            protected void done() {
+                setNavigationEnabled(true);
+                if (!requestedDataSource.equals(dataSourceId)) {
+                    return;
+                }
+                try {
+                    summary = get();
+                    heatmap.setData(summary, getSelectedMetric());
+                    statusLabel.setText(firstDay + " ~ " + lastDay + "，" + summary.getJobNames().size() + " 个作业");
+                } catch (Exception e) {
+                    statusLabel.setText("加载失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void setNavigationEnabled(boolean enabled) {
+        earlierButton.setEnabled(enabled);
+        laterButton.setEnabled(enabled && lastDay.isBefore(LocalDate.now()));
+    }
+
+    private DailySummary.Metric getSelectedMetric() {
+        return (DailySummary.Metric) metricComboBox.getSelectedItem();
+    }
+}
@@ -0,0 +1,138 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.ChunkAdvice;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.ChunkAdvisorService;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 块大小建议面板 - 展示各步骤的平均块大小、提交间隔、回滚放大成本及调优建议
+ */
+public class ChunkAdvisorPanel extends AbstractAnalysisPanel<List<ChunkAdvice>> {
+
+    private final AdviceTableModel tableModel;
+
+    public ChunkAdvisorPanel() {
+        super(TimeWindow.Preset.LAST_7_DAYS);
+
+        tableModel = new AdviceTableModel();
+        JBTable adviceTable = new JBTable(tableModel);
+        adviceTable.setAutoCreateRowSorter(true);
+        adviceTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        adviceTable.getColumnModel().getColumn(0).setPreferredWidth(200); // 步骤名称
+        adviceTable.getColumnModel().getColumn(5).setCellRenderer(new PercentCellRenderer());
+        adviceTable.getColumnModel().getColumn(6).setCellRenderer(new PercentCellRenderer());
+        adviceTable.getColumnModel().getColumn(7).setCellRenderer(new PercentCellRenderer());
+        adviceTable.getColumnModel().getColumn(9).setCellRenderer(new DiagnosisCellRenderer());
+        adviceTable.getColumnModel().getColumn(9).setPreferredWidth(180);
+        setContent(new JBScrollPane(adviceTable));
+    }
+
+    @Override
+    protected List<ChunkAdvice> analyze(DataSourceConfig config, TimeWindow window) throws Exception {
+        return ChunkAdvisorService.getInstance().getChunkAdvice(config.getId(), window);
+    }
+
+    @Override
+    protected String render(List<ChunkAdvice> result) {
+        tableModel.setAdviceList(result);
+        long flagged = result.stream().filter(advice -> advice.getDiagnosis() != ChunkAdvice.Diagnosis.OK).count();
+        long fitted = result.stream().filter(ChunkAdvice::isCostModelFitted).count();
+        return String.format("共 %d 个块处理步骤，%d 个需要调整；%d 个步骤可拟合提交开销（块大小固定的步骤无法区分提交开销）",
+                result.size(), flagged, fitted);
+    }
+
+    private static double round(double value, int digits) {
+        double scale = Math.pow(10, digits);
+        return Math.round(value * scale) / scale;
+    }
+
+    /**
+     * 诊断结果渲染器 - 需要调整的步骤高亮显示
+     */
+    private static class DiagnosisCellRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Component component = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                component.setForeground(value != ChunkAdvice.Diagnosis.OK ? JBColor.RED : table.getForeground());
+            }
+            return component;
+        }
+    }
+
+    /**
+     * 块大小建议表格模型
+     */
+    private static class AdviceTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "步骤名称", "执行次数", "平均块大小", "提交间隔(ms)", "单条耗时(ms)",
+                "提交开销占比", "回滚率", "回滚耗时占比", "回滚放大", "诊断", "建议块大小"
+        };
+        private final Class<?>[] columnClasses = {
+                String.class, Long.class, Double.class, Double.class, Double.class,
+                Double.class, Double.class, Double.class, Double.class, ChunkAdvice.Diagnosis.class, String.class
+        };
+        private List<ChunkAdvice> adviceList = new ArrayList<>();
+
+        public void setAdviceList(List<ChunkAdvice> adviceList) {
+            this.adviceList = adviceList;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return adviceList.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= adviceList.size()) {
+                return "";
+            }
+
+            ChunkAdvice advice = adviceList.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return advice.getStepName();
+                case 1: return advice.getExecutionCount();
+                case 2: return round(advice.getAverageChunkSize(), 1);
+                case 3: return round(advice.getMillisPerCommit(), 1);
+                case 4: return round(advice.getEffectiveItemMillis(), 3);
+                case 5: return advice.getCommitOverheadShare();
+                case 6: return advice.getRollbackRate();
+                case 7: return advice.getRollbackWasteShare();
+                case 8: return round(advice.getRollbackAmplification(), 2);
+                case 9: return advice.getDiagnosis();
+                case 10: return advice.getSuggestedChunkSize() > 0 ? String.valueOf(advice.getSuggestedChunkSize()) : "";
+                default: return "";
+            }
+        }
+    }
+}
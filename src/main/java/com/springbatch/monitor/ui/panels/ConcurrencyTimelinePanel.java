@@ -0,0 +1,220 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.ConcurrencyTimeline;
+import com.springbatch.monitor.models.ExecutionInterval;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.ConcurrencyTimelineService;
+import com.springbatch.monitor.services.MemoryGovernor;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 并发时间线面板 - 展示各时刻运行中的作业/步骤数，点击图表查看该时刻运行中的执行
+ */
+public class ConcurrencyTimelinePanel extends AbstractAnalysisPanel<ConcurrencyTimelinePanel.TimelineView> {
+    private static final int MAX_RUNNING_ROWS = 500;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String MEMORY_OWNER = "并发时间线索引";
+
+    private final JComboBox<ConcurrencyTimelineService.Subject> subjectComboBox;
+    private final TimeSeriesChart chart;
+    private final JBLabel peakLabel;
+    private final JBLabel runningLabel;
+    private final RunningTableModel runningTableModel;
+    private volatile ConcurrencyTimelineService.Subject selectedSubject = ConcurrencyTimelineService.Subject.JOB;
+    private final String memoryKey = Integer.toHexString(System.identityHashCode(this));
+    private TimelineView view;
+
+    public ConcurrencyTimelinePanel() {
+        super(TimeWindow.Preset.LAST_24_HOURS);
+
+        toolbarPanel.add(new JBLabel("对象:"));
+        subjectComboBox = new JComboBox<>(ConcurrencyTimelineService.Subject.values());
+        subjectComboBox.addActionListener(e ->
+                selectedSubject = (ConcurrencyTimelineService.Subject) subjectComboBox.getSelectedItem());
+        toolbarPanel.add(subjectComboBox);
+
+        chart = new TimeSeriesChart();
+        chart.addTimeClickListener(this::showRunningAt);
+        peakLabel = new JBLabel(" ");
+
+        JPanel chartPanel = new JBPanel<>(new BorderLayout());
+        chartPanel.add(chart, BorderLayout.CENTER);
+        chartPanel.add(peakLabel, BorderLayout.SOUTH);
+
+        runningTableModel = new RunningTableModel();
+        JBTable runningTable = new JBTable(runningTableModel);
+        runningTable.setAutoCreateRowSorter(true);
+        runningTable.getColumnModel().getColumn(1).setPreferredWidth(200);
+        runningLabel = new JBLabel("点击图表查看该时刻运行中的执行");
+
+        JPanel runningPanel = new JBPanel<>(new BorderLayout());
+        runningPanel.add(runningLabel, BorderLayout.NORTH);
+        runningPanel.add(new JBScrollPane(runningTable), BorderLayout.CENTER);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, chartPanel, runningPanel);
+        splitPane.setResizeWeight(0.6);
+        setContent(splitPane);
+    }
+
+    @Override
+    protected TimelineView analyze(DataSourceConfig config, TimeWindow window) throws Exception {
+        // 只读取一次统计对象，加载期间切换下拉框不影响本次结果的展示
+        ConcurrencyTimelineService.Subject subject = selectedSubject;
+        return new TimelineView(ConcurrencyTimelineService.getInstance().buildTimeline(config.getId(), subject, window),
+                subject, config.getId());
+    }
+
+    @Override
+    protected String render(TimelineView loaded) {
+        view = loaded;
+        ConcurrencyTimeline result = loaded.timeline;
+        // 淘汰时只释放区间索引，图表保留，点击查询改为回查数据库
+        MemoryGovernor.getInstance().track(MEMORY_OWNER, memoryKey, result, result.estimateBytes(),
+                (key, value) -> ((ConcurrencyTimeline) value).releaseIndex());
+
+        int[] maxConcurrency = result.getMaxConcurrency();
+        double[] peaks = new double[maxConcurrency.length];
+        for (int i = 0; i < maxConcurrency.length; i++) {
+            peaks[i] = maxConcurrency[i];
+        }
+        chart.setSeries(result.getStartTime(), result.getBucketMillis(), peaks, "最大并发",
+                result.getAverageConcurrency(), "平均并发");
+
+        List<long[]> markers = new ArrayList<>();
+        StringBuilder peakText = new StringBuilder("峰值并发 " + result.getPeakConcurrency());
+        for (ConcurrencyTimeline.PeakWindow peakWindow : result.getPeakWindows()) {
+            markers.add(new long[]{peakWindow.getStart(), peakWindow.getEnd()});
+            if (markers.size() <= 3) {
+                peakText.append(markers.size() == 1 ? "，出现于 " : "、")
+                        .append(format(new Timestamp(peakWindow.getStart())))
+                        .append(" ~ ")
+                        .append(format(new Timestamp(peakWindow.getEnd())));
+            }
+        }
+        if (markers.size() > 3) {
+            peakText.append(" 等 ").append(markers.size()).append(" 个时段");
+        }
+        chart.setMarkers(markers);
+        peakLabel.setText(peakText.toString());
+        runningTableModel.setIntervals(new ArrayList<>());
+        runningLabel.setText("点击图表查看该时刻运行中的执行");
+
+        return String.format("共扫描 %,d 个%s区间，时间桶宽度 %d 秒", result.getIntervalCount(),
+                loaded.subject, result.getBucketMillis() / 1000);
+    }
+
+    private void showRunningAt(long time) {
+        TimelineView currentView = view;
+        if (currentView == null) {
+            return;
+        }
+        ConcurrencyTimeline currentTimeline = currentView.timeline;
+        String dataSourceId = currentView.dataSourceId;
+        ConcurrencyTimelineService.Subject subject = currentView.subject;
+        String instant = format(new Timestamp(time));
+        runningLabel.setText("正在查询 " + instant + " 运行中的" + subject + "...");
+
+        SwingWorker<List<ExecutionInterval>, Void> worker = new SwingWorker<List<ExecutionInterval>, Void>() {
+            @Override
+            protected List<ExecutionInterval> doInBackground() throws Exception {
+                return ConcurrencyTimelineService.getInstance()
+                        .getRunningAt(dataSourceId, subject, currentTimeline, time, MAX_RUNNING_ROWS);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<ExecutionInterval> intervals = get();
+                    runningTableModel.setIntervals(intervals);
+                    runningLabel.setText(String.format("%s 运行中的%s: %d%s", instant, subject, intervals.size(),
+                            intervals.size() >= MAX_RUNNING_ROWS ? "（仅显示前 " + MAX_RUNNING_ROWS + " 条）" : ""));
+                } catch (Exception e) {
+                    runningLabel.setText("查询失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private static String format(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().format(FORMATTER);
+    }
+
+    /**
+     * 时间线及其统计对象和数据源
+     */
+    static class TimelineView {
+        final ConcurrencyTimeline timeline;
+        final ConcurrencyTimelineService.Subject subject;
+        final String dataSourceId;
+
+        TimelineView(ConcurrencyTimeline timeline, ConcurrencyTimelineService.Subject subject, String dataSourceId) {
+            this.timeline = timeline;
+            this.subject = subject;
+            this.dataSourceId = dataSourceId;
+        }
+    }
+
+    /**
+     * 运行中执行表格模型
+     */
+    private static class RunningTableModel extends AbstractTableModel {
+        private final String[] columnNames = {"执行ID", "名称", "开始时间", "结束时间"};
+        private final Class<?>[] columnClasses = {Long.class, String.class, String.class, String.class};
+        private List<ExecutionInterval> intervals = new ArrayList<>();
+
+        public void setIntervals(List<ExecutionInterval> intervals) {
+            this.intervals = intervals;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return intervals.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= intervals.size()) {
+                return "";
+            }
+
+            ExecutionInterval interval = intervals.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return interval.getExecutionId();
+                case 1: return interval.getName();
+                case 2: return interval.getStartTime() != null ? format(interval.getStartTime()) : "";
+                case 3: return interval.getEndTime() != null ? format(interval.getEndTime()) : "运行中";
+                default: return "";
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class DataSourceConfigDialog extends JDialog {
     private JBTextField usernameField;
     private JPasswordField passwordField;
     private JBTextField driverField;
+    private JCheckBox summaryTableCheckBox;
     
     private JButton okButton;
     private JButton cancelButton;
@@ -101,6 +102,13 @@ public class DataSourceConfigDialog extends JDialog {
         gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
         driverField = new JBTextField(30);
         mainPanel.add(driverField, gbc);
+
+        // 汇总表
+        row++;
+        gbc.gridx = 1; gbc.gridy = row; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        summaryTableCheckBox = new JCheckBox("维护按天汇总表 (BATCH_MONITOR_DAILY_SUMMARY)");
+        summaryTableCheckBox.setToolTipText("在该数据库中创建并增量维护汇总表，统计和趋势视图读取汇总表而不扫描执行表；需要建表权限");
+        mainPanel.add(summaryTableCheckBox, gbc);
         
         add(mainPanel, BorderLayout.CENTER);
         
@@ -153,6 +161,8 @@ public class DataSourceConfigDialog extends JDialog {
         usernameField.setText(config.getUsername());
         passwordField.setText(config.getPassword());
         driverField.setText(config.getDriverClassName());
+        summaryTableCheckBox.setSelected(config.isSummaryTableEnabled());
+        summaryTableCheckBox.setEnabled(!config.isReadOnly());
     }
 
     private boolean validateFields() {
@@ -253,7 +263,7 @@ public class DataSourceConfigDialog extends JDialog {
         String id = originalConfig != null ? originalConfig.getId() : UUID.randomUUID().toString();
         DataSourceConfig.DatabaseType dbType = (DataSourceConfig.DatabaseType) databaseTypeComboBox.getSelectedItem();
 
-        return new DataSourceConfig(
+        DataSourceConfig config = new DataSourceConfig(
             id,
             nameField.getText().trim(),
             dbType,
@@ -261,5 +271,11 @@ public class DataSourceConfigDialog extends JDialog {
             usernameField.getText().trim(),
             new String(passwordField.getPassword())
         );
+        if (originalConfig != null) {
+            config.setDescription(originalConfig.getDescription());
+            config.setReadOnly(originalConfig.isReadOnly());
+        }
+        config.setSummaryTableEnabled(summaryTableCheckBox.isSelected() && !config.isReadOnly());
+        return config;
     }
 }
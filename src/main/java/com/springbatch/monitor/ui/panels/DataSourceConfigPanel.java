@@ -1,17 +1,24 @@
 package com.springbatch.monitor.ui.panels;
 
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.table.JBTable;
 import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.TimeWindow;
 import com.springbatch.monitor.services.DataSourceConfigService;
+import com.springbatch.monitor.services.SnapshotService;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -26,6 +33,8 @@ public class DataSourceConfigPanel extends JBPanel<DataSourceConfigPanel> implem
     private JButton editButton;
     private JButton deleteButton;
     private JButton testButton;
+    private JButton exportSnapshotButton;
+    private JButton purgeButton;
 
     public DataSourceConfigPanel() {
         super(new BorderLayout());
@@ -60,6 +69,22 @@ public class DataSourceConfigPanel extends JBPanel<DataSourceConfigPanel> implem
         testButton.addActionListener(e -> testSelectedConnection());
         testButton.setEnabled(false);
         toolbarPanel.add(testButton);
+
+        exportSnapshotButton = new JButton("导出快照");
+        exportSnapshotButton.setToolTipText("把所选数据源的执行记录导出为可离线分析的压缩快照文件");
+        exportSnapshotButton.addActionListener(e -> exportSnapshot());
+        exportSnapshotButton.setEnabled(false);
+        toolbarPanel.add(exportSnapshotButton);
+
+        purgeButton = new JButton("清理历史");
+        purgeButton.setToolTipText("分批删除早于保留期限的作业执行元数据，可先预估和归档");
+        purgeButton.addActionListener(e -> showPurgeDialog());
+        purgeButton.setEnabled(false);
+        toolbarPanel.add(purgeButton);
+
+        JButton openSnapshotButton = new JButton("打开快照");
+        openSnapshotButton.addActionListener(e -> openSnapshot());
+        toolbarPanel.add(openSnapshotButton);
         
         add(toolbarPanel, BorderLayout.NORTH);
         
@@ -97,6 +122,9 @@ public class DataSourceConfigPanel extends JBPanel<DataSourceConfigPanel> implem
         editButton.setEnabled(hasSelection);
         deleteButton.setEnabled(hasSelection);
         testButton.setEnabled(hasSelection);
+        exportSnapshotButton.setEnabled(hasSelection);
+        purgeButton.setEnabled(hasSelection
+                && !configService.getAllConfigurations().get(selectedRow).isReadOnly());
     }
 
     private void showAddDialog() {
@@ -197,6 +225,90 @@ public class DataSourceConfigPanel extends JBPanel<DataSourceConfigPanel> implem
         }
     }
 
+    private void exportSnapshot() {
+        int selectedRow = configTable.getSelectedRow();
+        if (selectedRow < 0) {
+            return;
+        }
+        DataSourceConfig config = configService.getAllConfigurations().get(selectedRow);
+
+        JComboBox<TimeWindow.Preset> windowComboBox = new JComboBox<>(TimeWindow.Preset.values());
+        windowComboBox.setSelectedItem(TimeWindow.Preset.LAST_30_DAYS);
+        JCheckBox contextCheckBox = new JCheckBox("包含执行上下文（体积较大）");
+        JPanel optionsPanel = new JBPanel<>(new GridLayout(0, 1, 0, 4));
+        optionsPanel.add(new JBLabel("时间窗口:"));
+        optionsPanel.add(windowComboBox);
+        optionsPanel.add(contextCheckBox);
+        int option = JOptionPane.showConfirmDialog(this, optionsPanel, "导出快照 - " + config.getName(),
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (option != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("快照文件 (*" + SnapshotService.FILE_SUFFIX + ")", "db"));
+        chooser.setSelectedFile(new File(config.getName().replaceAll("[^\\w.-]", "_") + SnapshotService.FILE_SUFFIX));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String fileName = chooser.getSelectedFile().getAbsolutePath();
+        Path target = Path.of(fileName.endsWith(SnapshotService.FILE_SUFFIX)
+                ? fileName : fileName + SnapshotService.FILE_SUFFIX);
+        TimeWindow window = TimeWindow.of((TimeWindow.Preset) windowComboBox.getSelectedItem());
+        boolean includeContexts = contextCheckBox.isSelected();
+
+        new Task.Backgroundable(null, "导出快照: " + config.getName(), true) {
+            private long rows;
+
+            @Override
+            public void run(ProgressIndicator indicator) {
+                try {
+                    rows = SnapshotService.getInstance().export(config.getId(), window, includeContexts, target, indicator);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                JOptionPane.showMessageDialog(DataSourceConfigPanel.this,
+                        String.format("已导出 %,d 行到 %s", rows, target), "导出快照",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+
+            @Override
+            public void onThrowable(Throwable error) {
+                JOptionPane.showMessageDialog(DataSourceConfigPanel.this,
+                        "导出快照失败：" + error.getMessage(), "导出快照", JOptionPane.ERROR_MESSAGE);
+            }
+        }.queue();
+    }
+
+    private void showPurgeDialog() {
+        int selectedRow = configTable.getSelectedRow();
+        if (selectedRow >= 0) {
+            DataSourceConfig config = configService.getAllConfigurations().get(selectedRow);
+            new PurgeDialog(SwingUtilities.getWindowAncestor(this), config).setVisible(true);
+        }
+    }
+
+    private void openSnapshot() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("快照文件 (*" + SnapshotService.FILE_SUFFIX + ")", "db"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        if (!file.getFileName().toString().endsWith(SnapshotService.FILE_SUFFIX)) {
+            JOptionPane.showMessageDialog(this, "请选择 " + SnapshotService.FILE_SUFFIX + " 快照文件",
+                    "打开快照", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        configService.addConfiguration(SnapshotService.getInstance().open(file));
+    }
+
     private void loadConfigurations() {
         SwingUtilities.invokeLater(() -> {
             tableModel.fireTableDataChanged();
@@ -0,0 +1,346 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.EnvironmentComparison;
+import com.springbatch.monitor.models.PerformanceSummary;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.DataSourceConfigService;
+import com.springbatch.monitor.services.EnvironmentComparisonService;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 环境对比面板 - 选择多个数据源，按作业/步骤名称并排比较耗时分位数、吞吐量和失败率
+ */
+public class EnvironmentComparisonPanel extends JBPanel<EnvironmentComparisonPanel>
+        implements DataSourceConfigService.DataSourceConfigListener {
+
+    // 相对基准差异达到该倍数时高亮
+    private static final double HIGHLIGHT_RATIO = 2.0;
+
+    private final DataSourceConfigService configService;
+    private final JPanel dataSourcePanel;
+    private final List<JCheckBox> dataSourceCheckBoxes = new ArrayList<>();
+    private final JComboBox<TimeWindow.Preset> windowComboBox;
+    private final JComboBox<Metric> metricComboBox;
+    private final JComboBox<String> baselineComboBox;
+    private final JButton compareButton;
+    private final JBLabel statusLabel;
+    private final ComparisonTableModel tableModel = new ComparisonTableModel();
+    private final JBTable comparisonTable;
+
+    public EnvironmentComparisonPanel() {
+        super(new BorderLayout());
+        this.configService = DataSourceConfigService.getInstance();
+        configService.addListener(this);
+
+        JPanel toolbarPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JBLabel("数据源:"));
+        dataSourcePanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        toolbarPanel.add(dataSourcePanel);
+
+        toolbarPanel.add(new JBLabel("时间窗口:"));
+        windowComboBox = new JComboBox<>(TimeWindow.Preset.values());
+        windowComboBox.setSelectedItem(TimeWindow.Preset.LAST_7_DAYS);
+        toolbarPanel.add(windowComboBox);
+
+        compareButton = new JButton("对比");
+        compareButton.addActionListener(e -> refreshComparison());
+        toolbarPanel.add(compareButton);
+
+        toolbarPanel.add(new JBLabel("指标:"));
+        metricComboBox = new JComboBox<>(Metric.values());
+        metricComboBox.setSelectedItem(Metric.P90);
+        metricComboBox.addActionListener(e -> tableModel.fireTableDataChanged());
+        toolbarPanel.add(metricComboBox);
+
+        toolbarPanel.add(new JBLabel("基准:"));
+        baselineComboBox = new JComboBox<>();
+        baselineComboBox.addActionListener(e -> tableModel.fireTableDataChanged());
+        toolbarPanel.add(baselineComboBox);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        comparisonTable = new JBTable(tableModel);
+        comparisonTable.setAutoCreateRowSorter(true);
+        comparisonTable.setDefaultRenderer(Double.class, new MetricCellRenderer());
+        add(new JBScrollPane(comparisonTable), BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JBPanel<>(new BorderLayout());
+        statusLabel = new JBLabel("勾选两个或以上数据源后点击对比");
+        bottomPanel.add(statusLabel, BorderLayout.WEST);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        loadDataSources();
+    }
+
+    private void refreshComparison() {
+        List<DataSourceConfig> selected = new ArrayList<>();
+        for (JCheckBox checkBox : dataSourceCheckBoxes) {
+            if (checkBox.isSelected()) {
+                selected.add((DataSourceConfig) checkBox.getClientProperty(DataSourceConfig.class));
+            }
+        }
+        if (selected.size() < 2) {
+            statusLabel.setText("请至少勾选两个数据源");
+            return;
+        }
+
+        TimeWindow window = TimeWindow.of((TimeWindow.Preset) windowComboBox.getSelectedItem());
+        statusLabel.setText("正在并行查询 " + selected.size() + " 个数据源...");
+        compareButton.setEnabled(false);
+
+        SwingWorker<EnvironmentComparison, Void> worker = new SwingWorker<EnvironmentComparison, Void>() {
+            @Override
+            protected EnvironmentComparison doInBackground() throws Exception {
+                return EnvironmentComparisonService.getInstance().compare(selected, window);
+            }
+
+            @Override
+            protected void done() {
+                compareButton.setEnabled(true);
+                try {
+                    showComparison(get());
+                } catch (Exception e) {
+                    statusLabel.setText("对比失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showComparison(EnvironmentComparison comparison) {
+        String baseline = (String) baselineComboBox.getSelectedItem();
+        baselineComboBox.removeAllItems();
+        for (String name : comparison.getDataSourceNames()) {
+            baselineComboBox.addItem(name);
+        }
+        if (baseline != null && comparison.getDataSourceNames().contains(baseline)) {
+            baselineComboBox.setSelectedItem(baseline);
+        }
+        tableModel.setComparison(comparison);
+        comparisonTable.getColumnModel().getColumn(0).setPreferredWidth(180);
+        comparisonTable.getColumnModel().getColumn(1).setPreferredWidth(150);
+
+        StringBuilder status = new StringBuilder(String.format("共 %d 个作业/步骤", comparison.getRows().size()));
+        for (Map.Entry<String, String> error : comparison.getErrors().entrySet()) {
+            status.append("；").append(error.getKey()).append(" 查询失败: ").append(error.getValue());
+        }
+        statusLabel.setText(status.toString());
+    }
+
+    private void loadDataSources() {
+        SwingUtilities.invokeLater(() -> {
+            List<String> checkedIds = new ArrayList<>();
+            for (JCheckBox checkBox : dataSourceCheckBoxes) {
+                if (checkBox.isSelected()) {
+                    checkedIds.add(((DataSourceConfig) checkBox.getClientProperty(DataSourceConfig.class)).getId());
+                }
+            }
+            dataSourcePanel.removeAll();
+            dataSourceCheckBoxes.clear();
+            for (DataSourceConfig config : configService.getActiveConfigurations()) {
+                JCheckBox checkBox = new JCheckBox(config.getName(), checkedIds.contains(config.getId()));
+                checkBox.putClientProperty(DataSourceConfig.class, config);
+                dataSourceCheckBoxes.add(checkBox);
+                dataSourcePanel.add(checkBox);
+            }
+            dataSourcePanel.revalidate();
+            dataSourcePanel.repaint();
+        });
+    }
+
+    // 数据源配置监听器实现
+    @Override
+    public void onConfigChanged(List<DataSourceConfig> configurations) {
+        loadDataSources();
+    }
+
+    private Metric getSelectedMetric() {
+        return (Metric) metricComboBox.getSelectedItem();
+    }
+
+    /**
+     * 对比指标
+     */
+    private enum Metric {
+        P50("P50耗时", PerformanceSummary::getP50, true),
+        P90("P90耗时", PerformanceSummary::getP90, true),
+        P99("P99耗时", PerformanceSummary::getP99, true),
+        THROUGHPUT("吞吐量", PerformanceSummary::getThroughput, false),
+        FAILURE_RATE("失败率", PerformanceSummary::getFailureRate, true),
+        EXECUTIONS("执行次数", summary -> summary.getFinishedCount(), false);
+
+        private final String displayName;
+        private final ToDoubleFunction<PerformanceSummary> extractor;
+        private final boolean higherIsWorse;
+
+        Metric(String displayName, ToDoubleFunction<PerformanceSummary> extractor, boolean higherIsWorse) {
+            this.displayName = displayName;
+            this.extractor = extractor;
+            this.higherIsWorse = higherIsWorse;
+        }
+
+        double valueOf(PerformanceSummary summary) {
+            if (summary == null) {
+                return Double.NaN;
+            }
+            // 没有成功执行时耗时分位数没有意义
+            if (higherIsWorse && this != FAILURE_RATE && summary.getHistogram().getCount() == 0) {
+                return Double.NaN;
+            }
+            return extractor.applyAsDouble(summary);
+        }
+
+        String format(double value) {
+            switch (this) {
+                case THROUGHPUT: return String.format("%.1f 条/秒", value);
+                case FAILURE_RATE: return String.format("%.2f%%", value * 100);
+                case EXECUTIONS: return String.format("%.0f", value);
+                default: return DateTimeUtils.formatMillis(value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 对比表格模型 - 每个数据源一列指标值，最后一列为相对基准最差的倍数
+     */
+    private class ComparisonTableModel extends AbstractTableModel {
+        private List<String> dataSourceNames = Collections.emptyList();
+        private List<EnvironmentComparison.Row> rows = Collections.emptyList();
+
+        public void setComparison(EnvironmentComparison comparison) {
+            this.dataSourceNames = comparison.getDataSourceNames();
+            this.rows = comparison.getRows();
+            fireTableStructureChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return dataSourceNames.size() + 3;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            if (column == 0) {
+                return "作业名称";
+            }
+            if (column == 1) {
+                return "步骤名称";
+            }
+            if (column == getColumnCount() - 1) {
+                return "相对基准";
+            }
+            return dataSourceNames.get(column - 2);
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex < 2 ? String.class : Double.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= rows.size()) {
+                return "";
+            }
+
+            EnvironmentComparison.Row row = rows.get(rowIndex);
+            Metric metric = getSelectedMetric();
+
+            if (columnIndex == 0) {
+                return row.getJobName();
+            }
+            if (columnIndex == 1) {
+                return row.getStepName() != null ? row.getStepName() : "(作业)";
+            }
+            if (columnIndex == getColumnCount() - 1) {
+                return worstRatio(row, metric);
+            }
+            return metric.valueOf(row.getSummary(columnIndex - 2));
+        }
+
+        /**
+         * 各数据源相对基准变差的最大倍数，指标越大越差时为 值/基准，否则为 基准/值
+         */
+        private double worstRatio(EnvironmentComparison.Row row, Metric metric) {
+            int baselineIndex = dataSourceNames.indexOf((String) baselineComboBox.getSelectedItem());
+            if (baselineIndex < 0) {
+                return Double.NaN;
+            }
+            double baseline = metric.valueOf(row.getSummary(baselineIndex));
+            double worst = Double.NaN;
+            for (int i = 0; i < dataSourceNames.size(); i++) {
+                double value = metric.valueOf(row.getSummary(i));
+                if (i == baselineIndex || Double.isNaN(value) || Double.isNaN(baseline)) {
+                    continue;
+                }
+                double ratio = metric.higherIsWorse ? value / baseline : baseline / value;
+                if (!Double.isNaN(ratio) && (Double.isNaN(worst) || ratio > worst)) {
+                    worst = ratio;
+                }
+            }
+            return worst;
+        }
+    }
+
+    /**
+     * 指标单元格渲染器 - 按当前指标格式化，倍数列超过阈值时高亮
+     */
+    private class MetricCellRenderer extends DefaultTableCellRenderer {
+        private boolean ratioColumn;
+        private boolean highlighted;
+
+        MetricCellRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            ratioColumn = table.convertColumnIndexToModel(column) == tableModel.getColumnCount() - 1;
+            highlighted = ratioColumn && value instanceof Double && (Double) value >= HIGHLIGHT_RATIO;
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                c.setForeground(highlighted ? JBColor.RED : table.getForeground());
+            }
+            return c;
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            if (!(value instanceof Double) || ((Double) value).isNaN()) {
+                setText("-");
+            } else if (((Double) value).isInfinite()) {
+                setText("∞");
+            } else if (ratioColumn) {
+                setText(String.format("%.2fx", (Double) value));
+            } else {
+                setText(getSelectedMetric().format((Double) value));
+            }
+        }
+    }
+}
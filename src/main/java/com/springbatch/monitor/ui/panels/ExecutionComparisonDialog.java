@@ -0,0 +1,173 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.models.ExecutionComparison;
+import com.springbatch.monitor.models.JobExecution;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * 执行对比对话框 - 多个作业执行按步骤名称对齐并排显示，并给出相对基准执行的变化
+ */
+public class ExecutionComparisonDialog extends JDialog {
+
+    // 相对基准变差超过该比例时标红，变好超过该比例时标绿
+    private static final double HIGHLIGHT_DELTA = 0.2;
+
+    private final ExecutionComparison comparison;
+    private final ComparisonTableModel tableModel = new ComparisonTableModel();
+    private final JComboBox<ExecutionComparison.Metric> metricComboBox =
+            new JComboBox<>(ExecutionComparison.Metric.values());
+    private final JComboBox<String> baselineComboBox = new JComboBox<>();
+
+    public ExecutionComparisonDialog(Window parent, ExecutionComparison comparison) {
+        super(parent, "执行对比", ModalityType.MODELESS);
+        this.comparison = comparison;
+
+        initializeUI();
+
+        setSize(900, 480);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout());
+
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JBLabel("指标:"));
+        metricComboBox.addActionListener(e -> tableModel.fireTableDataChanged());
+        toolbarPanel.add(metricComboBox);
+
+        toolbarPanel.add(new JBLabel("基准:"));
+        for (int column = 0; column < comparison.getExecutions().size(); column++) {
+            baselineComboBox.addItem(columnTitle(column));
+        }
+        baselineComboBox.addActionListener(e -> tableModel.fireTableDataChanged());
+        toolbarPanel.add(baselineComboBox);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        JBTable table = new JBTable(tableModel);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        table.getColumnModel().getColumn(0).setPreferredWidth(200);
+        for (int column = 1; column < tableModel.getColumnCount(); column++) {
+            table.getColumnModel().getColumn(column).setPreferredWidth(180);
+        }
+        table.setDefaultRenderer(Double.class, new DeltaCellRenderer());
+        add(new JBScrollPane(table), BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton closeButton = new JButton("关闭");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private String columnTitle(int column) {
+        JobExecution execution = comparison.getExecutions().get(column);
+        return "#" + execution.getId() + " " + execution.getStatus();
+    }
+
+    private ExecutionComparison.Metric selectedMetric() {
+        return (ExecutionComparison.Metric) metricComboBox.getSelectedItem();
+    }
+
+    private static String format(ExecutionComparison.Metric metric, double value) {
+        switch (metric) {
+            case DURATION: return DateTimeUtils.formatMillis(value);
+            case THROUGHPUT: return String.format("%.1f/秒", value);
+            default: return String.format("%,.0f", value);
+        }
+    }
+
+    /**
+     * 对比表格模型，单元格值为指标原值，差值在渲染时按当前基准列读取
+     */
+    private class ComparisonTableModel extends AbstractTableModel {
+
+        @Override
+        public int getRowCount() {
+            return comparison.getRowNames().size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return comparison.getExecutions().size() + 1;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return column == 0 ? "步骤" : columnTitle(column - 1);
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex == 0 ? String.class : Double.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (columnIndex == 0) {
+                return comparison.getRowNames().get(rowIndex);
+            }
+            return comparison.getValue(selectedMetric(), rowIndex, columnIndex - 1);
+        }
+    }
+
+    /**
+     * 指标渲染器 - 显示原值及相对基准的变化百分比，变差标红、变好标绿
+     */
+    private class DeltaCellRenderer extends DefaultTableCellRenderer {
+        private double delta = Double.NaN;
+
+        DeltaCellRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            int modelRow = table.convertRowIndexToModel(row);
+            int execution = table.convertColumnIndexToModel(column) - 1;
+            int baseline = baselineComboBox.getSelectedIndex();
+            ExecutionComparison.Metric metric = selectedMetric();
+            delta = execution == baseline ? Double.NaN
+                    : comparison.getRelativeDelta(metric, modelRow, execution, baseline);
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+
+            String status = comparison.getStatus(modelRow, execution);
+            setToolTipText(status != null ? "状态: " + status : "该执行没有此步骤或尚未结束");
+            if (!isSelected) {
+                double worse = metric.isHigherWorse() ? delta : -delta;
+                if (worse >= HIGHLIGHT_DELTA) {
+                    c.setForeground(JBColor.RED);
+                } else if (worse <= -HIGHLIGHT_DELTA) {
+                    c.setForeground(new JBColor(new Color(0, 128, 0), new Color(98, 181, 67)));
+                } else {
+                    c.setForeground(table.getForeground());
+                }
+            }
+            return c;
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            if (!(value instanceof Double) || ((Double) value).isNaN()) {
+                setText("-");
+                return;
+            }
+            String text = format(selectedMetric(), (Double) value);
+            if (!Double.isNaN(delta)) {
+                text += String.format(" (%+.1f%%)", delta * 100);
+            }
+            setText(text);
+        }
+    }
+}
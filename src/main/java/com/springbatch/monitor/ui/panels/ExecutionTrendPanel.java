@@ -0,0 +1,238 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.springbatch.monitor.models.ExecutionSeries;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.ExecutionTrendService;
+import com.springbatch.monitor.services.MemoryGovernor;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 执行趋势面板 - 选择作业后绘制每次执行的耗时或吞吐量随时间的变化
+ */
+public class ExecutionTrendPanel extends JBPanel<ExecutionTrendPanel> {
+    private static final String METRIC_DURATION = "耗时";
+    private static final String METRIC_THROUGHPUT = "吞吐量";
+    private static final String MEMORY_OWNER = "趋势图序列";
+
+    private final ExecutionTrendService trendService = ExecutionTrendService.getInstance();
+    private final TrendChart chart = new TrendChart();
+    private final JComboBox<String> jobComboBox = new JComboBox<>();
+    private final JComboBox<TimeWindow.Preset> windowComboBox = new JComboBox<>(TimeWindow.Preset.values());
+    private final JComboBox<String> metricComboBox = new JComboBox<>(new String[]{METRIC_DURATION, METRIC_THROUGHPUT});
+    private final JComboBox<TrendChart.Sampling> samplingComboBox = new JComboBox<>(TrendChart.Sampling.values());
+    private final JButton loadButton = new JButton("加载");
+    private final JBLabel statusLabel = new JBLabel("请选择数据源");
+    private final String memoryKey = Integer.toHexString(System.identityHashCode(this));
+    private String dataSourceId;
+    private ExecutionSeries series;
+    // 内存不足时序列换出到的本地文件，重新显示时载入
+    private Path spillFile;
+    private String seriesStatus;
+
+    public ExecutionTrendPanel() {
+        super(new BorderLayout());
+
+        JPanel toolbarPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JBLabel("作业:"));
+        toolbarPanel.add(jobComboBox);
+        toolbarPanel.add(new JBLabel("时间窗口:"));
+        windowComboBox.setSelectedItem(TimeWindow.Preset.LAST_30_DAYS);
+        toolbarPanel.add(windowComboBox);
+        loadButton.addActionListener(e -> loadSeries());
+        toolbarPanel.add(loadButton);
+        toolbarPanel.add(new JBLabel("指标:"));
+        metricComboBox.addActionListener(e -> updateValues());
+        toolbarPanel.add(metricComboBox);
+        toolbarPanel.add(new JBLabel("降采样:"));
+        samplingComboBox.setToolTipText("LTTB 保留折线形状；最小/最大值保留每个像素列内的极值");
+        samplingComboBox.addActionListener(e -> chart.setSampling((TrendChart.Sampling) samplingComboBox.getSelectedItem()));
+        toolbarPanel.add(samplingComboBox);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        add(chart, BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) {
+                restoreSeries();
+            }
+        });
+    }
+
+    /**
+     * 切换数据源并加载作业列表
+     */
+    public void setDataSource(String dataSourceId) {
+        this.dataSourceId = dataSourceId;
+        String requestedDataSource = dataSourceId;
+        SwingWorker<List<String>, Void> worker = new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() throws Exception {
+                return trendService.getJobNames(requestedDataSource);
+            }
+
+            @Override
+            protected void done() {
+                if (!requestedDataSource.equals(ExecutionTrendPanel.this.dataSourceId)) {
+                    return;
+                }
+                try {
+                    jobComboBox.removeAllItems();
+                    for (String jobName : get()) {
+                        jobComboBox.addItem(jobName);
+                    }
+                    statusLabel.setText("选择作业后点击加载");
+                } catch (Exception e) {
+                    statusLabel.setText("加载作业列表失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void loadSeries() {
+        String jobName = (String) jobComboBox.getSelectedItem();
+        if (dataSourceId == null || jobName == null) {
+            statusLabel.setText("请选择数据源和作业");
+            return;
+        }
+        String requestedDataSource = dataSourceId;
+        TimeWindow window = TimeWindow.of((TimeWindow.Preset) windowComboBox.getSelectedItem());
+        statusLabel.setText("正在加载 " + jobName + " 的执行记录...");
+        loadButton.setEnabled(false);
+
+        SwingWorker<ExecutionSeries, Void> worker = new SwingWorker<ExecutionSeries, Void>() {
+            @Override
+            protected ExecutionSeries doInBackground() throws Exception {
+                return trendService.getSeries(requestedDataSource, jobName, window);
+            }
+
+            @Override
+            protected void done() {
+                loadButton.setEnabled(true);
+                if (!requestedDataSource.equals(dataSourceId)) {
+                    return;
+                }
+                try {
+                    ExecutionSeries loaded = get();
+                    discardSpillFile();
+                    showSeries(loaded, String.format("%s: %s 内 %,d 次已结束的执行", jobName, window.getLabel(),
+                            loaded.size()));
+                } catch (Exception e) {
+                    statusLabel.setText("加载失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showSeries(ExecutionSeries loaded, String status) {
+        series = loaded;
+        seriesStatus = status;
+        chart.setSeries(series);
+        updateValues();
+        statusLabel.setText(status);
+        MemoryGovernor.getInstance().track(MEMORY_OWNER, memoryKey, loaded, loaded.estimateBytes(),
+                (key, value) -> spillSeries((ExecutionSeries) value));
+    }
+
+    /**
+     * 在后台线程把序列写入本地文件，再回到界面线程释放内存中的数组
+     */
+    private void spillSeries(ExecutionSeries evicted) {
+        Path file;
+        try {
+            file = MemoryGovernor.createSpillFile("trend-");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                evicted.write(out);
+            }
+        } catch (IOException e) {
+            // 换出失败时直接丢弃，需要重新加载
+            e.printStackTrace();
+            file = null;
+        }
+        Path spilled = file;
+        SwingUtilities.invokeLater(() -> {
+            if (series != evicted) {
+                deleteQuietly(spilled);
+                return;
+            }
+            series = null;
+            spillFile = spilled;
+            chart.setSeries(null);
+            chart.setValues(new double[0], "", null);
+            statusLabel.setText(spilled != null ? "序列已换出到本地文件以释放内存，切换回本页或指标时重新载入"
+                    : "序列已因内存不足释放，请重新加载");
+        });
+    }
+
+    private void restoreSeries() {
+        if (series != null || spillFile == null) {
+            return;
+        }
+        Path file = spillFile;
+        spillFile = null;
+        String status = seriesStatus;
+        SwingWorker<ExecutionSeries, Void> worker = new SwingWorker<ExecutionSeries, Void>() {
+            @Override
+            protected ExecutionSeries doInBackground() throws Exception {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    return ExecutionSeries.read(in);
+                } finally {
+                    deleteQuietly(file);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (series != null || spillFile != null) {
+                    return;
+                }
+                try {
+                    showSeries(get(), status);
+                } catch (Exception e) {
+                    statusLabel.setText("载入换出的序列失败，请重新加载: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void discardSpillFile() {
+        deleteQuietly(spillFile);
+        spillFile = null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void updateValues() {
+        if (series == null) {
+            restoreSeries();
+            return;
+        }
+        if (METRIC_THROUGHPUT.equals(metricComboBox.getSelectedItem())) {
+            chart.setValues(series.getThroughputs(), "吞吐量(条/秒)", value -> String.format("%.1f", value));
+        } else {
+            chart.setValues(series.getDurations(), "耗时", DateTimeUtils::formatMillis);
+        }
+    }
+}
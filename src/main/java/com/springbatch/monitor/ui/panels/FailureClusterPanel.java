@@ -0,0 +1,214 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.FailureCluster;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.FailureClusterService;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 失败聚类面板 - 按规范化堆栈签名分组展示失败，选中聚类后查看签名和样例消息
+ */
+public class FailureClusterPanel extends AbstractAnalysisPanel<FailureClusterPanel.ClusterView> {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ClusterTableModel tableModel;
+    private final JBTable clusterTable;
+    private final JTextArea detailArea;
+
+    public FailureClusterPanel() {
+        super(TimeWindow.Preset.LAST_7_DAYS);
+
+        JButton rebuildButton = new JButton("重建聚类");
+        rebuildButton.addActionListener(e -> {
+            DataSourceConfig config = getSelectedDataSource();
+            if (config != null) {
+                FailureClusterService.getInstance().invalidate(config.getId());
+                refreshAnalysis();
+            }
+        });
+        toolbarPanel.add(rebuildButton);
+
+        tableModel = new ClusterTableModel();
+        clusterTable = new JBTable(tableModel);
+        clusterTable.setAutoCreateRowSorter(true);
+        clusterTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        clusterTable.getColumnModel().getColumn(0).setPreferredWidth(40);
+        clusterTable.getColumnModel().getColumn(1).setPreferredWidth(220); // 异常类型
+        clusterTable.getColumnModel().getColumn(3).setPreferredWidth(320); // 消息签名
+        clusterTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showDetail();
+            }
+        });
+
+        detailArea = new JTextArea();
+        detailArea.setEditable(false);
+        detailArea.setLineWrap(false);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JBScrollPane(clusterTable), new JBScrollPane(detailArea));
+        splitPane.setResizeWeight(0.6);
+        setContent(splitPane);
+    }
+
+    @Override
+    protected ClusterView analyze(DataSourceConfig config, TimeWindow window) throws Exception {
+        List<FailureCluster> clusters = FailureClusterService.getInstance().refresh(config.getId());
+        long since = window.isUnbounded() ? Long.MIN_VALUE : window.getFrom().getTime();
+        List<FailureCluster> visible = new ArrayList<>();
+        int failures = 0;
+        for (FailureCluster cluster : clusters) {
+            int count = cluster.getCountSince(since);
+            if (count > 0) {
+                visible.add(cluster);
+                failures += count;
+            }
+        }
+        visible.sort((first, second) -> Integer.compare(second.getCountSince(since), first.getCountSince(since)));
+        return new ClusterView(visible, since, failures, clusters.size());
+    }
+
+    @Override
+    protected String render(ClusterView result) {
+        tableModel.setView(result);
+        detailArea.setText("");
+        return String.format("窗口内 %d 次失败归为 %d 类（累计 %d 类）", result.failures, result.clusters.size(),
+                result.totalClusters);
+    }
+
+    private void showDetail() {
+        int viewRow = clusterTable.getSelectedRow();
+        if (viewRow < 0) {
+            detailArea.setText("");
+            return;
+        }
+        FailureCluster cluster = tableModel.getCluster(clusterTable.convertRowIndexToModel(viewRow));
+
+        StringBuilder detail = new StringBuilder();
+        detail.append("异常类型: ").append(cluster.getExceptionType()).append('\n');
+        if (cluster.getRootCauseType() != null) {
+            detail.append("根因: ").append(cluster.getRootCauseType()).append('\n');
+        }
+        detail.append("消息签名: ").append(cluster.getNormalizedHead()).append('\n');
+        detail.append("签名栈帧:\n");
+        for (String frame : cluster.getTopFrames()) {
+            detail.append("    at ").append(frame).append('\n');
+        }
+        detail.append(String.format("作业失败 %d 次，步骤失败 %d 次，影响 %d 次作业执行%n",
+                cluster.getJobFailureCount(), cluster.getStepFailureCount(), cluster.getAffectedExecutionCount()));
+        detail.append("涉及作业: ");
+        for (Map.Entry<String, Integer> entry : cluster.getFailuresByJobName().entrySet()) {
+            detail.append(entry.getKey()).append(" (").append(entry.getValue()).append(")  ");
+        }
+        detail.append('\n');
+        if (!cluster.getStepNames().isEmpty()) {
+            detail.append("涉及步骤: ").append(String.join(", ", cluster.getStepNames())).append('\n');
+        }
+        detail.append("最近失败的执行ID: ");
+        for (long id : cluster.getRecentExecutionIds()) {
+            detail.append(id).append(' ');
+        }
+        detail.append("\n\n样例消息:\n").append(cluster.getSampleMessage());
+        detailArea.setText(detail.toString());
+        detailArea.setCaretPosition(0);
+    }
+
+    private static String format(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().format(FORMATTER) : "";
+    }
+
+    /**
+     * 时间窗口内出现过的聚类
+     */
+    static class ClusterView {
+        final List<FailureCluster> clusters;
+        final long since;
+        final int failures;
+        final int totalClusters;
+
+        ClusterView(List<FailureCluster> clusters, long since, int failures, int totalClusters) {
+            this.clusters = clusters;
+            this.since = since;
+            this.failures = failures;
+            this.totalClusters = totalClusters;
+        }
+    }
+
+    /**
+     * 失败聚类表格模型
+     */
+    private static class ClusterTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "#", "异常类型", "根因", "消息签名", "窗口内次数", "累计次数", "影响执行数", "首次出现", "最近出现", "涉及作业"
+        };
+        private final Class<?>[] columnClasses = {
+                Integer.class, String.class, String.class, String.class, Integer.class, Integer.class,
+                Integer.class, String.class, String.class, String.class
+        };
+        private ClusterView view = new ClusterView(new ArrayList<>(), Long.MIN_VALUE, 0, 0);
+
+        public void setView(ClusterView view) {
+            this.view = view;
+            fireTableDataChanged();
+        }
+
+        public FailureCluster getCluster(int row) {
+            return view.clusters.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return view.clusters.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= view.clusters.size()) {
+                return "";
+            }
+
+            FailureCluster cluster = view.clusters.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return cluster.getClusterId();
+                case 1: return cluster.getExceptionType();
+                case 2: return cluster.getRootCauseType() != null ? cluster.getRootCauseType() : "";
+                case 3: return cluster.getNormalizedHead();
+                case 4: return cluster.getCountSince(view.since);
+                case 5: return cluster.getCount();
+                case 6: return cluster.getAffectedExecutionCount();
+                case 7: return format(cluster.getFirstSeen());
+                case 8: return format(cluster.getLastSeen());
+                case 9: return cluster.getFailuresByJobName().keySet().stream().limit(3)
+                        .collect(Collectors.joining(", "));
+                default: return "";
+            }
+        }
+    }
+}
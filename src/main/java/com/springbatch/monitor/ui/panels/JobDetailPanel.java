@@ -6,11 +6,16 @@ import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.components.JBTabbedPane;
 import com.intellij.ui.table.JBTable;
 import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.HeartbeatSeries;
 import com.springbatch.monitor.models.JobExecution;
 import com.springbatch.monitor.models.StepExecution;
 import com.springbatch.monitor.services.DataSourceConfigService;
 import com.springbatch.monitor.services.DatabaseService;
+import com.springbatch.monitor.services.HeartbeatService;
+import com.springbatch.monitor.services.MemoryGovernor;
 import com.springbatch.monitor.ui.SpringBatchMonitorToolWindow;
+import com.springbatch.monitor.utils.DateTimeUtils;
+import com.springbatch.monitor.utils.StringDictionary;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
@@ -24,6 +29,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +56,8 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
     private JBLabel jobInstanceIdLabel;
     private JBLabel jobNameLabel;
     private JBLabel statusLabel;
+    private JBLabel createTimeLabel;
+    private JBLabel queueWaitLabel;
     private JBLabel startTimeLabel;
     private JBLabel endTimeLabel;
     private JBLabel durationLabel;
@@ -64,6 +72,25 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
     private JButton backButton;
     private JButton refreshButton;
 
+    // 运行中作业的心跳采样间隔
+    private static final int HEARTBEAT_POLL_MILLIS = 2000;
+    // 停顿阈值：提交间隔中位数的倍数，且不低于下限
+    private static final double STALL_FACTOR = 5.0;
+    private static final long MIN_STALL_MILLIS = 10_000;
+    private static final int MAX_CHART_BUCKETS = 300;
+    // 当前作业的步骤只计入内存用量，不会被淘汰
+    private static final String MEMORY_OWNER = "结果列表";
+    private static final long STEP_BYTES = 384;
+
+    private Timer heartbeatTimer;
+    private boolean heartbeatSampling;
+    private boolean updatingHeartbeatSteps;
+    private JComboBox<String> heartbeatStepComboBox;
+    private final List<Long> heartbeatStepIds = new ArrayList<>();
+    private TimeSeriesChart heartbeatChart;
+    private JBLabel heartbeatSummaryLabel;
+    private StallTableModel stallTableModel;
+
     public JobDetailPanel(SpringBatchMonitorToolWindow toolWindow) {
         super(new BorderLayout());
         this.toolWindow = toolWindow;
@@ -82,7 +109,10 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         JPanel topPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
 
         backButton = new JButton("< 返回作业列表");
-        backButton.addActionListener(e -> toolWindow.showJobList());
+        backButton.addActionListener(e -> {
+            stopHeartbeatPolling();
+            toolWindow.showJobList();
+        });
         topPanel.add(backButton);
 
         topPanel.add(new JBLabel("数据源:"));
@@ -120,6 +150,9 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         // Parameters tab
         tabbedPane.addTab("作业参数", createParametersPanel());
 
+        // Heartbeat tab
+        tabbedPane.addTab("心跳", createHeartbeatPanel());
+
         add(tabbedPane, BorderLayout.CENTER);
     }
 
@@ -166,6 +199,22 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD));
         panel.add(statusLabel, gbc);
 
+        // Create Time
+        row++;
+        gbc.gridx = 0; gbc.gridy = row;
+        panel.add(new JBLabel("创建时间:"), gbc);
+        gbc.gridx = 1;
+        createTimeLabel = new JBLabel("-");
+        panel.add(createTimeLabel, gbc);
+
+        // Queue Wait
+        row++;
+        gbc.gridx = 0; gbc.gridy = row;
+        panel.add(new JBLabel("排队等待:"), gbc);
+        gbc.gridx = 1;
+        queueWaitLabel = new JBLabel("-");
+        panel.add(queueWaitLabel, gbc);
+
         // Start Time
         row++;
         gbc.gridx = 0; gbc.gridy = row;
@@ -258,6 +307,34 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         return panel;
     }
 
+    private JPanel createHeartbeatPanel() {
+        JPanel panel = new JBPanel<>(new BorderLayout());
+
+        JPanel selectorPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
+        selectorPanel.add(new JBLabel("步骤:"));
+        heartbeatStepComboBox = new JComboBox<>();
+        heartbeatStepComboBox.addActionListener(e -> {
+            if (!updatingHeartbeatSteps) {
+                showHeartbeat();
+            }
+        });
+        selectorPanel.add(heartbeatStepComboBox);
+        heartbeatSummaryLabel = new JBLabel("查看运行中的作业时自动采样步骤心跳");
+        selectorPanel.add(heartbeatSummaryLabel);
+        panel.add(selectorPanel, BorderLayout.NORTH);
+
+        heartbeatChart = new TimeSeriesChart();
+        stallTableModel = new StallTableModel();
+        JBTable stallTable = new JBTable(stallTableModel);
+        stallTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, heartbeatChart, new JBScrollPane(stallTable));
+        splitPane.setResizeWeight(0.6);
+        panel.add(splitPane, BorderLayout.CENTER);
+
+        return panel;
+    }
+
     public void loadJobDetails(Long jobExecutionId, String dataSourceId) {
         if (jobExecutionId == null || dataSourceId == null) {
             clearJobDetails();
@@ -280,15 +357,16 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                         throw new RuntimeException("数据源配置未找到: " + dataSourceId);
                     }
 
+                    StringDictionary dictionary = DatabaseService.getInstance().getDictionary(dataSourceId);
                     try (Connection conn = getConnection(config)) {
                         // 加载作业执行信息
-                        jobExecution = loadJobExecution(conn, jobExecutionId);
+                        jobExecution = loadJobExecution(conn, jobExecutionId, dictionary);
                         if (jobExecution == null) {
                             throw new RuntimeException("作业执行未找到: " + jobExecutionId);
                         }
 
                         // 加载步骤执行信息
-                        stepExecutions = loadStepExecutions(conn, jobExecutionId);
+                        stepExecutions = loadStepExecutions(conn, jobExecutionId, dictionary);
 
                         // 加载作业参数
                         jobParameters = loadJobParameters(conn, jobExecutionId);
@@ -311,6 +389,9 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                     currentJob = jobExecution;
                     currentSteps = stepExecutions;
                     currentParameters = jobParameters;
+                    MemoryGovernor.getInstance().track(MEMORY_OWNER,
+                            "detail@" + Integer.toHexString(System.identityHashCode(JobDetailPanel.this)), null,
+                            currentSteps.size() * STEP_BYTES, null);
                     updateJobDetails();
                     toolWindow.updateStatus("作业详情加载成功");
                 }
@@ -329,7 +410,8 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         }
     }
 
-    private JobExecution loadJobExecution(Connection conn, Long jobExecutionId) throws SQLException {
+    private JobExecution loadJobExecution(Connection conn, Long jobExecutionId, StringDictionary dictionary)
+            throws SQLException {
         String sql = "SELECT je.JOB_EXECUTION_ID, je.JOB_INSTANCE_ID, ji.JOB_NAME, " +
                      "je.START_TIME, je.END_TIME, je.STATUS, je.EXIT_CODE, je.EXIT_MESSAGE, " +
                      "je.CREATE_TIME, je.LAST_UPDATED, je.VERSION " +
@@ -344,11 +426,12 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                     JobExecution job = new JobExecution();
                     job.setId(rs.getLong("JOB_EXECUTION_ID"));
                     job.setJobInstanceId(rs.getLong("JOB_INSTANCE_ID"));
-                    job.setJobName(rs.getString("JOB_NAME"));
+                    job.setJobName(dictionary.intern(rs.getString("JOB_NAME")));
+                    job.setCreateTime(rs.getTimestamp("CREATE_TIME"));
                     job.setStartTime(rs.getTimestamp("START_TIME"));
                     job.setEndTime(rs.getTimestamp("END_TIME"));
-                    job.setStatus(rs.getString("STATUS"));
-                    job.setExitCode(rs.getString("EXIT_CODE"));
+                    job.setStatus(dictionary.intern(rs.getString("STATUS")));
+                    job.setExitCode(dictionary.intern(rs.getString("EXIT_CODE")));
                     job.setExitMessage(rs.getString("EXIT_MESSAGE"));
                     return job;
                 }
@@ -357,7 +440,8 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         return null;
     }
 
-    private List<StepExecution> loadStepExecutions(Connection conn, Long jobExecutionId) throws SQLException {
+    private List<StepExecution> loadStepExecutions(Connection conn, Long jobExecutionId, StringDictionary dictionary)
+            throws SQLException {
         List<StepExecution> steps = new ArrayList<>();
         String sql = "SELECT STEP_EXECUTION_ID, STEP_NAME, START_TIME, END_TIME, STATUS, " +
                      "COMMIT_COUNT, READ_COUNT, FILTER_COUNT, WRITE_COUNT, READ_SKIP_COUNT, " +
@@ -372,10 +456,10 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                 while (rs.next()) {
                     StepExecution step = new StepExecution();
                     step.setId(rs.getLong("STEP_EXECUTION_ID"));
-                    step.setStepName(rs.getString("STEP_NAME"));
+                    step.setStepName(dictionary.intern(rs.getString("STEP_NAME")));
                     step.setStartTime(rs.getTimestamp("START_TIME"));
                     step.setEndTime(rs.getTimestamp("END_TIME"));
-                    step.setStatus(rs.getString("STATUS"));
+                    step.setStatus(dictionary.intern(rs.getString("STATUS")));
                     step.setCommitCount(rs.getInt("COMMIT_COUNT"));
                     step.setReadCount(rs.getInt("READ_COUNT"));
                     step.setFilterCount(rs.getInt("FILTER_COUNT"));
@@ -384,7 +468,7 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                     step.setWriteSkipCount(rs.getInt("WRITE_SKIP_COUNT"));
                     step.setProcessSkipCount(rs.getInt("PROCESS_SKIP_COUNT"));
                     step.setRollbackCount(rs.getInt("ROLLBACK_COUNT"));
-                    step.setExitCode(rs.getString("EXIT_CODE"));
+                    step.setExitCode(dictionary.intern(rs.getString("EXIT_CODE")));
                     step.setExitMessage(rs.getString("EXIT_MESSAGE"));
                     steps.add(step);
                 }
@@ -454,6 +538,19 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                     statusLabel.setForeground(Color.BLACK);
                 }
 
+                createTimeLabel.setText(currentJob.getCreateTime() != null ?
+                                      currentJob.getCreateTime().toLocalDateTime().format(formatter) : "N/A");
+                Long queueWait = currentJob.getQueueWaitMillis();
+                if (queueWait != null) {
+                    queueWaitLabel.setText(queueWait < 1000 ? queueWait + "毫秒" : formatDuration(queueWait / 1000));
+                } else if (currentJob.getCreateTime() != null && "STARTING".equals(status)) {
+                    long seconds = java.time.Duration.between(
+                        currentJob.getCreateTime().toLocalDateTime(),
+                        java.time.LocalDateTime.now()).getSeconds();
+                    queueWaitLabel.setText(formatDuration(seconds) + " (等待中)");
+                } else {
+                    queueWaitLabel.setText("N/A");
+                }
                 startTimeLabel.setText(currentJob.getStartTime() != null ?
                                      currentJob.getStartTime().toLocalDateTime().format(formatter) : "N/A");
                 endTimeLabel.setText(currentJob.getEndTime() != null ?
@@ -482,6 +579,13 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
                 // Update tables
                 stepTableModel.fireTableDataChanged();
                 paramTableModel.fireTableDataChanged();
+
+                updateHeartbeatSteps();
+                if (currentJob.getEndTime() == null) {
+                    startHeartbeatPolling();
+                } else {
+                    stopHeartbeatPolling();
+                }
             } else {
                 clearJobDetails();
             }
@@ -504,6 +608,7 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
 
     private void clearJobDetails() {
         SwingUtilities.invokeLater(() -> {
+            stopHeartbeatPolling();
             currentJob = null;
             currentSteps.clear();
             currentParameters.clear();
@@ -513,6 +618,8 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
             jobNameLabel.setText("-");
             statusLabel.setText("-");
             statusLabel.setForeground(Color.BLACK);
+            createTimeLabel.setText("-");
+            queueWaitLabel.setText("-");
             startTimeLabel.setText("-");
             endTimeLabel.setText("-");
             durationLabel.setText("-");
@@ -521,9 +628,190 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
 
             stepTableModel.fireTableDataChanged();
             paramTableModel.fireTableDataChanged();
+            updateHeartbeatSteps();
         });
     }
 
+    private void startHeartbeatPolling() {
+        if (heartbeatTimer == null) {
+            heartbeatTimer = new Timer(HEARTBEAT_POLL_MILLIS, e -> sampleHeartbeats());
+            heartbeatTimer.setInitialDelay(0);
+        }
+        if (!heartbeatTimer.isRunning()) {
+            heartbeatTimer.start();
+        }
+    }
+
+    private void stopHeartbeatPolling() {
+        if (heartbeatTimer != null) {
+            heartbeatTimer.stop();
+        }
+    }
+
+    /**
+     * 在后台采样一次当前作业的步骤心跳；作业结束后停止采样并刷新详情
+     */
+    private void sampleHeartbeats() {
+        if (heartbeatSampling || currentJob == null || currentDataSourceId == null) {
+            return;
+        }
+        DataSourceConfig config = configService.getConfiguration(currentDataSourceId);
+        if (config == null) {
+            stopHeartbeatPolling();
+            return;
+        }
+        long jobExecutionId = currentJob.getId();
+        String dataSourceId = currentDataSourceId;
+        heartbeatSampling = true;
+
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                databaseService.ensureDataSource(config);
+                return HeartbeatService.getInstance().sample(dataSourceId, jobExecutionId);
+            }
+
+            @Override
+            protected void done() {
+                heartbeatSampling = false;
+                try {
+                    boolean running = get();
+                    if (currentJob == null || currentJob.getId() != jobExecutionId) {
+                        return;
+                    }
+                    showHeartbeat();
+                    if (!running) {
+                        stopHeartbeatPolling();
+                        loadJobDetails(jobExecutionId, dataSourceId);
+                    }
+                } catch (Exception e) {
+                    stopHeartbeatPolling();
+                    heartbeatSummaryLabel.setText("心跳采样失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void updateHeartbeatSteps() {
+        Long selectedId = selectedHeartbeatStepId();
+        updatingHeartbeatSteps = true;
+        heartbeatStepIds.clear();
+        heartbeatStepComboBox.removeAllItems();
+        int selectedIndex = -1;
+        for (StepExecution step : currentSteps) {
+            heartbeatStepIds.add(step.getId());
+            heartbeatStepComboBox.addItem(step.getStepName() + " (#" + step.getId() + ")");
+            // 默认选中运行中的步骤
+            if (step.getId().equals(selectedId) || (selectedId == null && step.getEndTime() == null)) {
+                selectedIndex = heartbeatStepIds.size() - 1;
+            }
+        }
+        if (selectedIndex >= 0) {
+            heartbeatStepComboBox.setSelectedIndex(selectedIndex);
+        }
+        updatingHeartbeatSteps = false;
+        showHeartbeat();
+    }
+
+    private Long selectedHeartbeatStepId() {
+        int index = heartbeatStepComboBox.getSelectedIndex();
+        return index >= 0 && index < heartbeatStepIds.size() ? heartbeatStepIds.get(index) : null;
+    }
+
+    /**
+     * 读取选中步骤的心跳序列并展示
+     */
+    private void showHeartbeat() {
+        Long stepExecutionId = selectedHeartbeatStepId();
+        String dataSourceId = currentDataSourceId;
+        if (stepExecutionId == null || dataSourceId == null) {
+            renderHeartbeat(null, false);
+            return;
+        }
+        boolean stepRunning = currentSteps.stream()
+                .anyMatch(step -> step.getId().equals(stepExecutionId) && step.getEndTime() == null);
+
+        SwingWorker<HeartbeatSeries, Void> worker = new SwingWorker<HeartbeatSeries, Void>() {
+            @Override
+            protected HeartbeatSeries doInBackground() {
+                return HeartbeatService.getInstance().getSeries(dataSourceId, stepExecutionId);
+            }
+
+            @Override
+            protected void done() {
+                if (!stepExecutionId.equals(selectedHeartbeatStepId())) {
+                    return;
+                }
+                try {
+                    renderHeartbeat(get(), stepRunning);
+                } catch (Exception e) {
+                    heartbeatSummaryLabel.setText("读取心跳记录失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * 按时间桶绘制提交间隔（每桶取最大值），超过阈值的停顿以高亮时段标出
+     */
+    private void renderHeartbeat(HeartbeatSeries series, boolean stepRunning) {
+        if (series == null || series.size() < 2) {
+            heartbeatChart.setSeries(0, 1, new double[0], "", null, "");
+            heartbeatChart.setMarkers(new ArrayList<>());
+            stallTableModel.setStalls(new ArrayList<>());
+            heartbeatSummaryLabel.setText(series == null
+                    ? "没有该步骤的心跳记录（仅在查看运行中的作业时采样）"
+                    : "心跳记录不足，等待更多提交");
+            return;
+        }
+
+        int size = series.size();
+        double median = series.getMedianCommitInterval();
+        long threshold = Math.max(MIN_STALL_MILLIS, Double.isNaN(median) ? 0 : (long) (median * STALL_FACTOR));
+        List<long[]> stalls = series.getStalls(threshold);
+
+        long start = series.getLastUpdated(0);
+        long end = series.getLastUpdated(size - 1);
+        // 当前停顿按本机时钟从最后一次心跳被采样到的时刻算起，不受数据库与本机的时钟偏差影响；
+        // 图表坐标是数据库时间，停顿区间接在最后一次心跳之后
+        long currentGap = stepRunning ? System.currentTimeMillis() - series.getSampledAt(size - 1) : 0;
+        if (currentGap > threshold) {
+            stalls.add(new long[]{end, end + currentGap, 0});
+        }
+        if (currentGap > 0) {
+            end += currentGap;
+        }
+
+        long bucketMillis = Math.max(1000, (end - start) / MAX_CHART_BUCKETS + 1);
+        int buckets = (int) ((end - start) / bucketMillis) + 1;
+        double[] intervals = new double[buckets];
+        double[] thresholdLine = new double[buckets];
+        Arrays.fill(thresholdLine, threshold / 1000.0);
+        long maxInterval = 0;
+        for (int i = 1; i < size; i++) {
+            long gap = series.getLastUpdated(i) - series.getLastUpdated(i - 1);
+            int commits = Math.max(1, series.getCommitCount(i) - series.getCommitCount(i - 1));
+            long interval = gap / commits;
+            maxInterval = Math.max(maxInterval, interval);
+            int bucket = (int) ((series.getLastUpdated(i) - start) / bucketMillis);
+            intervals[bucket] = Math.max(intervals[bucket], interval / 1000.0);
+        }
+        heartbeatChart.setSeries(start, bucketMillis, intervals, "提交间隔(秒)", thresholdLine, "停顿阈值(秒)");
+        heartbeatChart.setMarkers(stalls);
+        stallTableModel.setStalls(stalls);
+
+        StringBuilder summary = new StringBuilder(String.format("心跳 %d 次，提交 %d 次，间隔中位数 %s，最大 %s，停顿 %d 次",
+                size, series.getCommitCount(size - 1) - series.getCommitCount(0),
+                Double.isNaN(median) ? "-" : DateTimeUtils.formatMillis(median),
+                DateTimeUtils.formatMillis(maxInterval), stalls.size()));
+        if (currentGap > threshold) {
+            summary.append("，当前已 ").append(DateTimeUtils.formatMillis(currentGap)).append(" 无提交");
+        }
+        heartbeatSummaryLabel.setText(summary.toString());
+    }
+
     /**
      * 步骤执行表格模型
      */
@@ -582,6 +870,54 @@ public class JobDetailPanel extends JBPanel<JobDetailPanel> implements DataSourc
         }
     }
 
+    /**
+     * 心跳停顿表格模型
+     */
+    private static class StallTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "开始时间", "结束时间", "停顿时长", "期间提交数"
+        };
+        private List<long[]> stalls = new ArrayList<>();
+
+        public void setStalls(List<long[]> stalls) {
+            this.stalls = stalls;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return stalls.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= stalls.size()) {
+                return "";
+            }
+
+            long[] stall = stalls.get(rowIndex);
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+            switch (columnIndex) {
+                case 0: return new java.sql.Timestamp(stall[0]).toLocalDateTime().format(formatter);
+                case 1: return new java.sql.Timestamp(stall[1]).toLocalDateTime().format(formatter);
+                case 2: return DateTimeUtils.formatMillis(stall[1] - stall[0]);
+                case 3: return stall[2];
+                default: return "";
+            }
+        }
+    }
+
     /**
      * 作业参数表格模型
      */
@@ -5,26 +5,40 @@ import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.table.JBTable;
 import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.ExecutionComparison;
+import com.springbatch.monitor.models.ExecutionColumns;
 import com.springbatch.monitor.models.JobExecution;
+import com.springbatch.monitor.models.JobExecutionColumns;
+import com.springbatch.monitor.models.RunHistory;
 import com.springbatch.monitor.services.DataSourceConfigService;
 import com.springbatch.monitor.services.DatabaseService;
+import com.springbatch.monitor.services.MemoryGovernor;
+import com.springbatch.monitor.services.RunHistoryService;
+import com.springbatch.monitor.services.SearchExportService;
 import com.springbatch.monitor.ui.SpringBatchMonitorToolWindow;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import com.intellij.ui.JBColor;
 import com.springbatch.monitor.utils.DateTimeUtils;
+import com.springbatch.monitor.utils.StringDictionary;
 
 /**
  * 作业列表面板 - Spring Batch Monitor
@@ -46,10 +60,15 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
     private JButton searchButton;
     private JBLabel totalCountLabel;
 
-    private List<JobExecution> jobExecutions = new ArrayList<>();
-    private List<JobExecution> dbJobExecutions = new ArrayList<>();
+    private JobExecutionColumns jobExecutions = JobExecutionColumns.empty();
     private int currentPage = 0;
     private final int pageSize = 20;
+    private static final int MAX_COMPARED_EXECUTIONS = 12;
+    // 迷你趋势图显示的最近执行次数
+    private static final int SPARKLINE_RUNS = 20;
+    // 结果列表只计入内存用量，不会被淘汰
+    private static final String MEMORY_OWNER = "结果列表";
+    private Map<String, RunHistory> runHistories = new HashMap<>();
 
     public JobListPanel(SpringBatchMonitorToolWindow toolWindow) {
         super(new BorderLayout());
@@ -113,6 +132,9 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
         topPanel.add(new JBLabel("关键字:"), gbc);
         gbc.gridx = 5;
         searchField = new JTextField(15);
+        searchField.setToolTipText("<html>在作业名称、退出代码和退出消息中按词前缀查找，多个词需同时命中，"
+                + "如 Duplicate 可找到 DuplicateKeyException<br>词只出现在单词中间时（如 SQLException 中的 Exception）"
+                + "可能查不到；没有任何词以输入开头时改为子串查找</html>");
         topPanel.add(searchField, gbc);
 
         // Third row - buttons
@@ -131,6 +153,18 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
         clearButton.addActionListener(e -> clearSearchFields());
         topPanel.add(clearButton, gbc);
 
+        gbc.gridx = 3;
+        JButton compareButton = new JButton("对比所选");
+        compareButton.setToolTipText("按住 Ctrl 或 Shift 选择多个作业执行后按步骤对比");
+        compareButton.addActionListener(e -> compareSelectedExecutions());
+        topPanel.add(compareButton, gbc);
+
+        gbc.gridx = 4;
+        JButton exportButton = new JButton("导出...");
+        exportButton.setToolTipText("把当前查询条件命中的全部记录导出为 CSV 或 JSON Lines（不受 500 行限制）");
+        exportButton.addActionListener(e -> exportSearchResults());
+        topPanel.add(exportButton, gbc);
+
         // Total count label
         gbc.gridx = 5; gbc.anchor = GridBagConstraints.EAST;
         totalCountLabel = new JBLabel("总计: 0 个作业");
@@ -141,7 +175,7 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
         // Table
         tableModel = new JobTableModel();
         jobTable = new JBTable(tableModel);
-        jobTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        jobTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         jobTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
         
         // Set column widths
@@ -151,9 +185,11 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
         jobTable.getColumnModel().getColumn(3).setPreferredWidth(150); // Start Time
         jobTable.getColumnModel().getColumn(4).setPreferredWidth(150); // End Time
         jobTable.getColumnModel().getColumn(5).setPreferredWidth(100); // Duration
+        jobTable.getColumnModel().getColumn(6).setPreferredWidth(120); // Recent Runs
 
         // Custom cell renderer for status column
         jobTable.getColumnModel().getColumn(2).setCellRenderer(new StatusCellRenderer());
+        jobTable.getColumnModel().getColumn(6).setCellRenderer(new SparklineRenderer());
 
         // Double-click to view details
         jobTable.addMouseListener(new MouseAdapter() {
@@ -161,16 +197,8 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
                     int selectedRow = jobTable.getSelectedRow();
-                    if (selectedRow >= 0) {
-                        Long jobExecutionId;
-                        if (!dbJobExecutions.isEmpty()) {
-                            JobExecution job = dbJobExecutions.get(selectedRow);
-                            jobExecutionId = job.getId();
-                        } else {
-                            JobExecution job = jobExecutions.get(selectedRow);
-                            jobExecutionId = job.getJobExecutionId();
-                        }
-                        toolWindow.showJobDetail(jobExecutionId);
+                    if (selectedRow >= 0 && selectedRow < jobExecutions.size()) {
+                        toolWindow.showJobDetail(jobExecutions.getId(selectedRow));
                     }
                 }
             }
@@ -209,9 +237,9 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
 
         toolWindow.updateStatus("正在查询作业执行信息...");
 
-        SwingWorker<List<JobExecution>, Void> worker = new SwingWorker<List<JobExecution>, Void>() {
+        SwingWorker<JobExecutionColumns, Void> worker = new SwingWorker<JobExecutionColumns, Void>() {
             @Override
-            protected List<JobExecution> doInBackground() throws Exception {
+            protected JobExecutionColumns doInBackground() throws Exception {
                 try {
                     databaseService.addDataSource(selectedDataSource);
                 } catch (Exception e) {
@@ -231,8 +259,8 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
             @Override
             protected void done() {
                 try {
-                    List<JobExecution> results = get();
-                    updateJobListFromDatabase(results);
+                    JobExecutionColumns results = get();
+                    updateJobList(results);
                     toolWindow.updateStatus("查询完成，找到 " + results.size() + " 个作业执行记录。");
                 } catch (Exception e) {
                     toolWindow.updateStatus("查询失败: " + e.getMessage());
@@ -245,6 +273,87 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
         worker.execute();
     }
 
+    /**
+     * 按当前查询条件导出全部匹配的作业执行
+     */
+    private void exportSearchResults() {
+        DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
+        if (selectedDataSource == null) {
+            JOptionPane.showMessageDialog(this, "请先选择数据源", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        String jobName = jobNameField.getText().trim();
+        String searchText = searchField.getText().trim();
+        String selectedStatus = (String) statusFilter.getSelectedItem();
+        String startDate = startDateField.getText().trim();
+        String endDate = endDateField.getText().trim();
+
+        SearchExportSupport.export(this, toolWindow, "job_executions", (format, target, indicator) -> {
+            databaseService.ensureDataSource(selectedDataSource);
+            return SearchExportService.getInstance().exportJobExecutions(
+                selectedDataSource.getId(),
+                jobName,
+                "全部".equals(selectedStatus) ? null : selectedStatus,
+                startDate.isEmpty() ? null : startDate,
+                endDate.isEmpty() ? null : endDate,
+                searchText.isEmpty() ? null : searchText,
+                format, target, indicator
+            );
+        });
+    }
+
+    /**
+     * 对比表格中选中的多个作业执行，所有步骤一次批量查询
+     */
+    private void compareSelectedExecutions() {
+        DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
+        int[] selectedRows = jobTable.getSelectedRows();
+        if (selectedDataSource == null || jobExecutions.isEmpty() || selectedRows.length < 2) {
+            JOptionPane.showMessageDialog(this, "请至少选择两个作业执行", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (selectedRows.length > MAX_COMPARED_EXECUTIONS) {
+            JOptionPane.showMessageDialog(this, "最多同时对比 " + MAX_COMPARED_EXECUTIONS + " 个作业执行",
+                    "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        List<JobExecution> selected = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int row : selectedRows) {
+            JobExecution job = jobExecutions.getRow(jobTable.convertRowIndexToModel(row));
+            selected.add(job);
+            ids.add(job.getId());
+        }
+
+        toolWindow.updateStatus("正在加载对比数据...");
+
+        SwingWorker<ExecutionComparison, Void> worker = new SwingWorker<ExecutionComparison, Void>() {
+            @Override
+            protected ExecutionComparison doInBackground() {
+                return new ExecutionComparison(selected,
+                        databaseService.getStepExecutions(selectedDataSource.getId(), ids));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    ExecutionComparison comparison = get();
+                    toolWindow.updateStatus("已加载 " + selected.size() + " 个作业执行的对比数据。");
+                    new ExecutionComparisonDialog(SwingUtilities.getWindowAncestor(JobListPanel.this), comparison)
+                            .setVisible(true);
+                } catch (Exception e) {
+                    toolWindow.updateStatus("加载对比数据失败: " + e.getMessage());
+                    JOptionPane.showMessageDialog(JobListPanel.this,
+                            "加载对比数据失败: " + e.getMessage(),
+                            "错误", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
     /**
      * 为日期时间输入框添加实时验证
      */
@@ -295,6 +404,10 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
     }
 
     public void refreshData() {
+        DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
+        if (selectedDataSource != null) {
+            RunHistoryService.getInstance().invalidate(selectedDataSource.getId());
+        }
         loadDataSources();
         loadJobExecutions();
     }
@@ -312,15 +425,15 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
     private void loadJobExecutions() {
         DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
         if (selectedDataSource == null) {
-            updateJobList(new ArrayList<>());
+            updateJobList(JobExecutionColumns.empty());
             return;
         }
 
         toolWindow.updateStatus("Loading job executions from database...");
 
-        SwingWorker<List<JobExecution>, Void> worker = new SwingWorker<List<JobExecution>, Void>() {
+        SwingWorker<JobExecutionColumns, Void> worker = new SwingWorker<JobExecutionColumns, Void>() {
             @Override
-            protected List<JobExecution> doInBackground() throws Exception {
+            protected JobExecutionColumns doInBackground() throws Exception {
                 // 确保数据源已添加到数据库服务
                 try {
                     databaseService.addDataSource(selectedDataSource);
@@ -333,8 +446,8 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
             @Override
             protected void done() {
                 try {
-                    List<JobExecution> jobs = get();
-                    updateJobListFromDatabase(jobs);
+                    JobExecutionColumns jobs = get();
+                    updateJobList(jobs);
                     toolWindow.updateStatus("Loaded " + jobs.size() + " job executions from database.");
                 } catch (Exception e) {
                     toolWindow.updateStatus("Failed to load jobs: " + e.getMessage());
@@ -347,22 +460,47 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
         worker.execute();
     }
 
-    private void updateJobList(List<JobExecution> jobs) {
+    private void updateJobList(JobExecutionColumns jobs) {
         SwingUtilities.invokeLater(() -> {
-            this.jobExecutions = jobs != null ? jobs : new ArrayList<>();
-            this.dbJobExecutions.clear();
+            this.jobExecutions = jobs != null ? jobs : JobExecutionColumns.empty();
             tableModel.fireTableDataChanged();
-            totalCountLabel.setText("Total: " + jobExecutions.size() + " jobs");
+            totalCountLabel.setText("总计: " + jobExecutions.size() + " 个作业");
+            MemoryGovernor.getInstance().track(MEMORY_OWNER,
+                    "jobs@" + Integer.toHexString(System.identityHashCode(this)), null,
+                    jobExecutions.estimateBytes(), null);
+            loadRunHistories(jobExecutions);
         });
     }
 
-    private void updateJobListFromDatabase(List<JobExecution> jobs) {
-        SwingUtilities.invokeLater(() -> {
-            this.dbJobExecutions = jobs != null ? jobs : new ArrayList<>();
-            this.jobExecutions.clear();
-            tableModel.fireTableDataChanged();
-            totalCountLabel.setText("总计: " + dbJobExecutions.size() + " 个作业");
-        });
+    /**
+     * 加载列表中各作业的最近执行，完成后重绘迷你趋势图列
+     */
+    private void loadRunHistories(JobExecutionColumns jobs) {
+        DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
+        if (selectedDataSource == null || jobs.isEmpty()) {
+            return;
+        }
+        // 列式结果加载后不再修改，可直接交给后台线程读取
+        JobExecutionColumns snapshot = jobs;
+        SwingWorker<Map<String, RunHistory>, Void> worker = new SwingWorker<Map<String, RunHistory>, Void>() {
+            @Override
+            protected Map<String, RunHistory> doInBackground() throws Exception {
+                return RunHistoryService.getInstance().getHistories(selectedDataSource.getId(), snapshot,
+                        SPARKLINE_RUNS);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    runHistories = get();
+                    jobTable.repaint();
+                } catch (Exception e) {
+                    // 趋势图只是辅助信息，加载失败时保持空白
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
     }
 
     @Override
@@ -397,12 +535,14 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
      */
     private class JobTableModel extends AbstractTableModel {
         private final String[] columnNames = {
-                "ID", "Job Name", "Status", "Start Time", "End Time", "Duration"
+                "ID", "Job Name", "Status", "Start Time", "End Time", "Duration", "Recent Runs"
         };
 
+        private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
         @Override
         public int getRowCount() {
-            return !dbJobExecutions.isEmpty() ? dbJobExecutions.size() : jobExecutions.size();
+            return jobExecutions.size();
         }
 
         @Override
@@ -417,51 +557,33 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            // 优先使用数据库数据
-            if (!dbJobExecutions.isEmpty()) {
-                if (rowIndex >= dbJobExecutions.size()) {
-                    return "";
-                }
+            if (rowIndex >= jobExecutions.size()) {
+                return "";
+            }
 
-                JobExecution job = dbJobExecutions.get(rowIndex);
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-                switch (columnIndex) {
-                    case 0: return job.getId();
-                    case 1: return job.getJobName();
-                    case 2: return job.getStatus();
-                    case 3: return job.getStartTime() != null ?
-                        new java.sql.Timestamp(job.getStartTime().getTime()).toLocalDateTime().format(formatter) : "";
-                    case 4: return job.getEndTime() != null ?
-                        new java.sql.Timestamp(job.getEndTime().getTime()).toLocalDateTime().format(formatter) : "";
-                    case 5: return calculateDuration(job.getStartTime(), job.getEndTime());
-                    default: return "";
-                }
-            } else {
-                if (rowIndex >= jobExecutions.size()) {
-                    return "";
-                }
+            switch (columnIndex) {
+                case 0: return jobExecutions.getId(rowIndex);
+                case 1: return jobExecutions.getJobName(rowIndex);
+                case 2: return jobExecutions.getStatus(rowIndex);
+                case 3: return formatTime(jobExecutions.getStartTime(rowIndex));
+                case 4: return formatTime(jobExecutions.getEndTime(rowIndex));
+                case 5: return calculateDuration(jobExecutions.getDurationMillis(rowIndex));
+                // 迷你趋势图由渲染器直接绘制
+                default: return "";
+            }
+        }
 
-                JobExecution job = jobExecutions.get(rowIndex);
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-                switch (columnIndex) {
-                    case 0: return job.getJobExecutionId();
-                    case 1: return job.getJobName();
-                    case 2: return job.getStatus();
-                    case 3: return job.getStartTime() != null ? formatter.format(job.getStartTime().toLocalDateTime()) : "";
-                    case 4: return job.getEndTime() != null ? formatter.format(job.getEndTime().toLocalDateTime()) : "";
-                    case 5: return job.getFormattedDuration();
-                    default: return "";
-                }
+        private String formatTime(long millis) {
+            if (millis == ExecutionColumns.NO_TIME) {
+                return "";
             }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(formatter);
         }
 
-        private String calculateDuration(java.sql.Timestamp startTime, java.sql.Timestamp endTime) {
-            if (startTime == null || endTime == null) {
+        private String calculateDuration(long duration) {
+            if (duration < 0) {
                 return "";
             }
-            long duration = endTime.getTime() - startTime.getTime();
             long seconds = duration / 1000;
             long minutes = seconds / 60;
             long hours = minutes / 60;
@@ -486,23 +608,16 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
             Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 
             if (!isSelected) {
-                String status = null;
-
-                // 优先使用数据库数据
-                if (!dbJobExecutions.isEmpty() && row < dbJobExecutions.size()) {
-                    JobExecution job = dbJobExecutions.get(row);
-                    status = job.getStatus();
-                } else if (!jobExecutions.isEmpty() && row < jobExecutions.size()) {
-                    JobExecution job = jobExecutions.get(row);
-                    status = job.getStatus();
-                }
+                int status = row < jobExecutions.size()
+                        ? jobExecutions.getStatusCode(row) : StringDictionary.NULL_CODE;
 
-                if (status != null) {
-                    if ("COMPLETED".equals(status)) {
+                if (status != StringDictionary.NULL_CODE) {
+                    if (status == ExecutionColumns.STATUS_COMPLETED) {
                         c.setForeground(new Color(0, 128, 0)); // Green
-                    } else if ("FAILED".equals(status)) {
+                    } else if (status == ExecutionColumns.STATUS_FAILED) {
                         c.setForeground(Color.RED);
-                    } else if ("STARTED".equals(status) || "STARTING".equals(status)) {
+                    } else if (status == ExecutionColumns.STATUS_STARTED
+                            || status == ExecutionColumns.STATUS_STARTING) {
                         c.setForeground(Color.BLUE);
                     } else {
                         c.setForeground(Color.BLACK);
@@ -513,4 +628,93 @@ public class JobListPanel extends JBPanel<JobListPanel> implements DataSourceCon
             return c;
         }
     }
+
+    /**
+     * 迷你趋势图渲染器 - 绘制该作业截至本行执行的最近若干次耗时，本行执行在最右侧加框标出
+     *
+     * 虚线为之前各次的平均耗时，本行耗时超过平均值两倍时边框标红；绘制过程中不创建对象。
+     */
+    private class SparklineRenderer extends JComponent implements TableCellRenderer {
+        private final Color completedColor = new JBColor(new Color(120, 170, 120), new Color(90, 150, 90));
+        private final Color failedColor = new JBColor(new Color(220, 90, 90), new Color(200, 80, 80));
+        private final Color otherColor = new JBColor(new Color(150, 150, 200), new Color(110, 110, 160));
+        private final Color meanColor = new JBColor(new Color(120, 120, 120), new Color(160, 160, 160));
+        private RunHistory history;
+        private int endIndex;
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                boolean hasFocus, int row, int column) {
+            history = null;
+            if (row < jobExecutions.size()) {
+                RunHistory candidate = runHistories.get(jobExecutions.getJobName(row));
+                int index = candidate != null ? candidate.indexOf(jobExecutions.getId(row)) : -1;
+                if (index >= 0) {
+                    history = candidate;
+                    endIndex = index;
+                }
+            }
+            setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
+            setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
+            return this;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            int width = getWidth();
+            int height = getHeight();
+            g.setColor(getBackground());
+            g.fillRect(0, 0, width, height);
+            if (history == null) {
+                return;
+            }
+
+            int start = Math.max(0, endIndex - SPARKLINE_RUNS + 1);
+            double max = 0;
+            double sum = 0;
+            int count = 0;
+            for (int i = start; i <= endIndex; i++) {
+                double duration = history.getDuration(i);
+                if (!Double.isNaN(duration)) {
+                    max = Math.max(max, duration);
+                    if (i < endIndex) {
+                        sum += duration;
+                        count++;
+                    }
+                }
+            }
+            if (max <= 0) {
+                max = 1;
+            }
+
+            int plotHeight = height - 4;
+            int barWidth = Math.max(2, (width - 4) / SPARKLINE_RUNS);
+            int x = width - 2 - (endIndex - start + 1) * barWidth;
+            int currentX = x;
+            int currentHeight = 0;
+            for (int i = start; i <= endIndex; i++, x += barWidth) {
+                double duration = history.getDuration(i);
+                int barHeight = Double.isNaN(duration) ? 2 : Math.max(1, (int) (duration / max * plotHeight));
+                byte status = history.getStatus(i);
+                g.setColor(status == RunHistory.STATUS_COMPLETED ? completedColor
+                        : status == RunHistory.STATUS_FAILED ? failedColor : otherColor);
+                g.fillRect(x, height - 2 - barHeight, barWidth - 1, barHeight);
+                currentX = x;
+                currentHeight = barHeight;
+            }
+
+            double mean = count > 0 ? sum / count : Double.NaN;
+            if (count > 0) {
+                int y = height - 2 - (int) (mean / max * plotHeight);
+                g.setColor(meanColor);
+                for (int dash = 2; dash < width - 2; dash += 4) {
+                    g.drawLine(dash, y, dash + 1, y);
+                }
+            }
+
+            double current = history.getDuration(endIndex);
+            g.setColor(!Double.isNaN(current) && count > 0 && current > 2 * mean ? JBColor.RED : getForeground());
+            g.drawRect(currentX - 1, height - 3 - currentHeight, barWidth, currentHeight + 1);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.springbatch.monitor.ui.panels;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * 百分比单元格渲染器 - 将 0~1 之间的比例显示为百分比，NaN 显示为 "-"
+ */
+class PercentCellRenderer extends DefaultTableCellRenderer {
+
+    PercentCellRenderer() {
+        setHorizontalAlignment(SwingConstants.RIGHT);
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        if (value instanceof Double && ((Double) value).isNaN()) {
+            setText("-");
+        } else {
+            setText(value instanceof Double ? String.format("%.2f%%", (Double) value * 100) : "");
+        }
+    }
+}
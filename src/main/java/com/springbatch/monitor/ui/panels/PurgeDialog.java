@@ -0,0 +1,228 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.PurgeReport;
+import com.springbatch.monitor.services.DatabaseService;
+import com.springbatch.monitor.services.PurgeService;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * 历史清理对话框 - 设置保留天数、批大小和限速，先预估再分批删除旧的作业执行元数据
+ */
+public class PurgeDialog extends JDialog {
+
+    private final DataSourceConfig config;
+    private final ReportTableModel tableModel = new ReportTableModel();
+    private final JSpinner retentionSpinner = new JSpinner(new SpinnerNumberModel(180, 1, 3650, 1));
+    private final JSpinner batchSizeSpinner = new JSpinner(new SpinnerNumberModel(100, 1, 500, 10));
+    private final JSpinner rateSpinner = new JSpinner(new SpinnerNumberModel(2000, 0, 1_000_000, 100));
+    private final JCheckBox pauseCheckBox = new JCheckBox("有作业运行时暂停", true);
+    private final JCheckBox archiveCheckBox = new JCheckBox("删除前归档到本地文件");
+    private final JButton estimateButton = new JButton("预估");
+    private final JButton purgeButton = new JButton("开始清理");
+    private final JBLabel statusLabel = new JBLabel(" ");
+
+    public PurgeDialog(Window parent, DataSourceConfig config) {
+        super(parent, "清理历史 - " + config.getName(), ModalityType.MODELESS);
+        this.config = config;
+
+        initializeUI();
+
+        setSize(640, 420);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout());
+
+        JPanel optionsPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(4, 6, 4, 6);
+        gbc.anchor = GridBagConstraints.WEST;
+
+        gbc.gridx = 0; gbc.gridy = 0;
+        optionsPanel.add(new JBLabel("保留最近天数:"), gbc);
+        gbc.gridx = 1;
+        optionsPanel.add(retentionSpinner, gbc);
+        gbc.gridx = 2;
+        optionsPanel.add(new JBLabel("每批作业执行数:"), gbc);
+        gbc.gridx = 3;
+        optionsPanel.add(batchSizeSpinner, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 1;
+        optionsPanel.add(new JBLabel("每秒最多删除行数:"), gbc);
+        gbc.gridx = 1;
+        rateSpinner.setToolTipText("所有表合计，0 表示不限速");
+        optionsPanel.add(rateSpinner, gbc);
+        gbc.gridx = 2;
+        optionsPanel.add(pauseCheckBox, gbc);
+        gbc.gridx = 3;
+        optionsPanel.add(archiveCheckBox, gbc);
+        add(optionsPanel, BorderLayout.NORTH);
+
+        add(new JBScrollPane(new JBTable(tableModel)), BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(statusLabel, BorderLayout.CENTER);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        estimateButton.addActionListener(e -> estimate());
+        buttonPanel.add(estimateButton);
+        purgeButton.addActionListener(e -> purge());
+        buttonPanel.add(purgeButton);
+        JButton closeButton = new JButton("关闭");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(closeButton);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    private Timestamp cutoff() {
+        int retentionDays = (Integer) retentionSpinner.getValue();
+        return Timestamp.valueOf(LocalDate.now().minusDays(retentionDays).atStartOfDay());
+    }
+
+    private void estimate() {
+        Timestamp cutoff = cutoff();
+        estimateButton.setEnabled(false);
+        statusLabel.setText("正在预估 " + cutoff + " 之前的执行...");
+        SwingWorker<PurgeReport, Void> worker = new SwingWorker<PurgeReport, Void>() {
+            @Override
+            protected PurgeReport doInBackground() throws Exception {
+                DatabaseService.getInstance().ensureDataSource(config);
+                return PurgeService.getInstance().estimate(config.getId(), cutoff);
+            }
+
+            @Override
+            protected void done() {
+                estimateButton.setEnabled(true);
+                try {
+                    PurgeReport report = get();
+                    tableModel.setReport(report);
+                    statusLabel.setText(String.format("预计删除 %,d 个作业执行，共 %,d 行（未做任何修改）",
+                            report.getExecutions(), report.getTotalRows()));
+                } catch (Exception e) {
+                    statusLabel.setText("预估失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void purge() {
+        Timestamp cutoff = cutoff();
+        Path archive = null;
+        if (archiveCheckBox.isSelected()) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new File("batch-archive-" + LocalDate.now() + ".jsonl.gz"));
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            archive = chooser.getSelectedFile().toPath();
+        }
+        int result = JOptionPane.showConfirmDialog(this,
+                "将永久删除数据源 \"" + config.getName() + "\" 中 " + cutoff + " 之前开始的已结束作业执行，确定继续吗？",
+                "确认清理", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (result != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        int batchSize = (Integer) batchSizeSpinner.getValue();
+        int rate = (Integer) rateSpinner.getValue();
+        boolean pauseWhileRunning = pauseCheckBox.isSelected();
+        Path archiveFile = archive;
+        purgeButton.setEnabled(false);
+        new Task.Backgroundable(null, "清理历史: " + config.getName(), true) {
+            private PurgeReport report;
+
+            @Override
+            public void run(ProgressIndicator indicator) {
+                try {
+                    DatabaseService.getInstance().ensureDataSource(config);
+                    report = PurgeService.getInstance().purge(config.getId(), cutoff, batchSize, rate,
+                            pauseWhileRunning, archiveFile, indicator);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                tableModel.setReport(report);
+                statusLabel.setText(String.format("已删除 %,d 个作业执行，共 %,d 行，%d 批", report.getExecutions(),
+                        report.getTotalRows(), report.getBatches()));
+            }
+
+            @Override
+            public void onCancel() {
+                statusLabel.setText("清理已取消，已提交的批次不会回滚");
+            }
+
+            @Override
+            public void onThrowable(Throwable error) {
+                statusLabel.setText("清理失败: " + error.getMessage());
+            }
+
+            @Override
+            public void onFinished() {
+                purgeButton.setEnabled(true);
+            }
+        }.queue();
+    }
+
+    /**
+     * 各表的行数
+     */
+    private static class ReportTableModel extends AbstractTableModel {
+        private final String[] columnNames = {"表", "行数"};
+        private final Class<?>[] columnClasses = {String.class, Long.class};
+        private PurgeReport report;
+
+        void setReport(PurgeReport report) {
+            this.report = report;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return report == null ? 0 : PurgeReport.TABLES.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return columnClasses[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            switch (column) {
+                case 0: return PurgeReport.TABLES[row];
+                case 1: return report.getRows(row);
+                default: return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTabbedPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.JobExecution;
+import com.springbatch.monitor.models.LatencyDistribution;
+import com.springbatch.monitor.models.QueueLatencyReport;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.QueueLatencyService;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动排队延迟面板 - 按作业和按小时展示 CREATE_TIME 到 START_TIME 的等待分位数
+ */
+public class QueueLatencyPanel extends AbstractAnalysisPanel<QueueLatencyReport> {
+    private static final long HOUR_MILLIS = 3600L * 1000;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DistributionTableModel jobTableModel;
+    private final DistributionTableModel hourTableModel;
+    private final WorstTableModel worstTableModel;
+    private final TimeSeriesChart hourChart;
+
+    public QueueLatencyPanel() {
+        super(TimeWindow.Preset.LAST_24_HOURS);
+
+        jobTableModel = new DistributionTableModel("作业名称");
+        JBTable jobTable = new JBTable(jobTableModel);
+        jobTable.getColumnModel().getColumn(0).setPreferredWidth(200);
+
+        hourTableModel = new DistributionTableModel("小时");
+        JBTable hourTable = new JBTable(hourTableModel);
+        hourChart = new TimeSeriesChart();
+        JPanel hourPanel = new JBPanel<>(new BorderLayout());
+        JSplitPane hourSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, hourChart, new JBScrollPane(hourTable));
+        hourSplitPane.setResizeWeight(0.5);
+        hourPanel.add(hourSplitPane, BorderLayout.CENTER);
+
+        worstTableModel = new WorstTableModel();
+        JBTable worstTable = new JBTable(worstTableModel);
+        worstTable.getColumnModel().getColumn(1).setPreferredWidth(200);
+
+        JBTabbedPane tabbedPane = new JBTabbedPane();
+        tabbedPane.addTab("按作业", new JBScrollPane(jobTable));
+        tabbedPane.addTab("按小时", hourPanel);
+        tabbedPane.addTab("等待最久", new JBScrollPane(worstTable));
+        setContent(tabbedPane);
+    }
+
+    @Override
+    protected QueueLatencyReport analyze(DataSourceConfig config, TimeWindow window) throws Exception {
+        return QueueLatencyService.getInstance().getQueueLatency(config.getId(), window);
+    }
+
+    @Override
+    protected String render(QueueLatencyReport result) {
+        jobTableModel.setDistributions(result.getByJobName());
+        hourTableModel.setDistributions(result.getByHour());
+        worstTableModel.setExecutions(result.getWorstExecutions());
+        renderHourChart(result.getByHour());
+
+        LatencyDistribution overall = result.getOverall();
+        return String.format("共 %d 次执行，排队等待 P50 %s / P90 %s / P99 %s / 最大 %s；当前等待启动 %d 个",
+                overall.getCount(),
+                DateTimeUtils.formatMillis(overall.getP50()),
+                DateTimeUtils.formatMillis(overall.getP90()),
+                DateTimeUtils.formatMillis(overall.getP99()),
+                DateTimeUtils.formatMillis(overall.getMax()),
+                result.getWaitingCount());
+    }
+
+    /**
+     * 没有执行的小时补零，保证横轴为连续时间
+     */
+    private void renderHourChart(List<LatencyDistribution> byHour) {
+        if (byHour.isEmpty()) {
+            hourChart.setSeries(0, HOUR_MILLIS, new double[0], "", null, "");
+            return;
+        }
+        long first = byHour.get(0).getPeriod().getTime();
+        long last = byHour.get(byHour.size() - 1).getPeriod().getTime();
+        int hours = (int) ((last - first) / HOUR_MILLIS) + 1;
+        double[] p90 = new double[hours];
+        double[] mean = new double[hours];
+        for (LatencyDistribution distribution : byHour) {
+            int index = (int) ((distribution.getPeriod().getTime() - first) / HOUR_MILLIS);
+            if (index >= 0 && index < hours) {
+                p90[index] = distribution.getP90() / 1000;
+                mean[index] = distribution.getMean() / 1000;
+            }
+        }
+        hourChart.setSeries(first, HOUR_MILLIS, p90, "P90 等待(秒)", mean, "平均等待(秒)");
+    }
+
+    /**
+     * 等待时长分布表格模型
+     */
+    private static class DistributionTableModel extends AbstractTableModel {
+        private final String[] columnNames;
+        private List<LatencyDistribution> distributions = new ArrayList<>();
+
+        DistributionTableModel(String labelColumnName) {
+            columnNames = new String[]{labelColumnName, "执行次数", "平均", "P50", "P90", "P99", "最大"};
+        }
+
+        public void setDistributions(List<LatencyDistribution> distributions) {
+            this.distributions = distributions;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return distributions.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= distributions.size()) {
+                return "";
+            }
+
+            LatencyDistribution distribution = distributions.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return distribution.getPeriod() != null
+                        ? distribution.getPeriod().toLocalDateTime().format(FORMATTER)
+                        : distribution.getLabel();
+                case 1: return distribution.getCount();
+                case 2: return DateTimeUtils.formatMillis(distribution.getMean());
+                case 3: return DateTimeUtils.formatMillis(distribution.getP50());
+                case 4: return DateTimeUtils.formatMillis(distribution.getP90());
+                case 5: return DateTimeUtils.formatMillis(distribution.getP99());
+                case 6: return DateTimeUtils.formatMillis(distribution.getMax());
+                default: return "";
+            }
+        }
+    }
+
+    /**
+     * 等待最久的执行表格模型
+     */
+    private static class WorstTableModel extends AbstractTableModel {
+        private final String[] columnNames = {"执行ID", "作业名称", "状态", "创建时间", "开始时间", "排队等待"};
+        private List<JobExecution> executions = new ArrayList<>();
+
+        public void setExecutions(List<JobExecution> executions) {
+            this.executions = executions;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return executions.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= executions.size()) {
+                return "";
+            }
+
+            JobExecution execution = executions.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return execution.getId();
+                case 1: return execution.getJobName();
+                case 2: return execution.getStatus();
+                case 3: return execution.getCreateTime() != null
+                        ? execution.getCreateTime().toLocalDateTime().format(FORMATTER) : "";
+                case 4: return execution.getStartTime() != null
+                        ? execution.getStartTime().toLocalDateTime().format(FORMATTER) : "";
+                case 5: return execution.getQueueWaitMillis() != null
+                        ? DateTimeUtils.formatMillis(execution.getQueueWaitMillis()) : "";
+                default: return "";
+            }
+        }
+    }
+}
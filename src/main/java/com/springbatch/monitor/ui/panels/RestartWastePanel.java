@@ -0,0 +1,206 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.InstanceRestartStats;
+import com.springbatch.monitor.models.JobRestartWaste;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.RestartWasteService;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 重启浪费面板 - 按作业排名失败尝试消耗的时间，选中作业后查看各实例的尝试情况
+ */
+public class RestartWastePanel extends AbstractAnalysisPanel<List<JobRestartWaste>> {
+
+    private final WasteTableModel wasteTableModel;
+    private final InstanceTableModel instanceTableModel;
+    private final JBTable wasteTable;
+
+    public RestartWastePanel() {
+        super(TimeWindow.Preset.LAST_7_DAYS);
+
+        wasteTableModel = new WasteTableModel();
+        wasteTable = new JBTable(wasteTableModel);
+        wasteTable.setAutoCreateRowSorter(true);
+        wasteTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        wasteTable.getColumnModel().getColumn(0).setPreferredWidth(200); // 作业名称
+        wasteTable.getColumnModel().getColumn(6).setCellRenderer(new PercentCellRenderer());
+        wasteTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showInstances();
+            }
+        });
+
+        instanceTableModel = new InstanceTableModel();
+        JBTable instanceTable = new JBTable(instanceTableModel);
+        instanceTable.setAutoCreateRowSorter(true);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JBScrollPane(wasteTable), new JBScrollPane(instanceTable));
+        splitPane.setResizeWeight(0.5);
+        setContent(splitPane);
+    }
+
+    @Override
+    protected List<JobRestartWaste> analyze(DataSourceConfig config, TimeWindow window) throws Exception {
+        return RestartWasteService.getInstance().getRestartWaste(config.getId(), window);
+    }
+
+    @Override
+    protected String render(List<JobRestartWaste> result) {
+        wasteTableModel.setWasteList(result);
+        instanceTableModel.setInstances(new ArrayList<>());
+        double failedMillis = result.stream().mapToDouble(JobRestartWaste::getFailedMillis).sum();
+        int instances = result.stream().mapToInt(JobRestartWaste::getInstanceCount).sum();
+        return String.format("%d 个作业的 %d 个实例存在失败尝试，共耗费 %s", result.size(), instances,
+                DateTimeUtils.formatMillis(failedMillis));
+    }
+
+    private void showInstances() {
+        int viewRow = wasteTable.getSelectedRow();
+        if (viewRow < 0) {
+            instanceTableModel.setInstances(new ArrayList<>());
+            return;
+        }
+        JobRestartWaste waste = wasteTableModel.getWaste(wasteTable.convertRowIndexToModel(viewRow));
+        instanceTableModel.setInstances(waste.getInstances());
+    }
+
+    /**
+     * 作业重启浪费表格模型
+     */
+    private static class WasteTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "作业名称", "涉及实例", "最终成功", "总尝试", "失败尝试", "失败耗时", "浪费占比",
+                "失败读取数", "失败写入数", "平均尝试次数", "最多尝试", "平均成功耗时"
+        };
+        private final Class<?>[] columnClasses = {
+                String.class, Integer.class, Integer.class, Integer.class, Integer.class, String.class,
+                Double.class, Long.class, Long.class, Double.class, Integer.class, String.class
+        };
+        private List<JobRestartWaste> wasteList = new ArrayList<>();
+
+        public void setWasteList(List<JobRestartWaste> wasteList) {
+            this.wasteList = wasteList;
+            fireTableDataChanged();
+        }
+
+        public JobRestartWaste getWaste(int row) {
+            return wasteList.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return wasteList.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= wasteList.size()) {
+                return "";
+            }
+
+            JobRestartWaste waste = wasteList.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return waste.getJobName();
+                case 1: return waste.getInstanceCount();
+                case 2: return waste.getCompletedInstances();
+                case 3: return waste.getTotalAttempts();
+                case 4: return waste.getFailedAttempts();
+                case 5: return DateTimeUtils.formatMillis(waste.getFailedMillis());
+                case 6: return waste.getWasteShare();
+                case 7: return waste.getFailedReadCount();
+                case 8: return waste.getFailedWriteCount();
+                case 9: return Math.round(waste.getAverageAttempts() * 10) / 10.0;
+                case 10: return waste.getMaxAttempts();
+                case 11: return waste.getAverageTimeToSuccessMillis() > 0
+                        ? DateTimeUtils.formatMillis(waste.getAverageTimeToSuccessMillis()) : "";
+                default: return "";
+            }
+        }
+    }
+
+    /**
+     * 实例尝试明细表格模型
+     */
+    private static class InstanceTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "作业实例ID", "尝试次数", "失败次数", "最终状态", "失败耗时", "失败读取数", "失败写入数", "成功耗时"
+        };
+        private final Class<?>[] columnClasses = {
+                Long.class, Integer.class, Integer.class, String.class, String.class, Long.class, Long.class,
+                String.class
+        };
+        private List<InstanceRestartStats> instances = new ArrayList<>();
+
+        public void setInstances(List<InstanceRestartStats> instances) {
+            this.instances = instances;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return instances.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= instances.size()) {
+                return "";
+            }
+
+            InstanceRestartStats instance = instances.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return instance.getJobInstanceId();
+                case 1: return instance.getAttempts();
+                case 2: return instance.getFailedAttempts();
+                case 3: return instance.isCompleted() ? "COMPLETED" : "未成功";
+                case 4: return DateTimeUtils.formatMillis(instance.getFailedMillis());
+                case 5: return instance.getFailedReadCount();
+                case 6: return instance.getFailedWriteCount();
+                case 7: return instance.getTimeToSuccessMillis() != null
+                        ? DateTimeUtils.formatMillis(instance.getTimeToSuccessMillis()) : "";
+                default: return "";
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.springbatch.monitor.services.SearchExportService;
+import com.springbatch.monitor.ui.SpringBatchMonitorToolWindow;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * 搜索结果导出的公共部分 - 选择格式和目标文件，在后台任务中执行导出
+ */
+final class SearchExportSupport {
+
+    /**
+     * 导出调用，在后台线程中执行并返回导出的行数
+     */
+    interface Export {
+        long run(SearchExportService.Format format, Path target, ProgressIndicator indicator) throws Exception;
+    }
+
+    private SearchExportSupport() {
+    }
+
+    /**
+     * 选择格式和文件后在后台导出当前搜索条件下的全部记录
+     */
+    static void export(Component parent, SpringBatchMonitorToolWindow toolWindow, String defaultName, Export export) {
+        JComboBox<SearchExportService.Format> formatComboBox = new JComboBox<>(SearchExportService.Format.values());
+        int option = JOptionPane.showConfirmDialog(parent, formatComboBox, "导出格式",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (option != JOptionPane.OK_OPTION) {
+            return;
+        }
+        SearchExportService.Format format = (SearchExportService.Format) formatComboBox.getSelectedItem();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(defaultName + "." + format.getExtension()));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = chooser.getSelectedFile().toPath();
+
+        Project project = toolWindow.getProject();
+        toolWindow.updateStatus("正在导出到 " + target + " ...");
+        new Task.Backgroundable(project, "导出搜索结果", true) {
+            private long rows;
+
+            @Override
+            public void run(ProgressIndicator indicator) {
+                try {
+                    rows = export.run(format, target, indicator);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                toolWindow.updateStatus(String.format("已导出 %,d 行到 %s", rows, target));
+            }
+
+            @Override
+            public void onCancel() {
+                toolWindow.updateStatus("导出已取消");
+            }
+
+            @Override
+            public void onThrowable(Throwable error) {
+                toolWindow.updateStatus("导出失败: " + error.getMessage());
+                JOptionPane.showMessageDialog(parent, "导出失败: " + error.getMessage(),
+                        "错误", JOptionPane.ERROR_MESSAGE);
+            }
+        }.queue();
+    }
+}
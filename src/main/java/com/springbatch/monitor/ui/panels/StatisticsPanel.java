@@ -3,18 +3,28 @@ package com.springbatch.monitor.ui.panels;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTabbedPane;
 import com.intellij.ui.table.JBTable;
 import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.StatisticsSnapshot;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.CatalogStatisticsService;
+import com.springbatch.monitor.services.DailySummaryService;
 import com.springbatch.monitor.services.DataSourceConfigService;
+import com.springbatch.monitor.services.DatabaseService;
+import com.springbatch.monitor.services.StatisticsStore;
+import com.springbatch.monitor.services.SummaryTableService;
+import com.springbatch.monitor.services.WindowStatisticsService;
+import com.springbatch.monitor.utils.DateTimeUtils;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,17 +35,49 @@ import java.util.Map;
  */
 public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSourceConfigService.DataSourceConfigListener {
 
+    private static final String MODE_EXACT = "精确统计";
+    private static final String MODE_APPROXIMATE = "近似统计";
+    private static final String WINDOW_CUSTOM = "自定义";
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final Map<String, String> TABLE_LABELS = new HashMap<>();
+
+    static {
+        TABLE_LABELS.put("BATCH_JOB_INSTANCE", "作业实例总数");
+        TABLE_LABELS.put("BATCH_JOB_EXECUTION", "作业执行总数");
+        TABLE_LABELS.put("BATCH_JOB_EXECUTION_PARAMS", "作业参数记录数");
+        TABLE_LABELS.put("BATCH_JOB_EXECUTION_CONTEXT", "作业上下文记录数");
+        TABLE_LABELS.put("BATCH_STEP_EXECUTION", "步骤执行总数");
+        TABLE_LABELS.put("BATCH_STEP_EXECUTION_CONTEXT", "步骤上下文记录数");
+    }
+
     private final DataSourceConfigService configService;
+    private final CatalogStatisticsService catalogStatisticsService;
+    private final WindowStatisticsService windowStatisticsService;
+    private final DatabaseService databaseService;
+    private final StatisticsStore statisticsStore;
     private JComboBox<DataSourceConfig> dataSourceComboBox;
     private JBTable statisticsTable;
     private StatisticsTableModel tableModel;
     private JButton refreshButton;
+    private JButton rebuildButton;
+    private JButton exactButton;
+    private JComboBox<String> modeComboBox;
+    private JComboBox<String> windowComboBox;
+    private JTextField customFromField;
+    private JTextField customToField;
     private JBLabel statusLabel;
+    private CalendarHeatmapPanel heatmapPanel;
+    private WorkloadForecastPanel forecastPanel;
+    private ExecutionTrendPanel trendPanel;
     private String currentDataSourceId;
 
     public StatisticsPanel() {
         super(new BorderLayout());
         this.configService = DataSourceConfigService.getInstance();
+        this.databaseService = DatabaseService.getInstance();
+        this.statisticsStore = StatisticsStore.getInstance();
+        this.catalogStatisticsService = CatalogStatisticsService.getInstance();
+        this.windowStatisticsService = WindowStatisticsService.getInstance();
         
         // 注册监听器
         configService.addListener(this);
@@ -55,20 +97,86 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
             if (selected != null) {
                 currentDataSourceId = selected.getId();
                 loadStatistics();
+                heatmapPanel.setDataSource(currentDataSourceId);
+                forecastPanel.setDataSource(currentDataSourceId);
+                trendPanel.setDataSource(currentDataSourceId);
             }
         });
         topPanel.add(dataSourceComboBox);
+
+        topPanel.add(new JBLabel("时间窗口:"));
+        windowComboBox = new JComboBox<>();
+        for (TimeWindow.Preset preset : TimeWindow.Preset.values()) {
+            windowComboBox.addItem(preset.getDisplayName());
+        }
+        windowComboBox.addItem(WINDOW_CUSTOM);
+        windowComboBox.setSelectedItem(TimeWindow.Preset.ALL.getDisplayName());
+        windowComboBox.addActionListener(e -> {
+            updateWindowControls();
+            if (!WINDOW_CUSTOM.equals(windowComboBox.getSelectedItem())) {
+                loadStatistics();
+            }
+        });
+        topPanel.add(windowComboBox);
+
+        customFromField = new JTextField(12);
+        customFromField.setToolTipText("开始时间，" + DateTimeUtils.getSupportedFormats());
+        topPanel.add(customFromField);
+        topPanel.add(new JBLabel("~"));
+        customToField = new JTextField(12);
+        customToField.setToolTipText("结束时间（留空表示现在），" + DateTimeUtils.getSupportedFormats());
+        topPanel.add(customToField);
+
+        topPanel.add(new JBLabel("统计模式:"));
+        modeComboBox = new JComboBox<>(new String[]{MODE_EXACT, MODE_APPROXIMATE});
+        modeComboBox.setToolTipText("近似模式从数据库目录统计读取表行数估算值，不扫描大表");
+        modeComboBox.addActionListener(e -> loadStatistics());
+        topPanel.add(modeComboBox);
         
         refreshButton = new JButton("刷新统计");
         refreshButton.addActionListener(e -> loadStatistics());
         topPanel.add(refreshButton);
+
+        exactButton = new JButton("精确重算");
+        exactButton.setToolTipText("立即执行一次精确统计，忽略窗口缓存");
+        exactButton.addActionListener(e -> loadStatistics(true));
+        topPanel.add(exactButton);
+
+        rebuildButton = new JButton("重建统计");
+        rebuildButton.setToolTipText("丢弃增量聚合结果，重新全量统计");
+        rebuildButton.addActionListener(e -> {
+            if (currentDataSourceId != null) {
+                statisticsStore.invalidate(currentDataSourceId);
+                windowStatisticsService.invalidate(currentDataSourceId);
+                DailySummaryService.getInstance().invalidate(currentDataSourceId);
+            }
+            loadStatistics(true);
+            heatmapPanel.reload();
+            forecastPanel.reload();
+        });
+        topPanel.add(rebuildButton);
         
+        updateWindowControls();
         add(topPanel, BorderLayout.NORTH);
         
         // 统计表格
         tableModel = new StatisticsTableModel();
         statisticsTable = new JBTable(tableModel);
         statisticsTable.setDefaultRenderer(Object.class, new StatisticsCellRenderer());
+        statisticsTable.setToolTipText("双击估算值可对该表执行精确计数");
+
+        // 双击估算值按需精确计数
+        statisticsTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    int selectedRow = statisticsTable.getSelectedRow();
+                    if (selectedRow >= 0) {
+                        recountTable(selectedRow);
+                    }
+                }
+            }
+        });
         
         // 设置列宽
         statisticsTable.getColumnModel().getColumn(0).setPreferredWidth(200); // 统计项
@@ -76,7 +184,15 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
         statisticsTable.getColumnModel().getColumn(2).setPreferredWidth(300); // 说明
         
         JBScrollPane scrollPane = new JBScrollPane(statisticsTable);
-        add(scrollPane, BorderLayout.CENTER);
+        heatmapPanel = new CalendarHeatmapPanel();
+        JBTabbedPane tabbedPane = new JBTabbedPane();
+        tabbedPane.addTab("统计概览", scrollPane);
+        tabbedPane.addTab("日历热力图", heatmapPanel);
+        forecastPanel = new WorkloadForecastPanel();
+        tabbedPane.addTab("负载预测", forecastPanel);
+        trendPanel = new ExecutionTrendPanel();
+        tabbedPane.addTab("趋势图", trendPanel);
+        add(tabbedPane, BorderLayout.CENTER);
         
         // 底部状态栏
         JPanel bottomPanel = new JBPanel<>(new BorderLayout());
@@ -96,21 +212,64 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
             if (!configs.isEmpty() && currentDataSourceId == null) {
                 currentDataSourceId = configs.get(0).getId();
                 loadStatistics();
+                heatmapPanel.setDataSource(currentDataSourceId);
+                forecastPanel.setDataSource(currentDataSourceId);
+                trendPanel.setDataSource(currentDataSourceId);
             }
         });
     }
 
+    private void updateWindowControls() {
+        boolean custom = WINDOW_CUSTOM.equals(windowComboBox.getSelectedItem());
+        customFromField.setEnabled(custom);
+        customToField.setEnabled(custom);
+        // 近似统计只适用于全部历史
+        modeComboBox.setEnabled(TimeWindow.Preset.ALL.getDisplayName().equals(windowComboBox.getSelectedItem()));
+    }
+
+    /**
+     * 解析当前选择的时间窗口，全部历史返回null
+     */
+    private TimeWindow getSelectedWindow() {
+        Object selected = windowComboBox.getSelectedItem();
+        if (WINDOW_CUSTOM.equals(selected)) {
+            return TimeWindow.parse(customFromField.getText(), customToField.getText());
+        }
+        for (TimeWindow.Preset preset : TimeWindow.Preset.values()) {
+            if (preset != TimeWindow.Preset.ALL && preset.getDisplayName().equals(selected)) {
+                return TimeWindow.of(preset);
+            }
+        }
+        return null;
+    }
+
     private void loadStatistics() {
+        loadStatistics(false);
+    }
+
+    /**
+     * @param forceExact 精确统计并忽略窗口缓存
+     */
+    private void loadStatistics(boolean forceExact) {
         if (currentDataSourceId == null) {
             statusLabel.setText("请选择数据源");
             return;
         }
+
+        boolean allHistory = TimeWindow.Preset.ALL.getDisplayName().equals(windowComboBox.getSelectedItem());
+        TimeWindow window = allHistory ? null : getSelectedWindow();
+        if (!allHistory && window == null) {
+            statusLabel.setText("无效的时间范围。" + DateTimeUtils.getSupportedFormats());
+            return;
+        }
+        boolean exact = forceExact || MODE_EXACT.equals(modeComboBox.getSelectedItem());
         
         statusLabel.setText("正在加载统计信息...");
-        refreshButton.setEnabled(false);
+        setButtonsEnabled(false);
         
         SwingWorker<List<StatisticItem>, Void> worker = new SwingWorker<List<StatisticItem>, Void>() {
             private Exception error;
+            private String summary;
 
             @Override
             protected List<StatisticItem> doInBackground() throws Exception {
@@ -120,7 +279,30 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
                         throw new RuntimeException("数据源配置未找到");
                     }
 
-                    return collectStatistics(config);
+                    databaseService.ensureDataSource(config);
+                    if (window != null) {
+                        StatisticsSnapshot snapshot =
+                                windowStatisticsService.getStatistics(config.getId(), window, forceExact);
+                        summary = "窗口 " + window.getLabel() + "，计算于 " + new java.sql.Timestamp(
+                                snapshot.getComputedAt()).toLocalDateTime().format(TIME_FORMATTER);
+                        return collectStatistics(snapshot);
+                    }
+                    if (!exact) {
+                        summary = catalogStatisticsService.supportsEstimates(config.getDatabaseType())
+                                ? "目录统计估算值，双击可精确计数" : "该数据库不提供目录统计，已使用精确计数";
+                        return collectEstimates(config);
+                    }
+
+                    SummaryTableService summaryTable = SummaryTableService.getInstance();
+                    if (summaryTable.isEnabled(config.getId())) {
+                        int days = summaryTable.refresh(config.getId());
+                        summary = "汇总表，重算 " + days + " 天";
+                        return collectStatistics(summaryTable.getStatistics(config.getId(), null));
+                    }
+
+                    StatisticsSnapshot snapshot = statisticsStore.refresh(config.getId());
+                    summary = snapshot.isFullRebuild() ? "全量重建" : "增量合并 " + snapshot.getFoldedRows() + " 行";
+                    return collectStatistics(snapshot);
                 } catch (Exception e) {
                     error = e;
                     return new ArrayList<>();
@@ -129,14 +311,14 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
 
             @Override
             protected void done() {
-                refreshButton.setEnabled(true);
+                setButtonsEnabled(true);
                 if (error != null) {
                     statusLabel.setText("加载失败: " + error.getMessage());
                 } else {
                     try {
                         List<StatisticItem> statistics = get();
                         tableModel.setStatistics(statistics);
-                        statusLabel.setText("统计信息已更新 (" + statistics.size() + " 项)");
+                        statusLabel.setText("统计信息已更新 (" + statistics.size() + " 项, " + summary + ")");
                     } catch (Exception e) {
                         statusLabel.setText("处理统计数据失败: " + e.getMessage());
                     }
@@ -146,94 +328,121 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
         worker.execute();
     }
 
-    private List<StatisticItem> collectStatistics(DataSourceConfig config) throws SQLException {
+    private void setButtonsEnabled(boolean enabled) {
+        refreshButton.setEnabled(enabled);
+        exactButton.setEnabled(enabled);
+        rebuildButton.setEnabled(enabled);
+    }
+
+    private List<StatisticItem> collectEstimates(DataSourceConfig config) throws SQLException {
         List<StatisticItem> statistics = new ArrayList<>();
-        
-        try (Connection conn = getConnection(config)) {
-            // 作业执行统计
-            statistics.add(new StatisticItem("作业执行总数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_JOB_EXECUTION"), 
-                "所有作业执行的总数量"));
-            
-            statistics.add(new StatisticItem("成功作业数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_JOB_EXECUTION WHERE STATUS = 'COMPLETED'"), 
-                "状态为COMPLETED的作业数量"));
-            
-            statistics.add(new StatisticItem("失败作业数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_JOB_EXECUTION WHERE STATUS = 'FAILED'"), 
-                "状态为FAILED的作业数量"));
-            
-            statistics.add(new StatisticItem("运行中作业数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_JOB_EXECUTION WHERE STATUS = 'STARTED'"), 
-                "状态为STARTED的作业数量"));
-            
-            // 步骤执行统计
-            statistics.add(new StatisticItem("步骤执行总数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_STEP_EXECUTION"), 
-                "所有步骤执行的总数量"));
-            
-            statistics.add(new StatisticItem("成功步骤数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_STEP_EXECUTION WHERE STATUS = 'COMPLETED'"), 
-                "状态为COMPLETED的步骤数量"));
-            
-            statistics.add(new StatisticItem("失败步骤数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_STEP_EXECUTION WHERE STATUS = 'FAILED'"), 
-                "状态为FAILED的步骤数量"));
-            
-            // 作业实例统计
-            statistics.add(new StatisticItem("作业实例总数", 
-                getCount(conn, "SELECT COUNT(*) FROM BATCH_JOB_INSTANCE"), 
-                "所有作业实例的总数量"));
-            
-            statistics.add(new StatisticItem("不同作业类型数", 
-                getCount(conn, "SELECT COUNT(DISTINCT JOB_NAME) FROM BATCH_JOB_INSTANCE"), 
-                "系统中不同作业名称的数量"));
-            
-            // 数据处理统计
-            statistics.add(new StatisticItem("总读取记录数", 
-                getSum(conn, "SELECT SUM(READ_COUNT) FROM BATCH_STEP_EXECUTION"), 
-                "所有步骤读取的记录总数"));
-            
-            statistics.add(new StatisticItem("总写入记录数", 
-                getSum(conn, "SELECT SUM(WRITE_COUNT) FROM BATCH_STEP_EXECUTION"), 
-                "所有步骤写入的记录总数"));
-            
-            statistics.add(new StatisticItem("总跳过记录数", 
-                getSum(conn, "SELECT SUM(READ_SKIP_COUNT + WRITE_SKIP_COUNT + PROCESS_SKIP_COUNT) FROM BATCH_STEP_EXECUTION"), 
-                "所有步骤跳过的记录总数"));
+        boolean estimated = catalogStatisticsService.supportsEstimates(config.getDatabaseType());
+        Map<String, Long> rowCounts = catalogStatisticsService.estimateRowCounts(config.getId());
+        for (Map.Entry<String, Long> entry : rowCounts.entrySet()) {
+            statistics.add(new StatisticItem(TABLE_LABELS.getOrDefault(entry.getKey(), entry.getKey()),
+                entry.getValue(),
+                entry.getKey() + (estimated ? " 表行数（目录统计估算）" : " 表行数"),
+                estimated,
+                entry.getKey()));
         }
-        
         return statistics;
     }
 
-    private Connection getConnection(DataSourceConfig config) throws SQLException {
-        try {
-            Class.forName(config.getDriverClassName());
-            return java.sql.DriverManager.getConnection(
-                config.getUrl(), config.getUsername(), config.getPassword());
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("数据库驱动未找到: " + config.getDriverClassName(), e);
+    /**
+     * 对估算行执行一次精确 COUNT(*)，只扫描该表
+     */
+    private void recountTable(int row) {
+        StatisticItem item = tableModel.getStatistic(row);
+        if (item == null || !item.isEstimated() || currentDataSourceId == null) {
+            return;
         }
-    }
 
-    private long getCount(Connection conn, String sql) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            if (rs.next()) {
-                return rs.getLong(1);
+        String dataSourceId = currentDataSourceId;
+        statusLabel.setText("正在精确统计 " + item.getTable() + "...");
+        SwingWorker<Long, Void> worker = new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return catalogStatisticsService.countRows(dataSourceId, item.getTable());
             }
-        }
-        return 0;
-    }
 
-    private long getSum(Connection conn, String sql) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            if (rs.next()) {
-                return rs.getLong(1);
+            @Override
+            protected void done() {
+                try {
+                    long count = get();
+                    tableModel.replaceStatistic(item, new StatisticItem(item.getName(), count,
+                        item.getTable() + " 表行数（精确计数）", false, item.getTable()));
+                    statusLabel.setText(item.getTable() + " 精确行数: " + String.format("%,d", count));
+                } catch (Exception e) {
+                    statusLabel.setText("精确统计失败: " + e.getMessage());
+                }
             }
+        };
+        worker.execute();
+    }
+
+    private List<StatisticItem> collectStatistics(StatisticsSnapshot snapshot) {
+        List<StatisticItem> statistics = new ArrayList<>();
+
+        // 作业执行统计
+        statistics.add(new StatisticItem("作业执行总数",
+            snapshot.getTotalJobExecutions(),
+            "所有作业执行的总数量"));
+
+        statistics.add(new StatisticItem("成功作业数",
+            snapshot.getJobCount("COMPLETED"),
+            "状态为COMPLETED的作业数量"));
+
+        statistics.add(new StatisticItem("失败作业数",
+            snapshot.getJobCount("FAILED"),
+            "状态为FAILED的作业数量"));
+
+        statistics.add(new StatisticItem("运行中作业数",
+            snapshot.getJobCount("STARTED"),
+            "状态为STARTED的作业数量"));
+
+        // 步骤执行统计
+        statistics.add(new StatisticItem("步骤执行总数",
+            snapshot.getTotalStepExecutions(),
+            "所有步骤执行的总数量"));
+
+        statistics.add(new StatisticItem("成功步骤数",
+            snapshot.getStepCount("COMPLETED"),
+            "状态为COMPLETED的步骤数量"));
+
+        statistics.add(new StatisticItem("失败步骤数",
+            snapshot.getStepCount("FAILED"),
+            "状态为FAILED的步骤数量"));
+
+        // 作业实例统计
+        statistics.add(new StatisticItem("作业实例总数",
+            snapshot.getJobInstanceCount(),
+            "所有作业实例的总数量"));
+
+        statistics.add(new StatisticItem("不同作业类型数",
+            snapshot.getJobNameCount(),
+            "系统中不同作业名称的数量"));
+
+        // 数据处理统计
+        statistics.add(new StatisticItem("总读取记录数",
+            snapshot.getReadCount(),
+            "所有步骤读取的记录总数"));
+
+        statistics.add(new StatisticItem("总写入记录数",
+            snapshot.getWriteCount(),
+            "所有步骤写入的记录总数"));
+
+        statistics.add(new StatisticItem("总跳过记录数",
+            snapshot.getSkipCount(),
+            "所有步骤跳过的记录总数"));
+
+        // 各作业执行次数
+        for (Map.Entry<String, Long> entry : snapshot.getJobExecutionCountsByName().entrySet()) {
+            statistics.add(new StatisticItem("作业执行数: " + entry.getKey(),
+                entry.getValue(),
+                "该作业名称下的执行次数"));
         }
-        return 0;
+
+        return statistics;
     }
 
     // 数据源配置监听器实现
@@ -249,16 +458,26 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
         private final String name;
         private final long value;
         private final String description;
+        private final boolean estimated;
+        private final String table;
 
         public StatisticItem(String name, long value, String description) {
+            this(name, value, description, false, null);
+        }
+
+        public StatisticItem(String name, long value, String description, boolean estimated, String table) {
             this.name = name;
             this.value = value;
             this.description = description;
+            this.estimated = estimated;
+            this.table = table;
         }
 
         public String getName() { return name; }
         public long getValue() { return value; }
         public String getDescription() { return description; }
+        public boolean isEstimated() { return estimated; }
+        public String getTable() { return table; }
     }
 
     /**
@@ -273,6 +492,18 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
             fireTableDataChanged();
         }
 
+        public StatisticItem getStatistic(int row) {
+            return row < statistics.size() ? statistics.get(row) : null;
+        }
+
+        public void replaceStatistic(StatisticItem oldItem, StatisticItem newItem) {
+            int row = statistics.indexOf(oldItem);
+            if (row >= 0) {
+                statistics.set(row, newItem);
+                fireTableRowsUpdated(row, row);
+            }
+        }
+
         @Override
         public int getRowCount() {
             return statistics.size();
@@ -298,7 +529,7 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
             
             switch (columnIndex) {
                 case 0: return item.getName();
-                case 1: return String.format("%,d", item.getValue());
+                case 1: return (item.isEstimated() ? "≈ " : "") + String.format("%,d", item.getValue());
                 case 2: return item.getDescription();
                 default: return "";
             }
@@ -320,6 +551,10 @@ public class StatisticsPanel extends JBPanel<StatisticsPanel> implements DataSou
             } else {
                 setHorizontalAlignment(SwingConstants.LEFT);
             }
+
+            // 估算值以斜体区分
+            StatisticItem item = tableModel.getStatistic(row);
+            c.setFont(item != null && item.isEstimated() ? c.getFont().deriveFont(Font.ITALIC) : table.getFont());
             
             return c;
         }
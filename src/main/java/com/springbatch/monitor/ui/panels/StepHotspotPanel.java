@@ -0,0 +1,123 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.StepHotspot;
+import com.springbatch.monitor.models.TimeWindow;
+import com.springbatch.monitor.services.HotspotAnalysisService;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 回滚/跳过热点面板 - 按回滚率和跳过率对步骤排名
+ */
+public class StepHotspotPanel extends AbstractAnalysisPanel<List<StepHotspot>> {
+
+    private final HotspotTableModel tableModel;
+
+    public StepHotspotPanel() {
+        super(TimeWindow.Preset.LAST_7_DAYS);
+
+        tableModel = new HotspotTableModel();
+        JBTable hotspotTable = new JBTable(tableModel);
+        hotspotTable.setAutoCreateRowSorter(true);
+        hotspotTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        hotspotTable.getColumnModel().getColumn(0).setPreferredWidth(200); // 步骤名称
+        hotspotTable.getColumnModel().getColumn(3).setCellRenderer(new PercentCellRenderer());
+        hotspotTable.getColumnModel().getColumn(5).setCellRenderer(new PercentCellRenderer());
+        hotspotTable.getColumnModel().getColumn(8).setPreferredWidth(160);
+        hotspotTable.getColumnModel().getColumn(9).setPreferredWidth(160);
+        setContent(new JBScrollPane(hotspotTable));
+    }
+
+    @Override
+    protected List<StepHotspot> analyze(DataSourceConfig config, TimeWindow window) throws Exception {
+        return HotspotAnalysisService.getInstance().getStepHotspots(config.getId(), window);
+    }
+
+    @Override
+    protected String render(List<StepHotspot> result) {
+        tableModel.setHotspots(result);
+        long reprocessed = result.stream().mapToLong(StepHotspot::getEstimatedReprocessedItems).sum();
+        return String.format("共 %d 个热点步骤，估算因回滚重复处理 %,d 条记录", result.size(), reprocessed);
+    }
+
+    private static String formatTrend(double earlier, double recent) {
+        String arrow;
+        if (recent > earlier * 1.1 && recent - earlier > 0.0001) {
+            arrow = "↑";
+        } else if (recent < earlier * 0.9 && earlier - recent > 0.0001) {
+            arrow = "↓";
+        } else {
+            arrow = "→";
+        }
+        return String.format("%s %.2f%% → %.2f%%", arrow, earlier * 100, recent * 100);
+    }
+
+    /**
+     * 热点表格模型
+     */
+    private static class HotspotTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "步骤名称", "执行次数", "回滚次数", "回滚率", "跳过数", "跳过率",
+                "平均块大小", "估算重复处理数", "回滚率趋势", "跳过率趋势"
+        };
+        private final Class<?>[] columnClasses = {
+                String.class, Long.class, Long.class, Double.class, Long.class, Double.class,
+                Long.class, Long.class, String.class, String.class
+        };
+        private List<StepHotspot> hotspots = new ArrayList<>();
+
+        public void setHotspots(List<StepHotspot> hotspots) {
+            this.hotspots = hotspots;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return hotspots.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= hotspots.size()) {
+                return "";
+            }
+
+            StepHotspot hotspot = hotspots.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return hotspot.getStepName();
+                case 1: return hotspot.getExecutionCount();
+                case 2: return hotspot.getRollbackCount();
+                case 3: return hotspot.getRollbackRate();
+                case 4: return hotspot.getSkipCount();
+                case 5: return hotspot.getSkipRate();
+                case 6: return Math.round(hotspot.getAverageItemsPerCommit());
+                case 7: return hotspot.getEstimatedReprocessedItems();
+                case 8: return formatTrend(hotspot.getEarlierRollbackRate(), hotspot.getRecentRollbackRate());
+                case 9: return formatTrend(hotspot.getEarlierSkipRate(), hotspot.getRecentSkipRate());
+                default: return "";
+            }
+        }
+    }
+}
@@ -5,9 +5,13 @@ import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.table.JBTable;
 import com.springbatch.monitor.model.DataSourceConfig;
+import com.springbatch.monitor.models.ExecutionColumns;
 import com.springbatch.monitor.models.StepExecution;
+import com.springbatch.monitor.models.StepExecutionColumns;
 import com.springbatch.monitor.services.DataSourceConfigService;
 import com.springbatch.monitor.services.DatabaseService;
+import com.springbatch.monitor.services.MemoryGovernor;
+import com.springbatch.monitor.services.SearchExportService;
 import com.springbatch.monitor.ui.SpringBatchMonitorToolWindow;
 
 import javax.swing.*;
@@ -18,8 +22,10 @@ import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import com.intellij.ui.JBColor;
 import com.springbatch.monitor.utils.DateTimeUtils;
@@ -40,11 +46,15 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
     private JTextField startDateField;
     private JTextField endDateField;
     private JTextField jobExecutionIdField;
+    private JTextField keywordField;
     private JButton refreshButton;
     private JButton searchButton;
     private JBLabel totalCountLabel;
 
-    private List<StepExecution> stepExecutions = new ArrayList<>();
+    // 结果列表只计入内存用量，不会被淘汰
+    private static final String MEMORY_OWNER = "结果列表";
+
+    private StepExecutionColumns stepExecutions = StepExecutionColumns.empty();
 
     public StepListPanel(SpringBatchMonitorToolWindow toolWindow) {
         super(new BorderLayout());
@@ -126,6 +136,23 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
         clearButton.addActionListener(e -> clearSearchFields());
         topPanel.add(clearButton, gbc);
 
+        gbc.gridx = 3;
+        topPanel.add(new JBLabel("关键字:"), gbc);
+        gbc.gridx = 4;
+        keywordField = new JTextField(12);
+        keywordField.setToolTipText("<html>在退出代码和退出消息中按词前缀查找，多个词需同时命中，"
+                + "如 Duplicate 可找到 DuplicateKeyException<br>词只出现在单词中间时（如 SQLException 中的 Exception）"
+                + "可能查不到；没有任何词以输入开头时改为子串查找</html>");
+        keywordField.addActionListener(e -> performSearch());
+        topPanel.add(keywordField, gbc);
+
+        // Fourth row
+        gbc.gridx = 0; gbc.gridy = 3;
+        JButton exportButton = new JButton("导出...");
+        exportButton.setToolTipText("把当前查询条件命中的全部记录导出为 CSV 或 JSON Lines（不受 500 行限制）");
+        exportButton.addActionListener(e -> exportSearchResults());
+        topPanel.add(exportButton, gbc);
+
         // Total count label
         gbc.gridx = 5; gbc.anchor = GridBagConstraints.EAST;
         totalCountLabel = new JBLabel("总计: 0 个步骤");
@@ -158,9 +185,8 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
                     int selectedRow = stepTable.getSelectedRow();
-                    if (selectedRow >= 0) {
-                        StepExecution step = stepExecutions.get(selectedRow);
-                        showStepDetails(step);
+                    if (selectedRow >= 0 && selectedRow < stepExecutions.size()) {
+                        showStepDetails(stepExecutions.getRow(selectedRow));
                     }
                 }
             }
@@ -181,6 +207,7 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
         startDateField.setText("");
         endDateField.setText("");
         jobExecutionIdField.setText("");
+        keywordField.setText("");
         statusFilter.setSelectedIndex(0);
     }
 
@@ -196,6 +223,7 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
         String startDate = startDateField.getText().trim();
         String endDate = endDateField.getText().trim();
         String jobExecutionIdText = jobExecutionIdField.getText().trim();
+        String keyword = keywordField.getText().trim();
         
         Long jobExecutionId = null;
         if (!jobExecutionIdText.isEmpty()) {
@@ -210,9 +238,9 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
         toolWindow.updateStatus("正在查询步骤执行信息...");
         
         final Long finalJobExecutionId = jobExecutionId;
-        SwingWorker<List<StepExecution>, Void> worker = new SwingWorker<List<StepExecution>, Void>() {
+        SwingWorker<StepExecutionColumns, Void> worker = new SwingWorker<StepExecutionColumns, Void>() {
             @Override
-            protected List<StepExecution> doInBackground() throws Exception {
+            protected StepExecutionColumns doInBackground() throws Exception {
                 try {
                     databaseService.addDataSource(selectedDataSource);
                 } catch (Exception e) {
@@ -225,14 +253,15 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
                     "全部".equals(selectedStatus) ? null : selectedStatus,
                     startDate.isEmpty() ? null : startDate,
                     endDate.isEmpty() ? null : endDate,
-                    finalJobExecutionId
+                    finalJobExecutionId,
+                    keyword.isEmpty() ? null : keyword
                 );
             }
 
             @Override
             protected void done() {
                 try {
-                    List<StepExecution> results = get();
+                    StepExecutionColumns results = get();
                     updateStepList(results);
                     toolWindow.updateStatus("查询完成，找到 " + results.size() + " 个步骤执行记录。");
                 } catch (Exception e) {
@@ -246,6 +275,49 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
         worker.execute();
     }
 
+    /**
+     * 按当前查询条件导出全部匹配的步骤执行
+     */
+    private void exportSearchResults() {
+        DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
+        if (selectedDataSource == null) {
+            JOptionPane.showMessageDialog(this, "请先选择数据源", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        String stepName = stepNameField.getText().trim();
+        String selectedStatus = (String) statusFilter.getSelectedItem();
+        String startDate = startDateField.getText().trim();
+        String endDate = endDateField.getText().trim();
+        String jobExecutionIdText = jobExecutionIdField.getText().trim();
+        String keyword = keywordField.getText().trim();
+
+        Long jobExecutionId = null;
+        if (!jobExecutionIdText.isEmpty()) {
+            try {
+                jobExecutionId = Long.parseLong(jobExecutionIdText);
+            } catch (NumberFormatException e) {
+                JOptionPane.showMessageDialog(this, "作业执行ID必须是数字", "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+
+        final Long finalJobExecutionId = jobExecutionId;
+        SearchExportSupport.export(this, toolWindow, "step_executions", (format, target, indicator) -> {
+            databaseService.ensureDataSource(selectedDataSource);
+            return SearchExportService.getInstance().exportStepExecutions(
+                selectedDataSource.getId(),
+                stepName.isEmpty() ? null : stepName,
+                "全部".equals(selectedStatus) ? null : selectedStatus,
+                startDate.isEmpty() ? null : startDate,
+                endDate.isEmpty() ? null : endDate,
+                finalJobExecutionId,
+                keyword.isEmpty() ? null : keyword,
+                format, target, indicator
+            );
+        });
+    }
+
     /**
      * 为日期时间输入框添加实时验证
      */
@@ -313,28 +385,28 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
     private void loadStepExecutions() {
         DataSourceConfig selectedDataSource = (DataSourceConfig) dataSourceComboBox.getSelectedItem();
         if (selectedDataSource == null) {
-            updateStepList(new ArrayList<>());
+            updateStepList(StepExecutionColumns.empty());
             return;
         }
 
         toolWindow.updateStatus("正在加载步骤执行信息...");
 
-        SwingWorker<List<StepExecution>, Void> worker = new SwingWorker<List<StepExecution>, Void>() {
+        SwingWorker<StepExecutionColumns, Void> worker = new SwingWorker<StepExecutionColumns, Void>() {
             @Override
-            protected List<StepExecution> doInBackground() throws Exception {
+            protected StepExecutionColumns doInBackground() throws Exception {
                 try {
                     databaseService.addDataSource(selectedDataSource);
                 } catch (Exception e) {
                     // 数据源可能已存在，忽略错误
                 }
                 // 加载所有步骤执行记录
-                return databaseService.searchStepExecutions(selectedDataSource.getId(), null, null, null, null, null);
+                return databaseService.searchStepExecutions(selectedDataSource.getId(), null, null, null, null, null, null);
             }
 
             @Override
             protected void done() {
                 try {
-                    List<StepExecution> steps = get();
+                    StepExecutionColumns steps = get();
                     updateStepList(steps);
                     toolWindow.updateStatus("加载完成，共 " + steps.size() + " 个步骤执行记录。");
                 } catch (Exception e) {
@@ -348,11 +420,14 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
         worker.execute();
     }
 
-    private void updateStepList(List<StepExecution> steps) {
+    private void updateStepList(StepExecutionColumns steps) {
         SwingUtilities.invokeLater(() -> {
-            this.stepExecutions = steps != null ? steps : new ArrayList<>();
+            this.stepExecutions = steps != null ? steps : StepExecutionColumns.empty();
             tableModel.fireTableDataChanged();
             totalCountLabel.setText("总计: " + stepExecutions.size() + " 个步骤");
+            MemoryGovernor.getInstance().track(MEMORY_OWNER,
+                    "steps@" + Integer.toHexString(System.identityHashCode(this)), null,
+                    stepExecutions.estimateBytes(), null);
         });
     }
 
@@ -421,6 +496,8 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
                 "步骤ID", "步骤名称", "状态", "开始时间", "结束时间", "读取数", "写入数", "提交数"
         };
 
+        private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
         @Override
         public int getRowCount() {
             return stepExecutions.size();
@@ -442,23 +519,25 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
                 return "";
             }
 
-            StepExecution step = stepExecutions.get(rowIndex);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
             switch (columnIndex) {
-                case 0: return step.getId();
-                case 1: return step.getStepName();
-                case 2: return step.getStatus();
-                case 3: return step.getStartTime() != null ?
-                    new java.sql.Timestamp(step.getStartTime().getTime()).toLocalDateTime().format(formatter) : "";
-                case 4: return step.getEndTime() != null ?
-                    new java.sql.Timestamp(step.getEndTime().getTime()).toLocalDateTime().format(formatter) : "";
-                case 5: return step.getReadCount();
-                case 6: return step.getWriteCount();
-                case 7: return step.getCommitCount();
+                case 0: return stepExecutions.getId(rowIndex);
+                case 1: return stepExecutions.getStepName(rowIndex);
+                case 2: return stepExecutions.getStatus(rowIndex);
+                case 3: return formatTime(stepExecutions.getStartTime(rowIndex));
+                case 4: return formatTime(stepExecutions.getEndTime(rowIndex));
+                case 5: return stepExecutions.getCount(rowIndex, StepExecutionColumns.READ);
+                case 6: return stepExecutions.getCount(rowIndex, StepExecutionColumns.WRITE);
+                case 7: return stepExecutions.getCount(rowIndex, StepExecutionColumns.COMMIT);
                 default: return "";
             }
         }
+
+        private String formatTime(long millis) {
+            if (millis == ExecutionColumns.NO_TIME) {
+                return "";
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(formatter);
+        }
     }
 
     /**
@@ -471,14 +550,13 @@ public class StepListPanel extends JBPanel<StepListPanel> implements DataSourceC
             Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 
             if (!isSelected && row < stepExecutions.size()) {
-                StepExecution step = stepExecutions.get(row);
-                String status = step.getStatus();
+                int status = stepExecutions.getStatusCode(row);
 
-                if ("COMPLETED".equals(status)) {
+                if (status == ExecutionColumns.STATUS_COMPLETED) {
                     c.setForeground(new Color(0, 128, 0)); // Green
-                } else if ("FAILED".equals(status)) {
+                } else if (status == ExecutionColumns.STATUS_FAILED) {
                     c.setForeground(Color.RED);
-                } else if ("STARTED".equals(status) || "STARTING".equals(status)) {
+                } else if (status == ExecutionColumns.STATUS_STARTED || status == ExecutionColumns.STATUS_STARTING) {
                     c.setForeground(Color.BLUE);
                 } else {
                     c.setForeground(Color.BLACK);
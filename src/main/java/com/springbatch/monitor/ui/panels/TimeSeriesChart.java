@@ -0,0 +1,272 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * 时间序列图表 - 绘制等宽时间桶上的主序列（阶梯填充）和可选的次序列（折线）
+ *
+ * 点击图表时回调对应的时间点，悬停时显示该时间桶的数值。
+ */
+public class TimeSeriesChart extends JComponent {
+    private static final int LEFT_MARGIN = 48;
+    private static final int RIGHT_MARGIN = 12;
+    private static final int TOP_MARGIN = 18;
+    private static final int BOTTOM_MARGIN = 24;
+
+    private static final Color PRIMARY_COLOR = new JBColor(new Color(70, 130, 180), new Color(95, 150, 200));
+    private static final Color SECONDARY_COLOR = new JBColor(new Color(230, 126, 34), new Color(230, 150, 70));
+    private static final Color MARKER_COLOR = new JBColor(new Color(255, 0, 0, 40), new Color(255, 80, 80, 50));
+    private static final Color SELECTION_COLOR = new JBColor(new Color(200, 0, 0), new Color(255, 100, 100));
+    private static final Color GRID_COLOR = new JBColor(new Color(225, 225, 225), new Color(70, 70, 70));
+
+    private final List<LongConsumer> clickListeners = new ArrayList<>();
+    private long startTime;
+    private long bucketMillis = 1;
+    private double[] primary = new double[0];
+    private double[] secondary;
+    private String primaryName = "";
+    private String secondaryName = "";
+    private List<long[]> markers = new ArrayList<>();
+    private long selectedTime = Long.MIN_VALUE;
+
+    public TimeSeriesChart() {
+        setPreferredSize(new Dimension(600, 220));
+        setToolTipText("");
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (primary.length == 0 || !getPlotArea().contains(e.getPoint())) {
+                    return;
+                }
+                long time = timeAt(e.getX());
+                selectedTime = time;
+                repaint();
+                for (LongConsumer listener : clickListeners) {
+                    listener.accept(time);
+                }
+            }
+        });
+    }
+
+    /**
+     * 设置序列数据
+     *
+     * @param startTime 第一个时间桶的起点
+     * @param bucketMillis 时间桶宽度
+     * @param secondary 次序列，可为null
+     */
+    public void setSeries(long startTime, long bucketMillis, double[] primary, String primaryName,
+                          double[] secondary, String secondaryName) {
+        this.startTime = startTime;
+        this.bucketMillis = Math.max(1, bucketMillis);
+        this.primary = primary;
+        this.primaryName = primaryName;
+        this.secondary = secondary;
+        this.secondaryName = secondaryName;
+        this.selectedTime = Long.MIN_VALUE;
+        repaint();
+    }
+
+    /**
+     * 设置高亮时段，每项为 {start, end}
+     */
+    public void setMarkers(List<long[]> markers) {
+        this.markers = new ArrayList<>(markers);
+        repaint();
+    }
+
+    public void addTimeClickListener(LongConsumer listener) {
+        clickListeners.add(listener);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        if (primary.length == 0 || !getPlotArea().contains(event.getPoint())) {
+            return null;
+        }
+        int bucket = bucketAt(event.getX());
+        StringBuilder text = new StringBuilder("<html>")
+                .append(formatTime(startTime + bucket * bucketMillis, true))
+                .append("<br>").append(primaryName).append(": ").append(formatValue(primary[bucket]));
+        if (secondary != null) {
+            text.append("<br>").append(secondaryName).append(": ").append(formatValue(secondary[bucket]));
+        }
+        return text.append("</html>").toString();
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(JBColor.background());
+            g.fillRect(0, 0, getWidth(), getHeight());
+
+            Rectangle plot = getPlotArea();
+            if (primary.length == 0 || plot.width <= 0 || plot.height <= 0) {
+                g.setColor(JBColor.foreground());
+                g.drawString("暂无数据", plot.x + 8, plot.y + 16);
+                return;
+            }
+
+            double maxValue = niceMax(max(primary, secondary));
+            paintGrid(g, plot, maxValue);
+
+            g.setColor(MARKER_COLOR);
+            for (long[] marker : markers) {
+                int x1 = xOf(marker[0], plot);
+                int x2 = Math.max(x1 + 2, xOf(marker[1], plot));
+                g.fillRect(x1, plot.y, x2 - x1, plot.height);
+            }
+
+            g.setColor(PRIMARY_COLOR);
+            for (int bucket = 0; bucket < primary.length; bucket++) {
+                int x1 = plot.x + (int) ((long) bucket * plot.width / primary.length);
+                int x2 = plot.x + (int) ((long) (bucket + 1) * plot.width / primary.length);
+                int y = yOf(primary[bucket], plot, maxValue);
+                g.fillRect(x1, y, Math.max(1, x2 - x1), plot.y + plot.height - y);
+            }
+
+            if (secondary != null) {
+                g.setColor(SECONDARY_COLOR);
+                g.setStroke(new BasicStroke(1.5f));
+                int previousX = -1;
+                int previousY = -1;
+                for (int bucket = 0; bucket < secondary.length; bucket++) {
+                    int x = plot.x + (int) ((bucket + 0.5) * plot.width / secondary.length);
+                    int y = yOf(secondary[bucket], plot, maxValue);
+                    if (previousX >= 0) {
+                        g.drawLine(previousX, previousY, x, y);
+                    }
+                    previousX = x;
+                    previousY = y;
+                }
+            }
+
+            if (selectedTime != Long.MIN_VALUE) {
+                g.setColor(SELECTION_COLOR);
+                g.setStroke(new BasicStroke(1f));
+                int x = xOf(selectedTime, plot);
+                g.drawLine(x, plot.y, x, plot.y + plot.height);
+            }
+
+            paintLegend(g, plot);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void paintGrid(Graphics2D g, Rectangle plot, double maxValue) {
+        FontMetrics metrics = g.getFontMetrics();
+        for (int tick = 0; tick <= 4; tick++) {
+            double value = maxValue * tick / 4;
+            int y = yOf(value, plot, maxValue);
+            g.setColor(GRID_COLOR);
+            g.drawLine(plot.x, y, plot.x + plot.width, y);
+            g.setColor(JBColor.foreground());
+            String label = formatValue(value);
+            g.drawString(label, plot.x - metrics.stringWidth(label) - 4, y + metrics.getAscent() / 2);
+        }
+
+        long span = bucketMillis * primary.length;
+        boolean withTime = span <= 3L * 24 * 3600 * 1000;
+        int labels = Math.max(2, plot.width / 140);
+        for (int i = 0; i <= labels; i++) {
+            long time = startTime + span * i / labels;
+            String label = formatTime(time, withTime);
+            int x = xOf(time, plot) - metrics.stringWidth(label) / 2;
+            x = Math.max(0, Math.min(x, getWidth() - metrics.stringWidth(label)));
+            g.drawString(label, x, plot.y + plot.height + metrics.getAscent() + 4);
+        }
+    }
+
+    private void paintLegend(Graphics2D g, Rectangle plot) {
+        FontMetrics metrics = g.getFontMetrics();
+        int x = plot.x;
+        int y = TOP_MARGIN - 6;
+        g.setColor(PRIMARY_COLOR);
+        g.fillRect(x, y - 8, 10, 8);
+        g.setColor(JBColor.foreground());
+        g.drawString(primaryName, x + 14, y);
+        if (secondary != null) {
+            x += 14 + metrics.stringWidth(primaryName) + 16;
+            g.setColor(SECONDARY_COLOR);
+            g.fillRect(x, y - 5, 10, 2);
+            g.setColor(JBColor.foreground());
+            g.drawString(secondaryName, x + 14, y);
+        }
+    }
+
+    private Rectangle getPlotArea() {
+        return new Rectangle(LEFT_MARGIN, TOP_MARGIN,
+                getWidth() - LEFT_MARGIN - RIGHT_MARGIN, getHeight() - TOP_MARGIN - BOTTOM_MARGIN);
+    }
+
+    private int bucketAt(int x) {
+        Rectangle plot = getPlotArea();
+        int bucket = (int) ((long) (x - plot.x) * primary.length / Math.max(1, plot.width));
+        return Math.max(0, Math.min(primary.length - 1, bucket));
+    }
+
+    private long timeAt(int x) {
+        Rectangle plot = getPlotArea();
+        double fraction = (double) (x - plot.x) / Math.max(1, plot.width);
+        return startTime + (long) (fraction * bucketMillis * primary.length);
+    }
+
+    private int xOf(long time, Rectangle plot) {
+        double fraction = (double) (time - startTime) / ((double) bucketMillis * primary.length);
+        return plot.x + (int) Math.round(Math.max(0, Math.min(1, fraction)) * plot.width);
+    }
+
+    private static int yOf(double value, Rectangle plot, double maxValue) {
+        return plot.y + plot.height - (int) Math.round(value / maxValue * plot.height);
+    }
+
+    private static double max(double[] primary, double[] secondary) {
+        double max = 0;
+        for (double value : primary) {
+            max = Math.max(max, value);
+        }
+        if (secondary != null) {
+            for (double value : secondary) {
+                max = Math.max(max, value);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 取不小于 value 的 1/2/5 × 10^n 作为纵轴上限
+     */
+    static double niceMax(double value) {
+        if (value <= 0) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(value)));
+        for (double step : new double[]{1, 2, 5, 10}) {
+            if (step * magnitude >= value) {
+                return step * magnitude;
+            }
+        }
+        return 10 * magnitude;
+    }
+
+    private static String formatValue(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.2f", value);
+    }
+
+    private static String formatTime(long time, boolean withTime) {
+        return new SimpleDateFormat(withTime ? "MM-dd HH:mm" : "yyyy-MM-dd").format(new Date(time));
+    }
+}
@@ -0,0 +1,290 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+import com.springbatch.monitor.models.ExecutionSeries;
+import com.springbatch.monitor.utils.Downsampler;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.function.DoubleFunction;
+
+/**
+ * 趋势图 - 按绘图区宽度对可见时间范围内的执行点即时降采样后绘制折线
+ *
+ * 滚轮以鼠标位置为中心缩放，拖动平移，双击恢复全部范围；
+ * 只有可见范围、宽度或采样方式变化时才重新降采样。
+ */
+public class TrendChart extends JComponent {
+    private static final int LEFT_MARGIN = 64;
+    private static final int RIGHT_MARGIN = 12;
+    private static final int TOP_MARGIN = 18;
+    private static final int BOTTOM_MARGIN = 24;
+    private static final long MIN_SPAN_MILLIS = 60_000;
+    private static final double ZOOM_FACTOR = 1.25;
+
+    private static final Color LINE_COLOR = new JBColor(new Color(70, 130, 180), new Color(95, 150, 200));
+    private static final Color GRID_COLOR = new JBColor(new Color(225, 225, 225), new Color(70, 70, 70));
+
+    /**
+     * 降采样方式
+     */
+    public enum Sampling {
+        LTTB("LTTB"),
+        MIN_MAX("最小/最大值");
+
+        private final String displayName;
+
+        Sampling(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private ExecutionSeries series;
+    private double[] values = new double[0];
+    private String valueName = "";
+    private DoubleFunction<String> valueFormatter = String::valueOf;
+    private Sampling sampling = Sampling.LTTB;
+    private long viewFrom;
+    private long viewTo;
+
+    // 上次降采样的结果及其输入，输入不变时直接复用
+    private int[] sampled = new int[0];
+    private long sampledFrom;
+    private long sampledTo;
+    private int sampledWidth = -1;
+    private double[] sampledValues;
+    private Sampling sampledWith;
+    private int visibleCount;
+
+    private int dragX = -1;
+
+    public TrendChart() {
+        setPreferredSize(new Dimension(600, 260));
+        setToolTipText("");
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    resetView();
+                }
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragX = -1;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragX < 0 || series == null) {
+                    return;
+                }
+                long shift = (long) ((double) (dragX - e.getX()) / Math.max(1, getPlotArea().width)
+                        * (viewTo - viewFrom));
+                dragX = e.getX();
+                setView(viewFrom + shift, viewTo + shift);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (series == null) {
+                    return;
+                }
+                long anchor = timeAt(e.getX());
+                double scale = e.getWheelRotation() > 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+                setView(anchor - (long) ((anchor - viewFrom) * scale), anchor + (long) ((viewTo - anchor) * scale));
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+        addMouseWheelListener(mouseHandler);
+    }
+
+    /**
+     * 设置序列并显示全部范围
+     */
+    public void setSeries(ExecutionSeries series) {
+        this.series = series;
+        this.sampledWidth = -1;
+        resetView();
+    }
+
+    /**
+     * 选择要绘制的值数组（与序列的时间数组一一对应）
+     */
+    public void setValues(double[] values, String valueName, DoubleFunction<String> valueFormatter) {
+        this.values = values;
+        this.valueName = valueName;
+        this.valueFormatter = valueFormatter;
+        repaint();
+    }
+
+    public void setSampling(Sampling sampling) {
+        this.sampling = sampling;
+        repaint();
+    }
+
+    public void resetView() {
+        if (series != null && series.size() > 0) {
+            long[] times = series.getStartTimes();
+            viewFrom = times[0];
+            viewTo = Math.max(times[series.size() - 1] + 1, viewFrom + MIN_SPAN_MILLIS);
+        }
+        repaint();
+    }
+
+    private void setView(long from, long to) {
+        long[] times = series.getStartTimes();
+        long first = times[0];
+        long last = Math.max(times[series.size() - 1] + 1, first + MIN_SPAN_MILLIS);
+        long span = Math.max(MIN_SPAN_MILLIS, Math.min(to - from, last - first));
+        from = Math.max(first, Math.min(from, last - span));
+        viewFrom = from;
+        viewTo = from + span;
+        repaint();
+    }
+
+    /**
+     * 对可见范围降采样，输入与上次相同时复用结果
+     */
+    private int[] sample(int width) {
+        if (sampledWidth == width && sampledFrom == viewFrom && sampledTo == viewTo
+                && sampledValues == values && sampledWith == sampling) {
+            return sampled;
+        }
+        // 左右各多取一个点，折线延伸到绘图区边缘
+        int from = Math.max(0, series.indexAt(viewFrom) - 1);
+        int to = Math.min(series.size(), series.indexAt(viewTo) + 1);
+        visibleCount = Math.max(0, to - from);
+        sampled = sampling == Sampling.LTTB
+                ? Downsampler.lttb(series.getStartTimes(), values, from, to, Math.max(3, width))
+                : Downsampler.minMax(values, from, to, Math.max(1, width / 2));
+        sampledWidth = width;
+        sampledFrom = viewFrom;
+        sampledTo = viewTo;
+        sampledValues = values;
+        sampledWith = sampling;
+        return sampled;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        Rectangle plot = getPlotArea();
+        if (series == null || sampled.length == 0 || !plot.contains(event.getPoint())) {
+            return null;
+        }
+        long time = timeAt(event.getX());
+        long[] times = series.getStartTimes();
+        int nearest = sampled[0];
+        for (int index : sampled) {
+            if (Math.abs(times[index] - time) < Math.abs(times[nearest] - time)) {
+                nearest = index;
+            }
+        }
+        return "<html>" + formatTime(times[nearest], true) + "<br>" + valueName + ": "
+                + valueFormatter.apply(values[nearest]) + "</html>";
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(JBColor.background());
+            g.fillRect(0, 0, getWidth(), getHeight());
+
+            Rectangle plot = getPlotArea();
+            if (series == null || series.size() == 0 || values.length < series.size()
+                    || plot.width <= 0 || plot.height <= 0) {
+                g.setColor(JBColor.foreground());
+                g.drawString("暂无数据", plot.x + 8, plot.y + 16);
+                return;
+            }
+
+            int[] points = sample(plot.width);
+            long[] times = series.getStartTimes();
+            double max = 0;
+            for (int index : points) {
+                max = Math.max(max, values[index]);
+            }
+            double maxValue = TimeSeriesChart.niceMax(max);
+            paintGrid(g, plot, maxValue);
+
+            Shape clip = g.getClip();
+            g.clipRect(plot.x, plot.y, plot.width + 1, plot.height + 1);
+            g.setColor(LINE_COLOR);
+            g.setStroke(new BasicStroke(1.2f));
+            int[] xs = new int[points.length];
+            int[] ys = new int[points.length];
+            for (int i = 0; i < points.length; i++) {
+                xs[i] = xOf(times[points[i]], plot);
+                ys[i] = plot.y + plot.height - (int) Math.round(values[points[i]] / maxValue * plot.height);
+            }
+            g.drawPolyline(xs, ys, points.length);
+            g.setClip(clip);
+
+            g.setColor(JBColor.foreground());
+            g.drawString(String.format("%s · 显示 %,d / %,d 个点（滚轮缩放，拖动平移，双击复位）",
+                    valueName, points.length, visibleCount), plot.x, TOP_MARGIN - 6);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void paintGrid(Graphics2D g, Rectangle plot, double maxValue) {
+        FontMetrics metrics = g.getFontMetrics();
+        for (int tick = 0; tick <= 4; tick++) {
+            double value = maxValue * tick / 4;
+            int y = plot.y + plot.height - (int) Math.round(value / maxValue * plot.height);
+            g.setColor(GRID_COLOR);
+            g.drawLine(plot.x, y, plot.x + plot.width, y);
+            g.setColor(JBColor.foreground());
+            String label = valueFormatter.apply(value);
+            g.drawString(label, Math.max(0, plot.x - metrics.stringWidth(label) - 4), y + metrics.getAscent() / 2);
+        }
+
+        boolean withTime = viewTo - viewFrom <= 3L * 24 * 3600 * 1000;
+        int labels = Math.max(2, plot.width / 140);
+        for (int i = 0; i <= labels; i++) {
+            long time = viewFrom + (viewTo - viewFrom) * i / labels;
+            String label = formatTime(time, withTime);
+            int x = xOf(time, plot) - metrics.stringWidth(label) / 2;
+            x = Math.max(0, Math.min(x, getWidth() - metrics.stringWidth(label)));
+            g.drawString(label, x, plot.y + plot.height + metrics.getAscent() + 4);
+        }
+    }
+
+    private Rectangle getPlotArea() {
+        return new Rectangle(LEFT_MARGIN, TOP_MARGIN,
+                getWidth() - LEFT_MARGIN - RIGHT_MARGIN, getHeight() - TOP_MARGIN - BOTTOM_MARGIN);
+    }
+
+    private long timeAt(int x) {
+        Rectangle plot = getPlotArea();
+        double fraction = (double) (x - plot.x) / Math.max(1, plot.width);
+        return viewFrom + (long) (fraction * (viewTo - viewFrom));
+    }
+
+    private int xOf(long time, Rectangle plot) {
+        return plot.x + (int) Math.round((double) (time - viewFrom) / (viewTo - viewFrom) * plot.width);
+    }
+
+    private static String formatTime(long time, boolean withTime) {
+        return new SimpleDateFormat(withTime ? "MM-dd HH:mm" : "yyyy-MM-dd").format(new Date(time));
+    }
+}
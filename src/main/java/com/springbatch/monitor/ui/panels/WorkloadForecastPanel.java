@@ -0,0 +1,194 @@
+package com.springbatch.monitor.ui.panels;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.springbatch.monitor.models.WorkloadForecast;
+import com.springbatch.monitor.services.WorkloadForecastService;
+import com.springbatch.monitor.utils.DateTimeUtils;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 负载预测面板 - 按历史趋势预测各作业单次耗时何时超过批处理窗口上限
+ */
+public class WorkloadForecastPanel extends JBPanel<WorkloadForecastPanel> {
+    private static final int HORIZON_DAYS = 180;
+    // 预计在该天数内超限时标红
+    private static final long WARNING_DAYS = 30;
+
+    private final ForecastTableModel tableModel = new ForecastTableModel();
+    private final JComboBox<Integer> historyComboBox = new JComboBox<>(new Integer[]{30, 60, 90, 180});
+    private final JTextField limitField = new JTextField("240", 5);
+    private final JButton forecastButton = new JButton("预测");
+    private final JBLabel statusLabel = new JBLabel("请选择数据源");
+    private String dataSourceId;
+
+    public WorkloadForecastPanel() {
+        super(new BorderLayout());
+
+        JPanel toolbarPanel = new JBPanel<>(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.add(new JBLabel("历史天数:"));
+        historyComboBox.setSelectedItem(90);
+        toolbarPanel.add(historyComboBox);
+        toolbarPanel.add(new JBLabel("批处理窗口上限(分钟):"));
+        limitField.setToolTipText("单次执行耗时的上限，如夜间批处理窗口的长度");
+        toolbarPanel.add(limitField);
+        forecastButton.addActionListener(e -> reload());
+        toolbarPanel.add(forecastButton);
+        add(toolbarPanel, BorderLayout.NORTH);
+
+        JBTable table = new JBTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(200); // 作业名称
+        table.getColumnModel().getColumn(5).setCellRenderer(new CrossingCellRenderer());
+        add(new JBScrollPane(table), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * 切换数据源并重新预测
+     */
+    public void setDataSource(String dataSourceId) {
+        this.dataSourceId = dataSourceId;
+        reload();
+    }
+
+    public void reload() {
+        if (dataSourceId == null) {
+            statusLabel.setText("请选择数据源");
+            return;
+        }
+        long limitMinutes;
+        try {
+            limitMinutes = Long.parseLong(limitField.getText().trim());
+        } catch (NumberFormatException e) {
+            statusLabel.setText("请输入有效的分钟数");
+            return;
+        }
+        if (limitMinutes <= 0) {
+            statusLabel.setText("请输入有效的分钟数");
+            return;
+        }
+
+        String requestedDataSource = dataSourceId;
+        int historyDays = (Integer) historyComboBox.getSelectedItem();
+        statusLabel.setText("正在预测...");
+        forecastButton.setEnabled(false);
+
+        SwingWorker<List<WorkloadForecast>, Void> worker = new SwingWorker<List<WorkloadForecast>, Void>() {
+            @Override
+            protected List<WorkloadForecast> doInBackground() throws Exception {
+                return WorkloadForecastService.getInstance().forecast(requestedDataSource, historyDays,
+                        limitMinutes * 60_000, HORIZON_DAYS);
+            }
+
+            @Override
+            protected void done() {
+                forecastButton.setEnabled(true);
+                if (!requestedDataSource.equals(dataSourceId)) {
+                    return;
+                }
+                try {
+                    List<WorkloadForecast> forecasts = get();
+                    tableModel.setForecasts(forecasts);
+                    long crossing = forecasts.stream().filter(f -> f.getCrossingDay() != null).count();
+                    statusLabel.setText(String.format("%d 个作业，%d 个预计在 %d 天内超过 %d 分钟",
+                            forecasts.size(), crossing, HORIZON_DAYS, limitMinutes));
+                } catch (Exception e) {
+                    statusLabel.setText("预测失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * 预测结果表格模型
+     */
+    private static class ForecastTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "作业名称", "样本天数", "近期平均耗时", "耗时变化/天", "写入量变化/天", "预计超限日期", "剩余天数"
+        };
+        private final Class<?>[] columnClasses = {
+                String.class, Integer.class, String.class, String.class, Long.class, String.class, Long.class
+        };
+        private List<WorkloadForecast> forecasts = new ArrayList<>();
+
+        public void setForecasts(List<WorkloadForecast> forecasts) {
+            this.forecasts = forecasts;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return forecasts.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnClasses[columnIndex];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= forecasts.size()) {
+                return "";
+            }
+
+            WorkloadForecast forecast = forecasts.get(rowIndex);
+
+            switch (columnIndex) {
+                case 0: return forecast.getJobName();
+                case 1: return forecast.getDurationTrend().getObservations();
+                case 2: return Double.isNaN(forecast.getRecentAverageMillis())
+                        ? "" : DateTimeUtils.formatMillis(forecast.getRecentAverageMillis());
+                case 3: {
+                    double slope = forecast.getDurationTrend().getSlope();
+                    return (slope < 0 ? "-" : "+") + DateTimeUtils.formatMillis(Math.abs(slope));
+                }
+                case 4: return forecast.getWriteTrend() != null ? Math.round(forecast.getWriteTrend().getSlope()) : null;
+                case 5: return forecast.getCrossingDay() != null ? forecast.getCrossingDay().toString() : "";
+                case 6: return forecast.getCrossingDay() != null
+                        ? ChronoUnit.DAYS.between(LocalDate.now(), forecast.getCrossingDay()) : null;
+                default: return "";
+            }
+        }
+    }
+
+    /**
+     * 预计超限日期渲染器 - 临近的日期标红
+     */
+    private static class CrossingCellRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                boolean near = value instanceof String && !((String) value).isEmpty()
+                        && ChronoUnit.DAYS.between(LocalDate.now(), LocalDate.parse((String) value)) <= WARNING_DAYS;
+                c.setForeground(near ? JBColor.RED : table.getForeground());
+            }
+            return c;
+        }
+    }
+}
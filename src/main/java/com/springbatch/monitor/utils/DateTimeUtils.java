@@ -138,6 +138,26 @@ public class DateTimeUtils {
                "• 单位数字: 2020-6-20, 2020/6/20";
     }
     
+    /**
+     * 格式化毫秒时长，如 350毫秒、12.5秒、3分20秒、2小时5分钟
+     *
+     * @param millis 毫秒数
+     * @return 格式化后的字符串
+     */
+    public static String formatMillis(double millis) {
+        if (millis < 1000) {
+            return String.format("%.0f毫秒", millis);
+        }
+        if (millis < 60_000) {
+            return String.format("%.1f秒", millis / 1000);
+        }
+        long seconds = Math.round(millis / 1000);
+        if (seconds < 3600) {
+            return String.format("%d分%d秒", seconds / 60, seconds % 60);
+        }
+        return String.format("%d小时%d分钟", seconds / 3600, (seconds % 3600) / 60);
+    }
+
     /**
      * 验证日期时间字符串格式
      * 
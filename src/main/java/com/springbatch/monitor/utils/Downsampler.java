@@ -0,0 +1,156 @@
+package com.springbatch.monitor.utils;
+
+import java.util.Arrays;
+
+/**
+ * 降采样 - 从 [from, to) 范围的点中挑出少量下标用于绘图，结果按时间顺序排列
+ *
+ * LTTB（Largest-Triangle-Three-Buckets）保留视觉形状，适合折线；
+ * 每桶最小/最大值保留所有极值，适合查看尖峰。两者都跳过 NaN 点。
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * LTTB 降采样
+     *
+     * @param threshold 目标点数（通常为绘图区像素宽度），不小于 3
+     */
+    public static int[] lttb(long[] x, double[] y, int from, int to, int threshold) {
+        int count = to - from;
+        if (count <= threshold || threshold < 3) {
+            return valid(y, from, to);
+        }
+
+        int[] selected = new int[threshold];
+        int size = 0;
+        int previous = firstValid(y, from, to);
+        if (previous < 0) {
+            return new int[0];
+        }
+        selected[size++] = previous;
+
+        // 首尾各占一个点，中间均分为 threshold - 2 个桶
+        double bucketWidth = (double) (count - 2) / (threshold - 2);
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = from + 1 + (int) (bucket * bucketWidth);
+            int bucketEnd = Math.min(to - 1, from + 1 + (int) ((bucket + 1) * bucketWidth));
+
+            // 下一个桶的平均点作为三角形的第三个顶点
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min(to, from + 1 + (int) ((bucket + 2) * bucketWidth));
+            double averageX = 0;
+            double averageY = 0;
+            int averageCount = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                if (!Double.isNaN(y[i])) {
+                    averageX += x[i];
+                    averageY += y[i];
+                    averageCount++;
+                }
+            }
+            if (averageCount == 0) {
+                int last = lastValid(y, from, to);
+                averageX = x[last];
+                averageY = y[last];
+            } else {
+                averageX /= averageCount;
+                averageY /= averageCount;
+            }
+
+            double maxArea = -1;
+            int chosen = -1;
+            for (int i = Math.max(bucketStart, previous + 1); i < bucketEnd; i++) {
+                if (Double.isNaN(y[i])) {
+                    continue;
+                }
+                // 三角形面积的两倍，坐标以上一个选中点为原点以减少精度损失
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                        - (double) (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            if (chosen >= 0) {
+                selected[size++] = chosen;
+                previous = chosen;
+            }
+        }
+
+        int last = lastValid(y, from, to);
+        if (last > previous) {
+            selected[size++] = last;
+        }
+        return Arrays.copyOf(selected, size);
+    }
+
+    /**
+     * 每桶最小/最大值降采样，每个桶最多保留两个点
+     */
+    public static int[] minMax(double[] y, int from, int to, int buckets) {
+        int count = to - from;
+        if (count <= buckets * 2 || buckets < 1) {
+            return valid(y, from, to);
+        }
+
+        int[] selected = new int[buckets * 2];
+        int size = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int bucketStart = from + (int) ((long) bucket * count / buckets);
+            int bucketEnd = from + (int) ((long) (bucket + 1) * count / buckets);
+            int min = -1;
+            int max = -1;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                if (Double.isNaN(y[i])) {
+                    continue;
+                }
+                if (min < 0 || y[i] < y[min]) {
+                    min = i;
+                }
+                if (max < 0 || y[i] > y[max]) {
+                    max = i;
+                }
+            }
+            if (min < 0) {
+                continue;
+            }
+            selected[size++] = Math.min(min, max);
+            if (min != max) {
+                selected[size++] = Math.max(min, max);
+            }
+        }
+        return Arrays.copyOf(selected, size);
+    }
+
+    private static int[] valid(double[] y, int from, int to) {
+        int[] selected = new int[Math.max(0, to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            if (!Double.isNaN(y[i])) {
+                selected[size++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, size);
+    }
+
+    private static int firstValid(double[] y, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Double.isNaN(y[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastValid(double[] y, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (!Double.isNaN(y[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,117 @@
+package com.springbatch.monitor.utils;
+
+import java.util.Arrays;
+
+/**
+ * 时长直方图 - 按近似对数刻度分桶统计毫秒时长，用于在数据库端分组计数后在本地插值计算分位数
+ *
+ * 各数据库对 PERCENTILE_CONT 的支持不一致，改为在 SQL 中用 CASE 表达式计算桶号并
+ * GROUP BY，每组只返回至多 {@link #BUCKET_COUNT} 行；分位数在桶内线性插值，误差不超过桶宽。
+ */
+public class DurationHistogram {
+    /**
+     * 桶上界（毫秒，不含）：第 i 个桶为 [BOUNDS[i-1], BOUNDS[i])，最后一个桶无上界
+     */
+    private static final long[] BOUNDS = {
+            100, 200, 500, 1000, 2000, 5000, 10_000, 20_000, 30_000, 60_000, 120_000, 300_000,
+            600_000, 1_200_000, 1_800_000, 3_600_000, 7_200_000, 21_600_000, 43_200_000, 86_400_000
+    };
+    public static final int BUCKET_COUNT = BOUNDS.length + 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private double sum;
+    private double max;
+
+    /**
+     * 生成计算桶号的 SQL 表达式
+     *
+     * @param durationExpression 毫秒时长表达式（通常为子查询中的列别名）
+     */
+    public static String bucketExpression(String durationExpression) {
+        StringBuilder expression = new StringBuilder("CASE");
+        for (int i = 0; i < BOUNDS.length; i++) {
+            expression.append(" WHEN ").append(durationExpression).append(" < ").append(BOUNDS[i])
+                      .append(" THEN ").append(i);
+        }
+        return expression.append(" ELSE ").append(BOUNDS.length).append(" END").toString();
+    }
+
+    /**
+     * 合并数据库返回的一组分桶结果
+     */
+    public void add(int bucket, long bucketCount, double bucketSum, double bucketMax) {
+        int index = Math.max(0, Math.min(BUCKET_COUNT - 1, bucket));
+        counts[index] += bucketCount;
+        count += bucketCount;
+        sum += bucketSum;
+        max = Math.max(max, bucketMax);
+    }
+
+    /**
+     * 记录单个时长
+     */
+    public void record(double millis) {
+        add(bucketOf(millis), 1, millis, millis);
+    }
+
+    public void merge(DurationHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : 0;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public long[] getBucketCounts() {
+        return Arrays.copyOf(counts, counts.length);
+    }
+
+    /**
+     * 分位数（毫秒），在所在桶内线性插值
+     *
+     * @param quantile 0~1
+     */
+    public double percentile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        double rank = Math.max(0, Math.min(1, quantile)) * count;
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (cumulative + counts[i] >= rank) {
+                double lower = i == 0 ? 0 : BOUNDS[i - 1];
+                double upper = i < BOUNDS.length ? Math.min(BOUNDS[i], Math.max(max, lower)) : Math.max(max, lower);
+                double fraction = (rank - cumulative) / counts[i];
+                return Math.min(max, lower + fraction * (upper - lower));
+            }
+            cumulative += counts[i];
+        }
+        return max;
+    }
+
+    private static int bucketOf(double millis) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (millis < BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+}
@@ -0,0 +1,206 @@
+package com.springbatch.monitor.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 失败签名 - 将 EXIT_MESSAGE 中的异常堆栈规范化后计算精确签名和 SimHash
+ *
+ * 规范化会去掉消息中的 ID、数字、时间戳、UUID、引号内的取值和行号，
+ * 精确签名由异常类型、根因类型和前几帧（忽略反射、代理帧）组成；
+ * SimHash 基于规范化后的词项，用于把只有细节差异的近似消息归为一类。
+ */
+public class FailureSignature {
+    private static final int SIGNATURE_FRAMES = 3;
+    private static final int MAX_HEAD_LENGTH = 300;
+
+    private static final Pattern FRAME = Pattern.compile("^\\s*at\\s+([\\w$.<>/]+)\\s*\\(");
+    private static final Pattern CAUSED_BY = Pattern.compile("^\\s*Caused by:\\s*([\\w$.]+)");
+    private static final Pattern EXCEPTION_TYPE = Pattern.compile("^([a-zA-Z_$][\\w$]*(?:\\.[\\w$]+)*(?:Exception|Error|Throwable))");
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "\\d{4}[-/]\\d{1,2}[-/]\\d{1,2}(?:[ T]\\d{1,2}:\\d{2}(?::\\d{2}(?:[.,]\\d+)?)?(?:Z|[+-]\\d{2}:?\\d{2})?)?");
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"|\\[[^\\]]{0,200}\\]");
+    private static final Pattern HEX = Pattern.compile("\\b0x[0-9a-fA-F]+\\b|@[0-9a-fA-F]{4,}\\b|\\b[0-9a-fA-F]{16,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z_$][\\w$]*|<\\w+>");
+
+    private final String exceptionType;
+    private final String rootCauseType;
+    private final String normalizedHead;
+    private final List<String> topFrames;
+    private final long signature;
+    private final long simHash;
+
+    private FailureSignature(String exceptionType, String rootCauseType, String normalizedHead,
+                             List<String> topFrames, long signature, long simHash) {
+        this.exceptionType = exceptionType;
+        this.rootCauseType = rootCauseType;
+        this.normalizedHead = normalizedHead;
+        this.topFrames = topFrames;
+        this.signature = signature;
+        this.simHash = simHash;
+    }
+
+    /**
+     * 解析退出消息
+     */
+    public static FailureSignature of(String message) {
+        String text = message != null ? message : "";
+        String[] lines = text.split("\\r?\\n");
+
+        String head = "";
+        String rootCauseType = null;
+        List<String> frames = new ArrayList<>();
+        boolean inCause = false;
+        for (String line : lines) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (head.isEmpty()) {
+                head = line.trim();
+                continue;
+            }
+            Matcher causedBy = CAUSED_BY.matcher(line);
+            if (causedBy.find()) {
+                rootCauseType = causedBy.group(1);
+                inCause = true;
+                continue;
+            }
+            Matcher frame = FRAME.matcher(line);
+            // 签名只取最外层异常的栈帧，根因只记录类型
+            if (!inCause && frame.find() && frames.size() < SIGNATURE_FRAMES) {
+                String method = normalizeFrame(frame.group(1));
+                if (!isSyntheticFrame(method)) {
+                    frames.add(method);
+                }
+            }
+        }
+
+        String normalizedHead = normalize(head);
+        if (normalizedHead.length() > MAX_HEAD_LENGTH) {
+            normalizedHead = normalizedHead.substring(0, MAX_HEAD_LENGTH);
+        }
+        Matcher type = EXCEPTION_TYPE.matcher(head);
+        String exceptionType = type.find() ? type.group(1) : "";
+
+        StringBuilder key = new StringBuilder();
+        if (frames.isEmpty()) {
+            // 截断后没有栈帧时，以规范化后的首行作为签名
+            key.append(normalizedHead);
+        } else {
+            key.append(exceptionType);
+        }
+        key.append('|').append(rootCauseType != null ? rootCauseType : "");
+        for (String frame : frames) {
+            key.append('|').append(frame);
+        }
+
+        return new FailureSignature(exceptionType, rootCauseType, normalizedHead,
+                Collections.unmodifiableList(frames), hash64(key.toString()), simHash(normalizedHead, frames));
+    }
+
+    /**
+     * 规范化消息文本：替换易变的取值，保留结构
+     */
+    public static String normalize(String text) {
+        String result = UUID.matcher(text).replaceAll("<uuid>");
+        result = TIMESTAMP.matcher(result).replaceAll("<ts>");
+        result = QUOTED.matcher(result).replaceAll("<v>");
+        result = HEX.matcher(result).replaceAll("<hex>");
+        result = NUMBER.matcher(result).replaceAll("<n>");
+        return WHITESPACE.matcher(result).replaceAll(" ").trim();
+    }
+
+    public static int hammingDistance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    private static String normalizeFrame(String method) {
+        // 去掉 lambda、匿名类和 CGLIB 生成类名中的序号
+        return method.replaceAll("\\$\\$Lambda\\$[^.]*", "\\$\\$Lambda")
+                     .replaceAll("\\$\\d+", "\\$<n>")
+                     .replaceAll("\\$\\$[A-Za-z]+\\$\\$[0-9a-fA-F]+", "\\$\\$<proxy>");
+    }
+
+    private static boolean isSyntheticFrame(String method) {
+        return method.startsWith("jdk.internal.reflect.")
+                || method.startsWith("sun.reflect.")
+                || method.startsWith("java.lang.reflect.")
+                || method.startsWith("com.sun.proxy.")
+                || method.contains("$$<proxy>")
+                || method.contains("$Proxy");
+    }
+
+    private static long simHash(String normalizedHead, List<String> frames) {
+        int[] weights = new int[64];
+        Matcher token = TOKEN.matcher(normalizedHead);
+        while (token.find()) {
+            addFeature(weights, hash64(token.group()), 1);
+        }
+        // 栈帧比首行中的词项更稳定，权重更高
+        for (String frame : frames) {
+            addFeature(weights, hash64(frame), 3);
+        }
+        long result = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
+    }
+
+    private static void addFeature(int[] weights, long hash, int weight) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) != 0 ? weight : -weight;
+        }
+    }
+
+    /**
+     * 64 位 FNV-1a 哈希，再做一次混合使各位分布均匀
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public String getExceptionType() {
+        return exceptionType;
+    }
+
+    /**
+     * 最内层 Caused by 的异常类型，没有时为null
+     */
+    public String getRootCauseType() {
+        return rootCauseType;
+    }
+
+    public String getNormalizedHead() {
+        return normalizedHead;
+    }
+
+    public List<String> getTopFrames() {
+        return topFrames;
+    }
+
+    public long getSignature() {
+        return signature;
+    }
+
+    public long getSimHash() {
+        return simHash;
+    }
+}
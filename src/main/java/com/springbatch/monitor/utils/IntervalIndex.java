@@ -0,0 +1,161 @@
+package com.springbatch.monitor.utils;
+
+import java.util.Arrays;
+
+/**
+ * 区间索引 - 使用基本类型数组存储按开始时间排序的 [start, end) 区间，
+ * 支持查询某一时刻正在运行的区间
+ *
+ * 区间必须按开始时间升序追加。构建后在开始时间数组上做二分查找，
+ * 再借助按位置划分的"最大结束时间"线段树剪枝，查询复杂度为 O(log n + k)。
+ * 每个区间约占 28 字节，不为区间创建对象。
+ */
+public class IntervalIndex {
+    private long[] starts;
+    private long[] ends;
+    private long[] ids;
+    private int[] nameCodes;
+    private int size;
+    private long[] maxEndTree;
+    private boolean built;
+
+    public IntervalIndex() {
+        this(1024);
+    }
+
+    public IntervalIndex(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        starts = new long[capacity];
+        ends = new long[capacity];
+        ids = new long[capacity];
+        nameCodes = new int[capacity];
+    }
+
+    /**
+     * 追加区间，开始时间必须不小于上一个区间的开始时间
+     */
+    public void add(long start, long end, long id, int nameCode) {
+        if (built) {
+            throw new IllegalStateException("Index already built");
+        }
+        if (size > 0 && start < starts[size - 1]) {
+            throw new IllegalArgumentException("Intervals must be added in start order");
+        }
+        if (size == starts.length) {
+            int capacity = size + (size >> 1);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        ids[size] = id;
+        nameCodes[size] = nameCode;
+        size++;
+    }
+
+    /**
+     * 完成追加，收缩数组并构建线段树
+     */
+    public void build() {
+        if (built) {
+            return;
+        }
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        ids = Arrays.copyOf(ids, size);
+        nameCodes = Arrays.copyOf(nameCodes, size);
+
+        int leaves = 1;
+        while (leaves < size) {
+            leaves <<= 1;
+        }
+        maxEndTree = new long[leaves * 2];
+        Arrays.fill(maxEndTree, Long.MIN_VALUE);
+        System.arraycopy(ends, 0, maxEndTree, leaves, size);
+        for (int node = leaves - 1; node >= 1; node--) {
+            maxEndTree[node] = Math.max(maxEndTree[node * 2], maxEndTree[node * 2 + 1]);
+        }
+        built = true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 查询在 time 时刻运行中的区间（start <= time < end）
+     *
+     * @param limit 最多返回的区间数
+     * @return 区间在索引中的位置
+     */
+    public int[] findRunningAt(long time, int limit) {
+        if (!built) {
+            build();
+        }
+        // 开始时间 <= time 的区间位于 [0, prefix)
+        int prefix = upperBound(time);
+        if (prefix == 0 || limit <= 0) {
+            return new int[0];
+        }
+        int[] result = new int[Math.min(limit, prefix)];
+        int leaves = maxEndTree.length / 2;
+        int found = collect(1, 0, leaves, prefix, time, result, 0);
+        return Arrays.copyOf(result, found);
+    }
+
+    private int collect(int node, int nodeStart, int nodeEnd, int prefix, long time, int[] result, int found) {
+        if (found >= result.length || nodeStart >= prefix || maxEndTree[node] <= time) {
+            return found;
+        }
+        if (nodeEnd - nodeStart == 1) {
+            result[found] = nodeStart;
+            return found + 1;
+        }
+        int middle = (nodeStart + nodeEnd) >>> 1;
+        found = collect(node * 2, nodeStart, middle, prefix, time, result, found);
+        return collect(node * 2 + 1, middle, nodeEnd, prefix, time, result, found);
+    }
+
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public long getStart(int position) {
+        return starts[position];
+    }
+
+    public long getEnd(int position) {
+        return ends[position];
+    }
+
+    public long getId(int position) {
+        return ids[position];
+    }
+
+    public int getNameCode(int position) {
+        return nameCodes[position];
+    }
+
+    /**
+     * 估算占用的堆内存字节数
+     */
+    public long estimateBytes() {
+        long bytes = (long) starts.length * (8 + 8 + 8 + 4);
+        if (maxEndTree != null) {
+            bytes += (long) maxEndTree.length * 8;
+        }
+        return bytes;
+    }
+}
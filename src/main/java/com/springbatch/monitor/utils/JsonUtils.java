@@ -0,0 +1,47 @@
+package com.springbatch.monitor.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON 工具类 - 流式导出时直接向 Writer 写出转义后的字符串
+ */
+public class JsonUtils {
+
+    private JsonUtils() {
+    }
+
+    /**
+     * 写出带引号的 JSON 字符串，控制字符按 \\uXXXX 转义
+     */
+    public static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
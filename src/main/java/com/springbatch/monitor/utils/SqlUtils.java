@@ -0,0 +1,43 @@
+package com.springbatch.monitor.utils;
+
+import java.sql.Types;
+
+/**
+ * SQL 工具类 - 拼接 IN 列表占位符、判断列类型
+ */
+public class SqlUtils {
+
+    private SqlUtils() {
+    }
+
+    /**
+     * IN 列表的占位符，如 count 为 3 时返回 "(?, ?, ?) "
+     */
+    public static String placeholders(int count) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < count; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.append(") ").toString();
+    }
+
+    /**
+     * JDBC 列类型是否为数值，导出 JSON 时数值不加引号
+     */
+    public static boolean isNumeric(int type) {
+        switch (type) {
+            case Types.BIGINT:
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.springbatch.monitor.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 字符串字典 - 把基数很低的列值（作业名称、状态、退出码等）编码为从 0 开始的小整数
+ *
+ * 编码只增不删，同一个值始终对应同一个编码；解码不加锁，读取的是发布后不再修改的数组。
+ */
+public class StringDictionary {
+    public static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    /**
+     * @param presets 预先编码的值，编码依次为 0、1、2……，调用方可把它们当作常量比较
+     */
+    public StringDictionary(String... presets) {
+        for (String preset : presets) {
+            encode(preset);
+        }
+    }
+
+    /**
+     * 返回值的编码，首次出现时分配新编码；null 编码为 {@link #NULL_CODE}
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        synchronized (this) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value;
+            codes.put(value, size);
+            // 先写入数组再发布，解码方看到新数组时其中的值已就绪
+            values = current;
+            return size++;
+        }
+    }
+
+    /**
+     * 返回字典中与 value 相等的实例，相同的值在内存中只保留一份
+     */
+    public String intern(String value) {
+        return decode(encode(value));
+    }
+
+    public String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,76 @@
+package com.springbatch.monitor.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文本区 - 把一次查询加载的长文本列（如 EXIT_MESSAGE）以 UTF-8 加长度前缀追加到堆外内存块中，
+ * 记录只保存一个 long 句柄，显示或检索时才解码为 String
+ *
+ * 句柄高 32 位为块序号，低 32 位为块内偏移；null 对应 {@link #NULL_HANDLE}，空串也占用一个条目。
+ * 文本区只追加不回收，随结果列表一起被回收后堆外内存由直接缓冲区的清理器释放。
+ */
+public class TextArena {
+    public static final long NULL_HANDLE = -1L;
+
+    // 块大小从 16KB 起按已分配总量翻倍，小结果集不会占用大块内存
+    private static final int MIN_CHUNK_BYTES = 16 * 1024;
+    private static final int MAX_CHUNK_BYTES = 1024 * 1024;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private long usedBytes;
+    private long allocatedBytes;
+
+    /**
+     * 追加文本并返回句柄
+     */
+    public synchronized long append(String text) {
+        if (text == null) {
+            return NULL_HANDLE;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int required = Integer.BYTES + bytes.length;
+        if (current == null || current.remaining() < required) {
+            int chunkBytes = (int) Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, allocatedBytes));
+            current = ByteBuffer.allocateDirect(Math.max(chunkBytes, required));
+            chunks.add(current);
+            allocatedBytes += current.capacity();
+        }
+        long handle = (long) (chunks.size() - 1) << 32 | current.position();
+        current.putInt(bytes.length);
+        current.put(bytes);
+        usedBytes += required;
+        return handle;
+    }
+
+    /**
+     * 按句柄解码文本
+     */
+    public synchronized String get(long handle) {
+        if (handle == NULL_HANDLE) {
+            return null;
+        }
+        ByteBuffer chunk = chunks.get((int) (handle >>> 32));
+        int offset = (int) handle;
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 已写入的字节数（含长度前缀）
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * 已分配的堆外字节数
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
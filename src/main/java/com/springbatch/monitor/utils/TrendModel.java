@@ -0,0 +1,190 @@
+package com.springbatch.monitor.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 趋势模型 - 对逐日序列做最小二乘拟合：线性趋势加星期几的季节项
+ *
+ * y(t) = a + b·t + s[星期几]，以样本中最早出现的星期几为基准（s = 0）；
+ * 某个星期几的样本少于 {@link #MIN_SEASONAL_SAMPLES} 个时不估计其季节项，
+ * 总样本不足两周时只拟合线性趋势。
+ */
+public class TrendModel {
+    private static final int MIN_SEASONAL_SAMPLES = 2;
+    private static final int MIN_SEASONAL_DAYS = 14;
+
+    private final LocalDate firstDay;
+    private final int observations;
+    private final double intercept;
+    private final double slope;
+    private final double[] seasonal;
+
+    private TrendModel(LocalDate firstDay, int observations, double intercept, double slope, double[] seasonal) {
+        this.firstDay = firstDay;
+        this.observations = observations;
+        this.intercept = intercept;
+        this.slope = slope;
+        this.seasonal = seasonal;
+    }
+
+    /**
+     * 拟合逐日序列
+     *
+     * @param values 从 firstDay 开始每天一个值，NaN 表示当天没有样本
+     * @return 没有样本时返回null
+     */
+    public static TrendModel fit(LocalDate firstDay, double[] values) {
+        int n = 0;
+        int[] weekdayCounts = new int[7];
+        int baseWeekday = -1;
+        for (int t = 0; t < values.length; t++) {
+            if (!Double.isNaN(values[t])) {
+                int weekday = weekdayIndex(firstDay, t);
+                weekdayCounts[weekday]++;
+                if (baseWeekday < 0) {
+                    baseWeekday = weekday;
+                }
+                n++;
+            }
+        }
+        if (n == 0) {
+            return null;
+        }
+
+        // 参数顺序：截距、斜率、各星期几的季节项
+        int[] parameterOfWeekday = new int[7];
+        int parameters = 2;
+        for (int weekday = 0; weekday < 7; weekday++) {
+            boolean seasonal = n >= MIN_SEASONAL_DAYS && weekday != baseWeekday
+                    && weekdayCounts[weekday] >= MIN_SEASONAL_SAMPLES;
+            parameterOfWeekday[weekday] = seasonal ? parameters++ : -1;
+        }
+
+        double[] beta = solve(firstDay, values, parameterOfWeekday, parameters);
+        if (beta == null) {
+            // 季节项与趋势共线（如只在固定几天运行），退回只拟合线性趋势
+            Arrays.fill(parameterOfWeekday, -1);
+            beta = solve(firstDay, values, parameterOfWeekday, 2);
+        }
+        double[] seasonal = new double[7];
+        if (beta == null) {
+            // 只有一个样本或样本都在同一天：常数模型
+            double sum = 0;
+            for (double value : values) {
+                if (!Double.isNaN(value)) {
+                    sum += value;
+                }
+            }
+            return new TrendModel(firstDay, n, sum / n, 0, seasonal);
+        }
+        for (int weekday = 0; weekday < 7; weekday++) {
+            if (parameterOfWeekday[weekday] >= 0) {
+                seasonal[weekday] = beta[parameterOfWeekday[weekday]];
+            }
+        }
+        return new TrendModel(firstDay, n, beta[0], beta[1], seasonal);
+    }
+
+    /**
+     * 构造并求解正规方程 XᵀX·β = Xᵀy，矩阵奇异时返回null
+     */
+    private static double[] solve(LocalDate firstDay, double[] values, int[] parameterOfWeekday, int parameters) {
+        double[][] matrix = new double[parameters][parameters + 1];
+        double[] row = new double[parameters];
+        for (int t = 0; t < values.length; t++) {
+            if (Double.isNaN(values[t])) {
+                continue;
+            }
+            Arrays.fill(row, 0);
+            row[0] = 1;
+            row[1] = t;
+            int seasonalParameter = parameterOfWeekday[weekdayIndex(firstDay, t)];
+            if (seasonalParameter >= 0) {
+                row[seasonalParameter] = 1;
+            }
+            for (int i = 0; i < parameters; i++) {
+                if (row[i] == 0) {
+                    continue;
+                }
+                for (int j = 0; j < parameters; j++) {
+                    matrix[i][j] += row[i] * row[j];
+                }
+                matrix[i][parameters] += row[i] * values[t];
+            }
+        }
+
+        // 部分主元高斯消元
+        for (int column = 0; column < parameters; column++) {
+            int pivot = column;
+            for (int i = column + 1; i < parameters; i++) {
+                if (Math.abs(matrix[i][column]) > Math.abs(matrix[pivot][column])) {
+                    pivot = i;
+                }
+            }
+            if (Math.abs(matrix[pivot][column]) < 1e-9) {
+                return null;
+            }
+            double[] swap = matrix[column];
+            matrix[column] = matrix[pivot];
+            matrix[pivot] = swap;
+            for (int i = 0; i < parameters; i++) {
+                if (i != column) {
+                    double factor = matrix[i][column] / matrix[column][column];
+                    for (int j = column; j <= parameters; j++) {
+                        matrix[i][j] -= factor * matrix[column][j];
+                    }
+                }
+            }
+        }
+        double[] beta = new double[parameters];
+        for (int i = 0; i < parameters; i++) {
+            beta[i] = matrix[i][parameters] / matrix[i][i];
+        }
+        return beta;
+    }
+
+    private static int weekdayIndex(LocalDate firstDay, int offset) {
+        return firstDay.plusDays(offset).getDayOfWeek().getValue() - 1;
+    }
+
+    /**
+     * 预测某天的值
+     */
+    public double predict(LocalDate day) {
+        long t = day.toEpochDay() - firstDay.toEpochDay();
+        return intercept + slope * t + seasonal[day.getDayOfWeek().getValue() - 1];
+    }
+
+    /**
+     * 从 from 开始的 horizonDays 天内，预测值首次超过 limit 的日期，不会超过时返回null
+     */
+    public LocalDate firstCrossing(LocalDate from, int horizonDays, double limit) {
+        for (int i = 0; i < horizonDays; i++) {
+            LocalDate day = from.plusDays(i);
+            if (predict(day) > limit) {
+                return day;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 每天的趋势变化量
+     */
+    public double getSlope() {
+        return slope;
+    }
+
+    /**
+     * 某个星期几相对基准星期几的偏移
+     */
+    public double getSeasonal(DayOfWeek dayOfWeek) {
+        return seasonal[dayOfWeek.getValue() - 1];
+    }
+
+    public int getObservations() {
+        return observations;
+    }
+}
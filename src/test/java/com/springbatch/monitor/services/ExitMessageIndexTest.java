@@ -0,0 +1,90 @@
+package com.springbatch.monitor.services;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ExitMessageIndexTest {
+
+    @Test
+    public void postingsRoundTripSortsAndDeduplicates() throws IOException {
+        ExitMessageIndex.Postings postings = new ExitMessageIndex.Postings();
+        for (long id : new long[]{42, 7, 7, 1_000_000, 42, 3, 128, 127}) {
+            postings.add(id);
+        }
+
+        assertArrayEquals(new long[]{3, 7, 42, 127, 128, 1_000_000}, roundTrip(postings));
+    }
+
+    @Test
+    public void postingsRoundTripLargeGaps() throws IOException {
+        long[] ids = {0, 1, 1L << 35, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        ExitMessageIndex.Postings postings = new ExitMessageIndex.Postings();
+        for (long id : ids) {
+            postings.add(id);
+        }
+
+        assertArrayEquals(ids, roundTrip(postings));
+    }
+
+    @Test
+    public void postingsRoundTripEmpty() throws IOException {
+        assertEquals(0, roundTrip(new ExitMessageIndex.Postings()).length);
+    }
+
+    @Test
+    public void postingsRoundTripManyIds() throws IOException {
+        ExitMessageIndex.Postings postings = new ExitMessageIndex.Postings();
+        long[] expected = new long[10_000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = 5_000_000L + i * 37L;
+        }
+        for (int i = expected.length - 1; i >= 0; i--) {
+            postings.add(expected[i]);
+        }
+
+        assertArrayEquals(expected, roundTrip(postings));
+    }
+
+    @Test
+    public void postingsReadBackAcceptsNewIds() throws IOException {
+        ExitMessageIndex.Postings postings = new ExitMessageIndex.Postings();
+        postings.add(10);
+        postings.add(20);
+        ExitMessageIndex.Postings restored = read(write(postings));
+        restored.add(15);
+        restored.add(30);
+
+        assertArrayEquals(new long[]{10, 15, 20, 30}, roundTrip(restored));
+    }
+
+    private static long[] roundTrip(ExitMessageIndex.Postings postings) throws IOException {
+        ExitMessageIndex.Postings restored = read(write(postings));
+        return Arrays.copyOf(restored.sortedIds(), restored.size);
+    }
+
+    private static byte[] write(ExitMessageIndex.Postings postings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            postings.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ExitMessageIndex.Postings read(byte[] bytes) throws IOException {
+        ExitMessageIndex.Postings postings = new ExitMessageIndex.Postings();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            postings.read(in);
+            assertEquals("trailing bytes", -1, in.read());
+        }
+        return postings;
+    }
+}
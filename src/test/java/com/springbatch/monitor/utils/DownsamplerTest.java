@@ -0,0 +1,139 @@
+package com.springbatch.monitor.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DownsamplerTest {
+
+    @Test
+    public void lttbReturnsAllValidPointsBelowThreshold() {
+        double[] y = {1, Double.NaN, 3, 4};
+        assertArrayEquals(new int[]{0, 2, 3}, Downsampler.lttb(times(4), y, 0, 4, 10));
+    }
+
+    @Test
+    public void lttbReturnsAllValidPointsForTooSmallThreshold() {
+        double[] y = wave(100);
+        assertEquals(100, Downsampler.lttb(times(100), y, 0, 100, 2).length);
+    }
+
+    @Test
+    public void lttbKeepsEndpointsAndThreshold() {
+        double[] y = wave(1000);
+        int[] selected = Downsampler.lttb(times(1000), y, 0, 1000, 50);
+
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(999, selected[selected.length - 1]);
+        assertStrictlyIncreasing(selected);
+    }
+
+    @Test
+    public void lttbKeepsSpike() {
+        double[] y = new double[1000];
+        y[517] = 100;
+        int[] selected = Downsampler.lttb(times(1000), y, 0, 1000, 20);
+
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 517));
+    }
+
+    @Test
+    public void lttbSkipsMissingPoints() {
+        double[] y = wave(500);
+        for (int i = 0; i < 500; i++) {
+            if (i < 10 || i >= 480 || i % 7 == 0) {
+                y[i] = Double.NaN;
+            }
+        }
+        int[] selected = Downsampler.lttb(times(500), y, 0, 500, 30);
+
+        assertEquals(10, selected[0]);
+        assertEquals(479, selected[selected.length - 1]);
+        assertStrictlyIncreasing(selected);
+        for (int i : selected) {
+            assertTrue(!Double.isNaN(y[i]));
+        }
+    }
+
+    @Test
+    public void lttbReturnsEmptyWhenAllMissing() {
+        double[] y = new double[100];
+        Arrays.fill(y, Double.NaN);
+        assertEquals(0, Downsampler.lttb(times(100), y, 0, 100, 10).length);
+    }
+
+    @Test
+    public void lttbStaysWithinRange() {
+        double[] y = wave(1000);
+        int[] selected = Downsampler.lttb(times(1000), y, 200, 600, 40);
+
+        assertEquals(200, selected[0]);
+        assertEquals(599, selected[selected.length - 1]);
+        assertTrue(selected.length <= 40);
+        assertStrictlyIncreasing(selected);
+    }
+
+    @Test
+    public void minMaxReturnsAllValidPointsWhenFewEnough() {
+        double[] y = {5, Double.NaN, 1, 2};
+        assertArrayEquals(new int[]{0, 2, 3}, Downsampler.minMax(y, 0, 4, 2));
+        assertArrayEquals(new int[]{0, 2, 3}, Downsampler.minMax(y, 0, 4, 0));
+    }
+
+    @Test
+    public void minMaxKeepsExtremesOfEachBucketInOrder() {
+        double[] y = {3, 9, 1, 4, 4, 4, 4, 4, 8, 2, 7, 6};
+        // 三个桶：[0, 4) 保留下标 1（最大）和 2（最小）；[4, 8) 全部相等只保留一个；[8, 12) 保留 8 和 9
+        assertArrayEquals(new int[]{1, 2, 4, 8, 9}, Downsampler.minMax(y, 0, 12, 3));
+    }
+
+    @Test
+    public void minMaxSkipsBucketsWithoutValues() {
+        double[] y = new double[12];
+        Arrays.fill(y, Double.NaN);
+        y[1] = 1;
+        y[10] = 2;
+        y[11] = -2;
+        assertArrayEquals(new int[]{1, 10, 11}, Downsampler.minMax(y, 0, 12, 3));
+    }
+
+    @Test
+    public void minMaxKeepsSpikesAndDips() {
+        double[] y = wave(10_000);
+        y[1234] = 1e6;
+        y[8765] = -1e6;
+        int[] selected = Downsampler.minMax(y, 0, 10_000, 100);
+
+        assertTrue(selected.length <= 200);
+        assertStrictlyIncreasing(selected);
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 1234));
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 8765));
+    }
+
+    private static long[] times(int count) {
+        long[] x = new long[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = 1_700_000_000_000L + i * 60_000L;
+        }
+        return x;
+    }
+
+    private static double[] wave(int count) {
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            y[i] = Math.sin(i / 20.0) * 10 + (i % 13);
+        }
+        return y;
+    }
+
+    private static void assertStrictlyIncreasing(int[] selected) {
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue("indices not increasing at " + i, selected[i] > selected[i - 1]);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.springbatch.monitor.utils;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TrendModelTest {
+    private static final double DELTA = 1e-6;
+    // 2024-01-01 是星期一
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    public void fitsLinearTrendExactly() {
+        double[] values = new double[10];
+        for (int t = 0; t < values.length; t++) {
+            values[t] = 3 + 2 * t;
+        }
+        TrendModel model = TrendModel.fit(MONDAY, values);
+
+        assertEquals(10, model.getObservations());
+        assertEquals(2, model.getSlope(), DELTA);
+        assertEquals(43, model.predict(MONDAY.plusDays(20)), DELTA);
+    }
+
+    @Test
+    public void skipsMissingDays() {
+        double[] values = new double[12];
+        for (int t = 0; t < values.length; t++) {
+            values[t] = t % 3 == 1 ? Double.NaN : 7 - 0.5 * t;
+        }
+        TrendModel model = TrendModel.fit(MONDAY, values);
+
+        assertEquals(8, model.getObservations());
+        assertEquals(-0.5, model.getSlope(), DELTA);
+        assertEquals(7 - 0.5 * 30, model.predict(MONDAY.plusDays(30)), DELTA);
+    }
+
+    @Test
+    public void separatesWeekdaySeasonFromTrend() {
+        double[] values = new double[28];
+        for (int t = 0; t < values.length; t++) {
+            DayOfWeek day = MONDAY.plusDays(t).getDayOfWeek();
+            boolean weekend = day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+            values[t] = 10 + 0.5 * t + (weekend ? 5 : 0);
+        }
+        TrendModel model = TrendModel.fit(MONDAY, values);
+
+        assertEquals(0.5, model.getSlope(), DELTA);
+        assertEquals(0, model.getSeasonal(DayOfWeek.MONDAY), DELTA);
+        assertEquals(0, model.getSeasonal(DayOfWeek.WEDNESDAY), DELTA);
+        assertEquals(5, model.getSeasonal(DayOfWeek.SATURDAY), DELTA);
+        assertEquals(5, model.getSeasonal(DayOfWeek.SUNDAY), DELTA);
+        // 2024-02-03 是星期六，t = 33
+        assertEquals(10 + 0.5 * 33 + 5, model.predict(LocalDate.of(2024, 2, 3)), DELTA);
+    }
+
+    @Test
+    public void ignoresSeasonBeforeTwoWeeksOfSamples() {
+        double[] values = new double[13];
+        for (int t = 0; t < values.length; t++) {
+            values[t] = MONDAY.plusDays(t).getDayOfWeek() == DayOfWeek.SATURDAY ? 100 : 0;
+        }
+        TrendModel model = TrendModel.fit(MONDAY, values);
+
+        assertEquals(0, model.getSeasonal(DayOfWeek.SATURDAY), DELTA);
+    }
+
+    @Test
+    public void fallsBackToConstantForSingleSample() {
+        double[] values = {Double.NaN, 42, Double.NaN};
+        TrendModel model = TrendModel.fit(MONDAY, values);
+
+        assertEquals(1, model.getObservations());
+        assertEquals(0, model.getSlope(), DELTA);
+        assertEquals(42, model.predict(MONDAY.plusDays(100)), DELTA);
+    }
+
+    @Test
+    public void returnsNullWithoutSamples() {
+        assertNull(TrendModel.fit(MONDAY, new double[]{Double.NaN, Double.NaN}));
+        assertNull(TrendModel.fit(MONDAY, new double[0]));
+    }
+
+    @Test
+    public void findsFirstCrossing() {
+        double[] values = new double[10];
+        for (int t = 0; t < values.length; t++) {
+            values[t] = t;
+        }
+        TrendModel model = TrendModel.fit(MONDAY, values);
+
+        assertEquals(MONDAY.plusDays(6), model.firstCrossing(MONDAY, 30, 5.5));
+        assertEquals(MONDAY.plusDays(12), model.firstCrossing(MONDAY.plusDays(12), 30, 5.5));
+        assertNull(model.firstCrossing(MONDAY, 5, 5.5));
+    }
+}